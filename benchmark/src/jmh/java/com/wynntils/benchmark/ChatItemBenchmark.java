@@ -0,0 +1,66 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.benchmark;
+
+import com.wynntils.wynn.item.GearItemStack;
+import com.wynntils.wynn.model.ChatItemModel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scanning of chat messages for encoded items, and encoding and decoding of the items themselves,
+ * for the gear recorded in the fixtures.
+ *
+ * <p>Inserting decoded items into a message is only covered for messages without items. With items,
+ * the hover event is filled in through a mixin accessor, which is not applied outside of the game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChatItemBenchmark {
+    private List<Component> components;
+    private List<GearItemStack> items;
+    private List<String> encodedItems;
+
+    @Setup
+    public void setup() {
+        components = Fixtures.readComponents("chat_components.jsonl");
+        items = Fixtures.readGearStacks("gear_items.jsonl").stream()
+                .map(GearItemStack::new)
+                .toList();
+        encodedItems = items.stream().map(ChatItemModel::encodeItem).toList();
+    }
+
+    @Benchmark
+    public void insertItemComponentsWithoutItems(Blackhole blackhole) {
+        for (Component component : components) {
+            blackhole.consume(ChatItemModel.insertItemComponents(component));
+        }
+    }
+
+    @Benchmark
+    public void encodeItem(Blackhole blackhole) {
+        for (GearItemStack item : items) {
+            blackhole.consume(ChatItemModel.encodeItem(item));
+        }
+    }
+
+    // Uncached, as for the first time a message with the item is shown
+    @Benchmark
+    public void decodeItem(Blackhole blackhole) {
+        for (String encodedItem : encodedItems) {
+            blackhole.consume(ChatItemModel.decodeItem(encodedItem));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.benchmark;
+
+import com.wynntils.mc.utils.ComponentUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Flattening of chat components, which is done for nearly every received chat message and tooltip line */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ComponentBenchmark {
+    private List<Component> components;
+
+    @Setup
+    public void setup() {
+        components = Fixtures.readComponents("chat_components.jsonl");
+    }
+
+    @Benchmark
+    public void getCoded(Blackhole blackhole) {
+        for (Component component : components) {
+            blackhole.consume(ComponentUtils.getCoded(component));
+        }
+    }
+
+    @Benchmark
+    public void getUnformatted(Blackhole blackhole) {
+        for (Component component : components) {
+            blackhole.consume(ComponentUtils.getUnformatted(component));
+        }
+    }
+}
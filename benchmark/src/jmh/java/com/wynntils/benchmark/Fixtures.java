@@ -0,0 +1,122 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.wynntils.core.webapi.WebManager;
+import com.wynntils.core.webapi.profiles.item.ItemProfile;
+import com.wynntils.mc.utils.ItemUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import net.minecraft.ChatFormatting;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/** Loads the benchmark fixtures bundled in src/jmh/resources/fixtures */
+public final class Fixtures {
+    private static boolean bootstrapped = false;
+    private static boolean itemListLoaded = false;
+
+    public static List<String> readLines(String name) {
+        InputStream stream = Fixtures.class.getResourceAsStream("/fixtures/" + name);
+        if (stream == null) {
+            throw new IllegalArgumentException("Missing benchmark fixture " + name);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().filter(line -> !line.isBlank()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a fixture with one item stack per line, as a JSON object with the item id, the hover
+     * name with legacy formatting codes and an optional count
+     */
+    public static List<ItemStack> readItemStacks(String name) {
+        bootstrap();
+
+        return readLines(name).stream()
+                .map(line -> {
+                    JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                    Item item = Registry.ITEM.get(new ResourceLocation(json.get("item").getAsString()));
+                    int count = json.has("count") ? json.get("count").getAsInt() : 1;
+
+                    ItemStack stack = new ItemStack(item, count);
+                    String hoverName = json.get("name").getAsString();
+                    if (!hoverName.isEmpty()) {
+                        stack.setHoverName(new TextComponent(hoverName));
+                    }
+                    return stack;
+                })
+                .toList();
+    }
+
+    /**
+     * Reads a fixture with one gear stack per line, as a JSON object with the hover name and the lore
+     * lines, both with legacy formatting codes as Wynncraft sends them. The item list fixture is loaded
+     * first, so the stacks can be parsed as gear.
+     */
+    public static List<ItemStack> readGearStacks(String name) {
+        loadItemList();
+
+        return readLines(name).stream()
+                .map(line -> {
+                    JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                    String hoverName = json.get("name").getAsString();
+                    ItemProfile itemProfile = WebManager.getItemsMap().get(ChatFormatting.stripFormatting(hoverName));
+
+                    ItemStack stack = itemProfile.getItemInfo().asItemStack();
+                    stack.setHoverName(new TextComponent(hoverName));
+
+                    ListTag lore = new ListTag();
+                    for (JsonElement loreLine : json.getAsJsonArray("lore")) {
+                        lore.add(ItemUtils.toLoreStringTag(loreLine.getAsString()));
+                    }
+                    ItemUtils.replaceLore(stack, lore);
+                    return stack;
+                })
+                .toList();
+    }
+
+    /** Reads a fixture with one serialized chat component per line */
+    public static List<Component> readComponents(String name) {
+        return readLines(name).stream()
+                .map(json -> (Component) Component.Serializer.fromJson(json))
+                .toList();
+    }
+
+    private static synchronized void bootstrap() {
+        if (bootstrapped) return;
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+    private static synchronized void loadItemList() {
+        bootstrap();
+        if (itemListLoaded) return;
+
+        List<String> lines = readLines("item_list.json");
+        WebManager.loadItemList(JsonParser.parseString(String.join("\n", lines)).getAsJsonObject());
+        itemListLoaded = true;
+    }
+}
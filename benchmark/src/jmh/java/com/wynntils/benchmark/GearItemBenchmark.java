@@ -0,0 +1,49 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.benchmark;
+
+import com.wynntils.wynn.item.GearItemStack;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.item.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of gear lore into identifications, powders and rerolls, and building the Wynntils
+ * tooltip from them, for the gear recorded in the fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GearItemBenchmark {
+    private List<ItemStack> stacks;
+
+    @Setup
+    public void setup() {
+        stacks = Fixtures.readGearStacks("gear_items.jsonl");
+    }
+
+    @Benchmark
+    public void parseLore(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(new GearItemStack(stack));
+        }
+    }
+
+    // The percentage tooltip is what is shown on hover, unless shift or control is held
+    @Benchmark
+    public void parseLoreAndBuildTooltip(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(new GearItemStack(stack).getPercentTooltip());
+        }
+    }
+}
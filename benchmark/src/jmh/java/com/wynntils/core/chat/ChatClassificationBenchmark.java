@@ -0,0 +1,51 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.chat;
+
+import com.wynntils.benchmark.Fixtures;
+import com.wynntils.mc.utils.ComponentUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classification of chat lines by recipient, which is done for every chat message. The messages are
+ * flattened in the setup, as {@link com.wynntils.benchmark.ComponentBenchmark} measures that already.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChatClassificationBenchmark {
+    private List<String> codedMessages;
+
+    @Setup
+    public void setup() {
+        codedMessages = Fixtures.readComponents("chat_components.jsonl").stream()
+                .map(ComponentUtils::getCoded)
+                .toList();
+    }
+
+    @Benchmark
+    public void getRecipientType(Blackhole blackhole) {
+        for (String codedMessage : codedMessages) {
+            blackhole.consume(ChatModel.getRecipientType(codedMessage, MessageType.NORMAL));
+        }
+    }
+
+    // Messages that arrive while in an NPC dialog, which are matched against other patterns
+    @Benchmark
+    public void getRecipientTypeBackground(Blackhole blackhole) {
+        for (String codedMessage : codedMessages) {
+            blackhole.consume(ChatModel.getRecipientType(codedMessage, MessageType.BACKGROUND));
+        }
+    }
+}
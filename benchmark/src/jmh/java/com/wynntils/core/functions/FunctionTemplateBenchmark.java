@@ -0,0 +1,101 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.functions;
+
+import com.wynntils.benchmark.Fixtures;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Evaluation of the legacy info box templates, which is done every frame for every info box.
+ *
+ * <p>Every built-in function is registered under its own name and aliases, so looking functions up
+ * costs the same as in game. Their values come from stubs, as the models behind them need a running
+ * client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FunctionTemplateBenchmark {
+    // Values for the functions used by the templates, every other function is 0. "money" is not a
+    // function, so it is left as it is, like any unknown variable.
+    private static final Map<String, Object> STUB_VALUES = Map.ofEntries(
+            Map.entry("health", 1834),
+            Map.entry("health_max", 2310),
+            Map.entry("mana", 87),
+            Map.entry("mana_max", 120),
+            Map.entry("level", 106),
+            Map.entry("xp_pct", 42.7f),
+            Map.entry("emeralds", 13370),
+            Map.entry("soulpoint", 14),
+            Map.entry("soulpoint_max", 15),
+            Map.entry("soulpoint_timer", "7:45"),
+            Map.entry("x", -1532),
+            Map.entry("y", 41),
+            Map.entry("z", -5467),
+            Map.entry("world", "WC12"));
+
+    private List<String> templates;
+
+    @Setup
+    public void setup() {
+        templates = Fixtures.readLines("legacy_templates.txt");
+
+        if (!FunctionManager.getFunctions().isEmpty()) return;
+        for (Function<?> function : FunctionManager.createFunctions()) {
+            FunctionManager.registerFunction(new StubFunction(function));
+        }
+    }
+
+    @Benchmark
+    public void getLinesFromLegacyTemplate(Blackhole blackhole) {
+        for (String template : templates) {
+            blackhole.consume(FunctionManager.getLinesFromLegacyTemplate(template));
+        }
+    }
+
+    @Benchmark
+    public void getDependenciesFromStringLegacy(Blackhole blackhole) {
+        for (String template : templates) {
+            blackhole.consume(FunctionManager.getDependenciesFromStringLegacy(template));
+        }
+    }
+
+    private static final class StubFunction extends Function<Object> {
+        private final String name;
+        private final List<String> aliases;
+        private final Object value;
+
+        private StubFunction(Function<?> function) {
+            this.name = function.getName();
+            this.aliases = function.getAliases();
+            this.value = STUB_VALUES.getOrDefault(name, 0);
+        }
+
+        @Override
+        public Object getValue(String argument) {
+            return value;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public List<String> getAliases() {
+            return aliases;
+        }
+    }
+}
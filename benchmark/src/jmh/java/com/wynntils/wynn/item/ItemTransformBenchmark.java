@@ -0,0 +1,48 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.item;
+
+import com.wynntils.benchmark.Fixtures;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.item.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classification of slot contents into Wynntils item stacks, which is done for every slot update.
+ * Gear is included, so this also parses the lore of every gear stack.
+ *
+ * <p>Only the transformers are covered. Most property matchers read the tooltip through
+ * {@code ItemUtils.getTooltipLines}, which needs the game options of a running client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemTransformBenchmark {
+    private List<ItemStack> stacks;
+
+    @Setup
+    public void setup() {
+        stacks = new ArrayList<>(Fixtures.readGearStacks("gear_items.jsonl"));
+        stacks.addAll(Fixtures.readItemStacks("slot_items.jsonl"));
+
+        ItemStackTransformModel.init();
+    }
+
+    @Benchmark
+    public void transform(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(ItemStackTransformModel.transform(stack));
+        }
+    }
+}
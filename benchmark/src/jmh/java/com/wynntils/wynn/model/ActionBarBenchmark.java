@@ -0,0 +1,40 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model;
+
+import com.wynntils.benchmark.Fixtures;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scanning of changed action bars for health, mana and the center text. Posting the update events
+ * needs the event bus of a running mod, so the event handler itself is not covered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ActionBarBenchmark {
+    private List<String> actionBars;
+
+    @Setup
+    public void setup() {
+        actionBars = Fixtures.readLines("action_bars.txt");
+    }
+
+    @Benchmark
+    public void scanActionBar(Blackhole blackhole) {
+        for (String actionBar : actionBars) {
+            blackhole.consume(ActionBarModel.scanActionBar(actionBar));
+        }
+    }
+}
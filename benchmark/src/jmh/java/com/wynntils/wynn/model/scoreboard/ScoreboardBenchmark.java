@@ -0,0 +1,45 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.scoreboard;
+
+import com.wynntils.benchmark.Fixtures;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Splitting of the scoreboard into segments, which is done whenever a batch of scoreboard changes
+ * has been applied. The fixture is a full scoreboard with every kind of segment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScoreboardBenchmark {
+    private List<ScoreboardLine> scoreboard;
+
+    @Setup
+    public void setup() {
+        List<String> lines = Fixtures.readLines("scoreboard.txt");
+
+        // Wynncraft scores the lines from the bottom up
+        scoreboard = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            scoreboard.add(new ScoreboardLine(lines.get(i), lines.size() - i));
+        }
+    }
+
+    @Benchmark
+    public void calculateSegments(Blackhole blackhole) {
+        blackhole.consume(ScoreboardModel.calculateSegments(scoreboard));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.commands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.core.commands.CommandBase;
+import com.wynntils.core.replay.PacketRecorder;
+import com.wynntils.core.replay.PacketReplayer;
+import com.wynntils.core.replay.PacketReplayer.ListenerTiming;
+import com.wynntils.core.replay.PacketReplayer.ReplayReport;
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.stream.Stream;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.TextComponent;
+
+/** Development-only command for recording and replaying inbound packets */
+public class PacketCommand extends CommandBase {
+    private static final SuggestionProvider<CommandSourceStack> RECORDING_SUGGESTION_PROVIDER =
+            (context, suggestions) -> SharedSuggestionProvider.suggest(
+                    Stream.of(Objects.requireNonNullElse(PacketRecorder.RECORDINGS.list(), new String[0]))
+                            .filter(name -> name.endsWith(PacketRecorder.FILE_SUFFIX))
+                            .map(name -> name.substring(0, name.length() - PacketRecorder.FILE_SUFFIX.length())),
+                    suggestions);
+
+    @Override
+    public LiteralArgumentBuilder<CommandSourceStack> getBaseCommandBuilder() {
+        return Commands.literal("packets")
+                .then(Commands.literal("record")
+                        .then(Commands.argument("name", StringArgumentType.word())
+                                .executes(this::startRecording)))
+                .then(Commands.literal("stop").executes(this::stopRecording))
+                .then(Commands.literal("replay")
+                        .then(Commands.argument("name", StringArgumentType.word())
+                                .suggests(RECORDING_SUGGESTION_PROVIDER)
+                                .executes(this::replay)));
+    }
+
+    private int startRecording(CommandContext<CommandSourceStack> context) {
+        String name = StringArgumentType.getString(context, "name");
+
+        try {
+            PacketRecorder.start(name);
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to start packet recording", e);
+            context.getSource()
+                    .sendFailure(new TextComponent("Could not start recording: " + e.getMessage())
+                            .withStyle(ChatFormatting.RED));
+            return 0;
+        }
+
+        context.getSource()
+                .sendSuccess(
+                        new TextComponent("Recording packets to " + PacketRecorder.getOutputFile().getName())
+                                .withStyle(ChatFormatting.GREEN),
+                        false);
+        return 1;
+    }
+
+    private int stopRecording(CommandContext<CommandSourceStack> context) {
+        if (!PacketRecorder.isRecording()) {
+            context.getSource().sendFailure(new TextComponent("Not recording").withStyle(ChatFormatting.RED));
+            return 0;
+        }
+
+        int packetCount = PacketRecorder.stop();
+        context.getSource()
+                .sendSuccess(
+                        new TextComponent("Recorded " + packetCount + " packets to "
+                                        + PacketRecorder.getOutputFile().getName())
+                                .withStyle(ChatFormatting.GREEN),
+                        false);
+        return 1;
+    }
+
+    private int replay(CommandContext<CommandSourceStack> context) {
+        String name = StringArgumentType.getString(context, "name");
+        File file = new File(PacketRecorder.RECORDINGS, name + PacketRecorder.FILE_SUFFIX);
+
+        if (!file.exists()) {
+            context.getSource()
+                    .sendFailure(new TextComponent("No recording named " + name).withStyle(ChatFormatting.RED));
+            return 0;
+        }
+
+        ReplayReport report;
+        try {
+            report = PacketReplayer.replay(file);
+        } catch (IOException | IllegalStateException e) {
+            WynntilsMod.error("Failed to replay " + file.getName(), e);
+            context.getSource()
+                    .sendFailure(new TextComponent("Could not replay recording: " + e.getMessage())
+                            .withStyle(ChatFormatting.RED));
+            return 0;
+        }
+
+        context.getSource().sendSuccess(getReportComponent(report), false);
+        logReport(file, report);
+        return 1;
+    }
+
+    private static MutableComponent getReportComponent(ReplayReport report) {
+        MutableComponent response = new TextComponent("Replayed " + report.packetCount() + " packets ("
+                        + report.recordedMillis() / 1000 + "s recorded) in " + report.replayNanos() / 1_000_000
+                        + "ms")
+                .withStyle(ChatFormatting.GOLD);
+
+        if (report.failedCount() > 0) {
+            response.append(new TextComponent(", " + report.failedCount() + " failed").withStyle(ChatFormatting.RED));
+        }
+
+        for (String line : report.modelState()) {
+            response.append(new TextComponent("\n- " + line).withStyle(ChatFormatting.GRAY));
+        }
+
+        return response.append(new TextComponent("\nTimings were written to the log").withStyle(ChatFormatting.GRAY));
+    }
+
+    private static void logReport(File file, ReplayReport report) {
+        StringBuilder sb = new StringBuilder("[Packet replay] ")
+                .append(file.getName())
+                .append(": ")
+                .append(report.packetCount())
+                .append(" packets, ")
+                .append(report.failedCount())
+                .append(" failed, ")
+                .append(report.replayNanos() / 1_000_000)
+                .append("ms");
+
+        for (ListenerTiming timing : report.timings()) {
+            sb.append(String.format(
+                    "%n%-40s count=%-8d total=%.2fms avg=%.1fus max=%.1fus",
+                    timing.getListenerName(),
+                    timing.getCount(),
+                    timing.getTotalNanos() / 1_000_000.0,
+                    timing.getTotalNanos() / 1_000.0 / timing.getCount(),
+                    timing.getMaxNanos() / 1_000.0));
+        }
+
+        for (String line : report.modelState()) {
+            sb.append("\n").append(line);
+        }
+
+        WynntilsMod.info(sb.toString());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.commands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.wynntils.core.commands.CommandBase;
+import com.wynntils.core.managers.ManagerRegistry;
+import com.wynntils.mc.objects.CommonColors;
+import com.wynntils.mc.objects.CustomColor;
+import com.wynntils.mc.objects.Location;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.wynn.model.waypoints.Waypoint;
+import com.wynntils.wynn.model.waypoints.WaypointModel;
+import java.util.List;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.TextComponent;
+
+public class WaypointCommand extends CommandBase {
+    private static final CustomColor DEFAULT_COLOR = CommonColors.ORANGE;
+
+    private final SuggestionProvider<CommandSourceStack> waypointSuggestionProvider =
+            (context, builder) -> SharedSuggestionProvider.suggest(
+                    WaypointModel.getCustomWaypoints().stream().map(Waypoint::getName), builder);
+
+    @Override
+    public LiteralArgumentBuilder<CommandSourceStack> getBaseCommandBuilder() {
+        return Commands.literal("waypoint")
+                .then(Commands.literal("add")
+                        .then(Commands.argument("name", StringArgumentType.word())
+                                .then(Commands.argument("color", StringArgumentType.word())
+                                        .executes(this::addWaypointWithColor))
+                                .executes(this::addWaypoint)))
+                .then(Commands.literal("remove")
+                        .then(Commands.argument("name", StringArgumentType.word())
+                                .suggests(waypointSuggestionProvider)
+                                .executes(this::removeWaypoint)))
+                .then(Commands.literal("list").executes(this::listWaypoints))
+                .then(Commands.literal("clear").executes(this::clearWaypoints))
+                .executes(this::syntaxError);
+    }
+
+    private int addWaypoint(CommandContext<CommandSourceStack> context) {
+        return addWaypoint(context, DEFAULT_COLOR);
+    }
+
+    private int addWaypointWithColor(CommandContext<CommandSourceStack> context) {
+        CustomColor color = CustomColor.fromHexString(StringArgumentType.getString(context, "color"));
+        if (color == CustomColor.NONE) {
+            context.getSource()
+                    .sendFailure(new TextComponent("Colors are written as #rrggbb").withStyle(ChatFormatting.RED));
+            return 0;
+        }
+
+        return addWaypoint(context, color);
+    }
+
+    private int addWaypoint(CommandContext<CommandSourceStack> context, CustomColor color) {
+        if (!checkEnabled(context)) return 0;
+
+        String name = StringArgumentType.getString(context, "name");
+        Location location = new Location(McUtils.player().blockPosition());
+        WaypointModel.addCustomWaypoint(name, location, color);
+
+        MutableComponent response =
+                new TextComponent("Waypoint " + name + " set to ").withStyle(ChatFormatting.AQUA);
+        response.append(new TextComponent(location.toString()).withStyle(ChatFormatting.WHITE));
+        context.getSource().sendSuccess(response, false);
+        return 1;
+    }
+
+    private int removeWaypoint(CommandContext<CommandSourceStack> context) {
+        if (!checkEnabled(context)) return 0;
+
+        String name = StringArgumentType.getString(context, "name");
+        if (!WaypointModel.removeCustomWaypoint(name)) {
+            context.getSource()
+                    .sendFailure(new TextComponent("There is no waypoint named " + name).withStyle(ChatFormatting.RED));
+            return 0;
+        }
+
+        context.getSource()
+                .sendSuccess(new TextComponent("Waypoint " + name + " removed").withStyle(ChatFormatting.AQUA), false);
+        return 1;
+    }
+
+    private int listWaypoints(CommandContext<CommandSourceStack> context) {
+        if (!checkEnabled(context)) return 0;
+
+        List<Waypoint> waypoints = WaypointModel.getCustomWaypoints();
+        if (waypoints.isEmpty()) {
+            context.getSource()
+                    .sendSuccess(new TextComponent("You have no waypoints").withStyle(ChatFormatting.AQUA), false);
+            return 1;
+        }
+
+        MutableComponent response = new TextComponent("Waypoints:").withStyle(ChatFormatting.AQUA);
+        for (Waypoint waypoint : waypoints) {
+            // Custom waypoints only get their location on the next tick after being added
+            String location = waypoint.getLocation() == null ? "" : waypoint.getLocation().toString();
+
+            response.append(new TextComponent("\n - " + waypoint.getName() + " ")
+                            .withStyle(style -> style.withColor(waypoint.getColor().asInt() & 0xFFFFFF)))
+                    .append(new TextComponent(location).withStyle(ChatFormatting.WHITE));
+        }
+        context.getSource().sendSuccess(response, false);
+        return 1;
+    }
+
+    private int clearWaypoints(CommandContext<CommandSourceStack> context) {
+        if (!checkEnabled(context)) return 0;
+
+        WaypointModel.clearCustomWaypoints();
+
+        context.getSource()
+                .sendSuccess(new TextComponent("Waypoints cleared").withStyle(ChatFormatting.AQUA), false);
+        return 1;
+    }
+
+    private static boolean checkEnabled(CommandContext<CommandSourceStack> context) {
+        if (ManagerRegistry.isEnabled(WaypointModel.class)) return true;
+
+        context.getSource()
+                .sendFailure(new TextComponent("Waypoints need the Beacon Beam or Waypoint Distance feature")
+                        .withStyle(ChatFormatting.RED));
+        return false;
+    }
+
+    private int syntaxError(CommandContext<CommandSourceStack> context) {
+        context.getSource().sendFailure(new TextComponent("Missing argument").withStyle(ChatFormatting.RED));
+        return 0;
+    }
+}
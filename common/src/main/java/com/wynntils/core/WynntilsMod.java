@@ -19,6 +19,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,13 +28,16 @@ public final class WynntilsMod {
     public static final String MOD_ID = "wynntils";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
-    private static final File MOD_STORAGE_ROOT = new File(McUtils.mc().gameDirectory, MOD_ID);
+    // Resolved on first use, so this class can be loaded without a running client
+    private static File modStorageRoot = null;
 
     private static ModLoader modLoader;
     private static String version = "";
     private static boolean developmentBuild = false;
     private static boolean developmentEnvironment;
     private static IEventBus eventBus;
+    // Only set while packets are replayed, to time every listener on its own
+    private static volatile IEventBusInvokeDispatcher invokeDispatcher = null;
     private static File modJar;
 
     public static ModLoader getModLoader() {
@@ -48,9 +52,14 @@ public final class WynntilsMod {
         eventBus.register(object);
     }
 
+    public static void setInvokeDispatcher(IEventBusInvokeDispatcher dispatcher) {
+        invokeDispatcher = dispatcher;
+    }
+
     public static boolean postEvent(Event event) {
+        IEventBusInvokeDispatcher dispatcher = invokeDispatcher;
         try {
-            return eventBus.post(event);
+            return dispatcher == null ? eventBus.post(event) : eventBus.post(event, dispatcher);
         } catch (Throwable t) {
             handleExceptionInEventListener(t, event);
             return false;
@@ -118,7 +127,11 @@ public final class WynntilsMod {
     }
 
     public static File getModStorageDir(String dirName) {
-        return new File(MOD_STORAGE_ROOT, dirName);
+        if (modStorageRoot == null) {
+            modStorageRoot = new File(McUtils.mc().gameDirectory, MOD_ID);
+        }
+
+        return new File(modStorageRoot, dirName);
     }
 
     public static Logger getLogger() {
@@ -210,19 +210,23 @@ public final class ChatModel extends Model {
         }
     }
 
-    private static RecipientType getRecipientType(Component message, MessageType messageType) {
-        String msg = ComponentUtils.getCoded(message);
-
+    /**
+     * Classifies a chat line by who it was sent to. Messages that match no recipient are "info"
+     * messages.
+     *
+     * @param codedMessage the message with legacy formatting codes, as from {@link ComponentUtils#getCoded}
+     */
+    static RecipientType getRecipientType(String codedMessage, MessageType messageType) {
         // Check if message match a recipient category
         if (messageType == MessageType.SYSTEM) {
             // System type messages can only be shouts or "info" messages
             // We call this MessageType.NORMAL anyway...
-            if (RecipientType.SHOUT.matchPattern(msg, MessageType.NORMAL)) {
+            if (RecipientType.SHOUT.matchPattern(codedMessage, MessageType.NORMAL)) {
                 return RecipientType.SHOUT;
             }
         } else {
             for (RecipientType recipientType : RecipientType.values()) {
-                if (recipientType.matchPattern(msg, messageType)) {
+                if (recipientType.matchPattern(codedMessage, messageType)) {
                     return recipientType;
                 }
             }
@@ -237,7 +241,7 @@ public final class ChatModel extends Model {
      * message entirely.
      */
     private static Component handleChatLine(Component message, String codedMessage, MessageType messageType) {
-        RecipientType recipientType = getRecipientType(message, messageType);
+        RecipientType recipientType = getRecipientType(codedMessage, messageType);
 
         ChatMessageReceivedEvent event =
                 new ChatMessageReceivedEvent(message, codedMessage, messageType, recipientType);
@@ -16,17 +16,21 @@ import com.wynntils.commands.FeatureCommand;
 import com.wynntils.commands.FunctionCommand;
 import com.wynntils.commands.LocateCommand;
 import com.wynntils.commands.LootrunCommand;
+import com.wynntils.commands.PacketCommand;
 import com.wynntils.commands.ServerCommand;
 import com.wynntils.commands.TerritoryCommand;
 import com.wynntils.commands.TokenCommand;
 import com.wynntils.commands.UpdateCommand;
+import com.wynntils.commands.WaypointCommand;
 import com.wynntils.commands.WynntilsCommand;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.managers.CoreManager;
 import com.wynntils.mc.utils.McUtils;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import net.minecraft.ChatFormatting;
@@ -49,6 +53,16 @@ public final class ClientCommandManager extends CoreManager {
     private static final Set<CommandBase> commandInstanceSet = new HashSet<>();
     private static final CommandDispatcher<CommandSourceStack> clientDispatcher = new CommandDispatcher<>();
 
+    private static final int PARSE_CACHE_SIZE = 32;
+    private static final Map<ParseKey, ParseResults<CommandSourceStack>> parseCache =
+            new LinkedHashMap<>(PARSE_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ParseKey, ParseResults<CommandSourceStack>> eldest) {
+                    return size() > PARSE_CACHE_SIZE;
+                }
+            };
+    private static LocalPlayer parseCachePlayer = null;
+
     public static CommandDispatcher<CommandSourceStack> getClientDispatcher() {
         return clientDispatcher;
     }
@@ -65,12 +79,18 @@ public final class ClientCommandManager extends CoreManager {
         registerCommand(new ServerCommand());
         registerCommand(new TerritoryCommand());
         registerCommand(new TokenCommand());
+        registerCommand(new WaypointCommand());
         registerCommand(new WynntilsCommand());
+
+        if (WynntilsMod.isDevelopmentEnvironment()) {
+            registerCommand(new PacketCommand());
+        }
     }
 
     private static void registerCommand(CommandBase command) {
         commandInstanceSet.add(command);
         command.register(clientDispatcher);
+        parseCache.clear();
     }
 
     public static boolean handleCommand(String message) {
@@ -78,9 +98,42 @@ public final class ClientCommandManager extends CoreManager {
 
         StringReader reader = new StringReader(message);
         reader.skip();
+
+        // Most commands sent are server commands, don't bother parsing them
+        if (!isClientCommandLiteral(reader)) return false;
+
         return ClientCommandManager.executeCommand(reader, message);
     }
 
+    /**
+     * Parses the command for suggestion purposes. Results are cached for recently typed inputs,
+     * so repeated updates of the same input (like moving the cursor) do not parse it again.
+     */
+    public static ParseResults<CommandSourceStack> parseForSuggestions(StringReader command) {
+        LocalPlayer player = McUtils.player();
+        if (player != parseCachePlayer) {
+            // Results hold a reference to the command source, which must not outlive the player
+            parseCache.clear();
+            parseCachePlayer = player;
+        }
+
+        ParseKey key = new ParseKey(command.getString(), command.getCursor());
+        ParseResults<CommandSourceStack> cached = parseCache.get(key);
+        if (cached != null) return cached;
+
+        ParseResults<CommandSourceStack> parse = clientDispatcher.parse(command, getSource());
+        parseCache.put(key, parse);
+        return parse;
+    }
+
+    private static boolean isClientCommandLiteral(StringReader reader) {
+        String input = reader.getRemaining();
+        int end = input.indexOf(' ');
+        String literal = end == -1 ? input : input.substring(0, end);
+
+        return clientDispatcher.getRoot().getChild(literal) != null;
+    }
+
     public static CompletableFuture<Suggestions> getCompletionSuggestions(
             String cmd,
             CommandDispatcher<SharedSuggestionProvider> serverDispatcher,
@@ -174,4 +227,6 @@ public final class ClientCommandManager extends CoreManager {
     public static Set<CommandBase> getCommandInstanceSet() {
         return commandInstanceSet;
     }
+
+    private record ParseKey(String input, int cursor) {}
 }
@@ -15,6 +15,8 @@ import com.wynntils.core.managers.CrashReportManager;
 import com.wynntils.features.debug.ConnectionProgressFeature;
 import com.wynntils.features.debug.LogItemInfoFeature;
 import com.wynntils.features.debug.PacketDebuggerFeature;
+import com.wynntils.features.debug.PacketRecorderFeature;
+import com.wynntils.features.debug.SlotDecorationStatsFeature;
 import com.wynntils.features.statemanaged.DataStorageFeature;
 import com.wynntils.features.statemanaged.FixSpellOverwriteFeature;
 import com.wynntils.features.statemanaged.LootrunFeature;
@@ -113,6 +115,8 @@ public final class FeatureRegistry {
         registerFeature(new ConnectionProgressFeature());
         registerFeature(new LogItemInfoFeature());
         registerFeature(new PacketDebuggerFeature());
+        registerFeature(new PacketRecorderFeature());
+        registerFeature(new SlotDecorationStatsFeature());
 
         // always on
         registerFeature(new FixSpellOverwriteFeature());
@@ -6,4 +6,10 @@ package com.wynntils.core.functions;
 
 import com.wynntils.core.features.ModelDependant;
 
-public abstract class DependantFunction<T> extends Function<T> implements ModelDependant {}
+public abstract class DependantFunction<T> extends Function<T> implements ModelDependant {
+    public DependantFunction() {}
+
+    protected DependantFunction(String name) {
+        super(name);
+    }
+}
@@ -14,7 +14,18 @@ public abstract class Function<T> implements Translatable {
     private final String translationName;
 
     public Function() {
-        String name = this.getClass().getSimpleName().replace("Function", "");
+        this(null);
+    }
+
+    /**
+     * @param name the name in upper camel case, for functions created from a table instead of one class each;
+     *             null to name the function after its class
+     */
+    protected Function(String name) {
+        if (name == null) {
+            name = this.getClass().getSimpleName().replace("Function", "");
+        }
+
         this.name = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name);
         this.translationName = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL, name);
     }
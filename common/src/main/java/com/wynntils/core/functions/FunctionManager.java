@@ -7,11 +7,15 @@ package com.wynntils.core.functions;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.managers.CoreManager;
 import com.wynntils.core.managers.ManagerRegistry;
+import com.wynntils.functions.BossBarFunctions;
 import com.wynntils.functions.CharacterFunctions;
 import com.wynntils.functions.EnvironmentFunctions;
 import com.wynntils.functions.HorseFunctions;
+import com.wynntils.functions.InventoryFunctions;
 import com.wynntils.functions.LootrunFunctions;
 import com.wynntils.functions.MinecraftFunctions;
+import com.wynntils.functions.QuestFunctions;
+import com.wynntils.functions.WaypointFunctions;
 import com.wynntils.functions.WorldFunction;
 import com.wynntils.mc.utils.McUtils;
 import com.wynntils.wynn.objects.EmeraldSymbols;
@@ -36,7 +40,7 @@ public final class FunctionManager extends CoreManager {
     private static final Set<ActiveFunction<?>> ENABLED_FUNCTIONS = new HashSet<>();
     private static final Set<Function<?>> CRASHED_FUNCTIONS = new HashSet<>();
 
-    private static void registerFunction(Function<?> function) {
+    static void registerFunction(Function<?> function) {
         FUNCTIONS.add(function);
         if (function instanceof ActiveFunction<?> activeFunction) {
             activeFunction.init();
@@ -295,48 +299,62 @@ public final class FunctionManager extends CoreManager {
     // endregion
 
     public static void init() {
-        registerFunction(new WorldFunction());
-
-        registerFunction(new CharacterFunctions.SoulpointFunction());
-        registerFunction(new CharacterFunctions.SoulpointMaxFunction());
-        registerFunction(new CharacterFunctions.SoulpointTimerFunction());
-        registerFunction(new CharacterFunctions.SoulpointTimerMFunction());
-        registerFunction(new CharacterFunctions.SoulpointTimerSFunction());
-        registerFunction(new CharacterFunctions.ClassFunction());
-        registerFunction(new CharacterFunctions.ManaFunction());
-        registerFunction(new CharacterFunctions.ManaMaxFunction());
-        registerFunction(new CharacterFunctions.ManaPctFunction());
-        registerFunction(new CharacterFunctions.HealthFunction());
-        registerFunction(new CharacterFunctions.HealthMaxFunction());
-        registerFunction(new CharacterFunctions.HealthPctFunction());
-        registerFunction(new CharacterFunctions.LevelFunction());
-        registerFunction(new CharacterFunctions.XpFunction());
-        registerFunction(new CharacterFunctions.XpRawFunction());
-        registerFunction(new CharacterFunctions.XpReqFunction());
-        registerFunction(new CharacterFunctions.XpReqRawFunction());
-        registerFunction(new CharacterFunctions.XpPctFunction());
-        registerFunction(new CharacterFunctions.BpsFunction());
-        registerFunction(new CharacterFunctions.BpsXzFunction());
-
-        registerFunction(new EnvironmentFunctions.ClockFunction());
-        registerFunction(new EnvironmentFunctions.ClockmFunction());
-        registerFunction(new EnvironmentFunctions.MemMaxFunction());
-        registerFunction(new EnvironmentFunctions.MemUsedFunction());
-        registerFunction(new EnvironmentFunctions.MemPctFunction());
-
-        registerFunction(new HorseFunctions.HorseLevelFunction());
-        registerFunction(new HorseFunctions.HorseLevelMaxFunction());
-        registerFunction(new HorseFunctions.HorseXpFunction());
-        registerFunction(new HorseFunctions.HorseTierFunction());
-        registerFunction(new HorseFunctions.HorseNameFunction());
-
-        registerFunction(new LootrunFunctions.DryBoxesFunction());
-        registerFunction(new LootrunFunctions.DryStreakFunction());
-
-        registerFunction(new MinecraftFunctions.XFunction());
-        registerFunction(new MinecraftFunctions.YFunction());
-        registerFunction(new MinecraftFunctions.ZFunction());
-        registerFunction(new MinecraftFunctions.DirFunction());
-        registerFunction(new MinecraftFunctions.FpsFunction());
+        createFunctions().forEach(FunctionManager::registerFunction);
+    }
+
+    // Package-private, so the benchmarks can look the functions up by name without their models
+    static List<Function<?>> createFunctions() {
+        List<Function<?>> functions = new ArrayList<>(List.of(
+                new WorldFunction(),
+                new CharacterFunctions.SoulpointFunction(),
+                new CharacterFunctions.SoulpointMaxFunction(),
+                new CharacterFunctions.SoulpointTimerFunction(),
+                new CharacterFunctions.SoulpointTimerMFunction(),
+                new CharacterFunctions.SoulpointTimerSFunction(),
+                new CharacterFunctions.ClassFunction(),
+                new CharacterFunctions.ManaFunction(),
+                new CharacterFunctions.ManaMaxFunction(),
+                new CharacterFunctions.ManaPctFunction(),
+                new CharacterFunctions.HealthFunction(),
+                new CharacterFunctions.HealthMaxFunction(),
+                new CharacterFunctions.HealthPctFunction(),
+                new CharacterFunctions.LevelFunction(),
+                new CharacterFunctions.XpFunction(),
+                new CharacterFunctions.XpRawFunction(),
+                new CharacterFunctions.XpReqFunction(),
+                new CharacterFunctions.XpReqRawFunction(),
+                new CharacterFunctions.XpPctFunction(),
+                new CharacterFunctions.BpsFunction(),
+                new CharacterFunctions.BpsXzFunction(),
+                new EnvironmentFunctions.ClockFunction(),
+                new EnvironmentFunctions.ClockmFunction(),
+                new EnvironmentFunctions.MemMaxFunction(),
+                new EnvironmentFunctions.MemUsedFunction(),
+                new EnvironmentFunctions.MemPctFunction(),
+                new HorseFunctions.HorseLevelFunction(),
+                new HorseFunctions.HorseLevelMaxFunction(),
+                new HorseFunctions.HorseXpFunction(),
+                new HorseFunctions.HorseTierFunction(),
+                new HorseFunctions.HorseNameFunction(),
+                new InventoryFunctions.EmeraldsFunction(),
+                new InventoryFunctions.PouchEmeraldsFunction(),
+                new InventoryFunctions.IngredientsFunction(),
+                new InventoryFunctions.PowdersFunction(),
+                new LootrunFunctions.DryBoxesFunction(),
+                new LootrunFunctions.DryStreakFunction(),
+                new MinecraftFunctions.XFunction(),
+                new MinecraftFunctions.YFunction(),
+                new MinecraftFunctions.ZFunction(),
+                new MinecraftFunctions.DirFunction(),
+                new MinecraftFunctions.FpsFunction(),
+                new QuestFunctions.NearestQuestFunction(),
+                new QuestFunctions.NearestQuestDistanceFunction(),
+                new QuestFunctions.AvailableQuestsFunction(),
+                new WaypointFunctions.NearestWaypointFunction(),
+                new WaypointFunctions.NearestWaypointDistanceFunction(),
+                new WaypointFunctions.WaypointsFunction()));
+        functions.addAll(BossBarFunctions.createFunctions());
+
+        return functions;
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.replay;
+
+import com.wynntils.mc.EventFactory;
+import com.wynntils.wynn.model.scoreboard.ScoreboardModel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import net.minecraft.client.gui.components.LerpingBossEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundBossEventPacket;
+import net.minecraft.network.protocol.game.ClientboundChatPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerClosePacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetContentPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
+import net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket;
+import net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket;
+import net.minecraft.network.protocol.game.ClientboundSetScorePacket;
+import net.minecraft.network.protocol.game.ClientboundSetSubtitleTextPacket;
+import net.minecraft.network.protocol.game.ClientboundSetTitleTextPacket;
+import net.minecraft.network.protocol.game.ClientboundTabListPacket;
+import net.minecraft.world.BossEvent;
+
+/**
+ * Posts the same Wynntils events for a replayed packet as {@code ClientPacketListenerMixin} and
+ * {@code BossHealthOverlayMixin} do for a live one, without handing the packet to Minecraft.
+ * Nothing reaches the level, the player or the open screen, so a replay cannot affect a session.
+ *
+ * <p>Recorded packets without a Wynntils event (objectives, title animations and the action bar
+ * packet) are ignored. Events must be posted on the render thread, like live ones. Score changes are
+ * processed on recorded time, in the batches the scoreboard model would see in game.
+ */
+public final class EventPacketSink implements PacketSink {
+    // Stands in for the boss bars of the boss health overlay, which boss bar listeners read
+    private final Map<UUID, LerpingBossEvent> bossEvents = new HashMap<>();
+    private long lastScoreboardUpdate = 0;
+
+    @Override
+    public void accept(Packet<?> packet) {
+        if (packet instanceof ClientboundChatPacket chatPacket) {
+            EventFactory.onChatReceived(chatPacket.getType(), chatPacket.getMessage());
+        } else if (packet instanceof ClientboundSetScorePacket scorePacket) {
+            EventFactory.onSetScore(scorePacket);
+        } else if (packet instanceof ClientboundSetPlayerTeamPacket teamPacket) {
+            EventFactory.onSetPlayerTeam(teamPacket);
+        } else if (packet instanceof ClientboundTabListPacket tabListPacket) {
+            EventFactory.onTabListCustomisation(tabListPacket);
+        } else if (packet instanceof ClientboundPlayerInfoPacket playerInfoPacket) {
+            EventFactory.onPlayerInfoPacket(playerInfoPacket);
+        } else if (packet instanceof ClientboundOpenScreenPacket openScreenPacket) {
+            EventFactory.onOpenScreen(openScreenPacket);
+        } else if (packet instanceof ClientboundContainerSetContentPacket contentPacket) {
+            if (EventFactory.onContainerSetContentPre(contentPacket).isCanceled()) return;
+
+            EventFactory.onContainerSetContentPost(contentPacket);
+        } else if (packet instanceof ClientboundContainerSetSlotPacket slotPacket) {
+            EventFactory.onContainerSetSlot(slotPacket);
+        } else if (packet instanceof ClientboundContainerClosePacket closePacket) {
+            EventFactory.onClientboundContainerClosePacket(closePacket.getContainerId());
+        } else if (packet instanceof ClientboundSetTitleTextPacket titlePacket) {
+            EventFactory.onTitleSetText(titlePacket);
+        } else if (packet instanceof ClientboundSetSubtitleTextPacket subtitlePacket) {
+            EventFactory.onSubtitleSetText(subtitlePacket);
+        } else if (packet instanceof ClientboundBossEventPacket bossPacket) {
+            if (EventFactory.onBossHealthUpdate(bossPacket, bossEvents).isCanceled()) return;
+
+            bossPacket.dispatch(new BossEventUpdater());
+        }
+    }
+
+    @Override
+    public void onRecordedTime(long recordedMillis) {
+        if (recordedMillis - lastScoreboardUpdate < ScoreboardModel.CHANGE_PROCESS_RATE) return;
+
+        lastScoreboardUpdate = recordedMillis;
+        ScoreboardModel.processQueuedChanges();
+    }
+
+    /** Processes the score changes still queued at the end of the replay */
+    public void finish() {
+        ScoreboardModel.processQueuedChanges();
+    }
+
+    /** Applies boss bar changes the way the boss health overlay does */
+    private final class BossEventUpdater implements ClientboundBossEventPacket.Handler {
+        @Override
+        public void add(
+                UUID id,
+                Component name,
+                float progress,
+                BossEvent.BossBarColor color,
+                BossEvent.BossBarOverlay overlay,
+                boolean darkenScreen,
+                boolean playMusic,
+                boolean createWorldFog) {
+            bossEvents.put(
+                    id,
+                    new LerpingBossEvent(id, name, progress, color, overlay, darkenScreen, playMusic, createWorldFog));
+        }
+
+        @Override
+        public void remove(UUID id) {
+            bossEvents.remove(id);
+        }
+
+        @Override
+        public void updateProgress(UUID id, float progress) {
+            LerpingBossEvent event = bossEvents.get(id);
+            if (event != null) event.setProgress(progress);
+        }
+
+        @Override
+        public void updateName(UUID id, Component name) {
+            LerpingBossEvent event = bossEvents.get(id);
+            if (event != null) event.setName(name);
+        }
+
+        @Override
+        public void updateStyle(UUID id, BossEvent.BossBarColor color, BossEvent.BossBarOverlay overlay) {
+            LerpingBossEvent event = bossEvents.get(id);
+            if (event == null) return;
+
+            event.setColor(color);
+            event.setOverlay(overlay);
+        }
+    }
+}
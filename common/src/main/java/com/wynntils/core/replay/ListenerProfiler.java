@@ -0,0 +1,83 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.replay;
+
+import com.wynntils.core.replay.PacketReplayer.ListenerTiming;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
+import net.minecraftforge.eventbus.api.IEventListener;
+
+/**
+ * Times every event listener invoked on the replaying thread. Listeners that post events of their own
+ * are only charged for their own time, the nested listeners are timed separately.
+ */
+final class ListenerProfiler implements IEventBusInvokeDispatcher {
+    private final Thread thread = Thread.currentThread();
+    private final Map<String, ListenerTiming> timings = new HashMap<>();
+    // Time spent in nested listeners, for every listener that is running
+    private final Deque<long[]> nestedNanos = new ArrayDeque<>();
+
+    @Override
+    public void invoke(IEventListener listener, Event event) {
+        if (Thread.currentThread() != thread || listener instanceof EventPriority) {
+            listener.invoke(event);
+            return;
+        }
+
+        long[] nested = new long[1];
+        nestedNanos.push(nested);
+        long start = System.nanoTime();
+        try {
+            listener.invoke(event);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            nestedNanos.pop();
+            if (!nestedNanos.isEmpty()) {
+                nestedNanos.peek()[0] += elapsed;
+            }
+
+            timings.computeIfAbsent(getListenerName(listener), ListenerTiming::new).add(elapsed - nested[0]);
+        }
+    }
+
+    List<ListenerTiming> getTimings() {
+        List<ListenerTiming> sortedTimings = new ArrayList<>(timings.values());
+        sortedTimings.sort(Comparator.comparingLong(ListenerTiming::getTotalNanos).reversed());
+        return List.copyOf(sortedTimings);
+    }
+
+    /**
+     * Turns the description of a subscribed method, "ASM: class com.wynntils.Foo onBar(Lcom/wynntils/BarEvent;)V"
+     * for a static one or "ASM: com.wynntils.Foo@1a2b3c onBar(...)V" for an instance, into "Foo.onBar".
+     * Any other listener keeps its own description.
+     */
+    static String getListenerName(IEventListener listener) {
+        String description = listener.toString();
+        if (!description.startsWith("ASM: ")) return description;
+
+        String[] parts = description.substring("ASM: ".length()).split(" ");
+        String owner = parts[parts.length - 2];
+        String method = parts[parts.length - 1];
+
+        int hashStart = owner.indexOf('@');
+        if (hashStart != -1) {
+            owner = owner.substring(0, hashStart);
+        }
+        int descriptorStart = method.indexOf('(');
+        if (descriptorStart != -1) {
+            method = method.substring(0, descriptorStart);
+        }
+
+        return owner.substring(owner.lastIndexOf('.') + 1) + "." + method;
+    }
+}
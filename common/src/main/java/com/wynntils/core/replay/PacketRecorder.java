@@ -0,0 +1,168 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.replay;
+
+import com.wynntils.core.WynntilsMod;
+import io.netty.buffer.Unpooled;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.network.protocol.game.ClientboundBossEventPacket;
+import net.minecraft.network.protocol.game.ClientboundChatPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerClosePacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetContentPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
+import net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket;
+import net.minecraft.network.protocol.game.ClientboundSetActionBarTextPacket;
+import net.minecraft.network.protocol.game.ClientboundSetDisplayObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket;
+import net.minecraft.network.protocol.game.ClientboundSetScorePacket;
+import net.minecraft.network.protocol.game.ClientboundSetSubtitleTextPacket;
+import net.minecraft.network.protocol.game.ClientboundSetTitleTextPacket;
+import net.minecraft.network.protocol.game.ClientboundSetTitlesAnimationPacket;
+import net.minecraft.network.protocol.game.ClientboundTabListPacket;
+
+/**
+ * Records the inbound packets our models react to, so a session can be replayed later by
+ * {@link PacketReplayer}.
+ *
+ * <p>The file is gzipped and starts with {@link #MAGIC} and {@link #FORMAT_VERSION}, followed by
+ * one entry per packet: the milliseconds since the previous entry, the play protocol packet id,
+ * the payload length and the payload as written by the packet itself.
+ */
+public final class PacketRecorder {
+    public static final File RECORDINGS = WynntilsMod.getModStorageDir("recordings");
+    public static final String FILE_SUFFIX = ".wpr";
+
+    static final int MAGIC = 0x57505230; // "WPR0"
+    static final int FORMAT_VERSION = 1;
+
+    private static final Set<Class<? extends Packet<?>>> RECORDED_PACKETS = Set.of(
+            // Chat
+            ClientboundChatPacket.class,
+            // Scoreboard
+            ClientboundSetObjectivePacket.class,
+            ClientboundSetDisplayObjectivePacket.class,
+            ClientboundSetScorePacket.class,
+            ClientboundSetPlayerTeamPacket.class,
+            // Tab list
+            ClientboundTabListPacket.class,
+            ClientboundPlayerInfoPacket.class,
+            // Containers
+            ClientboundOpenScreenPacket.class,
+            ClientboundContainerSetContentPacket.class,
+            ClientboundContainerSetSlotPacket.class,
+            ClientboundContainerClosePacket.class,
+            // Titles and bars
+            ClientboundSetTitleTextPacket.class,
+            ClientboundSetSubtitleTextPacket.class,
+            ClientboundSetTitlesAnimationPacket.class,
+            ClientboundSetActionBarTextPacket.class,
+            ClientboundBossEventPacket.class);
+
+    // Checked on the netty thread for every inbound packet, before taking the lock
+    private static volatile boolean recording = false;
+
+    private static DataOutputStream output = null;
+    private static File outputFile = null;
+    private static long lastPacketTime;
+    private static int packetCount;
+
+    public static boolean isRecorded(Packet<?> packet) {
+        return RECORDED_PACKETS.contains(packet.getClass());
+    }
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    public static synchronized File getOutputFile() {
+        return outputFile;
+    }
+
+    public static synchronized void start(String name) throws IOException {
+        if (output != null) stop();
+
+        RECORDINGS.mkdirs();
+        File file = new File(RECORDINGS, name + FILE_SUFFIX);
+
+        DataOutputStream stream = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+        stream.writeInt(MAGIC);
+        stream.writeInt(FORMAT_VERSION);
+
+        output = stream;
+        outputFile = file;
+        lastPacketTime = System.currentTimeMillis();
+        packetCount = 0;
+        recording = true;
+    }
+
+    /** Stops the current recording, returning how many packets it contains */
+    public static synchronized int stop() {
+        if (output == null) return 0;
+
+        recording = false;
+        try {
+            output.close();
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to close packet recording " + outputFile, e);
+        }
+
+        output = null;
+        return packetCount;
+    }
+
+    /** Called from the netty thread for every inbound packet */
+    public static void record(Packet<?> packet) {
+        if (!recording || !isRecorded(packet)) return;
+
+        write(packet);
+    }
+
+    private static synchronized void write(Packet<?> packet) {
+        if (output == null) return;
+
+        Integer packetId = ConnectionProtocol.PLAY.getPacketId(PacketFlow.CLIENTBOUND, packet);
+        if (packetId == null) return;
+
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            packet.write(buffer);
+
+            long now = System.currentTimeMillis();
+            writeVarInt(output, (int) Math.min(now - lastPacketTime, Integer.MAX_VALUE));
+            writeVarInt(output, packetId);
+            writeVarInt(output, buffer.readableBytes());
+            buffer.readBytes(output, buffer.readableBytes());
+
+            lastPacketTime = now;
+            packetCount++;
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to write packet recording, stopping recording", e);
+            stop();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream stream, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            stream.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        stream.writeByte(value);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.replay;
+
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.wynn.model.ActionBarModel;
+import com.wynntils.wynn.model.CharacterManager;
+import com.wynntils.wynn.model.TabModel;
+import com.wynntils.wynn.model.WorldStateManager;
+import com.wynntils.wynn.model.quests.QuestInfo;
+import com.wynntils.wynn.model.quests.QuestManager;
+import com.wynntils.wynn.model.quests.QuestSortOrder;
+import com.wynntils.wynn.model.scoreboard.ScoreboardModel;
+import io.netty.buffer.Unpooled;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+
+/**
+ * Replays a file written by {@link PacketRecorder} into a {@link PacketSink}.
+ *
+ * <p>In game, packets go to an {@link EventPacketSink}, which posts the same Wynntils events as
+ * live packets do without handing them to Minecraft, and only while not connected to a server, so
+ * a replay never mixes with a real session. Regression tests call {@link #replay(InputStream,
+ * PacketSink)} with a sink of their own. Recorded delays are not waited for; the replay runs as fast
+ * as the sink allows, and timers of the models run on recorded time.
+ */
+public final class PacketReplayer {
+    public static ReplayReport replay(File file) throws IOException {
+        if (McUtils.mc().getConnection() != null) {
+            throw new IllegalStateException("Packets cannot be replayed while connected to a server");
+        }
+
+        try (InputStream input = new FileInputStream(file)) {
+            return replayIntoModels(input);
+        }
+    }
+
+    /**
+     * Replays a recording into the models, which are put on a world for the replay, timing every event
+     * listener on its own. The world is left afterwards, so the models are reset once their state has
+     * been described.
+     */
+    static ReplayReport replayIntoModels(InputStream recording) throws IOException {
+        ListenerProfiler profiler = new ListenerProfiler();
+        EventPacketSink sink = new EventPacketSink();
+        long startTime = System.nanoTime();
+
+        WorldStateManager.startReplay();
+        WynntilsMod.setInvokeDispatcher(profiler);
+        try {
+            ReplayReport report = replay(recording, sink);
+            sink.finish();
+
+            return new ReplayReport(
+                    report.packetCount(),
+                    report.failedCount(),
+                    report.recordedMillis(),
+                    System.nanoTime() - startTime,
+                    profiler.getTimings(),
+                    describeModelState());
+        } finally {
+            WynntilsMod.setInvokeDispatcher(null);
+            WorldStateManager.endReplay();
+        }
+    }
+
+    /**
+     * Reads a recording and hands every packet to the sink, on the calling thread.
+     *
+     * @return the packet counts, without any timings or model state
+     */
+    public static ReplayReport replay(InputStream recording, PacketSink sink) throws IOException {
+        int packetCount = 0;
+        int failedCount = 0;
+        long recordedMillis = 0;
+        long startTime = System.nanoTime();
+
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(recording)));
+        if (input.readInt() != PacketRecorder.MAGIC) {
+            throw new IOException("Not a packet recording");
+        }
+        int version = input.readInt();
+        if (version != PacketRecorder.FORMAT_VERSION) {
+            throw new IOException("Unsupported packet recording version " + version);
+        }
+
+        while (true) {
+            int delay;
+            try {
+                delay = readVarInt(input);
+            } catch (EOFException e) {
+                break;
+            }
+
+            int packetId = readVarInt(input);
+            byte[] payload = new byte[readVarInt(input)];
+            input.readFully(payload);
+
+            recordedMillis += delay;
+            packetCount++;
+
+            Packet<?> packet;
+            try {
+                packet = ConnectionProtocol.PLAY.createPacket(
+                        PacketFlow.CLIENTBOUND, packetId, new FriendlyByteBuf(Unpooled.wrappedBuffer(payload)));
+            } catch (RuntimeException e) {
+                WynntilsMod.warn("Failed to read replayed packet with id " + packetId, e);
+                packet = null;
+            }
+            if (packet == null) {
+                failedCount++;
+                continue;
+            }
+
+            try {
+                sink.onRecordedTime(recordedMillis);
+                sink.accept(packet);
+            } catch (RuntimeException e) {
+                WynntilsMod.warn("Failed to replay " + packet.getClass().getSimpleName(), e);
+                failedCount++;
+            }
+        }
+
+        return new ReplayReport(
+                packetCount, failedCount, recordedMillis, System.nanoTime() - startTime, List.of(), List.of());
+    }
+
+    private static List<String> describeModelState() {
+        List<String> state = new ArrayList<>();
+
+        state.add("World state: " + WorldStateManager.getCurrentState());
+        state.add("Character: "
+                + (CharacterManager.hasCharacter() ? CharacterManager.getCharacterInfo() : "none"));
+        state.add("Health: " + ActionBarModel.getCurrentHealth() + "/" + ActionBarModel.getMaxHealth() + ", mana: "
+                + ActionBarModel.getCurrentMana() + "/" + ActionBarModel.getMaxMana());
+        state.add("Status timers: " + TabModel.getTimers().size());
+        state.add("Quests: " + QuestManager.getQuests(QuestSortOrder.LEVEL).size() + ", mini-quests: "
+                + QuestManager.getMiniQuests(QuestSortOrder.LEVEL).size());
+
+        state.add("Scoreboard segments: "
+                + ScoreboardModel.getSegments().stream()
+                        .map(segment -> segment.getType().name())
+                        .collect(Collectors.joining(", ")));
+
+        QuestInfo currentQuest = QuestManager.getCurrentQuest();
+        state.add("Tracked quest: " + (currentQuest == null ? "none" : currentQuest.getName()));
+
+        return state;
+    }
+
+    private static int readVarInt(DataInputStream stream) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= 35) throw new IOException("VarInt too big");
+
+            b = stream.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    public static final class ListenerTiming {
+        private final String listenerName;
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        ListenerTiming(String listenerName) {
+            this.listenerName = listenerName;
+        }
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public String getListenerName() {
+            return listenerName;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+
+    public record ReplayReport(
+            int packetCount,
+            int failedCount,
+            long recordedMillis,
+            long replayNanos,
+            List<ListenerTiming> timings,
+            List<String> modelState) {}
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.replay;
+
+import net.minecraft.network.protocol.Packet;
+
+/**
+ * Receives the packets read back by {@link PacketReplayer}. Regression tests can pass their own sink
+ * to assert on the packets, or on model state as it changes, one packet at a time.
+ */
+@FunctionalInterface
+public interface PacketSink {
+    void accept(Packet<?> packet);
+
+    /** Called before each packet with the time recorded since the start, for sinks that run timers */
+    default void onRecordedTime(long recordedMillis) {}
+}
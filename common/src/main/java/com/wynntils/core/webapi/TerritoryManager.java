@@ -7,23 +7,40 @@ package com.wynntils.core.webapi;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.managers.CoreManager;
 import com.wynntils.core.webapi.profiles.TerritoryProfile;
 import com.wynntils.core.webapi.request.RequestBuilder;
 import com.wynntils.core.webapi.request.RequestHandler;
+import com.wynntils.gui.screens.maps.AbstractMapScreen;
+import com.wynntils.mc.MinecraftSchedulerManager;
+import com.wynntils.mc.event.ClientTickEvent;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.wynn.event.TerritoryOwnerChangedEvent;
 import com.wynntils.wynn.model.map.poi.TerritoryPoi;
 import java.io.File;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class TerritoryManager extends CoreManager {
+    private static final Gson TERRITORY_GSON = new GsonBuilder()
+            .registerTypeHierarchyAdapter(TerritoryProfile.class, new TerritoryProfile.TerritoryDeserializer())
+            .create();
+    private static final Type TERRITORY_MAP_TYPE = new TypeToken<HashMap<String, TerritoryProfile>>() {}.getType();
+
     private static TerritoryUpdateThread territoryUpdateThread;
-    private static Map<String, TerritoryProfile> territories = new HashMap<>();
-    private static Set<TerritoryPoi> territoryPois = new HashSet<>();
+    private static final Map<String, TerritoryProfile> territories = new ConcurrentHashMap<>();
+    private static final Map<String, TerritoryPoi> territoryPois = new ConcurrentHashMap<>();
+
+    // Written on the render thread, read by the update thread
+    private static volatile boolean territoryDataViewed = false;
 
     public static void init() {
         reset();
@@ -35,6 +52,11 @@ public class TerritoryManager extends CoreManager {
         reset();
     }
 
+    @SubscribeEvent
+    public static void onTick(ClientTickEvent.Start event) {
+        territoryDataViewed = McUtils.mc().screen instanceof AbstractMapScreen;
+    }
+
     public static boolean tryLoadTerritories() {
         return tryLoadTerritories(WebManager.getHandler());
     }
@@ -45,20 +67,13 @@ public class TerritoryManager extends CoreManager {
         String url = WebManager.getApiUrls().get().get("Athena") + "/cache/get/territoryList";
 
         handler.addAndDispatch(new RequestBuilder(url, "territory")
-                .cacheTo(new File(WebManager.API_CACHE_ROOT, "territories.json"))
+                .cacheTo(new File(WebManager.getApiCacheRoot(), "territories.json"))
                 .handleJsonObject(json -> {
                     if (!json.has("territories")) return false;
 
-                    Type type = new TypeToken<HashMap<String, TerritoryProfile>>() {}.getType();
-
-                    GsonBuilder builder = new GsonBuilder();
-                    builder.registerTypeHierarchyAdapter(
-                            TerritoryProfile.class, new TerritoryProfile.TerritoryDeserializer());
-                    Gson gson = builder.create();
-
-                    territories = gson.fromJson(json.get("territories"), type);
-                    territoryPois =
-                            territories.values().stream().map(TerritoryPoi::new).collect(Collectors.toSet());
+                    Map<String, TerritoryProfile> newTerritories =
+                            TERRITORY_GSON.fromJson(json.get("territories"), TERRITORY_MAP_TYPE);
+                    applyTerritories(newTerritories);
                     return true;
                 })
                 .build());
@@ -66,6 +81,46 @@ public class TerritoryManager extends CoreManager {
         return isTerritoryListLoaded();
     }
 
+    /**
+     * Applies a freshly downloaded territory list as a delta against the current one,
+     * so only territories which actually changed get new profiles and pois.
+     */
+    private static synchronized void applyTerritories(Map<String, TerritoryProfile> newTerritories) {
+        // Do not flood listeners with the whole list on the first load
+        boolean initialLoad = territories.isEmpty();
+        List<TerritoryOwnerChangedEvent> ownerChanges = new ArrayList<>();
+
+        territories.keySet().retainAll(newTerritories.keySet());
+        territoryPois.keySet().retainAll(newTerritories.keySet());
+
+        for (Map.Entry<String, TerritoryProfile> entry : newTerritories.entrySet()) {
+            TerritoryProfile newProfile = entry.getValue();
+            TerritoryProfile oldProfile = territories.get(entry.getKey());
+
+            if (newProfile.equals(oldProfile)) continue;
+
+            territories.put(entry.getKey(), newProfile);
+            territoryPois.put(entry.getKey(), new TerritoryPoi(newProfile));
+
+            if (!initialLoad && oldProfile != null && !Objects.equals(oldProfile.getGuild(), newProfile.getGuild())) {
+                ownerChanges.add(new TerritoryOwnerChangedEvent(oldProfile, newProfile));
+            }
+        }
+
+        if (ownerChanges.isEmpty()) return;
+
+        // Territories are downloaded on a separate thread, but listeners expect the main thread
+        MinecraftSchedulerManager.queueRunnable(() -> ownerChanges.forEach(WynntilsMod::postEvent));
+    }
+
+    /**
+     * Whether territory data is currently on display, and should therefore be kept as fresh as possible.
+     * Safe to call from any thread.
+     */
+    public static boolean isTerritoryDataViewed() {
+        return territoryDataViewed;
+    }
+
     private static void updateTerritoryThreadStatus(boolean start) {
         if (start) {
             if (territoryUpdateThread == null) {
@@ -86,6 +141,7 @@ public class TerritoryManager extends CoreManager {
         // tryLoadTerritories
         territories.clear();
         territoryPois.clear();
+        territoryDataViewed = false;
 
         updateTerritoryThreadStatus(false);
     }
@@ -98,7 +154,7 @@ public class TerritoryManager extends CoreManager {
         return territories;
     }
 
-    public static Set<TerritoryPoi> getTerritoryPois() {
-        return territoryPois;
+    public static Collection<TerritoryPoi> getTerritoryPois() {
+        return territoryPois.values();
     }
 }
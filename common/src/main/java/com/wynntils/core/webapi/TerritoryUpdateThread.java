@@ -9,6 +9,9 @@ import com.wynntils.core.webapi.request.RequestHandler;
 
 public class TerritoryUpdateThread extends Thread {
     private static final int TERRITORY_UPDATE_MS = 15000;
+    // Nobody is looking at territories, so there is no need to keep them as fresh
+    private static final int TERRITORY_IDLE_UPDATE_MS = 120000;
+    private static final int POLL_MS = 1000;
 
     public TerritoryUpdateThread(String name) {
         super(name);
@@ -24,12 +27,24 @@ public class TerritoryUpdateThread extends Thread {
                 TerritoryManager.tryLoadTerritories(handler);
                 handler.dispatch();
 
-                // TODO: Add events
-                Thread.sleep(TERRITORY_UPDATE_MS);
+                waitForNextUpdate();
             }
         } catch (InterruptedException ignored) {
         }
 
         WynntilsMod.info("Terminating territory update thread.");
     }
+
+    private void waitForNextUpdate() throws InterruptedException {
+        long lastUpdate = System.currentTimeMillis();
+
+        // Poll, so that opening a map while idle is picked up right away
+        while (true) {
+            long interval =
+                    TerritoryManager.isTerritoryDataViewed() ? TERRITORY_UPDATE_MS : TERRITORY_IDLE_UPDATE_MS;
+            if (System.currentTimeMillis() - lastUpdate >= interval) return;
+
+            Thread.sleep(POLL_MS);
+        }
+    }
 }
@@ -51,7 +51,6 @@ import net.minecraft.network.chat.TextComponent;
 /** Provides and loads web content on demand */
 public final class WebManager extends CoreManager {
 
-    public static final File API_CACHE_ROOT = WynntilsMod.getModStorageDir("apicache");
     private static final int REQUEST_TIMEOUT_MILLIS = 10000;
 
     private static boolean setup = false;
@@ -147,7 +146,7 @@ public final class WebManager extends CoreManager {
     private static void tryLoadItemGuesses() {
         if (apiUrls == null || !apiUrls.hasKey("ItemGuesses")) return;
         handler.addAndDispatch(new RequestBuilder(apiUrls.get("ItemGuesses"), "item_guesses")
-                .cacheTo(new File(API_CACHE_ROOT, "item_guesses.json"))
+                .cacheTo(new File(getApiCacheRoot(), "item_guesses.json"))
                 .handleJsonObject(json -> {
                     Type type = new TypeToken<HashMap<String, ItemGuessProfile>>() {}.getType();
 
@@ -170,49 +169,54 @@ public final class WebManager extends CoreManager {
     private static void tryLoadItemList() {
         if (apiUrls == null || !apiUrls.hasKey("Athena")) return;
         handler.addAndDispatch(new RequestBuilder(apiUrls.get("Athena") + "/cache/get/itemList", "item_list")
-                .cacheTo(new File(API_CACHE_ROOT, "item_list.json"))
-                .handleJsonObject(json -> {
-                    Type hashmapType = new TypeToken<HashMap<String, String>>() {}.getType();
-                    translatedReferences = gson.fromJson(json.getAsJsonObject("translatedReferences"), hashmapType);
-                    internalIdentifications =
-                            gson.fromJson(json.getAsJsonObject("internalIdentifications"), hashmapType);
-
-                    Type majorIdsType = new TypeToken<HashMap<String, MajorIdentification>>() {}.getType();
-                    majorIds = gson.fromJson(json.getAsJsonObject("majorIdentifications"), majorIdsType);
-                    Type materialTypesType = new TypeToken<HashMap<ItemType, String[]>>() {}.getType();
-                    materialTypes = gson.fromJson(json.getAsJsonObject("materialTypes"), materialTypesType);
-
-                    // FIXME: We should not be doing Singleton housekeeping for IdentificationOrderer!
-                    IdentificationOrderer.INSTANCE =
-                            gson.fromJson(json.getAsJsonObject("identificationOrder"), IdentificationOrderer.class);
-
-                    ItemProfile[] gItems = gson.fromJson(json.getAsJsonArray("items"), ItemProfile[].class);
-
-                    HashMap<String, ItemProfile> citems = new HashMap<>();
-                    for (ItemProfile prof : gItems) {
-                        prof.getStatuses().forEach((n, p) -> p.calculateMinMax(n));
-                        prof.addMajorIds(majorIds);
-                        citems.put(prof.getDisplayName(), prof);
-                    }
-
-                    citems.values().forEach(ItemProfile::registerIdTypes);
-
-                    directItems = citems.values();
-                    items = citems;
-
-                    return true;
-                })
+                .cacheTo(new File(getApiCacheRoot(), "item_list.json"))
+                .handleJsonObject(WebManager::loadItemList)
                 .useCacheAsBackup()
                 .build());
 
         // Check for success
     }
 
+    /**
+     * Replaces the item data with the given item list, as served by Athena. This needs neither
+     * the network nor a running client, so it can also load an item list snapshot from a file.
+     */
+    public static boolean loadItemList(JsonObject json) {
+        Type hashmapType = new TypeToken<HashMap<String, String>>() {}.getType();
+        translatedReferences = gson.fromJson(json.getAsJsonObject("translatedReferences"), hashmapType);
+        internalIdentifications = gson.fromJson(json.getAsJsonObject("internalIdentifications"), hashmapType);
+
+        Type majorIdsType = new TypeToken<HashMap<String, MajorIdentification>>() {}.getType();
+        majorIds = gson.fromJson(json.getAsJsonObject("majorIdentifications"), majorIdsType);
+        Type materialTypesType = new TypeToken<HashMap<ItemType, String[]>>() {}.getType();
+        materialTypes = gson.fromJson(json.getAsJsonObject("materialTypes"), materialTypesType);
+
+        // FIXME: We should not be doing Singleton housekeeping for IdentificationOrderer!
+        IdentificationOrderer.INSTANCE =
+                gson.fromJson(json.getAsJsonObject("identificationOrder"), IdentificationOrderer.class);
+
+        ItemProfile[] gItems = gson.fromJson(json.getAsJsonArray("items"), ItemProfile[].class);
+
+        HashMap<String, ItemProfile> citems = new HashMap<>();
+        for (ItemProfile prof : gItems) {
+            prof.getStatuses().forEach((n, p) -> p.calculateMinMax(n));
+            prof.addMajorIds(majorIds);
+            citems.put(prof.getDisplayName(), prof);
+        }
+
+        citems.values().forEach(ItemProfile::registerIdTypes);
+
+        directItems = citems.values();
+        items = citems;
+
+        return true;
+    }
+
     public static void tryLoadIngredientList() {
         if (apiUrls == null || !apiUrls.hasKey("Athena")) return;
 
         handler.addRequest(new RequestBuilder(apiUrls.get("Athena") + "/cache/get/ingredientList", "ingredientList")
-                .cacheTo(new File(API_CACHE_ROOT, "ingredient_list.json"))
+                .cacheTo(new File(getApiCacheRoot(), "ingredient_list.json"))
                 .useCacheAsBackup()
                 .handleJsonObject(j -> {
                     Type hashmapType = new TypeToken<HashMap<String, String>>() {}.getType();
@@ -236,7 +240,7 @@ public final class WebManager extends CoreManager {
 
     private static void tryReloadApiUrls(boolean async) {
         handler.addRequest(new RequestBuilder("https://api.wynntils.com/webapi", "webapi")
-                .cacheTo(new File(API_CACHE_ROOT, "webapi.txt"))
+                .cacheTo(new File(getApiCacheRoot(), "webapi.txt"))
                 .useCacheAsBackup()
                 .handleWebReader(reader -> {
                     apiUrls = reader;
@@ -304,7 +308,7 @@ public final class WebManager extends CoreManager {
 
         String url = apiUrls.get("Discoveries");
         handler.addRequest(new RequestBuilder(url, "discoveries")
-                .cacheTo(new File(API_CACHE_ROOT, "discoveries.json"))
+                .cacheTo(new File(getApiCacheRoot(), "discoveries.json"))
                 .handleJsonArray(discoveriesJson -> {
                     Type type = new TypeToken<ArrayList<DiscoveryProfile>>() {}.getType();
 
@@ -333,6 +337,10 @@ public final class WebManager extends CoreManager {
         return st;
     }
 
+    public static File getApiCacheRoot() {
+        return WynntilsMod.getModStorageDir("apicache");
+    }
+
     public static String getApiUrl(String key) {
         if (apiUrls == null) return null;
 
@@ -16,6 +16,7 @@ import java.lang.reflect.Type;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Objects;
 
 public class TerritoryProfile {
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -129,6 +130,29 @@ public class TerritoryProfile {
         return startX <= playerX && endX >= playerX && startZ <= playerZ && endZ >= playerZ;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TerritoryProfile that)) return false;
+
+        return startX == that.startX
+                && startZ == that.startZ
+                && endX == that.endX
+                && endZ == that.endZ
+                && level == that.level
+                && name.equals(that.name)
+                && Objects.equals(guild, that.guild)
+                && Objects.equals(guildPrefix, that.guildPrefix)
+                && Objects.equals(guildColor, that.guildColor)
+                && Objects.equals(attacker, that.attacker)
+                && Objects.equals(acquired, that.acquired);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, guild, attacker, acquired);
+    }
+
     public static class TerritoryDeserializer implements JsonDeserializer<TerritoryProfile> {
         @Override
         public TerritoryProfile deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
@@ -4,8 +4,10 @@
  */
 package com.wynntils.core.webapi.profiles.item;
 
+import com.wynntils.wynn.item.IdentificationOrderer;
 import com.wynntils.wynn.objects.ClassType;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
@@ -42,6 +44,8 @@ public class ItemProfile {
 
     private transient boolean replacedLore = false;
 
+    private transient List<String> orderedStatuses = null;
+
     public ItemProfile(
             String displayName,
             ItemTier tier,
@@ -182,6 +186,19 @@ public class ItemProfile {
         return statuses;
     }
 
+    /**
+     * @return the short names of this item's statuses, sorted by {@link IdentificationOrderer}
+     */
+    public List<String> getOrderedStatuses() {
+        if (orderedStatuses == null) {
+            List<String> sorted = new ArrayList<>(statuses.keySet());
+            sorted.sort(Comparator.comparingInt(IdentificationOrderer.INSTANCE::getOrder));
+            orderedStatuses = List.copyOf(sorted);
+        }
+
+        return orderedStatuses;
+    }
+
     public List<MajorIdentification> getMajorIds() {
         return majorIdentifications;
     }
@@ -0,0 +1,23 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.features.debug;
+
+import com.wynntils.core.features.DebugFeature;
+import com.wynntils.core.replay.PacketRecorder;
+import com.wynntils.mc.event.PacketEvent.PacketReceivedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/** Feeds inbound packets to the {@link PacketRecorder} while a recording is running */
+public class PacketRecorderFeature extends DebugFeature {
+    @Override
+    protected void onDisable() {
+        PacketRecorder.stop();
+    }
+
+    @SubscribeEvent
+    public void onPacketReceived(PacketReceivedEvent<?> e) {
+        PacketRecorder.record(e.getPacket());
+    }
+}
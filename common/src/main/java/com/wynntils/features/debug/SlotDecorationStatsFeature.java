@@ -0,0 +1,40 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.features.debug;
+
+import com.wynntils.core.features.DebugFeature;
+import com.wynntils.core.managers.Model;
+import com.wynntils.gui.render.FontRenderer;
+import com.wynntils.gui.render.HorizontalAlignment;
+import com.wynntils.gui.render.SlotDecorationModel;
+import com.wynntils.gui.render.VerticalAlignment;
+import com.wynntils.mc.event.ContainerRenderEvent;
+import com.wynntils.mc.objects.CommonColors;
+import java.util.List;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/** Shows how many decorations and draw calls the {@link SlotDecorationModel} needed for the open container */
+public class SlotDecorationStatsFeature extends DebugFeature {
+    @Override
+    public List<Class<? extends Model>> getModelDependencies() {
+        return List.of(SlotDecorationModel.class);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onContainerRender(ContainerRenderEvent event) {
+        FontRenderer.getInstance()
+                .renderText(
+                        event.getPoseStack(),
+                        "Slot decorations: " + SlotDecorationModel.getLastDecorationCount() + ", draw calls: "
+                                + SlotDecorationModel.getLastDrawCallCount(),
+                        2,
+                        2,
+                        CommonColors.WHITE,
+                        HorizontalAlignment.Left,
+                        VerticalAlignment.Top,
+                        FontRenderer.TextShadow.NORMAL);
+    }
+}
@@ -4,11 +4,18 @@
  */
 package com.wynntils.features.statemanaged;
 
+import com.google.common.reflect.TypeToken;
 import com.wynntils.core.config.Config;
+import com.wynntils.core.config.TypeOverride;
 import com.wynntils.core.features.StateManagedFeature;
 import com.wynntils.core.managers.Model;
 import com.wynntils.wynn.model.LootChestModel;
+import com.wynntils.wynn.model.quests.QuestBook;
+import com.wynntils.wynn.model.waypoints.Waypoint;
+import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 // FIXME: This feature is only needed because we do not have a way to save any data persistently.
 //        Remove this when we add persistent data storage other than configs.
@@ -21,6 +28,20 @@ public class DataStorageFeature extends StateManagedFeature {
     @Config(visible = false)
     public int dryBoxes = 0;
 
+    /** Last known quest book of each character, keyed by player UUID and character slot */
+    @Config(visible = false)
+    public Map<String, QuestBook.Saved> questBooks = new HashMap<>();
+
+    @TypeOverride
+    private final Type questBooksType = new TypeToken<HashMap<String, QuestBook.Saved>>() {}.getType();
+
+    /** Custom waypoints of each character, keyed like the quest books */
+    @Config(visible = false)
+    public Map<String, List<Waypoint.Saved>> customWaypoints = new HashMap<>();
+
+    @TypeOverride
+    private final Type customWaypointsType = new TypeToken<HashMap<String, List<Waypoint.Saved>>>() {}.getType();
+
     @Override
     public List<Class<? extends Model>> getModelDependencies() {
         return List.of(LootChestModel.class);
@@ -13,20 +13,37 @@ import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.RootCommandNode;
 import com.wynntils.core.features.UserFeature;
 import com.wynntils.mc.event.CommandsPacketEvent;
+import java.util.List;
 import net.minecraft.commands.CommandSourceStack;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 /**
  * Set up Brigadier command structure of known Wynncraft commands. The commands in this file
  * were extracted from https://wynncraft.fandom.com/wiki/Commands,
  * https://wynncraft.com/help?guide=commands and from running the commands in-game.
+ * <p>
+ * The command tree is built only once, and its top level nodes are attached by reference
+ * to every root the server sends us.
  */
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class AddCommandExpansionFeature extends UserFeature {
-    @SubscribeEvent
+    private static final List<CommandNode<CommandSourceStack>> COMMAND_NODES = buildCommandNodes();
+
+    // Run after other listeners have added their nodes, so that name collisions are merged into
+    // their (fresh) nodes, and our shared nodes are never mutated
+    @SubscribeEvent(priority = EventPriority.LOW)
     public void onCommandPacket(CommandsPacketEvent event) {
         RootCommandNode root = event.getRoot();
 
+        for (CommandNode<CommandSourceStack> node : COMMAND_NODES) {
+            root.addChild(node);
+        }
+    }
+
+    private static List<CommandNode<CommandSourceStack>> buildCommandNodes() {
+        RootCommandNode<CommandSourceStack> root = new RootCommandNode<>();
+
         addArgumentlessCommandNodes(root);
         addChangetagCommandNode(root);
         addFriendCommandNode(root);
@@ -39,9 +56,11 @@ public class AddCommandExpansionFeature extends UserFeature {
         addPartyCommandNode(root);
         addPlayerCommandNodes(root);
         addToggleCommandNode(root);
+
+        return List.copyOf(root.getChildren());
     }
 
-    private void addArgumentlessCommandNodes(RootCommandNode root) {
+    private static void addArgumentlessCommandNodes(RootCommandNode root) {
         root.addChild(literal("buy").build());
         root.addChild(literal("cash").build());
         root.addChild(literal("change").build());
@@ -78,7 +97,7 @@ public class AddCommandExpansionFeature extends UserFeature {
         root.addChild(literal("use").build());
     }
 
-    private void addChangetagCommandNode(RootCommandNode root) {
+    private static void addChangetagCommandNode(RootCommandNode root) {
         root.addChild(literal("changetag")
                 .then(literal("VIP"))
                 .then(literal("VIP+"))
@@ -88,7 +107,7 @@ public class AddCommandExpansionFeature extends UserFeature {
                 .build());
     }
 
-    private void addFriendCommandNode(RootCommandNode root) {
+    private static void addFriendCommandNode(RootCommandNode root) {
         CommandNode<CommandSourceStack> node = literal("friend")
                 .then(literal("list"))
                 .then(literal("online"))
@@ -100,7 +119,7 @@ public class AddCommandExpansionFeature extends UserFeature {
         root.addChild(literal("f").redirect(node).build());
     }
 
-    private void addGuildCommandNode(RootCommandNode root) {
+    private static void addGuildCommandNode(RootCommandNode root) {
         CommandNode<CommandSourceStack> node = literal("guild")
                 .then(literal("attack"))
                 .then(literal("contribute"))
@@ -126,14 +145,14 @@ public class AddCommandExpansionFeature extends UserFeature {
         root.addChild(literal("gu").redirect(node).build());
     }
 
-    private void addIgnoreCommandNode(RootCommandNode root) {
+    private static void addIgnoreCommandNode(RootCommandNode root) {
         root.addChild(literal("ignore")
                 .then(literal("add").then(argument("player", StringArgumentType.string())))
                 .then(literal("remove").then(argument("player", StringArgumentType.string())))
                 .build());
     }
 
-    private void addHousingCommandNode(RootCommandNode root) {
+    private static void addHousingCommandNode(RootCommandNode root) {
         CommandNode<CommandSourceStack> node = literal("housing")
                 .then(literal("allowedit").then(argument("player", StringArgumentType.string())))
                 .then(literal("ban").then(argument("player", StringArgumentType.string())))
@@ -152,7 +171,7 @@ public class AddCommandExpansionFeature extends UserFeature {
         root.addChild(literal("is").redirect(node).build());
     }
 
-    private void addMessagingCommandNodes(RootCommandNode root) {
+    private static void addMessagingCommandNodes(RootCommandNode root) {
         root.addChild(literal("g")
                 .then(argument("msg", StringArgumentType.greedyString()))
                 .build());
@@ -173,7 +192,7 @@ public class AddCommandExpansionFeature extends UserFeature {
         root.addChild(literal("tell").redirect(node).build());
     }
 
-    private void addMiscCommandNodes(RootCommandNode root) {
+    private static void addMiscCommandNodes(RootCommandNode root) {
         root.addChild(literal("report")
                 .then(argument("player", StringArgumentType.string())
                         .then(argument("reason", StringArgumentType.greedyString())))
@@ -184,7 +203,7 @@ public class AddCommandExpansionFeature extends UserFeature {
                 .build());
     }
 
-    private void addParticlesCommandNode(RootCommandNode root) {
+    private static void addParticlesCommandNode(RootCommandNode root) {
         CommandNode<CommandSourceStack> node = literal("particles")
                 .then(literal("off"))
                 .then(literal("low"))
@@ -198,7 +217,7 @@ public class AddCommandExpansionFeature extends UserFeature {
         root.addChild(literal("pq").redirect(node).build());
     }
 
-    private void addPartyCommandNode(RootCommandNode root) {
+    private static void addPartyCommandNode(RootCommandNode root) {
         root.addChild(literal("party")
                 .then(literal("ban").then(argument("player", StringArgumentType.string())))
                 .then(literal("create"))
@@ -214,7 +233,7 @@ public class AddCommandExpansionFeature extends UserFeature {
                 .build());
     }
 
-    private void addPlayerCommandNodes(RootCommandNode root) {
+    private static void addPlayerCommandNodes(RootCommandNode root) {
         CommandNode<CommandSourceStack> duelNode = literal("duel")
                 .then(argument("player", StringArgumentType.string()))
                 .build();
@@ -232,7 +251,7 @@ public class AddCommandExpansionFeature extends UserFeature {
                 .build());
     }
 
-    private void addToggleCommandNode(RootCommandNode root) {
+    private static void addToggleCommandNode(RootCommandNode root) {
         root.addChild(literal("toggle")
                 .then(literal("100"))
                 .then(literal("attacksound"))
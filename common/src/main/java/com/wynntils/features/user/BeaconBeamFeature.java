@@ -4,6 +4,7 @@
  */
 package com.wynntils.features.user;
 
+import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.wynntils.core.config.Config;
 import com.wynntils.core.features.UserFeature;
@@ -15,64 +16,112 @@ import com.wynntils.mc.objects.Location;
 import com.wynntils.mc.utils.McUtils;
 import com.wynntils.utils.MathUtils;
 import com.wynntils.wynn.model.CompassModel;
+import com.wynntils.wynn.model.waypoints.Waypoint;
+import com.wynntils.wynn.model.waypoints.WaypointModel;
 import java.util.List;
+import java.util.Map;
 import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.blockentity.BeaconRenderer;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class BeaconBeamFeature extends UserFeature {
+    private static final int BEAM_HEIGHT = 1024;
+
     @Config
     public CustomColor waypointBeamColor = CommonColors.RED;
 
+    @Config
+    public boolean renderPartyMemberBeams = false;
+
+    @Config
+    public int maxBeamDistance = 0;
+
+    // Every beam goes into the same two buffers, so all of them are drawn with one draw call each
+    private MultiBufferSource.BufferSource beamBufferSource = null;
+
     @Override
     public List<Class<? extends Model>> getModelDependencies() {
-        return List.of(CompassModel.class);
+        return List.of(CompassModel.class, WaypointModel.class);
     }
 
     @SubscribeEvent
     public void onRenderLevelLast(RenderTileLevelLastEvent event) {
-        if (CompassModel.getCompassLocation().isEmpty()) return;
+        List<Waypoint> waypoints = WaypointModel.getActiveWaypoints();
+        if (waypoints.isEmpty()) return;
 
         PoseStack poseStack = event.getPoseStack();
-        MultiBufferSource.BufferSource bufferSource =
-                McUtils.mc().renderBuffers().bufferSource();
+        MultiBufferSource.BufferSource bufferSource = getBeamBufferSource();
 
         Vec3 camera = event.getCamera().getPosition();
-        Location location = CompassModel.getCompassLocation().get();
-
-        double dx = location.x - camera.x;
-        double dy = location.y - camera.y;
-        double dz = location.z - camera.z;
+        // Relative to the camera, like the beams
+        Frustum frustum = new Frustum(poseStack.last().pose(), event.getProjectionMatrix());
+        frustum.prepare(0, 0, 0);
 
-        double distance = MathUtils.magnitude(dx, dz);
         int maxDistance = McUtils.mc().options.renderDistance * 16;
+        long gameTime = McUtils.player().level.getGameTime();
+
+        for (Waypoint waypoint : waypoints) {
+            if (waypoint.getKind() == Waypoint.Kind.PARTY_MEMBER && !renderPartyMemberBeams) continue;
+
+            Location location = waypoint.getLocation();
+
+            double dx = location.x - camera.x;
+            double dy = location.y - camera.y;
+            double dz = location.z - camera.z;
 
-        if (distance > maxDistance) {
-            double scale = maxDistance / distance;
+            double distance = MathUtils.magnitude(dx, dz);
+            if (maxBeamDistance != 0 && distance > maxBeamDistance) continue;
+
+            if (distance > maxDistance) {
+                double scale = maxDistance / distance;
+
+                dx *= scale;
+                dz *= scale;
+            }
+
+            // Beams reach the top of the world, so only those out of view can be skipped
+            if (!frustum.isVisible(new AABB(dx, dy, dz, dx + 1, dy + BEAM_HEIGHT, dz + 1))) continue;
+
+            CustomColor color =
+                    waypoint.getKind() == Waypoint.Kind.COMPASS ? waypointBeamColor : waypoint.getColor();
+
+            poseStack.pushPose();
+            poseStack.translate(dx, dy, dz);
+
+            BeaconRenderer.renderBeaconBeam(
+                    poseStack,
+                    bufferSource,
+                    BeaconRenderer.BEAM_LOCATION,
+                    event.getPartialTick(),
+                    1f,
+                    gameTime,
+                    0,
+                    BEAM_HEIGHT,
+                    color.asFloatArray(),
+                    0.166f,
+                    0.33f);
+
+            poseStack.popPose();
+        }
+
+        bufferSource.endBatch();
+    }
 
-            dx *= scale;
-            dz *= scale;
+    private MultiBufferSource.BufferSource getBeamBufferSource() {
+        if (beamBufferSource == null) {
+            beamBufferSource = MultiBufferSource.immediateWithBuffers(
+                    Map.of(
+                            RenderType.beaconBeam(BeaconRenderer.BEAM_LOCATION, false),
+                            new BufferBuilder(RenderType.SMALL_BUFFER_SIZE),
+                            RenderType.beaconBeam(BeaconRenderer.BEAM_LOCATION, true),
+                            new BufferBuilder(RenderType.SMALL_BUFFER_SIZE)),
+                    new BufferBuilder(RenderType.SMALL_BUFFER_SIZE));
         }
 
-        poseStack.pushPose();
-        poseStack.translate(dx, dy, dz);
-
-        BeaconRenderer.renderBeaconBeam(
-                poseStack,
-                bufferSource,
-                BeaconRenderer.BEAM_LOCATION,
-                event.getPartialTick(),
-                1f,
-                McUtils.player().level.getGameTime(),
-                0,
-                1024,
-                waypointBeamColor.asFloatArray(),
-                0.166f,
-                0.33f);
-
-        poseStack.popPose();
-
-        bufferSource.endLastBatch();
+        return beamBufferSource;
     }
 }
@@ -6,7 +6,8 @@ package com.wynntils.features.user;
 
 import com.wynntils.core.config.Config;
 import com.wynntils.core.features.UserFeature;
-import com.wynntils.gui.render.RenderUtils;
+import com.wynntils.core.managers.Model;
+import com.wynntils.gui.render.SlotDecorationModel;
 import com.wynntils.gui.screens.TextboxScreen;
 import com.wynntils.gui.widgets.SearchWidget;
 import com.wynntils.mc.event.ContainerCloseEvent;
@@ -19,16 +20,11 @@ import com.wynntils.mc.objects.CommonColors;
 import com.wynntils.mc.objects.CustomColor;
 import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.mc.utils.McUtils;
-import com.wynntils.wynn.item.WynnItemStack;
-import com.wynntils.wynn.item.properties.ItemProperty;
+import com.wynntils.wynn.objects.ContainerSearchIndex;
 import com.wynntils.wynn.objects.SearchableContainerType;
 import com.wynntils.wynn.utils.ContainerUtils;
-import java.util.Locale;
-import net.minecraft.client.gui.screens.Screen;
+import java.util.List;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
-import net.minecraft.core.NonNullList;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.Items;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.lwjgl.glfw.GLFW;
 
@@ -46,9 +42,15 @@ public class ContainerSearchFeature extends UserFeature {
     public CustomColor highlightColor = CommonColors.MAGENTA;
 
     private SearchWidget lastSearchWidget;
+    private ContainerSearchIndex searchIndex;
     private SearchableContainerType currentSearchableContainerType;
     private boolean autoSearching = false;
 
+    @Override
+    public List<Class<? extends Model>> getModelDependencies() {
+        return List.of(SlotDecorationModel.class);
+    }
+
     @SubscribeEvent
     public void onScreenInit(ScreenInitEvent event) {
         if (!(event.getScreen() instanceof AbstractContainerScreen<?> screen)) return;
@@ -66,23 +68,36 @@ public class ContainerSearchFeature extends UserFeature {
 
         currentSearchableContainerType = SearchableContainerType;
 
+        if (searchIndex == null || !searchIndex.isFor(screen.getMenu())) {
+            searchIndex = new ContainerSearchIndex(screen.getMenu());
+        }
+
         addSearchWidget(screen, renderX, renderY);
+        matchItems(lastSearchWidget.getTextBoxInput());
     }
 
     @SubscribeEvent
     public void onRenderSlot(SlotRenderEvent.Pre e) {
-        ItemStack item = e.getSlot().getItem();
+        if (searchIndex == null) return;
 
-        if (!(item instanceof WynnItemStack wynnItemStack)) return;
+        // pick up slots changed since the last frame
+        if (searchIndex.refresh()) {
+            autoSearching = false;
+        }
 
-        if (!wynnItemStack.getProperty(ItemProperty.SEARCH_OVERLAY).isSearched()) return;
+        if (!searchIndex.isMatch(e.getSlot().index)) return;
 
-        RenderUtils.drawArc(highlightColor, e.getSlot().x, e.getSlot().y, 200, 1f, 6, 8);
+        SlotDecorationModel.addArc(highlightColor, e.getSlot().x, e.getSlot().y, 200, 1f);
     }
 
     @SubscribeEvent
     public void onContainerSetContent(ContainerSetContentEvent.Post event) {
-        forceUpdateSearch();
+        if (searchIndex == null || event.getContainerId() != searchIndex.getContainerId()) return;
+
+        searchIndex.invalidateAll();
+        if (searchIndex.refresh()) {
+            autoSearching = false;
+        }
 
         if (autoSearching && McUtils.mc().screen instanceof AbstractContainerScreen<?> abstractContainerScreen) {
             tryAutoSearch(abstractContainerScreen);
@@ -91,12 +106,16 @@ public class ContainerSearchFeature extends UserFeature {
 
     @SubscribeEvent
     public void onContainerSetSlot(ContainerSetSlotEvent event) {
-        forceUpdateSearch();
+        if (searchIndex == null || event.getContainerId() != searchIndex.getContainerId()) return;
+
+        // This fires before the slot is updated, so the slot is re-indexed on the next refresh
+        searchIndex.invalidateSlot(event.getSlot());
     }
 
     @SubscribeEvent
     public void onContainerClose(ContainerCloseEvent.Post event) {
         lastSearchWidget = null;
+        searchIndex = null;
         currentSearchableContainerType = null;
         autoSearching = false;
     }
@@ -110,7 +129,7 @@ public class ContainerSearchFeature extends UserFeature {
                 || !(McUtils.mc().screen instanceof AbstractContainerScreen<?> abstractContainerScreen)) return;
 
         autoSearching = true;
-        matchItems(lastSearchWidget.getTextBoxInput(), abstractContainerScreen);
+        matchItems(lastSearchWidget.getTextBoxInput());
 
         tryAutoSearch(abstractContainerScreen);
     }
@@ -156,7 +175,7 @@ public class ContainerSearchFeature extends UserFeature {
 
     private void addSearchWidget(AbstractContainerScreen<?> screen, int renderX, int renderY) {
         SearchWidget searchWidget = new SearchWidget(
-                renderX + screen.imageWidth - 100, renderY - 20, 100, 20, s -> matchItems(s, screen), (TextboxScreen)
+                renderX + screen.imageWidth - 100, renderY - 20, 100, 20, this::matchItems, (TextboxScreen)
                         screen);
 
         if (lastSearchWidget != null) {
@@ -168,30 +187,11 @@ public class ContainerSearchFeature extends UserFeature {
         screen.addRenderableWidget(lastSearchWidget);
     }
 
-    private void matchItems(String search, AbstractContainerScreen<?> screen) {
-        search = search.toLowerCase(Locale.ROOT);
-
-        NonNullList<ItemStack> playerItems = McUtils.inventory().items;
-        for (ItemStack item : screen.getMenu().getItems()) {
-            if (!(item instanceof WynnItemStack wynnItemStack)) continue;
-            if (playerItems.contains(item)) continue;
-
-            String name = ComponentUtils.getUnformatted(item.getHoverName()).toLowerCase(Locale.ROOT);
-
-            boolean filtered = !search.equals("") && name.contains(search) && item.getItem() != Items.AIR;
-
-            wynnItemStack.getProperty(ItemProperty.SEARCH_OVERLAY).setSearched(filtered);
+    private void matchItems(String search) {
+        if (searchIndex == null) return;
 
-            if (filtered) {
-                autoSearching = false;
-            }
-        }
-    }
-
-    private void forceUpdateSearch() {
-        Screen screen = McUtils.mc().screen;
-        if (lastSearchWidget != null && screen instanceof AbstractContainerScreen<?> abstractContainerScreen) {
-            matchItems(lastSearchWidget.getTextBoxInput(), abstractContainerScreen);
+        if (searchIndex.setQuery(search)) {
+            autoSearching = false;
         }
     }
 }
@@ -46,7 +46,7 @@ public class HadesFeature extends UserFeature {
                 if (getOtherPlayerInfo) {
                     HadesModel.tryResendWorldData();
                 } else {
-                    HadesUserModel.getHadesUserMap().clear();
+                    HadesUserModel.clear();
                 }
             }
             case "shareWithParty" -> {
@@ -4,6 +4,7 @@
  */
 package com.wynntils.features.user;
 
+import com.wynntils.core.config.Config;
 import com.wynntils.core.features.UserFeature;
 import com.wynntils.core.features.properties.FeatureInfo;
 import com.wynntils.core.features.properties.RegisterKeyBind;
@@ -14,17 +15,16 @@ import com.wynntils.mc.event.SubtitleSetTextEvent;
 import com.wynntils.mc.utils.ItemUtils;
 import com.wynntils.mc.utils.McUtils;
 import com.wynntils.utils.StringUtils;
+import com.wynntils.utils.objects.RingBuffer;
 import com.wynntils.wynn.event.ActionBarMessageUpdateEvent;
 import com.wynntils.wynn.event.WorldStateEvent;
 import com.wynntils.wynn.item.parsers.WynnItemMatchers;
 import com.wynntils.wynn.utils.WynnUtils;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.TranslatableComponent;
@@ -57,13 +57,25 @@ public class QuickCastFeature extends UserFeature {
     private static final Pattern LVL_MIN_NOT_REACHED_PATTERN = StringUtils.compileCCRegex("§✖§ (.+) Min: ([0-9]+)");
     private static final SpellDirection[] NO_SPELL = new SpellDirection[0];
 
-    private SpellDirection[] spellInProgress = NO_SPELL;
+    // Click sequences of the four spells; archers have their clicks inverted
+    private static final SpellDirection[][] SPELLS = createSpells(false);
+    private static final SpellDirection[][] ARCHER_SPELLS = createSpells(true);
 
-    private static final Queue<Packet<?>> SPELL_PACKET_QUEUE = new LinkedList<>();
+    // Room for the spell being cast and one buffered after it
+    private static final int MAX_QUEUED_CLICKS = 6;
 
-    private int packetCountdown = 0;
-    private int spellCountdown = 0;
-    private int lastSelectedSlot = 0;
+    @Config
+    public int clickDelayTicks = 3;
+
+    @Config
+    public boolean bufferCasts = true;
+
+    private final ClickScheduler clickScheduler = new ClickScheduler(McUtils::sendPacket);
+
+    // The held weapon is only checked again when it or the selected slot changes
+    private ItemStack checkedItem = null;
+    private int checkedSlot = -1;
+    private WeaponCheck weaponCheck = null;
 
     @SubscribeEvent
     public void onSubtitleUpdate(SubtitleSetTextEvent e) {
@@ -81,14 +93,8 @@ public class QuickCastFeature extends UserFeature {
     private void tryUpdateSpell(String text) {
         SpellDirection[] spell = getSpellFromString(text);
         if (spell == null) return;
-        if (Arrays.equals(spellInProgress, spell)) return;
-        if (spell.length == 3) {
-            spellInProgress = NO_SPELL;
-            spellCountdown = 0;
-        } else {
-            spellInProgress = spell;
-            spellCountdown = 40;
-        }
+
+        clickScheduler.updateSpellInProgress(spell);
     }
 
     private static SpellDirection[] getSpellFromString(String string) {
@@ -109,103 +115,214 @@ public class QuickCastFeature extends UserFeature {
     }
 
     private void castFirstSpell() {
-        tryCastSpell(SpellUnit.PRIMARY, SpellUnit.SECONDARY, SpellUnit.PRIMARY);
+        tryCastSpell(0);
     }
 
     private void castSecondSpell() {
-        tryCastSpell(SpellUnit.PRIMARY, SpellUnit.PRIMARY, SpellUnit.PRIMARY);
+        tryCastSpell(1);
     }
 
     private void castThirdSpell() {
-        tryCastSpell(SpellUnit.PRIMARY, SpellUnit.SECONDARY, SpellUnit.SECONDARY);
+        tryCastSpell(2);
     }
 
     private void castFourthSpell() {
-        tryCastSpell(SpellUnit.PRIMARY, SpellUnit.PRIMARY, SpellUnit.SECONDARY);
+        tryCastSpell(3);
     }
 
-    private void tryCastSpell(SpellUnit a, SpellUnit b, SpellUnit c) {
-        if (!SPELL_PACKET_QUEUE.isEmpty()) {
+    private void tryCastSpell(int spellIndex) {
+        int selectedSlot = McUtils.inventory().selected;
+
+        if (!clickScheduler.canQueue(selectedSlot, bufferCasts)) {
             sendCancelReason(new TranslatableComponent("feature.wynntils.quickCast.anotherInProgress"));
             return;
         }
 
-        ItemStack heldItem = McUtils.player().getItemInHand(InteractionHand.MAIN_HAND);
+        WeaponCheck check = getWeaponCheck(McUtils.player().getItemInHand(InteractionHand.MAIN_HAND), selectedSlot);
+        if (check.cancelKey() != null) {
+            sendCancelReason(new TranslatableComponent(check.cancelKey(), check.cancelArgs()));
+            return;
+        }
+
+        String cancelKey = clickScheduler.queue(getSpell(check.isArcher(), spellIndex), selectedSlot);
+        if (cancelKey != null) {
+            sendCancelReason(new TranslatableComponent(cancelKey));
+        }
+    }
+
+    static SpellDirection[] getSpell(boolean isArcher, int spellIndex) {
+        return (isArcher ? ARCHER_SPELLS : SPELLS)[spellIndex];
+    }
+
+    private WeaponCheck getWeaponCheck(ItemStack heldItem, int selectedSlot) {
+        if (heldItem != checkedItem || selectedSlot != checkedSlot) {
+            checkedItem = heldItem;
+            checkedSlot = selectedSlot;
+            weaponCheck = checkWeapon(heldItem);
+        }
+
+        return weaponCheck;
+    }
 
+    private static WeaponCheck checkWeapon(ItemStack heldItem) {
         if (!WynnItemMatchers.isWeapon(heldItem)) {
-            sendCancelReason(new TranslatableComponent("feature.wynntils.quickCast.notAWeapon"));
-            return;
+            return new WeaponCheck(false, "feature.wynntils.quickCast.notAWeapon");
         }
 
         List<String> loreLines = ItemUtils.getLore(heldItem);
 
         boolean isArcher = false;
+        String levelRequirementType = null;
+        String levelRequirement = null;
         for (String lore : loreLines) {
             if (lore.contains("Archer/Hunter")) isArcher = true;
-            Matcher matcher = INCORRECT_CLASS_PATTERN.matcher(lore);
-            if (!matcher.matches()) continue;
-            sendCancelReason(new TranslatableComponent("feature.wynntils.quickCast.classMismatch", matcher.group(1)));
-            return;
-        }
 
-        for (String lore : loreLines) {
-            Matcher matcher = LVL_MIN_NOT_REACHED_PATTERN.matcher(lore);
-            if (!matcher.matches()) continue;
-            sendCancelReason(new TranslatableComponent(
-                    "feature.wynntils.quickCast.levelRequirementNotReached", matcher.group(1), matcher.group(2)));
-            return;
-        }
+            Matcher classMatcher = INCORRECT_CLASS_PATTERN.matcher(lore);
+            if (classMatcher.matches()) {
+                return new WeaponCheck(isArcher, "feature.wynntils.quickCast.classMismatch", classMatcher.group(1));
+            }
 
-        boolean isSpellInverted = isArcher;
-        List<SpellDirection> spell = Stream.of(a, b, c)
-                .map(x -> (x == SpellUnit.PRIMARY) != isSpellInverted ? SpellDirection.RIGHT : SpellDirection.LEFT)
-                .toList();
-        for (int i = 0; i < spellInProgress.length; ++i) {
-            if (spellInProgress[i] != spell.get(i)) {
-                sendCancelReason(new TranslatableComponent("feature.wynntils.quickCast.incompatibleInProgress"));
-                return;
+            if (levelRequirementType != null) continue;
+
+            Matcher levelMatcher = LVL_MIN_NOT_REACHED_PATTERN.matcher(lore);
+            if (levelMatcher.matches()) {
+                levelRequirementType = levelMatcher.group(1);
+                levelRequirement = levelMatcher.group(2);
             }
         }
 
-        lastSelectedSlot = McUtils.inventory().selected;
-        List<SpellDirection> remainder = spell.subList(spellInProgress.length, spell.size());
-        remainder.stream().map(SpellDirection::getInteractionPacket).forEach(SPELL_PACKET_QUEUE::add);
+        // A class mismatch is reported before an unmet level requirement
+        if (levelRequirementType != null) {
+            return new WeaponCheck(
+                    isArcher,
+                    "feature.wynntils.quickCast.levelRequirementNotReached",
+                    levelRequirementType,
+                    levelRequirement);
+        }
+
+        return new WeaponCheck(isArcher, null);
     }
 
     @SubscribeEvent
     public void onTick(ClientTickEvent.End e) {
         if (!WynnUtils.onWorld()) return;
 
-        // Clear spell after the 40 tick timeout period
-        if (spellCountdown > 0 && --spellCountdown <= 0) spellInProgress = NO_SPELL;
-
-        if (SPELL_PACKET_QUEUE.isEmpty()) return;
-        if (--packetCountdown > 0) return;
-
-        int currSelectedSlot = McUtils.inventory().selected;
-        boolean slotChanged = currSelectedSlot != lastSelectedSlot;
-
-        if (slotChanged) McUtils.sendPacket(new ServerboundSetCarriedItemPacket(lastSelectedSlot));
-        McUtils.sendPacket(SPELL_PACKET_QUEUE.poll());
-        if (slotChanged) McUtils.sendPacket(new ServerboundSetCarriedItemPacket(currSelectedSlot));
-
-        // Waiting a few ticks is useful for avoiding lag related input-overlaps
-        if (!SPELL_PACKET_QUEUE.isEmpty()) packetCountdown = 3;
+        clickScheduler.tick(McUtils.inventory().selected, clickDelayTicks);
     }
 
     @SubscribeEvent
     public void onWorldChange(WorldStateEvent e) {
-        SPELL_PACKET_QUEUE.clear();
-        spellInProgress = NO_SPELL;
+        clickScheduler.clear();
+        checkedItem = null;
+        weaponCheck = null;
     }
 
     private static void sendCancelReason(MutableComponent reason) {
         NotificationManager.queueMessage(reason.withStyle(ChatFormatting.RED));
     }
 
-    public enum SpellUnit {
-        PRIMARY,
-        SECONDARY
+    private static SpellDirection[][] createSpells(boolean inverted) {
+        SpellDirection primary = inverted ? SpellDirection.LEFT : SpellDirection.RIGHT;
+        SpellDirection secondary = inverted ? SpellDirection.RIGHT : SpellDirection.LEFT;
+
+        return new SpellDirection[][] {
+            {primary, secondary, primary},
+            {primary, primary, primary},
+            {primary, secondary, secondary},
+            {primary, primary, secondary}
+        };
+    }
+
+    private record WeaponCheck(boolean isArcher, String cancelKey, Object... cancelArgs) {}
+
+    /**
+     * Queues the clicks of spells and sends them one every few ticks. Packets go to the given sink,
+     * so the exact sequence and timing can be checked without a connection.
+     */
+    static final class ClickScheduler {
+        // A partially cast spell is forgotten by Wynncraft after this many ticks
+        private static final int SPELL_TIMEOUT_TICKS = 40;
+
+        private final Consumer<Packet<?>> packetSink;
+        private final RingBuffer<SpellDirection> clickQueue = new RingBuffer<>(MAX_QUEUED_CLICKS);
+
+        private SpellDirection[] spellInProgress = NO_SPELL;
+        private int packetCountdown = 0;
+        private int spellCountdown = 0;
+        private int lastSelectedSlot = 0;
+
+        ClickScheduler(Consumer<Packet<?>> packetSink) {
+            this.packetSink = packetSink;
+        }
+
+        /** Takes the clicks of the spell Wynncraft shows as being cast */
+        void updateSpellInProgress(SpellDirection[] spell) {
+            if (Arrays.equals(spellInProgress, spell)) return;
+
+            if (spell.length == 3) {
+                spellInProgress = NO_SPELL;
+                spellCountdown = 0;
+            } else {
+                spellInProgress = spell;
+                spellCountdown = SPELL_TIMEOUT_TICKS;
+            }
+        }
+
+        /** Another spell can only be buffered behind the current one if it is for the same weapon */
+        boolean canQueue(int selectedSlot, boolean bufferCasts) {
+            return clickQueue.isEmpty() || (bufferCasts && selectedSlot == lastSelectedSlot);
+        }
+
+        /**
+         * @return the translation key of the reason the spell was not queued, or null if it was
+         */
+        String queue(SpellDirection[] spell, int selectedSlot) {
+            if (!clickQueue.isEmpty()) {
+                // The queued spell finishes first, so this one is cast from the start
+                if (MAX_QUEUED_CLICKS - clickQueue.size() < spell.length) {
+                    return "feature.wynntils.quickCast.anotherInProgress";
+                }
+
+                for (SpellDirection direction : spell) {
+                    clickQueue.add(direction);
+                }
+                return null;
+            }
+
+            for (int i = 0; i < spellInProgress.length; ++i) {
+                if (spellInProgress[i] != spell[i]) return "feature.wynntils.quickCast.incompatibleInProgress";
+            }
+
+            lastSelectedSlot = selectedSlot;
+            for (int i = spellInProgress.length; i < spell.length; ++i) {
+                clickQueue.add(spell[i]);
+            }
+            return null;
+        }
+
+        void tick(int selectedSlot, int clickDelayTicks) {
+            // Clear spell after the timeout period
+            if (spellCountdown > 0 && --spellCountdown <= 0) spellInProgress = NO_SPELL;
+
+            if (clickQueue.isEmpty()) return;
+            if (--packetCountdown > 0) return;
+
+            boolean slotChanged = selectedSlot != lastSelectedSlot;
+
+            // Clicks have to come from the weapon the spell was cast with
+            if (slotChanged) packetSink.accept(new ServerboundSetCarriedItemPacket(lastSelectedSlot));
+            packetSink.accept(clickQueue.removeFirst().getInteractionPacket());
+            if (slotChanged) packetSink.accept(new ServerboundSetCarriedItemPacket(selectedSlot));
+
+            // Waiting a few ticks is useful for avoiding lag related input-overlaps
+            if (!clickQueue.isEmpty()) packetCountdown = Math.max(clickDelayTicks, 1);
+        }
+
+        void clear() {
+            clickQueue.clear();
+            spellInProgress = NO_SPELL;
+            spellCountdown = 0;
+        }
     }
 
     public enum SpellDirection {
@@ -22,11 +22,17 @@ import com.wynntils.gui.render.VerticalAlignment;
 import com.wynntils.mc.event.RenderEvent;
 import com.wynntils.wynn.event.StatusEffectsChangedEvent;
 import com.wynntils.wynn.model.TabModel;
+import com.wynntils.wynn.objects.timers.StatusTimer;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class StatusOverlayFeature extends UserFeature {
     private List<TextRenderTask> renderCache = List.of();
+    // Timers are kept stable by TabModel, so render tasks can be reused between updates
+    private Map<StatusTimer, TextRenderTask> renderTasks = new HashMap<>();
 
     @OverlayInfo(renderType = RenderEvent.ElementType.GUI)
     public final StatusOverlay statusOverlay = new StatusOverlay();
@@ -42,9 +48,24 @@ public class StatusOverlayFeature extends UserFeature {
     }
 
     private void recalculateRenderCache() {
-        renderCache = TabModel.getTimers().stream()
-                .map(statusTimer -> new TextRenderTask(statusTimer.asString(), statusOverlay.getTextRenderSetting()))
-                .toList();
+        Map<StatusTimer, TextRenderTask> newRenderTasks = new HashMap<>();
+        List<TextRenderTask> newRenderCache = new ArrayList<>();
+
+        for (StatusTimer statusTimer : TabModel.getTimers()) {
+            TextRenderTask task = renderTasks.get(statusTimer);
+            if (task == null) {
+                task = new TextRenderTask(statusTimer.asString(), statusOverlay.getTextRenderSetting());
+            } else {
+                task.setText(statusTimer.asString());
+                task.setSetting(statusOverlay.getTextRenderSetting());
+            }
+
+            newRenderTasks.put(statusTimer, task);
+            newRenderCache.add(task);
+        }
+
+        renderTasks = newRenderTasks;
+        renderCache = newRenderCache;
     }
 
     public class StatusOverlay extends Overlay {
@@ -5,10 +5,6 @@
 package com.wynntils.features.user;
 
 import com.mojang.blaze3d.platform.Window;
-import com.mojang.math.Matrix4f;
-import com.mojang.math.Vector3d;
-import com.mojang.math.Vector3f;
-import com.mojang.math.Vector4f;
 import com.wynntils.core.config.Config;
 import com.wynntils.core.features.UserFeature;
 import com.wynntils.core.managers.Model;
@@ -17,15 +13,14 @@ import com.wynntils.gui.render.HorizontalAlignment;
 import com.wynntils.gui.render.RenderUtils;
 import com.wynntils.gui.render.VerticalAlignment;
 import com.wynntils.mc.event.RenderEvent;
-import com.wynntils.mc.event.RenderLevelEvent;
 import com.wynntils.mc.objects.CommonColors;
 import com.wynntils.mc.objects.CustomColor;
-import com.wynntils.mc.objects.Location;
-import com.wynntils.mc.utils.McUtils;
 import com.wynntils.wynn.model.CompassModel;
+import com.wynntils.wynn.model.waypoints.Waypoint;
+import com.wynntils.wynn.model.waypoints.WaypointModel;
+import com.wynntils.wynn.model.waypoints.WaypointProjection;
 import java.util.List;
-import net.minecraft.client.Camera;
-import net.minecraft.world.phys.Vec3;
+import net.minecraft.client.gui.Font;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class WorldWaypointDistanceFeature extends UserFeature {
@@ -42,101 +37,95 @@ public class WorldWaypointDistanceFeature extends UserFeature {
     @Config
     public int maxWaypointTextDistance = 5000;
 
-    private Vector3d normalizedDeviceCoordinates = null;
-    private String distanceText;
-    private double distance;
+    @Config
+    public boolean showPartyMembers = true;
+
+    @Config
+    public boolean hideOccludedLabels = false;
+
+    // Screen bounds of the labels drawn so far this frame, four floats each
+    private float[] drawnLabels = new float[16 * 4];
 
     @Override
     public List<Class<? extends Model>> getModelDependencies() {
-        return List.of(CompassModel.class);
+        return List.of(CompassModel.class, WaypointModel.class);
     }
 
     @SubscribeEvent
-    public void onRenderLevelPost(RenderLevelEvent.Post event) {
-        if (CompassModel.getCompassLocation().isEmpty()) return;
-
-        Location location = CompassModel.getCompassLocation().get();
-        Matrix4f projection = event.getProjectionMatrix().copy();
-        Camera camera = event.getCamera();
-        Vec3 cameraPos = camera.getPosition();
-
-        // apply camera rotation
-        projection.multiply(Vector3f.XP.rotationDegrees(camera.getXRot()));
-        projection.multiply(Vector3f.YP.rotationDegrees(camera.getYRot() + 180.0F));
-
-        // offset to put text to the center of the block
-        float dx = (float) (location.x + 0.5 - cameraPos.x);
-        float dy = (float) (location.y + 0.5 - cameraPos.y);
-        float dz = (float) (location.z + 0.5 - cameraPos.z);
-
-        double squaredDistance = dx * dx + dy * dy + dz * dz;
-
-        distance = Math.sqrt(squaredDistance);
-        int maxDistance = McUtils.mc().options.renderDistance * 16;
-
-        this.distanceText = Math.round((float) distance) + "m";
+    public void onRenderGuiPost(RenderEvent.Post event) {
+        WaypointProjection projection = WaypointModel.getProjection();
+        if (projection.size() == 0) return;
 
-        // move the position to avoid ndc z leak past 1
-        if (distance > maxDistance) {
-            double posScale = maxDistance / distance;
-            dx *= posScale;
-            dz *= posScale;
+        if (drawnLabels.length < projection.size() * 4) {
+            drawnLabels = new float[projection.size() * 4];
         }
 
-        this.normalizedDeviceCoordinates = worldToNdc(new Vector3f(dx, dy, dz), projection);
-    }
-
-    @SubscribeEvent
-    public void onRenderGuiPost(RenderEvent.Post event) {
-        if (CompassModel.getCompassLocation().isEmpty()
-                || normalizedDeviceCoordinates == null
-                || isOnScreen()
-                || (maxWaypointTextDistance != 0 && maxWaypointTextDistance < distance)) return;
-
         Window window = event.getWindow();
-
-        float backgroundWidth = FontRenderer.getInstance().getFont().width(distanceText);
-        float backgroundHeight = FontRenderer.getInstance().getFont().lineHeight;
-
-        float displayPositionX = (float) ((normalizedDeviceCoordinates.x + 1.0f) / 2.0f) * window.getGuiScaledWidth();
-        float displayPositionY = (float) ((1.0f - normalizedDeviceCoordinates.y) / 2.0f) * window.getGuiScaledHeight();
-
-        RenderUtils.drawRect(
-                event.getPoseStack(),
-                CommonColors.BLACK.withAlpha(backgroundOpacity),
-                displayPositionX - (backgroundWidth / 2) - 2,
-                displayPositionY - (backgroundHeight / 2) - 2,
-                0,
-                backgroundWidth + 3,
-                backgroundHeight + 2);
-        FontRenderer.getInstance()
-                .renderAlignedTextInBox(
-                        event.getPoseStack(),
-                        distanceText,
-                        displayPositionX - backgroundWidth,
-                        displayPositionX + backgroundWidth,
-                        displayPositionY - backgroundHeight,
-                        displayPositionY + backgroundHeight,
-                        0,
-                        textColor,
-                        HorizontalAlignment.Center,
-                        VerticalAlignment.Middle,
-                        textShadow);
-    }
-
-    private boolean isOnScreen() {
-        return normalizedDeviceCoordinates.x <= 1
-                && normalizedDeviceCoordinates.x >= -1
-                && normalizedDeviceCoordinates.y <= 1
-                && normalizedDeviceCoordinates.y >= -1
-                && normalizedDeviceCoordinates.z > 1;
+        Font font = FontRenderer.getInstance().getFont();
+        float backgroundHeight = font.lineHeight;
+        int drawnCount = 0;
+
+        // Nearest first, so that a label hidden behind another one is always the one further away
+        for (int rank = 0; rank < projection.size(); rank++) {
+            int index = projection.getIndexByDistance(rank);
+            Waypoint waypoint = projection.getWaypoint(index);
+
+            if (maxWaypointTextDistance != 0 && maxWaypointTextDistance < projection.getDistance(index)) break;
+            if (!projection.isInFront(index)) continue;
+            if (waypoint.getKind() == Waypoint.Kind.PARTY_MEMBER && !showPartyMembers) continue;
+            if (hideOccludedLabels && waypoint.isOccluded()) continue;
+
+            String text = projection.getLabel(index);
+            float backgroundWidth = font.width(text);
+
+            float displayPositionX = (projection.getNdcX(index) + 1.0f) / 2.0f * window.getGuiScaledWidth();
+            float displayPositionY = (1.0f - projection.getNdcY(index)) / 2.0f * window.getGuiScaledHeight();
+
+            float left = displayPositionX - (backgroundWidth / 2) - 2;
+            float top = displayPositionY - (backgroundHeight / 2) - 2;
+            float right = left + backgroundWidth + 3;
+            float bottom = top + backgroundHeight + 2;
+
+            if (overlapsDrawnLabel(drawnCount, left, top, right, bottom)) continue;
+
+            drawnLabels[drawnCount * 4] = left;
+            drawnLabels[drawnCount * 4 + 1] = top;
+            drawnLabels[drawnCount * 4 + 2] = right;
+            drawnLabels[drawnCount * 4 + 3] = bottom;
+            drawnCount++;
+
+            RenderUtils.drawRect(
+                    event.getPoseStack(),
+                    CommonColors.BLACK.withAlpha(backgroundOpacity),
+                    left,
+                    top,
+                    0,
+                    backgroundWidth + 3,
+                    backgroundHeight + 2);
+            FontRenderer.getInstance()
+                    .renderAlignedTextInBox(
+                            event.getPoseStack(),
+                            text,
+                            displayPositionX - backgroundWidth,
+                            displayPositionX + backgroundWidth,
+                            displayPositionY - backgroundHeight,
+                            displayPositionY + backgroundHeight,
+                            0,
+                            waypoint.getKind() == Waypoint.Kind.COMPASS ? textColor : waypoint.getColor(),
+                            HorizontalAlignment.Center,
+                            VerticalAlignment.Middle,
+                            textShadow);
+        }
     }
 
-    private Vector3d worldToNdc(Vector3f delta, Matrix4f projection) {
-        Vector4f clipCoords = new Vector4f(delta.x(), delta.y(), delta.z(), 1.0f);
-        clipCoords.transform(projection);
+    private boolean overlapsDrawnLabel(int drawnCount, float left, float top, float right, float bottom) {
+        for (int i = 0; i < drawnCount; i++) {
+            if (left < drawnLabels[i * 4 + 2]
+                    && right > drawnLabels[i * 4]
+                    && top < drawnLabels[i * 4 + 3]
+                    && bottom > drawnLabels[i * 4 + 1]) return true;
+        }
 
-        return new Vector3d(
-                clipCoords.x() / clipCoords.w(), clipCoords.y() / clipCoords.w(), clipCoords.z() / clipCoords.w());
+        return false;
     }
 }
@@ -11,6 +11,7 @@ import com.wynntils.core.features.properties.FeatureInfo;
 import com.wynntils.core.features.properties.FeatureInfo.Stability;
 import com.wynntils.core.managers.Model;
 import com.wynntils.gui.render.RenderUtils;
+import com.wynntils.gui.render.SlotDecorationModel;
 import com.wynntils.mc.event.HotbarSlotRenderEvent;
 import com.wynntils.mc.event.SlotRenderEvent;
 import com.wynntils.mc.objects.CustomColor;
@@ -33,7 +34,7 @@ public class DurabilityArcFeature extends UserFeature {
 
     @Override
     public List<Class<? extends Model>> getModelDependencies() {
-        return List.of(ItemStackTransformModel.class);
+        return List.of(ItemStackTransformModel.class, SlotDecorationModel.class);
     }
 
     @SubscribeEvent
@@ -60,6 +61,10 @@ public class DurabilityArcFeature extends UserFeature {
         CustomColor color = CustomColor.fromInt(colorInt).withAlpha(160);
 
         // draw
-        RenderUtils.drawArc(color, slotX, slotY, hotbar ? 0 : 200, durabilityPercent, 6, 8);
+        if (hotbar) {
+            RenderUtils.drawArc(color, slotX, slotY, 0, durabilityPercent, 6, 8);
+        } else {
+            SlotDecorationModel.addArc(color, slotX, slotY, 200, durabilityPercent);
+        }
     }
 }
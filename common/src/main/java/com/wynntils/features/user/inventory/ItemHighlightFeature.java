@@ -11,6 +11,7 @@ import com.wynntils.core.features.properties.FeatureInfo;
 import com.wynntils.core.features.properties.FeatureInfo.Stability;
 import com.wynntils.core.managers.Model;
 import com.wynntils.gui.render.RenderUtils;
+import com.wynntils.gui.render.SlotDecorationModel;
 import com.wynntils.gui.render.Texture;
 import com.wynntils.mc.event.HotbarSlotRenderEvent;
 import com.wynntils.mc.event.SlotRenderEvent;
@@ -141,7 +142,7 @@ public class ItemHighlightFeature extends UserFeature {
 
     @Override
     public List<Class<? extends Model>> getModelDependencies() {
-        return List.of(ItemStackTransformModel.class);
+        return List.of(ItemStackTransformModel.class, SlotDecorationModel.class);
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
@@ -151,7 +152,7 @@ public class ItemHighlightFeature extends UserFeature {
         CustomColor color = getHighlightColor(e.getSlot().getItem(), false);
         if (color == CustomColor.NONE) return;
 
-        RenderUtils.drawTexturedRectWithColor(
+        SlotDecorationModel.addTexturedRect(
                 Texture.HIGHLIGHT.resource(),
                 color.withAlpha(inventoryOpacity),
                 e.getSlot().x - 1,
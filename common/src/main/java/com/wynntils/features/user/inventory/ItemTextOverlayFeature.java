@@ -12,6 +12,7 @@ import com.wynntils.core.features.properties.FeatureCategory;
 import com.wynntils.core.features.properties.FeatureInfo;
 import com.wynntils.core.managers.Model;
 import com.wynntils.gui.render.FontRenderer;
+import com.wynntils.gui.render.SlotDecorationModel;
 import com.wynntils.mc.event.HotbarSlotRenderEvent;
 import com.wynntils.mc.event.SlotRenderEvent;
 import com.wynntils.wynn.item.ItemStackTransformModel;
@@ -94,7 +95,7 @@ public class ItemTextOverlayFeature extends UserFeature {
 
     @Override
     public List<Class<? extends Model>> getModelDependencies() {
-        return List.of(ItemStackTransformModel.class);
+        return List.of(ItemStackTransformModel.class, SlotDecorationModel.class);
     }
 
     @SubscribeEvent
@@ -126,8 +127,19 @@ public class ItemTextOverlayFeature extends UserFeature {
                 continue;
             }
 
+            // items are drawn at z300, so text has to be as well
+            if (!hotbar) {
+                SlotDecorationModel.addText(
+                        textOverlay.task(),
+                        slotX + textOverlay.xOffset(),
+                        slotY + textOverlay.yOffset(),
+                        300,
+                        textOverlay.scale());
+                continue;
+            }
+
             PoseStack poseStack = new PoseStack();
-            poseStack.translate(0, 0, 300); // items are drawn at z300, so text has to be as well
+            poseStack.translate(0, 0, 300);
             poseStack.scale(textOverlay.scale(), textOverlay.scale(), 1f);
             float x = (slotX + textOverlay.xOffset()) / textOverlay.scale();
             float y = (slotY + textOverlay.yOffset()) / textOverlay.scale();
@@ -251,7 +251,7 @@ public class MinimapFeature extends UserFeature {
 
             List<Poi> poisToRender = new ArrayList<>(MapModel.getServicePois());
             poisToRender.addAll(MapFeature.INSTANCE.customPois);
-            List<PlayerMiniMapPoi> playerPois = HadesUserModel.getHadesUserMap().values().stream()
+            List<PlayerMiniMapPoi> playerPois = HadesUserModel.getUsers().stream()
                     .filter(user -> (user.isPartyMember() && renderRemotePartyPlayers)
                             || (user.isMutualFriend() && renderRemoteFriendPlayers))
                     .sorted(Comparator.comparing(
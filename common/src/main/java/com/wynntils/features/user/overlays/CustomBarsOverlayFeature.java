@@ -43,6 +43,16 @@ public class CustomBarsOverlayFeature extends UserFeature {
         return List.of(ActionBarModel.class, BossBarModel.class);
     }
 
+    @Override
+    protected void postEnable() {
+        ActionBarModel.invalidateCache();
+    }
+
+    @Override
+    protected void onDisable() {
+        ActionBarModel.invalidateCache();
+    }
+
     @SubscribeEvent
     public void onActionBarManaUpdate(ActionBarMessageUpdateEvent.ManaText event) {
         if (!manaBarOverlay.isEnabled() || manaBarOverlay.shouldDisplayOriginal) return;
@@ -108,6 +118,11 @@ public class CustomBarsOverlayFeature extends UserFeature {
         @Config(key = "feature.wynntils.customBarsOverlay.overlay.baseBar.textColor")
         public CustomColor textColor = CustomColor.NONE;
 
+        // The text only changes when the values do, so it is not formatted every frame
+        private int lastCurrent = -1;
+        private int lastMax = -1;
+        private String lastText = "";
+
         protected BaseBarOverlay(OverlayPosition position, OverlaySize size) {
             super(position, size);
         }
@@ -131,8 +146,12 @@ public class CustomBarsOverlayFeature extends UserFeature {
 
             BossBarModel.BarProgress barProgress = progress();
 
-            String text = String.format("%s %s %s", barProgress.current(), icon(), barProgress.max());
-            renderText(poseStack, renderY, text);
+            if (barProgress.current() != lastCurrent || barProgress.max() != lastMax) {
+                lastCurrent = barProgress.current();
+                lastMax = barProgress.max();
+                lastText = String.format("%s %s %s", lastCurrent, icon(), lastMax);
+            }
+            renderText(poseStack, renderY, lastText);
 
             float progress = (flip ? -1 : 1) * barProgress.progress();
             renderBar(poseStack, renderY + 10, barHeight, progress);
@@ -148,7 +167,10 @@ public class CustomBarsOverlayFeature extends UserFeature {
         }
 
         @Override
-        protected void onConfigUpdate(ConfigHolder configHolder) {}
+        protected void onConfigUpdate(ConfigHolder configHolder) {
+            // Make sure the action bar is rebuilt with the new visibility of the original text
+            ActionBarModel.invalidateCache();
+        }
 
         protected void renderBar(PoseStack poseStack, float renderY, float renderHeight, float progress) {
             Texture universalBarTexture = Texture.UNIVERSAL_BAR;
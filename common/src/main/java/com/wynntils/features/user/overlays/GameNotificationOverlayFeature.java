@@ -23,20 +23,22 @@ import com.wynntils.gui.render.TextRenderSetting;
 import com.wynntils.gui.render.TextRenderTask;
 import com.wynntils.gui.render.VerticalAlignment;
 import com.wynntils.mc.event.RenderEvent;
+import com.wynntils.mc.objects.CustomColor;
+import com.wynntils.utils.objects.RingBuffer;
 import com.wynntils.wynn.event.NotificationEvent;
 import com.wynntils.wynn.event.WorldStateEvent;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 @FeatureInfo(category = FeatureCategory.OVERLAYS)
 public class GameNotificationOverlayFeature extends UserFeature {
     public static GameNotificationOverlayFeature INSTANCE;
 
-    private static final List<TimedMessageContainer> messageQueue = new LinkedList<>();
+    // Upper bound for queued notifications, only reached if overrideNewMessages is disabled
+    private static final int MAX_QUEUED_MESSAGES = 64;
+
+    private static final RingBuffer<QueuedNotification> messageQueue = new RingBuffer<>(MAX_QUEUED_MESSAGES);
 
     @OverlayInfo(renderType = RenderEvent.ElementType.GUI)
     public final GameNotificationOverlay gameNotificationOverlay = new GameNotificationOverlay();
@@ -48,24 +50,81 @@ public class GameNotificationOverlayFeature extends UserFeature {
 
     @SubscribeEvent
     public void onGameNotification(NotificationEvent.Queue event) {
-        messageQueue.add(new TimedMessageContainer(
+        if (messageQueue.isFull() && !gameNotificationOverlay.overrideNewMessages) return;
+
+        QueuedNotification notification = new QueuedNotification(new TimedMessageContainer(
                 event.getMessageContainer(), (long) gameNotificationOverlay.messageTimeLimit * 1000));
+        notification.layout(gameNotificationOverlay);
+        messageQueue.add(notification);
 
-        if (GameNotificationOverlayFeature.INSTANCE.gameNotificationOverlay.overrideNewMessages
-                && messageQueue.size() > GameNotificationOverlayFeature.INSTANCE.gameNotificationOverlay.messageLimit) {
-            messageQueue.remove(0);
+        if (gameNotificationOverlay.overrideNewMessages && messageQueue.size() > gameNotificationOverlay.messageLimit) {
+            messageQueue.removeFirst();
         }
     }
 
     @SubscribeEvent
     public void onGameNotification(NotificationEvent.Edit event) {
         MessageContainer newContainer = event.getMessageContainer();
-        messageQueue.stream()
-                .filter(timedMessageContainer ->
-                        timedMessageContainer.getMessageContainer().hashCode() == newContainer.hashCode())
-                .findFirst()
-                .ifPresent(timedMessageContainer -> timedMessageContainer.update(
-                        newContainer, (long) gameNotificationOverlay.messageTimeLimit * 1000));
+
+        for (int i = 0; i < messageQueue.size(); i++) {
+            QueuedNotification notification = messageQueue.get(i);
+            if (notification.container.getMessageContainer().hashCode() != newContainer.hashCode()) continue;
+
+            notification.container.update(newContainer, (long) gameNotificationOverlay.messageTimeLimit * 1000);
+            notification.layout(gameNotificationOverlay);
+            return;
+        }
+    }
+
+    /** A queued message together with its wrapped lines, which are only rebuilt when the message changes */
+    private static final class QueuedNotification {
+        private final TimedMessageContainer container;
+        private final List<TextRenderTask> lines = new ArrayList<>();
+
+        private String layoutText;
+        private CustomColor baseColor;
+        private int alpha = -1;
+
+        private QueuedNotification(TimedMessageContainer container) {
+            this.container = container;
+        }
+
+        private void layout(GameNotificationOverlay overlay) {
+            TextRenderTask messageTask = container.getRenderTask();
+            String text = messageTask.getText();
+
+            lines.clear();
+            if (overlay.messageMaxLength == 0 || text.length() < overlay.messageMaxLength) {
+                lines.add(new TextRenderTask(text, overlay.textRenderSetting));
+            } else {
+                for (int start = 0; start < text.length(); start += overlay.messageMaxLength) {
+                    int end = Math.min(start + overlay.messageMaxLength, text.length());
+                    lines.add(new TextRenderTask(text.substring(start, end), overlay.textRenderSetting));
+                }
+            }
+
+            layoutText = text;
+            baseColor = messageTask.getSetting().customColor();
+            alpha = -1;
+        }
+
+        private void updateLayout(GameNotificationOverlay overlay) {
+            // messages may be edited in place, without replacing the render task
+            if (container.getRenderTask().getText() != layoutText) {
+                layout(overlay);
+            }
+        }
+
+        private void updateAlpha(GameNotificationOverlay overlay, long now) {
+            int newAlpha = (int) Math.min((container.getEndTime() - now) / 1000f * 255, 255);
+            if (newAlpha == alpha) return;
+
+            alpha = newAlpha;
+            TextRenderSetting setting = overlay.textRenderSetting.withCustomColor(baseColor.withAlpha(newAlpha));
+            for (TextRenderTask line : lines) {
+                line.setSetting(setting);
+            }
+        }
     }
 
     public static class GameNotificationOverlay extends Overlay {
@@ -88,6 +147,9 @@ public class GameNotificationOverlayFeature extends UserFeature {
         public boolean overrideNewMessages = true;
 
         private TextRenderSetting textRenderSetting;
+        private TextRenderTask paddingTask;
+
+        private final List<TextRenderTask> renderTasks = new ArrayList<>();
 
         protected GameNotificationOverlay() {
             super(
@@ -104,50 +166,44 @@ public class GameNotificationOverlayFeature extends UserFeature {
 
         @Override
         public void render(PoseStack poseStack, float partialTicks, Window window) {
-            List<TimedMessageContainer> toRender = new ArrayList<>();
+            long now = System.currentTimeMillis();
 
-            ListIterator<TimedMessageContainer> messages = messageQueue.listIterator(messageQueue.size());
-            while (messages.hasPrevious()) {
-                TimedMessageContainer message = messages.previous();
+            int lineCount = 0;
+            for (int i = messageQueue.size() - 1; i >= 0; i--) {
+                QueuedNotification message = messageQueue.get(i);
 
-                if (message.getRemainingTime() <= 0.0f) {
-                    messages.remove(); // remove the message if the time has come
+                if (message.container.getEndTime() <= now) {
+                    messageQueue.remove(i); // remove the message if the time has come
                     continue;
                 }
 
-                TextRenderTask messageTask = message.getRenderTask();
-
-                if (messageMaxLength == 0 || messageTask.getText().length() < messageMaxLength) {
-                    toRender.add(message);
-                } else {
-                    TimedMessageContainer first = new TimedMessageContainer(
-                            new MessageContainer(messageTask.getText().substring(0, messageMaxLength)),
-                            message.getEndTime());
-                    TimedMessageContainer second = new TimedMessageContainer(
-                            new MessageContainer(messageTask.getText().substring(messageMaxLength)),
-                            message.getEndTime());
-                    if (this.invertGrowth) {
-                        toRender.add(first);
-                        toRender.add(second);
-                    } else {
-                        toRender.add(second);
-                        toRender.add(first);
-                    }
-                }
+                message.updateLayout(this);
+                message.updateAlpha(this, now);
+                lineCount += message.lines.size();
             }
 
-            if (toRender.isEmpty()) return;
+            if (lineCount == 0) return;
 
-            List<TimedMessageContainer> renderedValues = this.overrideNewMessages
-                    ? toRender.subList(0, Math.min(toRender.size(), this.messageLimit))
-                    : toRender.subList(Math.max(toRender.size() - this.messageLimit, 0), toRender.size());
-
-            Collections.reverse(renderedValues);
+            // Lines are counted from the newest message's first line; pick which of them are shown
+            int firstShown = this.overrideNewMessages ? 0 : Math.max(lineCount - this.messageLimit, 0);
+            int lastShown = this.overrideNewMessages ? Math.min(lineCount, this.messageLimit) : lineCount;
 
+            renderTasks.clear();
             if (this.invertGrowth) {
-                while (renderedValues.size() < messageLimit) {
-                    renderedValues.add(0, new TimedMessageContainer(new MessageContainer(""), (long)
-                            (this.messageTimeLimit * 1000)));
+                for (int i = lastShown - firstShown; i < messageLimit; i++) {
+                    renderTasks.add(paddingTask);
+                }
+            }
+
+            // Walk from the oldest line to the newest
+            int position = lineCount;
+            for (int i = 0; i < messageQueue.size(); i++) {
+                List<TextRenderTask> lines = messageQueue.get(i).lines;
+                for (int j = 0; j < lines.size(); j++) {
+                    position--;
+                    if (position < firstShown || position >= lastShown) continue;
+
+                    renderTasks.add(lines.get(this.invertGrowth ? lines.size() - 1 - j : j));
                 }
             }
 
@@ -156,15 +212,7 @@ public class GameNotificationOverlayFeature extends UserFeature {
                             poseStack,
                             this.getRenderX(),
                             this.getRenderY(),
-                            renderedValues.stream()
-                                    .map(messageContainer -> messageContainer
-                                            .getRenderTask()
-                                            .setSetting(textRenderSetting.withCustomColor(messageContainer
-                                                    .getRenderTask()
-                                                    .getSetting()
-                                                    .customColor()
-                                                    .withAlpha(messageContainer.getRemainingTime() / 1000f))))
-                                    .toList(),
+                            renderTasks,
                             this.getWidth(),
                             this.getHeight(),
                             this.getRenderHorizontalAlignment(),
@@ -188,6 +236,10 @@ public class GameNotificationOverlayFeature extends UserFeature {
         @Override
         protected void onConfigUpdate(ConfigHolder configHolder) {
             updateTextRenderSetting();
+
+            for (int i = 0; i < messageQueue.size(); i++) {
+                messageQueue.get(i).layout(this);
+            }
         }
 
         private void updateTextRenderSetting() {
@@ -196,6 +248,7 @@ public class GameNotificationOverlayFeature extends UserFeature {
                     .withHorizontalAlignment(this.getRenderHorizontalAlignment())
                     .withVerticalAlignment(this.getRenderVerticalAlignment())
                     .withTextShadow(textShadow);
+            paddingTask = new TextRenderTask("", textRenderSetting);
         }
     }
 }
@@ -25,8 +25,6 @@ import com.wynntils.mc.event.RenderEvent;
 import com.wynntils.wynn.event.ScoreboardSegmentAdditionEvent;
 import com.wynntils.wynn.model.GuildAttackTimerModel;
 import com.wynntils.wynn.model.scoreboard.ScoreboardModel;
-import com.wynntils.wynn.model.scoreboard.guild.TerritoryAttackTimer;
-import java.util.Comparator;
 import java.util.List;
 import net.minecraft.ChatFormatting;
 import net.minecraftforge.eventbus.api.EventPriority;
@@ -59,7 +57,11 @@ public class GuildAttackTimerOverlayFeature extends UserFeature {
         @Config
         public FontRenderer.TextShadow textShadow = FontRenderer.TextShadow.OUTLINE;
 
+        private static final long REFRESH_MILLIS = 1000;
+
         private TextRenderSetting textRenderSetting;
+        private List<TextRenderTask> renderTasks = List.of();
+        private long lastRefresh = 0;
 
         protected TerritoryAttackTimerOverlay() {
             super(
@@ -76,16 +78,22 @@ public class GuildAttackTimerOverlayFeature extends UserFeature {
 
         @Override
         public void render(PoseStack poseStack, float partialTicks, Window window) {
+            // The timers only count down in seconds, so there is no point in rebuilding this every frame
+            long now = System.currentTimeMillis();
+            if (now - lastRefresh >= REFRESH_MILLIS) {
+                renderTasks = GuildAttackTimerModel.getAttackTimers().stream()
+                        .map(territoryAttackTimer ->
+                                new TextRenderTask(territoryAttackTimer.asString(), textRenderSetting))
+                        .toList();
+                lastRefresh = now;
+            }
+
             FontRenderer.getInstance()
                     .renderTextsWithAlignment(
                             poseStack,
                             this.getRenderX(),
                             this.getRenderY(),
-                            GuildAttackTimerModel.getAttackTimers().stream()
-                                    .sorted(Comparator.comparing(TerritoryAttackTimer::asSeconds))
-                                    .map(territoryAttackTimer ->
-                                            new TextRenderTask(territoryAttackTimer.asString(), textRenderSetting))
-                                    .toList(),
+                            renderTasks,
                             this.getWidth(),
                             this.getHeight(),
                             this.getRenderHorizontalAlignment(),
@@ -119,6 +127,8 @@ public class GuildAttackTimerOverlayFeature extends UserFeature {
                     .withMaxWidth(this.getWidth())
                     .withHorizontalAlignment(this.getRenderHorizontalAlignment())
                     .withTextShadow(textShadow);
+            // Rebuild the texts with the new setting on the next frame
+            lastRefresh = 0;
         }
     }
 }
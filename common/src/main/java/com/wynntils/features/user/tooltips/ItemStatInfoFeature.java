@@ -6,11 +6,14 @@ package com.wynntils.features.user.tooltips;
 
 import com.google.common.collect.ImmutableList;
 import com.wynntils.core.config.Config;
+import com.wynntils.core.config.ConfigHolder;
 import com.wynntils.core.features.UserFeature;
 import com.wynntils.core.features.properties.FeatureCategory;
 import com.wynntils.core.features.properties.FeatureInfo;
 import com.wynntils.core.features.properties.FeatureInfo.Stability;
 import com.wynntils.core.managers.Model;
+import com.wynntils.wynn.item.GearItemStack;
+import com.wynntils.wynn.item.ItemNameAnimator;
 import com.wynntils.wynn.item.ItemStackTransformModel;
 import java.util.List;
 
@@ -39,6 +42,15 @@ public class ItemStatInfoFeature extends UserFeature {
     @Config
     public float obfuscationChanceEnd = 0.04f;
 
+    @Config
+    public float animationSpeed = 1f;
+
+    @Config
+    public float perfectSaturation = 0.8f;
+
+    @Config
+    public float perfectBrightness = 0.8f;
+
     @Config
     public boolean reorderIdentifications = true;
 
@@ -54,4 +66,11 @@ public class ItemStatInfoFeature extends UserFeature {
     public List<Class<? extends Model>> getModelDependencies() {
         return List.of(ItemStackTransformModel.class);
     }
+
+    @Override
+    protected void onConfigUpdate(ConfigHolder configHolder) {
+        // identification lines and animated names depend on most of these settings
+        GearItemStack.invalidateTooltips();
+        ItemNameAnimator.clear();
+    }
 }
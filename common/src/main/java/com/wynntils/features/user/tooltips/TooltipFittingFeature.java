@@ -6,6 +6,7 @@ package com.wynntils.features.user.tooltips;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.wynntils.core.config.Config;
+import com.wynntils.core.config.ConfigHolder;
 import com.wynntils.core.features.UserFeature;
 import com.wynntils.core.features.properties.FeatureCategory;
 import com.wynntils.core.features.properties.FeatureInfo;
@@ -13,10 +14,14 @@ import com.wynntils.core.features.properties.FeatureInfo.Stability;
 import com.wynntils.mc.event.ItemTooltipRenderEvent;
 import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.mc.utils.McUtils;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 @FeatureInfo(stability = Stability.STABLE, category = FeatureCategory.TOOLTIPS)
@@ -35,6 +40,14 @@ public class TooltipFittingFeature extends UserFeature {
     private int oldWidth = -1;
     private int oldHeight = -1;
 
+    private final TooltipLayoutCache layoutCache =
+            new TooltipLayoutCache(line -> McUtils.mc().font.width(line), ComponentUtils::splitComponent);
+
+    @Override
+    protected void onConfigUpdate(ConfigHolder configHolder) {
+        layoutCache.clear();
+    }
+
     @SubscribeEvent
     public void onTooltipPre(ItemTooltipRenderEvent.Pre e) {
         currentScreen = McUtils.mc().screen;
@@ -42,11 +55,11 @@ public class TooltipFittingFeature extends UserFeature {
 
         if (wrapText) {
             // calculate optimal wrapping for scaled up tooltips
-            int tooltipWidth = ComponentUtils.getOptimalTooltipWidth(
-                    e.getTooltips(), (int) (currentScreen.width / universalScale), (int)
-                            (e.getMouseX() / universalScale));
-            List<Component> wrappedTooltips = ComponentUtils.wrapTooltips(e.getTooltips(), tooltipWidth);
-            e.setTooltips(Collections.unmodifiableList(wrappedTooltips));
+            e.setTooltips(layoutCache.wrap(
+                    e.getItemStack(),
+                    e.getTooltips(),
+                    (int) (currentScreen.width / universalScale),
+                    (int) (e.getMouseX() / universalScale)));
         }
 
         // calculate scale factor
@@ -93,4 +106,89 @@ public class TooltipFittingFeature extends UserFeature {
             currentScreen.height = oldHeight;
         }
     }
+
+    /**
+     * Remembers the measured width and the wrapped lines of every line of the last tooltip, so a
+     * tooltip that is hovered for many frames is only measured and wrapped once. Lines are reused
+     * as long as they are equal to the previous frame's, so an animated item name only re-wraps
+     * its own line. Screen width, scale and mouse position all end up in the wrap width, so a
+     * change to any of them re-wraps the tooltip.
+     *
+     * <p>Measuring and splitting are passed in, so the cache can be checked without a font.
+     */
+    static final class TooltipLayoutCache {
+        private final ToIntFunction<Component> lineWidth;
+        private final BiFunction<Component, Integer, List<Component>> lineSplitter;
+
+        private ItemStack itemStack;
+        private final List<Component> lines = new ArrayList<>();
+        private final List<List<Component>> wrappedLines = new ArrayList<>();
+        private int[] lineWidths = new int[0];
+        private int wrapWidth = -1;
+        private List<Component> wrappedTooltip;
+
+        TooltipLayoutCache(
+                ToIntFunction<Component> lineWidth, BiFunction<Component, Integer, List<Component>> lineSplitter) {
+            this.lineWidth = lineWidth;
+            this.lineSplitter = lineSplitter;
+        }
+
+        List<Component> wrap(ItemStack itemStack, List<Component> tooltips, int screenWidth, int mouseX) {
+            if (itemStack != this.itemStack || tooltips.size() != lines.size()) {
+                clear();
+                this.itemStack = itemStack;
+                lineWidths = new int[tooltips.size()];
+                for (int i = 0; i < tooltips.size(); i++) {
+                    lines.add(null);
+                    wrappedLines.add(null);
+                }
+            }
+
+            int maxLineWidth = 0;
+            for (int i = 0; i < tooltips.size(); i++) {
+                Component line = tooltips.get(i);
+                Component cachedLine = lines.get(i);
+
+                if (line != cachedLine && !line.equals(cachedLine)) {
+                    lines.set(i, line);
+                    lineWidths[i] = lineWidth.applyAsInt(line);
+                    wrappedLines.set(i, null);
+                    wrappedTooltip = null;
+                }
+
+                maxLineWidth = Math.max(maxLineWidth, lineWidths[i]);
+            }
+
+            int tooltipWidth = ComponentUtils.getOptimalTooltipWidth(maxLineWidth, screenWidth, mouseX);
+            if (tooltipWidth != wrapWidth) {
+                Collections.fill(wrappedLines, null);
+                wrappedTooltip = null;
+                wrapWidth = tooltipWidth;
+            }
+
+            if (wrappedTooltip == null) {
+                List<Component> wrapped = new ArrayList<>();
+                for (int i = 0; i < lines.size(); i++) {
+                    if (wrappedLines.get(i) == null) {
+                        wrappedLines.set(i, lineSplitter.apply(lines.get(i), wrapWidth));
+                    }
+
+                    wrapped.addAll(wrappedLines.get(i));
+                }
+
+                wrappedTooltip = Collections.unmodifiableList(wrapped);
+            }
+
+            return wrappedTooltip;
+        }
+
+        void clear() {
+            itemStack = null;
+            lines.clear();
+            wrappedLines.clear();
+            lineWidths = new int[0];
+            wrapWidth = -1;
+            wrappedTooltip = null;
+        }
+    }
 }
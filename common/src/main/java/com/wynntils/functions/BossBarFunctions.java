@@ -0,0 +1,74 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.functions;
+
+import com.wynntils.core.functions.DependantFunction;
+import com.wynntils.core.managers.Model;
+import com.wynntils.wynn.model.bossbar.BossBarModel;
+import com.wynntils.wynn.model.bossbar.TrackedBar;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Functions for every tracked boss bar and every value of it, e.g. {@code focus}, {@code focus_max},
+ * {@code focus_rate} and {@code focus_idle}. They are all empty while their bar is not shown.
+ */
+public final class BossBarFunctions {
+    private static final List<NamedBar> BARS = List.of(
+            new NamedBar("BloodPool", BossBarModel.bloodPoolBar),
+            new NamedBar("ManaBank", BossBarModel.manaBankBar),
+            new NamedBar("Awakened", BossBarModel.awakenedBar),
+            new NamedBar("Focus", BossBarModel.focusBar),
+            new NamedBar("Corrupted", BossBarModel.corruptedBar));
+
+    private static final List<BarValue<?>> VALUES = List.of(
+            new BarValue<>("", TrackedBar::getCurrent),
+            new BarValue<>("Max", TrackedBar::getMax),
+            // Change per second, at the last change
+            new BarValue<>("Rate", TrackedBar::getRatePerSecond),
+            // Milliseconds since the last update
+            new BarValue<>("Idle", TrackedBar::getMillisSinceUpdate));
+
+    public static List<DependantFunction<?>> createFunctions() {
+        List<DependantFunction<?>> functions = new ArrayList<>();
+        for (NamedBar bar : BARS) {
+            for (BarValue<?> value : VALUES) {
+                functions.add(value.createFunction(bar));
+            }
+        }
+
+        return functions;
+    }
+
+    private record NamedBar(String name, TrackedBar bar) {}
+
+    private record BarValue<T>(String suffix, Function<TrackedBar, T> getter) {
+        private BossBarFunction<T> createFunction(NamedBar bar) {
+            return new BossBarFunction<>(bar.name() + suffix, bar.bar(), getter);
+        }
+    }
+
+    private static final class BossBarFunction<T> extends DependantFunction<T> {
+        private final TrackedBar bar;
+        private final Function<TrackedBar, T> getter;
+
+        private BossBarFunction(String name, TrackedBar bar, Function<TrackedBar, T> getter) {
+            super(name);
+            this.bar = bar;
+            this.getter = getter;
+        }
+
+        @Override
+        public T getValue(String argument) {
+            return bar.isActive() ? getter.apply(bar) : null;
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(BossBarModel.class);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.functions;
+
+import com.wynntils.core.functions.DependantFunction;
+import com.wynntils.core.managers.Model;
+import com.wynntils.wynn.model.InventoryAccountingModel;
+import java.util.List;
+
+public class InventoryFunctions {
+    public static class EmeraldsFunction extends DependantFunction<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            return InventoryAccountingModel.getInventoryTotals().getEmeralds();
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(InventoryAccountingModel.class);
+        }
+
+        @Override
+        public List<String> getAliases() {
+            return List.of("em");
+        }
+    }
+
+    public static class PouchEmeraldsFunction extends DependantFunction<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            return InventoryAccountingModel.getInventoryTotals().getPouchEmeralds();
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(InventoryAccountingModel.class);
+        }
+    }
+
+    public static class IngredientsFunction extends DependantFunction<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            return InventoryAccountingModel.getInventoryTotals().getIngredients();
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(InventoryAccountingModel.class);
+        }
+    }
+
+    public static class PowdersFunction extends DependantFunction<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            return InventoryAccountingModel.getInventoryTotals().getPowders();
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(InventoryAccountingModel.class);
+        }
+    }
+}
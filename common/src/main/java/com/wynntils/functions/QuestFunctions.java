@@ -0,0 +1,44 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.functions;
+
+import com.wynntils.core.functions.Function;
+import com.wynntils.mc.objects.Location;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.wynn.model.quests.QuestInfo;
+import com.wynntils.wynn.model.quests.QuestManager;
+import com.wynntils.wynn.model.quests.QuestStatus;
+import java.util.Optional;
+
+public class QuestFunctions {
+    public static class NearestQuestFunction extends Function<String> {
+        @Override
+        public String getValue(String argument) {
+            return QuestManager.getNearestAvailableQuest().map(QuestInfo::getName).orElse(null);
+        }
+    }
+
+    public static class NearestQuestDistanceFunction extends Function<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            Optional<QuestInfo> quest = QuestManager.getNearestAvailableQuest();
+            if (quest.isEmpty()) return null;
+
+            Optional<Location> location = QuestManager.getQuestCatalogue().getLocation(quest.get());
+            if (location.isEmpty()) return null;
+
+            return (int) Math.sqrt(McUtils.player().position().distanceToSqr(location.get().toVec3()));
+        }
+    }
+
+    public static class AvailableQuestsFunction extends Function<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            return QuestManager.getQuestCatalogue()
+                    .getQuests(QuestStatus.CAN_START)
+                    .size();
+        }
+    }
+}
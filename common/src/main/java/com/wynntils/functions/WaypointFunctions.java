@@ -0,0 +1,58 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.functions;
+
+import com.wynntils.core.functions.ActiveFunction;
+import com.wynntils.core.managers.Model;
+import com.wynntils.mc.objects.Location;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.wynn.model.waypoints.Waypoint;
+import com.wynntils.wynn.model.waypoints.WaypointModel;
+import java.util.List;
+import java.util.Optional;
+
+public class WaypointFunctions {
+    public static class NearestWaypointFunction extends ActiveFunction<String> {
+        @Override
+        public String getValue(String argument) {
+            return WaypointModel.getNearestWaypoint(McUtils.player().position())
+                    .map(Waypoint::getName)
+                    .orElse(null);
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(WaypointModel.class);
+        }
+    }
+
+    public static class NearestWaypointDistanceFunction extends ActiveFunction<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            Optional<Waypoint> waypoint = WaypointModel.getNearestWaypoint(McUtils.player().position());
+            if (waypoint.isEmpty()) return null;
+
+            Location location = waypoint.get().getLocation();
+            return (int) Math.sqrt(McUtils.player().position().distanceToSqr(location.x, location.y, location.z));
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(WaypointModel.class);
+        }
+    }
+
+    public static class WaypointsFunction extends ActiveFunction<Integer> {
+        @Override
+        public Integer getValue(String argument) {
+            return WaypointModel.getActiveWaypoints().size();
+        }
+
+        @Override
+        public List<Class<? extends Model>> getModelDependencies() {
+            return List.of(WaypointModel.class);
+        }
+    }
+}
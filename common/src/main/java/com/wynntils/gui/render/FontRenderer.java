@@ -5,6 +5,7 @@
 package com.wynntils.gui.render;
 
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.math.Matrix4f;
 import com.wynntils.mc.mixin.accessors.MinecraftAccessor;
 import com.wynntils.mc.objects.CommonColors;
 import com.wynntils.mc.objects.CustomColor;
@@ -12,6 +13,8 @@ import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.mc.utils.McUtils;
 import java.util.List;
 import net.minecraft.client.gui.Font;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.network.chat.FormattedText;
 import net.minecraft.network.chat.Style;
 
@@ -283,6 +286,64 @@ public final class FontRenderer {
                 line.getSetting().shadow());
     }
 
+    /**
+     * Like {@link #renderText(PoseStack, float, float, TextRenderTask)}, but only adds the text to
+     * {@code bufferSource}, so many texts can be drawn with one {@code endBatch()}. Text is not
+     * wrapped at the max width.
+     */
+    public void renderText(
+            PoseStack poseStack, MultiBufferSource bufferSource, float x, float y, TextRenderTask line) {
+        String text = line.getText();
+        if (text == null) return;
+
+        TextRenderSetting setting = line.getSetting();
+        CustomColor customColor = setting.customColor();
+
+        float renderX =
+                switch (setting.horizontalAlignment()) {
+                    case Left -> x;
+                    case Center -> x - font.width(text) / 2f;
+                    case Right -> x - font.width(text);
+                };
+
+        float renderY =
+                switch (setting.verticalAlignment()) {
+                    case Top -> y;
+                    case Middle -> y - font.lineHeight / 2f;
+                    case Bottom -> y - font.lineHeight;
+                };
+
+        Matrix4f matrix = poseStack.last().pose();
+
+        switch (setting.shadow()) {
+            case OUTLINE -> {
+                int shadowColor = SHADOW_COLOR.withAlpha(customColor.a).asInt();
+                String strippedText = ComponentUtils.stripColorFormatting(text);
+
+                // draw outline behind text
+                drawInBatch(strippedText, renderX + 1, renderY, shadowColor, false, matrix, bufferSource);
+                drawInBatch(strippedText, renderX - 1, renderY, shadowColor, false, matrix, bufferSource);
+                drawInBatch(strippedText, renderX, renderY + 1, shadowColor, false, matrix, bufferSource);
+                drawInBatch(strippedText, renderX, renderY - 1, shadowColor, false, matrix, bufferSource);
+
+                drawInBatch(text, renderX, renderY, customColor.asInt(), false, matrix, bufferSource);
+            }
+            case NORMAL -> drawInBatch(text, renderX, renderY, customColor.asInt(), true, matrix, bufferSource);
+            default -> drawInBatch(text, renderX, renderY, customColor.asInt(), false, matrix, bufferSource);
+        }
+    }
+
+    private void drawInBatch(
+            String text,
+            float x,
+            float y,
+            int color,
+            boolean dropShadow,
+            Matrix4f matrix,
+            MultiBufferSource bufferSource) {
+        font.drawInBatch(text, x, y, color, dropShadow, matrix, bufferSource, false, 0, LightTexture.FULL_BRIGHT);
+    }
+
     public void renderTexts(PoseStack poseStack, float x, float y, List<TextRenderTask> lines) {
         float currentY = y;
         for (TextRenderTask line : lines) {
@@ -0,0 +1,306 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.gui.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.math.Matrix4f;
+import com.wynntils.core.managers.Model;
+import com.wynntils.mc.event.ContainerRenderEvent;
+import com.wynntils.mc.objects.CustomColor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Collects the arcs, highlight quads and overlay texts that features draw on container slots
+ * during {@link com.wynntils.mc.event.SlotRenderEvent}, and draws all of them once the container
+ * has been rendered: one batch for the arcs, one per highlight texture and one per font texture
+ * for the text, instead of a draw call (or five, for outlined text) per decoration per slot.
+ *
+ * <p>Slot coordinates are relative to the container, like {@code Slot.x} and {@code Slot.y}.
+ * Decorations are drawn at the same depth they were drawn at before, so the items rendered in
+ * between still end up in the same order.
+ */
+public final class SlotDecorationModel extends Model {
+    // Matches RenderUtils.drawArc, so an arc looks the same in a container and on the hotbar
+    private static final int MAX_CIRCLE_STEPS = 16;
+    private static final int ARC_INNER_RADIUS = 6;
+    private static final int ARC_OUTER_RADIUS = 8;
+
+    // Vertex offsets from the slot corner for every possible number of arc segments, as
+    // (outerX, outerY, innerX, innerY) per step
+    private static final float[][] ARC_BUCKETS = createArcBuckets();
+
+    private static final List<QuadDecoration> quads = new ArrayList<>();
+    private static final List<ArcDecoration> arcs = new ArrayList<>();
+    private static final List<TextDecoration> texts = new ArrayList<>();
+
+    private static int lastDecorationCount = 0;
+    private static int lastDrawCallCount = 0;
+
+    public static void init() {}
+
+    public static void disable() {
+        clear();
+    }
+
+    /** Queues a slot-sized ring around the slot, filled clockwise from the top up to {@code fill} */
+    public static void addArc(CustomColor color, float slotX, float slotY, float z, float fill) {
+        // keeps arc from overlapping itself
+        int segments = (int) Math.min(fill * MAX_CIRCLE_STEPS, MAX_CIRCLE_STEPS - 1);
+        if (segments <= 0) return;
+
+        arcs.add(new ArcDecoration(color, slotX, slotY, z, segments));
+    }
+
+    public static void addTexturedRect(
+            ResourceLocation texture,
+            CustomColor color,
+            float x,
+            float y,
+            float z,
+            float width,
+            float height,
+            int textureWidth,
+            int textureHeight) {
+        quads.add(new QuadDecoration(texture, color, x, y, z, width, height, textureWidth, textureHeight));
+    }
+
+    public static void addText(TextRenderTask task, float x, float y, float z, float scale) {
+        texts.add(new TextDecoration(task, x, y, z, scale));
+    }
+
+    /** @return how many decorations were drawn in the last container frame */
+    public static int getLastDecorationCount() {
+        return lastDecorationCount;
+    }
+
+    /** @return how many draw calls the last container frame's decorations took */
+    public static int getLastDrawCallCount() {
+        return lastDrawCallCount;
+    }
+
+    // Runs before the features that draw on top of the container, as the decorations used to be
+    // drawn with the slots
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onContainerRender(ContainerRenderEvent event) {
+        AbstractContainerScreen<?> screen = event.getScreen();
+
+        // The slots were drawn relative to the container, but that translation is popped by now
+        PoseStack poseStack = new PoseStack();
+        poseStack.translate(screen.leftPos, screen.topPos, 0);
+
+        lastDecorationCount = quads.size() + arcs.size() + texts.size();
+        lastDrawCallCount = drawQuads(poseStack) + drawArcs(poseStack) + drawTexts(poseStack);
+
+        clear();
+    }
+
+    private static int drawQuads(PoseStack poseStack) {
+        if (quads.isEmpty()) return 0;
+
+        Matrix4f matrix = poseStack.last().pose();
+        BufferBuilder bufferBuilder = Tesselator.getInstance().getBuilder();
+        int drawCalls = 0;
+
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShader(GameRenderer::getPositionTexColorShader);
+
+        ResourceLocation texture = null;
+        for (QuadDecoration quad : quads) {
+            if (!quad.texture().equals(texture)) {
+                if (texture != null) {
+                    bufferBuilder.end();
+                    BufferUploader.end(bufferBuilder);
+                    drawCalls++;
+                }
+
+                texture = quad.texture();
+                RenderSystem.setShaderTexture(0, texture);
+                bufferBuilder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
+            }
+
+            float u = quad.width() / quad.textureWidth();
+            float v = quad.height() / quad.textureHeight();
+            CustomColor color = quad.color();
+
+            bufferBuilder
+                    .vertex(matrix, quad.x(), quad.y() + quad.height(), quad.z())
+                    .uv(0, v)
+                    .color(color.r, color.g, color.b, color.a)
+                    .endVertex();
+            bufferBuilder
+                    .vertex(matrix, quad.x() + quad.width(), quad.y() + quad.height(), quad.z())
+                    .uv(u, v)
+                    .color(color.r, color.g, color.b, color.a)
+                    .endVertex();
+            bufferBuilder
+                    .vertex(matrix, quad.x() + quad.width(), quad.y(), quad.z())
+                    .uv(u, 0)
+                    .color(color.r, color.g, color.b, color.a)
+                    .endVertex();
+            bufferBuilder
+                    .vertex(matrix, quad.x(), quad.y(), quad.z())
+                    .uv(0, 0)
+                    .color(color.r, color.g, color.b, color.a)
+                    .endVertex();
+        }
+
+        bufferBuilder.end();
+        BufferUploader.end(bufferBuilder);
+        RenderSystem.disableBlend();
+
+        return drawCalls + 1;
+    }
+
+    private static int drawArcs(PoseStack poseStack) {
+        if (arcs.isEmpty()) return 0;
+
+        Matrix4f matrix = poseStack.last().pose();
+
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShader(GameRenderer::getPositionColorShader);
+        BufferBuilder bufferBuilder = Tesselator.getInstance().getBuilder();
+
+        // Separate strips can't share a draw call, so every arc segment is its own quad instead
+        bufferBuilder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR);
+
+        for (ArcDecoration arc : arcs) {
+            float[] vertices = ARC_BUCKETS[arc.segments()];
+            CustomColor color = arc.color();
+
+            for (int i = 0; i < arc.segments(); i++) {
+                int from = i * 4;
+                int to = from + 4;
+
+                bufferBuilder
+                        .vertex(matrix, arc.x() + vertices[from], arc.y() + vertices[from + 1], arc.z())
+                        .color(color.r, color.g, color.b, color.a)
+                        .endVertex();
+                bufferBuilder
+                        .vertex(matrix, arc.x() + vertices[from + 2], arc.y() + vertices[from + 3], arc.z())
+                        .color(color.r, color.g, color.b, color.a)
+                        .endVertex();
+                bufferBuilder
+                        .vertex(matrix, arc.x() + vertices[to + 2], arc.y() + vertices[to + 3], arc.z())
+                        .color(color.r, color.g, color.b, color.a)
+                        .endVertex();
+                bufferBuilder
+                        .vertex(matrix, arc.x() + vertices[to], arc.y() + vertices[to + 1], arc.z())
+                        .color(color.r, color.g, color.b, color.a)
+                        .endVertex();
+            }
+        }
+
+        bufferBuilder.end();
+        BufferUploader.end(bufferBuilder);
+        RenderSystem.disableBlend();
+
+        return 1;
+    }
+
+    private static int drawTexts(PoseStack poseStack) {
+        if (texts.isEmpty()) return 0;
+
+        CountingBufferSource bufferSource = new CountingBufferSource(Tesselator.getInstance().getBuilder());
+
+        for (TextDecoration text : texts) {
+            poseStack.pushPose();
+            poseStack.translate(0, 0, text.z());
+            poseStack.scale(text.scale(), text.scale(), 1f);
+            FontRenderer.getInstance()
+                    .renderText(poseStack, bufferSource, text.x() / text.scale(), text.y() / text.scale(), text.task());
+            poseStack.popPose();
+        }
+
+        // Every font texture is a render type of its own, so mixed glyph pages take a draw call each
+        bufferSource.endBatch();
+
+        return bufferSource.getFlushCount();
+    }
+
+    private static void clear() {
+        quads.clear();
+        arcs.clear();
+        texts.clear();
+    }
+
+    private static float[][] createArcBuckets() {
+        float[][] buckets = new float[MAX_CIRCLE_STEPS][];
+
+        for (int segments = 0; segments < MAX_CIRCLE_STEPS; segments++) {
+            float[] vertices = new float[(segments + 1) * 4];
+
+            for (int i = 0; i <= segments; i++) {
+                float angle = Mth.TWO_PI * i / (MAX_CIRCLE_STEPS - 1f);
+                float sinAngle = Mth.sin(angle);
+                float cosAngle = Mth.cos(angle);
+
+                vertices[i * 4] = ARC_OUTER_RADIUS + sinAngle * ARC_OUTER_RADIUS;
+                vertices[i * 4 + 1] = ARC_OUTER_RADIUS - cosAngle * ARC_OUTER_RADIUS;
+                vertices[i * 4 + 2] = ARC_OUTER_RADIUS + sinAngle * ARC_INNER_RADIUS;
+                vertices[i * 4 + 3] = ARC_OUTER_RADIUS - cosAngle * ARC_INNER_RADIUS;
+            }
+
+            buckets[segments] = vertices;
+        }
+
+        return buckets;
+    }
+
+    /** Immediate buffer source that counts how many batches it actually draws */
+    private static final class CountingBufferSource extends MultiBufferSource.BufferSource {
+        private int flushCount = 0;
+
+        private CountingBufferSource(BufferBuilder builder) {
+            super(builder, Map.of());
+        }
+
+        @Override
+        public void endBatch(RenderType renderType) {
+            // a batch is only drawn if its builder was started, which endBatch then removes
+            int startedCount = startedDrawing.size();
+            super.endBatch(renderType);
+            if (startedDrawing.size() < startedCount) {
+                flushCount++;
+            }
+        }
+
+        private int getFlushCount() {
+            return flushCount;
+        }
+    }
+
+    private record ArcDecoration(CustomColor color, float x, float y, float z, int segments) {}
+
+    private record QuadDecoration(
+            ResourceLocation texture,
+            CustomColor color,
+            float x,
+            float y,
+            float z,
+            float width,
+            float height,
+            int textureWidth,
+            int textureHeight) {}
+
+    private record TextDecoration(TextRenderTask task, float x, float y, float z, float scale) {}
+}
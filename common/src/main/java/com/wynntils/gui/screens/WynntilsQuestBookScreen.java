@@ -84,7 +84,7 @@ public class WynntilsQuestBookScreen extends WynntilsMenuListScreen<QuestInfo, Q
                 11,
                 (int) (Texture.RELOAD_BUTTON.width() / 2 / 1.7f),
                 (int) (Texture.RELOAD_BUTTON.height() / 1.7f),
-                () -> QuestManager.rescanQuestBook(!miniQuestMode, miniQuestMode)));
+                () -> QuestManager.reloadQuestBook(!miniQuestMode, miniQuestMode)));
         this.addRenderableWidget(new PageSelectorButton(
                 Texture.QUEST_BOOK_BACKGROUND.width() / 2 + 50 - Texture.FORWARD_ARROW.width() / 2,
                 Texture.QUEST_BOOK_BACKGROUND.height() - 25,
@@ -453,7 +453,9 @@ public class WynntilsQuestBookScreen extends WynntilsMenuListScreen<QuestInfo, Q
     public void setMiniQuestMode(boolean miniQuestMode) {
         this.miniQuestMode = miniQuestMode;
 
-        this.setQuests(List.of());
+        // Show the last known quests until the rescan is done
+        this.setQuests(
+                miniQuestMode ? QuestManager.getMiniQuests(questSortOrder) : QuestManager.getQuests(questSortOrder));
 
         QuestManager.rescanQuestBook(!this.miniQuestMode, this.miniQuestMode);
     }
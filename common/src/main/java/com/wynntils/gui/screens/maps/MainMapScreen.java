@@ -186,7 +186,7 @@ public class MainMapScreen extends AbstractMapScreen {
 
         pois.addAll(MapFeature.INSTANCE.customPois);
 
-        List<HadesUser> renderedPlayers = HadesUserModel.getHadesUserMap().values().stream()
+        List<HadesUser> renderedPlayers = HadesUserModel.getUsers().stream()
                 .filter(
                         hadesUser -> (hadesUser.isPartyMember() && MapFeature.INSTANCE.renderRemotePartyPlayers)
                                 || (hadesUser.isMutualFriend() && MapFeature.INSTANCE.renderRemoteFriendPlayers)
@@ -54,8 +54,7 @@ public abstract class CommandSuggestionsMixin {
                             remap = false))
     private ParseResults<SharedSuggestionProvider> redirectParse(
             CommandDispatcher<SharedSuggestionProvider> serverDispatcher, StringReader command, Object source) {
-        CommandDispatcher<CommandSourceStack> clientDispatcher = ClientCommandManager.getClientDispatcher();
-        clientParse = clientDispatcher.parse(command, ClientCommandManager.getSource());
+        clientParse = ClientCommandManager.parseForSuggestions(command);
 
         return serverDispatcher.parse(command, (SharedSuggestionProvider) source);
     }
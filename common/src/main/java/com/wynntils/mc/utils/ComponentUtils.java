@@ -189,6 +189,11 @@ public final class ComponentUtils {
     public static int getOptimalTooltipWidth(List<Component> tooltips, int screenWidth, int mouseX) {
         int tooltipWidth =
                 tooltips.stream().mapToInt(McUtils.mc().font::width).max().orElse(0);
+        return getOptimalTooltipWidth(tooltipWidth, screenWidth, mouseX);
+    }
+
+    /** Same as {@link #getOptimalTooltipWidth(List, int, int)}, for an already measured widest line */
+    public static int getOptimalTooltipWidth(int tooltipWidth, int screenWidth, int mouseX) {
         int tooltipX = mouseX + 12;
         if (tooltipX + tooltipWidth + 4 > screenWidth) {
             tooltipX = mouseX - 16 - tooltipWidth;
@@ -19,9 +19,7 @@ import com.wynntils.hades.protocol.packets.server.HSPacketUpdateMutual;
 import com.wynntils.mc.utils.McUtils;
 import com.wynntils.sockets.events.SocketEvent;
 import com.wynntils.sockets.model.HadesUserModel;
-import com.wynntils.sockets.objects.HadesUser;
 import com.wynntils.wynn.model.WorldStateManager;
-import java.util.Optional;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
@@ -62,7 +60,7 @@ public class HadesClientHandler implements IHadesClientAdapter {
 
         WynntilsMod.info("Disconnected from HadesServer.");
 
-        HadesUserModel.getHadesUserMap().clear();
+        HadesUserModel.clear();
     }
 
     @Override
@@ -103,12 +101,7 @@ public class HadesClientHandler implements IHadesClientAdapter {
     public void handleUpdateMutual(HSPacketUpdateMutual packet) {
         if (!HadesFeature.INSTANCE.getOtherPlayerInfo) return;
 
-        Optional<HadesUser> userOptional = HadesUserModel.getUser(packet.getUser());
-        if (userOptional.isPresent()) {
-            userOptional.get().updateFromPacket(packet);
-        } else {
-            HadesUserModel.putUser(packet.getUser(), new HadesUser(packet));
-        }
+        HadesUserModel.updateUser(packet);
     }
 
     @Override
@@ -130,6 +123,6 @@ public class HadesClientHandler implements IHadesClientAdapter {
                     .withStyle(ChatFormatting.YELLOW));
         }
 
-        HadesUserModel.getHadesUserMap().clear();
+        HadesUserModel.clear();
     }
 }
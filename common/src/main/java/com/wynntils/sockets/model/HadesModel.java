@@ -39,12 +39,11 @@ import net.minecraft.world.effect.MobEffects;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class HadesModel extends Model {
-    private static final int TICKS_PER_UPDATE = 5;
     private static final int MS_PER_PING = 1000;
 
+    private static final PlayerStatusThrottle statusThrottle = new PlayerStatusThrottle();
+
     private static HadesConnection hadesConnection;
-    private static int tickCountUntilUpdate = 0;
-    private static PlayerStatus lastSentStatus;
     private static ScheduledExecutorService pingScheduler;
 
     public static void init() {
@@ -69,8 +68,7 @@ public class HadesModel extends Model {
                     .setHandlerFactory(HadesClientHandler::new)
                     .buildClient();
 
-            tickCountUntilUpdate = 0;
-            lastSentStatus = null;
+            statusThrottle.reset();
         } catch (UnknownHostException e) {
             WynntilsMod.error("Could not resolve Hades host address.", e);
         }
@@ -137,48 +135,25 @@ public class HadesModel extends Model {
                 && !HadesFeature.INSTANCE.shareWithGuild
                 && !HadesFeature.INSTANCE.shareWithFriends) return;
 
-        tickCountUntilUpdate--;
-
-        if (tickCountUntilUpdate <= 0) {
-            LocalPlayer player = McUtils.player();
-
-            float pX = (float) player.getX();
-            float pY = (float) player.getY();
-            float pZ = (float) player.getZ();
-
-            if (lastSentStatus != null
-                    && lastSentStatus.equals(
-                            pX,
-                            pY,
-                            pZ,
-                            ActionBarModel.getCurrentHealth(),
-                            ActionBarModel.getMaxHealth(),
-                            ActionBarModel.getCurrentMana(),
-                            ActionBarModel.getMaxMana())) {
-                tickCountUntilUpdate = 1;
-                return;
-            }
-
-            tickCountUntilUpdate = TICKS_PER_UPDATE;
-
-            lastSentStatus = new PlayerStatus(
-                    pX,
-                    pY,
-                    pZ,
-                    ActionBarModel.getCurrentHealth(),
-                    ActionBarModel.getMaxHealth(),
-                    ActionBarModel.getCurrentMana(),
-                    ActionBarModel.getMaxMana());
-
-            hadesConnection.sendPacketAndFlush(new HCPacketUpdateStatus(
-                    lastSentStatus.x(),
-                    lastSentStatus.y(),
-                    lastSentStatus.z(),
-                    lastSentStatus.health(),
-                    lastSentStatus.maxHealth(),
-                    lastSentStatus.mana(),
-                    lastSentStatus.maxMana()));
-        }
+        LocalPlayer player = McUtils.player();
+        PlayerStatus status = statusThrottle.tick(
+                (float) player.getX(),
+                (float) player.getY(),
+                (float) player.getZ(),
+                ActionBarModel.getCurrentHealth(),
+                ActionBarModel.getMaxHealth(),
+                ActionBarModel.getCurrentMana(),
+                ActionBarModel.getMaxMana());
+        if (status == null) return;
+
+        hadesConnection.sendPacketAndFlush(new HCPacketUpdateStatus(
+                status.x(),
+                status.y(),
+                status.z(),
+                status.health(),
+                status.maxHealth(),
+                status.mana(),
+                status.maxMana()));
     }
 
     public static void tryResendWorldData() {
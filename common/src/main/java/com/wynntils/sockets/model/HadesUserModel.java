@@ -5,37 +5,118 @@
 package com.wynntils.sockets.model;
 
 import com.wynntils.core.managers.Model;
+import com.wynntils.hades.protocol.packets.server.HSPacketUpdateMutual;
 import com.wynntils.sockets.objects.HadesUser;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
+/**
+ * Registry of remote Hades users. Users are written by the socket thread and read by the render thread.
+ * <p>
+ * Lookups by UUID and name go through concurrent maps. Iteration should go through the snapshot lists, which
+ * are immutable and replaced as a whole whenever a user is added, removed or changes relation, so readers
+ * never observe a partially applied update.
+ */
 public class HadesUserModel extends Model {
-    private static Map<UUID, HadesUser> hadesUserMap = new ConcurrentHashMap<>();
+    private static final Map<UUID, HadesUser> usersByUuid = new ConcurrentHashMap<>();
+    private static final Map<String, HadesUser> usersByName = new ConcurrentHashMap<>();
+
+    private static volatile UserSnapshot snapshot = UserSnapshot.EMPTY;
 
     public static void init() {
-        hadesUserMap = new HashMap<>();
+        clear();
     }
 
     public static void disable() {
-        hadesUserMap.clear();
+        clear();
+    }
+
+    /**
+     * @return An immutable snapshot of all known users
+     */
+    public static List<HadesUser> getUsers() {
+        return snapshot.users();
+    }
+
+    public static List<HadesUser> getPartyMembers() {
+        return snapshot.partyMembers();
     }
 
-    public static Map<UUID, HadesUser> getHadesUserMap() {
-        return hadesUserMap;
+    public static List<HadesUser> getMutualFriends() {
+        return snapshot.mutualFriends();
+    }
+
+    public static List<HadesUser> getGuildMembers() {
+        return snapshot.guildMembers();
     }
 
     public static Optional<HadesUser> getUser(UUID uuid) {
-        return Optional.ofNullable(hadesUserMap.get(uuid));
+        return Optional.ofNullable(usersByUuid.get(uuid));
+    }
+
+    public static Optional<HadesUser> getUserByName(String name) {
+        return Optional.ofNullable(usersByName.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    public static void updateUser(HSPacketUpdateMutual packet) {
+        updateUser(packet.getUser(), packet.getName(), user -> user.updateFromPacket(packet));
     }
 
-    public static void putUser(UUID uuid, HadesUser hadesUser) {
-        hadesUserMap.put(uuid, hadesUser);
+    /**
+     * @param update applies the update to the user, returning whether its relation to the player changed
+     */
+    static synchronized void updateUser(UUID uuid, String name, Predicate<HadesUser> update) {
+        HadesUser user = usersByUuid.get(uuid);
+
+        if (user == null) {
+            user = new HadesUser(uuid, name);
+            update.test(user);
+
+            usersByUuid.put(user.getUuid(), user);
+            usersByName.put(user.getName().toLowerCase(Locale.ROOT), user);
+            rebuildSnapshot();
+            return;
+        }
+
+        if (update.test(user)) {
+            rebuildSnapshot();
+        }
+    }
+
+    public static synchronized void removeUser(UUID uuid) {
+        HadesUser user = usersByUuid.remove(uuid);
+        if (user == null) return;
+
+        usersByName.remove(user.getName().toLowerCase(Locale.ROOT));
+        rebuildSnapshot();
+    }
+
+    public static synchronized void clear() {
+        usersByUuid.clear();
+        usersByName.clear();
+        snapshot = UserSnapshot.EMPTY;
+    }
+
+    private static void rebuildSnapshot() {
+        List<HadesUser> users = List.copyOf(usersByUuid.values());
+
+        snapshot = new UserSnapshot(
+                users,
+                users.stream().filter(HadesUser::isPartyMember).toList(),
+                users.stream().filter(HadesUser::isMutualFriend).toList(),
+                users.stream().filter(HadesUser::isGuildMember).toList());
     }
 
-    public static void removeUser(UUID uuid) {
-        hadesUserMap.remove(uuid);
+    private record UserSnapshot(
+            List<HadesUser> users,
+            List<HadesUser> partyMembers,
+            List<HadesUser> mutualFriends,
+            List<HadesUser> guildMembers) {
+        private static final UserSnapshot EMPTY = new UserSnapshot(List.of(), List.of(), List.of(), List.of());
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.sockets.model;
+
+import com.wynntils.sockets.objects.PlayerStatus;
+
+/**
+ * The status packet always carries every field, so instead we adapt how often it is sent:
+ * often while the player is moving, rarely when only health or mana changed, and never when
+ * nothing changed at all.
+ */
+public final class PlayerStatusThrottle {
+    // While moving, positions are sent often so remote markers stay smooth
+    static final int TICKS_PER_MOVING_UPDATE = 2;
+    // While standing still, only health and mana change, so there is no need to hurry
+    static final int TICKS_PER_IDLE_UPDATE = 20;
+    // Movement below this distance (in blocks) is not worth an update on its own
+    private static final float MOVEMENT_THRESHOLD_SQUARED = 0.25f * 0.25f;
+
+    private int ticksSinceLastUpdate = 0;
+    private PlayerStatus lastSentStatus = null;
+
+    /**
+     * Called once per tick with the current status of the player.
+     *
+     * @return the status to send this tick, or null if nothing should be sent
+     */
+    public PlayerStatus tick(float x, float y, float z, int health, int maxHealth, int mana, int maxMana) {
+        ticksSinceLastUpdate++;
+
+        if (!shouldSendStatus(x, y, z, health, maxHealth, mana, maxMana)) return null;
+
+        ticksSinceLastUpdate = 0;
+        lastSentStatus = new PlayerStatus(x, y, z, health, maxHealth, mana, maxMana);
+        return lastSentStatus;
+    }
+
+    public void reset() {
+        ticksSinceLastUpdate = 0;
+        lastSentStatus = null;
+    }
+
+    private boolean shouldSendStatus(float x, float y, float z, int health, int maxHealth, int mana, int maxMana) {
+        if (lastSentStatus == null) return true;
+
+        if (lastSentStatus.distanceSquared(x, y, z) >= MOVEMENT_THRESHOLD_SQUARED) {
+            return ticksSinceLastUpdate >= TICKS_PER_MOVING_UPDATE;
+        }
+
+        if (!lastSentStatus.hasSameVitals(health, maxHealth, mana, maxMana)) {
+            return ticksSinceLastUpdate >= TICKS_PER_IDLE_UPDATE;
+        }
+
+        return false;
+    }
+}
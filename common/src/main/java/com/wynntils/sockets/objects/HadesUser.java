@@ -11,24 +11,35 @@ import com.wynntils.wynn.model.map.poi.MapLocation;
 import java.util.UUID;
 
 public class HadesUser {
+    // Bounds for how long we interpolate between two received positions
+    private static final long MIN_INTERPOLATION_MS = 50;
+    private static final long MAX_INTERPOLATION_MS = 1000;
+    // Anything further than this is a teleport, and should not be interpolated
+    private static final float TELEPORT_DISTANCE_SQUARED = 32 * 32;
+
     private final UUID uuid;
     private final String name;
 
-    boolean isPartyMember;
-    boolean isMutualFriend;
-    boolean isGuildMember;
-    private float x, y, z;
+    private volatile boolean isPartyMember;
+    private volatile boolean isMutualFriend;
+    private volatile boolean isGuildMember;
+    // Written by the socket thread, read by the render thread, so it is replaced as a whole
+    private volatile InterpolatedPosition position;
     private MapLocation mapLocation;
     private int health, maxHealth;
     private int mana, maxMana;
 
     public HadesUser(HSPacketUpdateMutual packet) {
-        uuid = packet.getUser();
-        name = packet.getName();
+        this(packet.getUser(), packet.getName());
 
         this.updateFromPacket(packet);
     }
 
+    public HadesUser(UUID uuid, String name) {
+        this.uuid = uuid;
+        this.name = name;
+    }
+
     public UUID getUuid() {
         return uuid;
     }
@@ -49,20 +60,48 @@ public class HadesUser {
         return isGuildMember;
     }
 
+    /**
+     * @return The x coordinate of the user, interpolated between the last two received positions
+     */
     public float getX() {
-        return x;
+        return getX(System.currentTimeMillis());
     }
 
     public float getY() {
-        return y;
+        return getY(System.currentTimeMillis());
     }
 
     public float getZ() {
-        return z;
+        return getZ(System.currentTimeMillis());
+    }
+
+    float getX(long now) {
+        return position.x(now);
+    }
+
+    float getY(long now) {
+        return position.y(now);
+    }
+
+    float getZ(long now) {
+        return position.z(now);
     }
 
     public MapLocation getMapLocation() {
-        return mapLocation;
+        long now = System.currentTimeMillis();
+        InterpolatedPosition current = position;
+        int x = (int) current.x(now);
+        int y = (int) current.y(now);
+        int z = (int) current.z(now);
+
+        // Only allocate when the marker actually moved to another block
+        MapLocation cached = mapLocation;
+        if (cached == null || cached.getX() != x || cached.getY() != y || cached.getZ() != z) {
+            cached = new MapLocation(x, y, z);
+            mapLocation = cached;
+        }
+
+        return cached;
     }
 
     public int getHealth() {
@@ -81,21 +120,84 @@ public class HadesUser {
         return maxMana;
     }
 
-    public void updateFromPacket(HSPacketUpdateMutual packet) {
-        this.x = packet.getX();
-        this.y = packet.getY();
-        this.z = packet.getZ();
-        this.mapLocation = new MapLocation((int) x, (int) y, (int) z);
-
-        this.health = packet.getHealth();
-        this.maxHealth = packet.getMaxHealth();
-
-        this.mana = packet.getMana();
-        this.maxMana = packet.getMaxMana();
-
-        this.isPartyMember = packet.isPartyMember();
-        this.isMutualFriend = packet.isMutualFriend();
-        this.isGuildMember = packet.isGuildMember();
+    /**
+     * @return Whether the relation of this user to the player changed
+     */
+    public boolean updateFromPacket(HSPacketUpdateMutual packet) {
+        return update(
+                packet.getX(),
+                packet.getY(),
+                packet.getZ(),
+                packet.getHealth(),
+                packet.getMaxHealth(),
+                packet.getMana(),
+                packet.getMaxMana(),
+                packet.isPartyMember(),
+                packet.isMutualFriend(),
+                packet.isGuildMember(),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * @param now the time the update was received at
+     * @return Whether the relation of this user to the player changed
+     */
+    public boolean update(
+            float x,
+            float y,
+            float z,
+            int health,
+            int maxHealth,
+            int mana,
+            int maxMana,
+            boolean isPartyMember,
+            boolean isMutualFriend,
+            boolean isGuildMember,
+            long now) {
+        boolean relationChanged = this.isPartyMember != isPartyMember
+                || this.isMutualFriend != isMutualFriend
+                || this.isGuildMember != isGuildMember;
+
+        updatePosition(x, y, z, now);
+
+        this.health = health;
+        this.maxHealth = maxHealth;
+
+        this.mana = mana;
+        this.maxMana = maxMana;
+
+        this.isPartyMember = isPartyMember;
+        this.isMutualFriend = isMutualFriend;
+        this.isGuildMember = isGuildMember;
+
+        return relationChanged;
+    }
+
+    /**
+     * Starts interpolating from where the user is currently displayed towards the new position,
+     * over the time it took for this update to arrive.
+     */
+    private void updatePosition(float x, float y, float z, long now) {
+        InterpolatedPosition current = position;
+        if (current == null) {
+            position = new InterpolatedPosition(x, y, z, x, y, z, now, MIN_INTERPOLATION_MS);
+            return;
+        }
+
+        float fromX = current.x(now);
+        float fromY = current.y(now);
+        float fromZ = current.z(now);
+
+        float dX = x - fromX;
+        float dY = y - fromY;
+        float dZ = z - fromZ;
+        if (dX * dX + dY * dY + dZ * dZ > TELEPORT_DISTANCE_SQUARED) {
+            position = new InterpolatedPosition(x, y, z, x, y, z, now, MIN_INTERPOLATION_MS);
+            return;
+        }
+
+        long duration = Math.max(MIN_INTERPOLATION_MS, Math.min(MAX_INTERPOLATION_MS, now - current.startTime()));
+        position = new InterpolatedPosition(fromX, fromY, fromZ, x, y, z, now, duration);
     }
 
     public CustomColor getRelationColor() {
@@ -105,4 +207,23 @@ public class HadesUser {
 
         return CustomColor.NONE;
     }
+
+    private record InterpolatedPosition(
+            float fromX, float fromY, float fromZ, float toX, float toY, float toZ, long startTime, long duration) {
+        private float progress(long now) {
+            return Math.max(0f, Math.min(1f, (now - startTime) / (float) duration));
+        }
+
+        private float x(long now) {
+            return fromX + (toX - fromX) * progress(now);
+        }
+
+        private float y(long now) {
+            return fromY + (toY - fromY) * progress(now);
+        }
+
+        private float z(long now) {
+            return fromZ + (toZ - fromZ) * progress(now);
+        }
+    }
 }
@@ -5,13 +5,14 @@
 package com.wynntils.sockets.objects;
 
 public record PlayerStatus(float x, float y, float z, int health, int maxHealth, int mana, int maxMana) {
-    public boolean equals(float x, float y, float z, int health, int mana, int maxHealth, int maxMana) {
-        return this.x == x
-                && this.y == y
-                && this.z == z
-                && this.health == health
-                && this.maxHealth == maxHealth
-                && this.mana == mana
-                && this.maxMana == maxMana;
+    public float distanceSquared(float x, float y, float z) {
+        float dX = this.x - x;
+        float dY = this.y - y;
+        float dZ = this.z - z;
+        return dX * dX + dY * dY + dZ * dZ;
+    }
+
+    public boolean hasSameVitals(int health, int maxHealth, int mana, int maxMana) {
+        return this.health == health && this.maxHealth == maxHealth && this.mana == mana && this.maxMana == maxMana;
     }
 }
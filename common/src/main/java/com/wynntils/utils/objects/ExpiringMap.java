@@ -0,0 +1,227 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A map whose entries are removed once their time is up. Putting a key that is already present
+ * replaces its value and restarts its time.
+ *
+ * <p>Deadlines are kept in a heap next to the map, and every call first removes the entries that
+ * have expired from the top of it, so expiring never has to look at entries that are still alive.
+ * Refreshed entries leave their old deadline in the heap; it is skipped when it comes up, and the
+ * heap is rebuilt if too many of those pile up.
+ *
+ * <p>Expiry listeners are called from whichever call noticed the expiry, not at the exact time.
+ */
+public class ExpiringMap<K, V> {
+    private static final LongSupplier SYSTEM_CLOCK = System::currentTimeMillis;
+
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private final PriorityQueue<Deadline<K, V>> deadlines = new PriorityQueue<>();
+    private final List<BiConsumer<K, V>> expiryListeners = new ArrayList<>();
+
+    private final long defaultDuration;
+    private final LongSupplier clock;
+
+    public ExpiringMap(long duration, TimeUnit unit) {
+        this(duration, unit, SYSTEM_CLOCK);
+    }
+
+    /**
+     * @param clock the current time in milliseconds
+     */
+    public ExpiringMap(long duration, TimeUnit unit, LongSupplier clock) {
+        this.defaultDuration = unit.toMillis(duration);
+        this.clock = clock;
+    }
+
+    /** Adds a listener called with each entry that expires, but not with removed or replaced ones */
+    public ExpiringMap<K, V> onExpiry(BiConsumer<K, V> listener) {
+        expiryListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * @return the previous value of the key, or null if it had none
+     */
+    public V put(K key, V value) {
+        return putUntil(key, value, clock.getAsLong() + defaultDuration);
+    }
+
+    public V put(K key, V value, long duration, TimeUnit unit) {
+        return putUntil(key, value, clock.getAsLong() + unit.toMillis(duration));
+    }
+
+    /**
+     * @param expiration the time in milliseconds, according to the clock, when the entry expires
+     */
+    public V putUntil(K key, V value, long expiration) {
+        releaseExpired();
+
+        Entry<V> entry = entries.get(key);
+        V oldValue = null;
+        if (entry == null) {
+            entry = new Entry<>(value, expiration);
+            entries.put(key, entry);
+        } else {
+            oldValue = entry.value;
+            entry.value = value;
+            entry.expiration = expiration;
+        }
+
+        deadlines.add(new Deadline<>(key, entry, expiration));
+        compactDeadlines();
+
+        return oldValue;
+    }
+
+    public V get(K key) {
+        releaseExpired();
+
+        Entry<V> entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public boolean containsKey(K key) {
+        releaseExpired();
+
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return the time in milliseconds, according to the clock, when the key expires, or -1 if it
+     *     is not present
+     */
+    public long getExpiration(K key) {
+        releaseExpired();
+
+        Entry<V> entry = entries.get(key);
+        return entry == null ? -1 : entry.expiration;
+    }
+
+    public V remove(K key) {
+        releaseExpired();
+
+        // Its deadline stays in the heap, and is skipped when it comes up
+        Entry<V> entry = entries.remove(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public Set<K> keySet() {
+        releaseExpired();
+
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @return a copy of the values that have not expired
+     */
+    public List<V> values() {
+        releaseExpired();
+
+        List<V> values = new ArrayList<>(entries.size());
+        for (Entry<V> entry : entries.values()) {
+            values.add(entry.value);
+        }
+
+        return values;
+    }
+
+    /**
+     * @return a read-only iterator over the values that have not expired, without copying them
+     */
+    public Iterator<V> valueIterator() {
+        releaseExpired();
+
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return iterator.next().value;
+            }
+        };
+    }
+
+    public int size() {
+        releaseExpired();
+
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        entries.clear();
+        deadlines.clear();
+    }
+
+    /** Removes all expired entries. Every other call does this first, so this is seldom needed. */
+    public void releaseExpired() {
+        long now = clock.getAsLong();
+
+        while (!deadlines.isEmpty() && deadlines.peek().expiration() <= now) {
+            Deadline<K, V> deadline = deadlines.poll();
+
+            // Skip deadlines of entries that were since refreshed, replaced or removed
+            Entry<V> entry = entries.get(deadline.key());
+            if (entry != deadline.entry() || entry.expiration != deadline.expiration()) continue;
+
+            entries.remove(deadline.key());
+            for (BiConsumer<K, V> listener : expiryListeners) {
+                listener.accept(deadline.key(), entry.value);
+            }
+        }
+    }
+
+    private void compactDeadlines() {
+        if (deadlines.size() <= entries.size() * 2 + 16) return;
+
+        deadlines.clear();
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            deadlines.add(new Deadline<>(entry.getKey(), entry.getValue(), entry.getValue().expiration));
+        }
+    }
+
+    // Includes the stale deadlines of refreshed and removed entries
+    int getDeadlineCount() {
+        return deadlines.size();
+    }
+
+    private static final class Entry<V> {
+        private V value;
+        private long expiration;
+
+        private Entry(V value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+
+    private record Deadline<K, V>(K key, Entry<V> entry, long expiration) implements Comparable<Deadline<K, V>> {
+        @Override
+        public int compareTo(Deadline<K, V> other) {
+            return Long.compare(expiration, other.expiration);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+import com.wynntils.utils.Pair;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A multimap where every key and value pair expires on its own. Putting a pair that is already
+ * present restarts its time.
+ *
+ * @see ExpiringMap
+ */
+public class ExpiringMultimap<K, V> {
+    private final ExpiringMap<Pair<K, V>, V> pairs;
+    private final Map<K, Set<V>> valuesByKey = new HashMap<>();
+
+    public ExpiringMultimap(long duration, TimeUnit unit) {
+        this(duration, unit, System::currentTimeMillis);
+    }
+
+    public ExpiringMultimap(long duration, TimeUnit unit, LongSupplier clock) {
+        pairs = new ExpiringMap<Pair<K, V>, V>(duration, unit, clock).onExpiry((pair, value) -> unindex(pair));
+    }
+
+    public ExpiringMultimap<K, V> onExpiry(BiConsumer<K, V> listener) {
+        pairs.onExpiry((pair, value) -> listener.accept(pair.a(), value));
+        return this;
+    }
+
+    /**
+     * @return true if the pair was not already present
+     */
+    public boolean put(K key, V value) {
+        boolean added = pairs.put(new Pair<>(key, value), value) == null;
+        valuesByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(value);
+        return added;
+    }
+
+    public boolean put(K key, V value, long duration, TimeUnit unit) {
+        boolean added = pairs.put(new Pair<>(key, value), value, duration, unit) == null;
+        valuesByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(value);
+        return added;
+    }
+
+    /**
+     * @return a read-only view of the values of the key that have not expired
+     */
+    public Set<V> get(K key) {
+        pairs.releaseExpired();
+
+        Set<V> values = valuesByKey.get(key);
+        return values == null ? Set.of() : Collections.unmodifiableSet(values);
+    }
+
+    public boolean containsKey(K key) {
+        pairs.releaseExpired();
+
+        return valuesByKey.containsKey(key);
+    }
+
+    public boolean remove(K key, V value) {
+        Pair<K, V> pair = new Pair<>(key, value);
+        if (pairs.remove(pair) == null) return false;
+
+        unindex(pair);
+        return true;
+    }
+
+    public void removeAll(K key) {
+        Set<V> values = valuesByKey.remove(key);
+        if (values == null) return;
+
+        for (V value : values) {
+            pairs.remove(new Pair<>(key, value));
+        }
+    }
+
+    public Set<K> keySet() {
+        pairs.releaseExpired();
+
+        return Collections.unmodifiableSet(valuesByKey.keySet());
+    }
+
+    /**
+     * @return the number of key and value pairs that have not expired
+     */
+    public int size() {
+        return pairs.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        pairs.clear();
+        valuesByKey.clear();
+    }
+
+    private void unindex(Pair<K, V> pair) {
+        Set<V> values = valuesByKey.get(pair.a());
+        if (values == null) return;
+
+        values.remove(pair.b());
+        if (values.isEmpty()) {
+            valuesByKey.remove(pair.a());
+        }
+    }
+}
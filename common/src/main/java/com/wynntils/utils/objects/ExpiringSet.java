@@ -0,0 +1,81 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A set whose elements are removed once their time is up. Adding an element that is already
+ * present restarts its time, and keeps the newly added instance. Iterating is read-only; use
+ * {@link #remove(Object)} to remove elements early.
+ *
+ * @see ExpiringMap
+ */
+public class ExpiringSet<T> extends AbstractSet<T> {
+    private final ExpiringMap<T, T> map;
+
+    public ExpiringSet(long duration, TimeUnit unit) {
+        map = new ExpiringMap<>(duration, unit);
+    }
+
+    public ExpiringSet(long duration, TimeUnit unit, LongSupplier clock) {
+        map = new ExpiringMap<>(duration, unit, clock);
+    }
+
+    public ExpiringSet<T> onExpiry(Consumer<T> listener) {
+        map.onExpiry((key, value) -> listener.accept(value));
+        return this;
+    }
+
+    /**
+     * @return true if the element was not already present
+     */
+    @Override
+    public boolean add(T element) {
+        return map.put(element, element) == null;
+    }
+
+    public boolean add(T element, long duration, TimeUnit unit) {
+        return map.put(element, element, duration, unit) == null;
+    }
+
+    /**
+     * @param expiration the time in milliseconds, according to the clock, when the element expires
+     */
+    public boolean addUntil(T element, long expiration) {
+        return map.putUntil(element, element, expiration) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object element) {
+        return map.containsKey((T) element);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object element) {
+        return map.remove((T) element) != null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return map.valueIterator();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+}
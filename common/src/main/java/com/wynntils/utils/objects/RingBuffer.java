@@ -0,0 +1,82 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+/** A fixed-capacity FIFO buffer that does not allocate after construction. Index 0 is the oldest element. */
+public class RingBuffer<T> {
+    private final Object[] elements;
+    private int head = 0;
+    private int size = 0;
+
+    public RingBuffer(int capacity) {
+        elements = new Object[capacity];
+    }
+
+    /**
+     * Appends an element, evicting the oldest one if the buffer is full
+     *
+     * @return the evicted element, or null if nothing was evicted
+     */
+    public T add(T element) {
+        T evicted = null;
+        if (isFull()) {
+            evicted = removeFirst();
+        }
+
+        elements[(head + size) % elements.length] = element;
+        size++;
+        return evicted;
+    }
+
+    public T removeFirst() {
+        if (size == 0) return null;
+
+        T first = get(0);
+        elements[head] = null;
+        head = (head + 1) % elements.length;
+        size--;
+        return first;
+    }
+
+    /** Removes the element at the given index, shifting newer elements down */
+    public T remove(int index) {
+        T removed = get(index);
+
+        for (int i = index; i < size - 1; i++) {
+            elements[(head + i) % elements.length] = elements[(head + i + 1) % elements.length];
+        }
+        elements[(head + size - 1) % elements.length] = null;
+        size--;
+
+        return removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+
+        return (T) elements[(head + index) % elements.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == elements.length;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) % elements.length] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+}
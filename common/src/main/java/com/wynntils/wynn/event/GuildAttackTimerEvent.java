@@ -0,0 +1,40 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.event;
+
+import com.wynntils.wynn.model.scoreboard.guild.TerritoryAttackTimer;
+import net.minecraftforge.eventbus.api.Event;
+
+/** Fired on the main thread when a territory attack timer appears, goes away or learns its defense */
+public abstract class GuildAttackTimerEvent extends Event {
+    private final TerritoryAttackTimer timer;
+
+    protected GuildAttackTimerEvent(TerritoryAttackTimer timer) {
+        this.timer = timer;
+    }
+
+    public TerritoryAttackTimer getTimer() {
+        return timer;
+    }
+
+    public static class Added extends GuildAttackTimerEvent {
+        public Added(TerritoryAttackTimer timer) {
+            super(timer);
+        }
+    }
+
+    /** The timer ran out, or the attack timers are no longer on the scoreboard */
+    public static class Expired extends GuildAttackTimerEvent {
+        public Expired(TerritoryAttackTimer timer) {
+            super(timer);
+        }
+    }
+
+    public static class DefenseUpdated extends GuildAttackTimerEvent {
+        public DefenseUpdated(TerritoryAttackTimer timer) {
+            super(timer);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.event;
+
+import com.wynntils.core.webapi.profiles.TerritoryProfile;
+import net.minecraftforge.eventbus.api.Event;
+
+/** Fired on the main thread when a territory changes owner between two territory list updates */
+public class TerritoryOwnerChangedEvent extends Event {
+    private final TerritoryProfile oldProfile;
+    private final TerritoryProfile newProfile;
+
+    public TerritoryOwnerChangedEvent(TerritoryProfile oldProfile, TerritoryProfile newProfile) {
+        this.oldProfile = oldProfile;
+        this.newProfile = newProfile;
+    }
+
+    public String getTerritoryName() {
+        return newProfile.getName();
+    }
+
+    public String getOldGuild() {
+        return oldProfile.getGuild();
+    }
+
+    public String getNewGuild() {
+        return newProfile.getGuild();
+    }
+
+    public TerritoryProfile getOldProfile() {
+        return oldProfile;
+    }
+
+    public TerritoryProfile getNewProfile() {
+        return newProfile;
+    }
+}
@@ -6,24 +6,24 @@ package com.wynntils.wynn.item;
 
 import com.wynntils.core.webapi.WebManager;
 import com.wynntils.core.webapi.profiles.item.DamageType;
+import com.wynntils.core.webapi.profiles.item.IdentificationProfile;
 import com.wynntils.core.webapi.profiles.item.ItemProfile;
 import com.wynntils.core.webapi.profiles.item.MajorIdentification;
 import com.wynntils.core.webapi.profiles.item.RequirementType;
 import com.wynntils.features.user.tooltips.ItemStatInfoFeature;
 import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.utils.KeyboardUtils;
-import com.wynntils.utils.MathUtils;
 import com.wynntils.utils.StringUtils;
 import com.wynntils.wynn.objects.ItemIdentificationContainer;
 import com.wynntils.wynn.objects.Powder;
 import com.wynntils.wynn.utils.WynnItemUtils;
 import com.wynntils.wynn.utils.WynnUtils;
-import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.DoubleSummaryStatistics;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -33,7 +33,6 @@ import net.minecraft.ChatFormatting;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
-import net.minecraft.network.chat.Style;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
@@ -46,6 +45,9 @@ public class GearItemStack extends WynnItemStack {
 
     private static final Component ID_PLACEHOLDER = new TextComponent("ID_PLACEHOLDER");
 
+    // Bumped when a config change affects how identification lines look or are ordered
+    private static int tooltipGeneration = 0;
+
     private ItemProfile itemProfile;
     private boolean isPerfect;
     private boolean isDefective;
@@ -56,11 +58,19 @@ public class GearItemStack extends WynnItemStack {
     private boolean isChatItem;
 
     private Component customName;
+    // The name without the overall percentage, which depends on the config
+    private MutableComponent plainName;
 
     private List<ItemIdentificationContainer> identifications;
+    // Whether identifications were parsed from the item's own lore, rather than created from values
+    private boolean idsFromLore;
     private List<Powder> powders;
     private int rerolls;
 
+    // Tooltip variants are built from the base tooltip the first time they are shown
+    private List<Component> baseTooltip;
+    private int idIndex = -1;
+    private int builtGeneration = tooltipGeneration;
     private List<Component> percentTooltip;
     private List<Component> rangeTooltip;
     private List<Component> rerollTooltip;
@@ -74,6 +84,7 @@ public class GearItemStack extends WynnItemStack {
 
         // identification parsing & tooltip creation
         identifications = new ArrayList<>();
+        idsFromLore = true;
 
         List<Component> lore = ComponentUtils.stripDuplicateBlank(getOriginalTooltip());
         lore.remove(0); // remove item name
@@ -136,7 +147,7 @@ public class GearItemStack extends WynnItemStack {
             baseTooltip = ComponentUtils.stripDuplicateBlank(baseTooltip);
         }
 
-        constructTooltips(baseTooltip);
+        setBaseTooltip(baseTooltip);
 
         // overall percent & name
         parseIDs();
@@ -159,7 +170,7 @@ public class GearItemStack extends WynnItemStack {
 
         List<Component> baseTooltip = constructBaseTooltip();
         identifications = WynnItemUtils.identificationsFromProfile(itemProfile);
-        constructTooltips(baseTooltip);
+        setBaseTooltip(baseTooltip);
     }
 
     /** Chat item constructor - used when decoding an encoded chat string */
@@ -187,7 +198,7 @@ public class GearItemStack extends WynnItemStack {
 
         parseIDs();
         List<Component> baseTooltip = constructBaseTooltip();
-        constructTooltips(baseTooltip);
+        setBaseTooltip(baseTooltip);
     }
 
     /** Gear viewer constructor - used when decoding internal json */
@@ -215,7 +226,7 @@ public class GearItemStack extends WynnItemStack {
 
         parseIDs();
         List<Component> baseTooltip = constructBaseTooltip();
-        constructTooltips(baseTooltip);
+        setBaseTooltip(baseTooltip);
     }
 
     public ItemProfile getItemProfile() {
@@ -248,74 +259,15 @@ public class GearItemStack extends WynnItemStack {
 
     @Override
     public Component getHoverName() {
+        checkTooltipGeneration();
         if (isGuideStack || isChatItem) return customName;
 
-        /*
-         * This math was originally based off Avaritia code.
-         * Special thanks for Morpheus1101 and SpitefulFox
-         * Avaritia Repo: https://github.com/Morpheus1101/Avaritia
-         */
         if (ItemStatInfoFeature.INSTANCE.perfect && isPerfect) {
-            MutableComponent newName = new TextComponent("").withStyle(ChatFormatting.BOLD);
-
-            String name = "Perfect " + itemName;
-
-            int cycle = 5000;
-
-            int time = (int) (System.currentTimeMillis() % cycle);
-            for (int i = 0; i < name.length(); i++) {
-                int hue = (time + i * cycle / 7) % cycle;
-                Style color = Style.EMPTY
-                        .withColor(Color.HSBtoRGB((hue / (float) cycle), 0.8F, 0.8F))
-                        .withItalic(false);
-
-                newName.append(new TextComponent(String.valueOf(name.charAt(i))).setStyle(color));
-            }
-
-            return newName;
+            return ItemNameAnimator.getPerfectName(itemName);
         }
 
         if (ItemStatInfoFeature.INSTANCE.defective && isDefective) {
-            MutableComponent newName = new TextComponent("").withStyle(ChatFormatting.BOLD, ChatFormatting.DARK_RED);
-            newName.setStyle(newName.getStyle().withItalic(false));
-
-            String name = "Defective " + itemName;
-
-            boolean obfuscated = Math.random() < ItemStatInfoFeature.INSTANCE.obfuscationChanceStart;
-            StringBuilder current = new StringBuilder();
-
-            for (int i = 0; i < name.length() - 1; i++) {
-                current.append(name.charAt(i));
-
-                float chance = MathUtils.lerp(
-                        ItemStatInfoFeature.INSTANCE.obfuscationChanceStart,
-                        ItemStatInfoFeature.INSTANCE.obfuscationChanceEnd,
-                        (i + 1) / (float) (name.length() - 1));
-
-                if (!obfuscated && Math.random() < chance) {
-                    newName.append(new TextComponent(current.toString()).withStyle(Style.EMPTY.withItalic(false)));
-                    current = new StringBuilder();
-
-                    obfuscated = true;
-                } else if (obfuscated && Math.random() > chance) {
-                    newName.append(new TextComponent(current.toString())
-                            .withStyle(Style.EMPTY.withObfuscated(true).withItalic(false)));
-                    current = new StringBuilder();
-
-                    obfuscated = false;
-                }
-            }
-
-            current.append(name.charAt(name.length() - 1));
-
-            if (obfuscated) {
-                newName.append(new TextComponent(current.toString())
-                        .withStyle(Style.EMPTY.withItalic(false).withObfuscated(true)));
-            } else {
-                newName.append(new TextComponent(current.toString()).withStyle(Style.EMPTY.withItalic(false)));
-            }
-
-            return newName;
+            return ItemNameAnimator.getDefectiveName(itemName);
         }
 
         // besides special case of perfect/defective, use name already set
@@ -328,7 +280,7 @@ public class GearItemStack extends WynnItemStack {
         tooltip.add(getHoverName());
 
         if (isGuideStack) {
-            tooltip.addAll(rangeTooltip);
+            tooltip.addAll(getRangeTooltip());
             return tooltip;
         }
 
@@ -337,16 +289,16 @@ public class GearItemStack extends WynnItemStack {
                     .withStyle(ChatFormatting.DARK_GRAY)
                     .withStyle(ChatFormatting.ITALIC));
 
-            tooltip.addAll(percentTooltip);
+            tooltip.addAll(getPercentTooltip());
             return tooltip;
         }
 
         if (KeyboardUtils.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT)) {
-            tooltip.addAll(rangeTooltip);
+            tooltip.addAll(getRangeTooltip());
         } else if (KeyboardUtils.isKeyDown(GLFW.GLFW_KEY_LEFT_CONTROL)) {
-            tooltip.addAll(rerollTooltip);
+            tooltip.addAll(getRerollTooltip());
         } else {
-            tooltip.addAll(percentTooltip);
+            tooltip.addAll(getPercentTooltip());
         }
 
         return tooltip;
@@ -362,12 +314,12 @@ public class GearItemStack extends WynnItemStack {
         int idAmount = (int) percents.getCount();
         float percentTotal = (float) percents.getSum();
 
-        MutableComponent name;
-        if (customName == null) {
-            name = new TextComponent(WynnUtils.normalizeBadString(ComponentUtils.getCoded(getHoverName())));
-        } else {
-            name = customName.copy();
+        if (plainName == null) {
+            plainName = customName == null
+                    ? new TextComponent(WynnUtils.normalizeBadString(ComponentUtils.getCoded(getHoverName())))
+                    : customName.copy();
         }
+        MutableComponent name = plainName.copy();
 
         if (hasNew) {
             name.append(new TextComponent(" [NEW]").withStyle(ChatFormatting.GOLD));
@@ -384,46 +336,96 @@ public class GearItemStack extends WynnItemStack {
         customName = name;
     }
 
-    private void constructTooltips(List<Component> baseTooltip) {
-        int idIndex = baseTooltip.indexOf(ID_PLACEHOLDER);
+    /** Drops every built tooltip variant, so they are rebuilt with the current config */
+    public static void invalidateTooltips() {
+        tooltipGeneration++;
+    }
+
+    public List<Component> getPercentTooltip() {
+        checkTooltipGeneration();
+        if (percentTooltip == null) {
+            percentTooltip = constructTooltip(ItemIdentificationContainer::percentLoreLine);
+        }
+
+        return percentTooltip;
+    }
+
+    public List<Component> getRangeTooltip() {
+        checkTooltipGeneration();
+        if (rangeTooltip == null) {
+            rangeTooltip = constructTooltip(ItemIdentificationContainer::rangeLoreLine);
+        }
+
+        return rangeTooltip;
+    }
+
+    public List<Component> getRerollTooltip() {
+        checkTooltipGeneration();
+        if (rerollTooltip == null) {
+            rerollTooltip = constructTooltip(ItemIdentificationContainer::rerollLoreLine);
+        }
+
+        return rerollTooltip;
+    }
+
+    private void checkTooltipGeneration() {
+        if (builtGeneration == tooltipGeneration) return;
+        builtGeneration = tooltipGeneration;
+
+        percentTooltip = null;
+        rangeTooltip = null;
+        rerollTooltip = null;
+        rebuildIdentifications();
+    }
+
+    /** Recreates the identification lines and the name, as they bake in the config they were built with */
+    private void rebuildIdentifications() {
+        // guide lines only show ranges, and stacks without a profile have nothing to rebuild
+        if (isGuideStack || identifications == null) return;
+
+        List<ItemIdentificationContainer> rebuilt = new ArrayList<>(identifications.size());
+        for (ItemIdentificationContainer id : identifications) {
+            rebuilt.add(
+                    idsFromLore
+                            ? WynnItemUtils.identificationFromLore(id.rawLoreLine(), itemProfile)
+                            : WynnItemUtils.identificationFromValue(
+                                    null,
+                                    itemProfile,
+                                    IdentificationProfile.getAsLongName(id.shortIdName()),
+                                    id.shortIdName(),
+                                    id.value(),
+                                    id.stars()));
+        }
+        identifications = rebuilt;
+
+        parseIDs();
+    }
+
+    private void setBaseTooltip(List<Component> baseTooltip) {
+        idIndex = baseTooltip.indexOf(ID_PLACEHOLDER);
         baseTooltip.remove(ID_PLACEHOLDER);
 
-        percentTooltip = new ArrayList<>(baseTooltip);
-        rangeTooltip = new ArrayList<>(baseTooltip);
-        rerollTooltip = new ArrayList<>(baseTooltip);
-
-        if (!identifications.isEmpty() && idIndex != -1) {
-            Map<String, Component> percentMap = identifications.stream()
-                    .collect(Collectors.toMap(
-                            ItemIdentificationContainer::shortIdName, ItemIdentificationContainer::percentLoreLine));
-            Map<String, Component> rangeMap = identifications.stream()
-                    .collect(Collectors.toMap(
-                            ItemIdentificationContainer::shortIdName, ItemIdentificationContainer::rangeLoreLine));
-            Map<String, Component> rerollMap = identifications.stream()
-                    .collect(Collectors.toMap(
-                            ItemIdentificationContainer::shortIdName, ItemIdentificationContainer::rerollLoreLine));
-
-            Collection<Component> orderedPercents;
-            Collection<Component> orderedRanges;
-            Collection<Component> orderedRerolls;
-
-            if (ItemStatInfoFeature.INSTANCE.reorderIdentifications || isGuideStack) {
-                orderedPercents = IdentificationOrderer.INSTANCE.orderComponents(
-                        percentMap, ItemStatInfoFeature.INSTANCE.groupIdentifications);
-                orderedRanges = IdentificationOrderer.INSTANCE.orderComponents(
-                        rangeMap, ItemStatInfoFeature.INSTANCE.groupIdentifications);
-                orderedRerolls = IdentificationOrderer.INSTANCE.orderComponents(
-                        rerollMap, ItemStatInfoFeature.INSTANCE.groupIdentifications);
-            } else {
-                orderedPercents = percentMap.values();
-                orderedRanges = rangeMap.values();
-                orderedRerolls = rerollMap.values();
-            }
+        this.baseTooltip = baseTooltip;
+        builtGeneration = tooltipGeneration;
+    }
+
+    private List<Component> constructTooltip(Function<ItemIdentificationContainer, Component> loreLine) {
+        List<Component> tooltip = new ArrayList<>(baseTooltip);
+        if (identifications.isEmpty() || idIndex == -1) return tooltip;
+
+        Map<String, Component> idMap = identifications.stream()
+                .collect(Collectors.toMap(ItemIdentificationContainer::shortIdName, loreLine));
 
-            percentTooltip.addAll(idIndex, orderedPercents);
-            rangeTooltip.addAll(idIndex, orderedRanges);
-            rerollTooltip.addAll(idIndex, orderedRerolls);
+        Collection<Component> orderedIds;
+        if (ItemStatInfoFeature.INSTANCE.reorderIdentifications || isGuideStack) {
+            orderedIds = IdentificationOrderer.INSTANCE.orderComponents(
+                    idMap, ItemStatInfoFeature.INSTANCE.groupIdentifications);
+        } else {
+            orderedIds = idMap.values();
         }
+
+        tooltip.addAll(idIndex, orderedIds);
+        return tooltip;
     }
 
     private List<Component> constructBaseTooltip() {
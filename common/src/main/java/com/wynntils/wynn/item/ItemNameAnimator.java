@@ -0,0 +1,189 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.item;
+
+import com.wynntils.features.user.tooltips.ItemStatInfoFeature;
+import com.wynntils.utils.MathUtils;
+import java.awt.Color;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+import net.minecraft.network.chat.TextComponent;
+
+/**
+ * Animated names of perfect and defective items.
+ *
+ * <p>Perfect names move on every millisecond, like they always have, so they are rebuilt at most
+ * once per millisecond, from a table of the colors of the whole cycle; all callers within the same
+ * millisecond share the same component. Defective names are built once as a fixed number of frames,
+ * garbled with a random seeded by the name and frame, so a given frame always looks the same.
+ */
+public final class ItemNameAnimator {
+    private static final int PERFECT_CYCLE_MILLIS = 5000;
+
+    private static final int DEFECTIVE_FRAMES = 32;
+    private static final int DEFECTIVE_FRAME_MILLIS = 50;
+
+    private static final int MAX_CACHED_NAMES = 64;
+
+    private static final Map<String, PerfectName> perfectNames = createCache();
+    private static final Map<String, Component[]> defectiveNames = createCache();
+
+    // The color of every hue of the cycle, with the configured saturation and brightness
+    private static int[] perfectColors = null;
+
+    private static LongSupplier clock = System::currentTimeMillis;
+
+    public static Component getPerfectName(String itemName) {
+        float speed = Math.max(ItemStatInfoFeature.INSTANCE.animationSpeed, 0.01f);
+        int time = (int) ((long) (clock.getAsLong() * (double) speed) % PERFECT_CYCLE_MILLIS);
+
+        return perfectNames.computeIfAbsent(itemName, PerfectName::new).get(time);
+    }
+
+    public static Component getDefectiveName(String itemName) {
+        Component[] frames = defectiveNames.computeIfAbsent(itemName, ItemNameAnimator::createDefectiveFrames);
+        return frames[getFrame(DEFECTIVE_FRAME_MILLIS, DEFECTIVE_FRAMES)];
+    }
+
+    /** Drops all built frames, so they are rebuilt with the current config */
+    public static void clear() {
+        perfectNames.clear();
+        defectiveNames.clear();
+        perfectColors = null;
+    }
+
+    /** Replaces the time source frames are picked with, in milliseconds */
+    static void setClock(LongSupplier clock) {
+        ItemNameAnimator.clock = clock;
+    }
+
+    static int getFrame(int frameMillis, int frameCount) {
+        float speed = Math.max(ItemStatInfoFeature.INSTANCE.animationSpeed, 0.01f);
+        // in double, as a float cannot hold the current time in milliseconds to the millisecond
+        long frame = (long) ((clock.getAsLong() / (double) frameMillis) * speed);
+        return (int) (frame % frameCount);
+    }
+
+    /*
+     * This math was originally based off Avaritia code.
+     * Special thanks for Morpheus1101 and SpitefulFox
+     * Avaritia Repo: https://github.com/Morpheus1101/Avaritia
+     */
+    private static Component createPerfectName(String name, int time) {
+        int[] colors = getPerfectColors();
+        MutableComponent newName = new TextComponent("").withStyle(ChatFormatting.BOLD);
+
+        for (int i = 0; i < name.length(); i++) {
+            int hue = (time + i * PERFECT_CYCLE_MILLIS / 7) % PERFECT_CYCLE_MILLIS;
+            Style color = Style.EMPTY.withColor(colors[hue]).withItalic(false);
+
+            newName.append(new TextComponent(String.valueOf(name.charAt(i))).setStyle(color));
+        }
+
+        return newName;
+    }
+
+    private static int[] getPerfectColors() {
+        if (perfectColors == null) {
+            float saturation = ItemStatInfoFeature.INSTANCE.perfectSaturation;
+            float brightness = ItemStatInfoFeature.INSTANCE.perfectBrightness;
+
+            int[] colors = new int[PERFECT_CYCLE_MILLIS];
+            for (int hue = 0; hue < PERFECT_CYCLE_MILLIS; hue++) {
+                colors[hue] = Color.HSBtoRGB(hue / (float) PERFECT_CYCLE_MILLIS, saturation, brightness);
+            }
+            perfectColors = colors;
+        }
+
+        return perfectColors;
+    }
+
+    private static Component[] createDefectiveFrames(String itemName) {
+        String name = "Defective " + itemName;
+
+        Component[] frames = new Component[DEFECTIVE_FRAMES];
+        for (int frame = 0; frame < DEFECTIVE_FRAMES; frame++) {
+            frames[frame] = createDefectiveFrame(name, new Random(name.hashCode() * 31L + frame));
+        }
+
+        return frames;
+    }
+
+    private static Component createDefectiveFrame(String name, Random random) {
+        float chanceStart = ItemStatInfoFeature.INSTANCE.obfuscationChanceStart;
+        float chanceEnd = ItemStatInfoFeature.INSTANCE.obfuscationChanceEnd;
+
+        MutableComponent newName = new TextComponent("").withStyle(ChatFormatting.BOLD, ChatFormatting.DARK_RED);
+        newName.setStyle(newName.getStyle().withItalic(false));
+
+        boolean obfuscated = random.nextFloat() < chanceStart;
+        StringBuilder current = new StringBuilder();
+
+        for (int i = 0; i < name.length() - 1; i++) {
+            current.append(name.charAt(i));
+
+            float chance = MathUtils.lerp(chanceStart, chanceEnd, (i + 1) / (float) (name.length() - 1));
+
+            if (!obfuscated && random.nextFloat() < chance) {
+                newName.append(new TextComponent(current.toString()).withStyle(Style.EMPTY.withItalic(false)));
+                current = new StringBuilder();
+
+                obfuscated = true;
+            } else if (obfuscated && random.nextFloat() > chance) {
+                newName.append(new TextComponent(current.toString())
+                        .withStyle(Style.EMPTY.withObfuscated(true).withItalic(false)));
+                current = new StringBuilder();
+
+                obfuscated = false;
+            }
+        }
+
+        current.append(name.charAt(name.length() - 1));
+
+        if (obfuscated) {
+            newName.append(new TextComponent(current.toString())
+                    .withStyle(Style.EMPTY.withItalic(false).withObfuscated(true)));
+        } else {
+            newName.append(new TextComponent(current.toString()).withStyle(Style.EMPTY.withItalic(false)));
+        }
+
+        return newName;
+    }
+
+    private static <T> Map<String, T> createCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > MAX_CACHED_NAMES;
+            }
+        };
+    }
+
+    /** The perfect name of an item, as of the last millisecond of the cycle it was asked for */
+    private static final class PerfectName {
+        private final String name;
+        private int time = -1;
+        private Component component;
+
+        private PerfectName(String itemName) {
+            name = "Perfect " + itemName;
+        }
+
+        private Component get(int time) {
+            if (time != this.time) {
+                component = createPerfectName(name, time);
+                this.time = time;
+            }
+
+            return component;
+        }
+    }
+}
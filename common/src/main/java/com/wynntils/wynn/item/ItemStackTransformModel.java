@@ -20,7 +20,6 @@ import com.wynntils.wynn.item.properties.IngredientProperty;
 import com.wynntils.wynn.item.properties.ItemTierProperty;
 import com.wynntils.wynn.item.properties.MaterialProperty;
 import com.wynntils.wynn.item.properties.PowderTierProperty;
-import com.wynntils.wynn.item.properties.SearchOverlayProperty;
 import com.wynntils.wynn.item.properties.ServerCountProperty;
 import com.wynntils.wynn.item.properties.SkillIconProperty;
 import com.wynntils.wynn.item.properties.SkillPointProperty;
@@ -79,20 +78,11 @@ public class ItemStackTransformModel extends Model {
         registerProperty(WynnItemMatchers::isHorse, HorseProperty::new);
         registerProperty(WynnItemMatchers::isServerItem, ServerCountProperty::new);
         registerProperty(WynnItemMatchers::isGatheringTool, GatheringToolProperty::new);
-        registerProperty(itemStack -> true, SearchOverlayProperty::new);
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
     public static void onSetSlot(SetSlotEvent event) {
-        ItemStack stack = event.getItem();
-
-        // itemstack transformers
-        for (Map.Entry<Predicate<ItemStack>, ItemStackTransformer> e : TRANSFORMERS.entrySet()) {
-            if (e.getKey().test(stack)) {
-                stack = e.getValue().transform(stack);
-                break;
-            }
-        }
+        ItemStack stack = transform(event.getItem());
 
         // itemstack properties
         for (Map.Entry<Predicate<ItemStack>, PropertyWriter> e : PROPERTIES.entrySet()) {
@@ -110,6 +100,21 @@ public class ItemStackTransformModel extends Model {
         event.setItem(stack);
     }
 
+    /**
+     * Wraps the stack in the {@link WynnItemStack} of the first transformer that claims it.
+     *
+     * @return the wrapped stack, or the stack itself if no transformer claims it
+     */
+    static ItemStack transform(ItemStack stack) {
+        for (Map.Entry<Predicate<ItemStack>, ItemStackTransformer> e : TRANSFORMERS.entrySet()) {
+            if (e.getKey().test(stack)) {
+                return e.getValue().transform(stack);
+            }
+        }
+
+        return stack;
+    }
+
     @FunctionalInterface
     private interface ItemStackTransformer {
         WynnItemStack transform(ItemStack stack);
@@ -7,8 +7,8 @@ package com.wynntils.wynn.model;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.managers.Model;
 import com.wynntils.mc.event.ChatPacketReceivedEvent;
-import com.wynntils.utils.StringUtils;
 import com.wynntils.wynn.event.ActionBarMessageUpdateEvent;
+import com.wynntils.wynn.event.WorldStateEvent;
 import com.wynntils.wynn.objects.Powder;
 import com.wynntils.wynn.utils.WynnUtils;
 import java.util.regex.Matcher;
@@ -20,11 +20,15 @@ import net.minecraft.network.chat.TextComponent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public final class ActionBarModel extends Model {
-    private static final Pattern ACTIONBAR_PATTERN =
-            StringUtils.compileCCRegex("§❤ ([0-9]+)/([0-9]+)§ +(.+?) +§✺ ([0-9]+)/([0-9]+)");
     private static final Pattern POWDER_CHARGE_PATTERN = Pattern.compile("§.+([✤✦❉✹❋]+) (\\d+)%");
     private static final Pattern COORDINATES_PATTERN = Pattern.compile("§7(-?\\d+)§f .+§(-?\\d+) (-?\\d+)");
 
+    private static final char HEALTH_SYMBOL = '❤';
+    private static final char MANA_SYMBOL = '✺';
+    // Any number with at most this many digits fits in an int
+    private static final int MAX_DIGITS = 9;
+
+    private static String previousActionBar = null;
     private static Component previousMessage = null;
 
     private static float powderSpecialCharge = 0;
@@ -34,26 +38,65 @@ public final class ActionBarModel extends Model {
     private static int currentMana = -1;
     private static int maxMana = -1;
 
+    // Scratch state of the action bar scanner, only valid right after a successful scan
+    private static int scanPosition;
+    private static int scannedNumber;
+    private static int centerStart;
+    private static int centerEnd;
+    private static int scannedCurrentHealth;
+    private static int scannedMaxHealth;
+    private static int scannedCurrentMana;
+    private static int scannedMaxMana;
+
     /** Needed for all Models */
     public static void init() {}
 
+    public static void disable() {
+        invalidateCache();
+    }
+
+    /**
+     * Forget the last action bar, so that the next one is parsed and its update events are posted again.
+     * Call this when listeners of {@link ActionBarMessageUpdateEvent} change how they modify the message.
+     */
+    public static void invalidateCache() {
+        previousActionBar = null;
+        previousMessage = null;
+    }
+
+    @SubscribeEvent
+    public static void onWorldStateChange(WorldStateEvent e) {
+        if (e.getNewState() == WorldStateManager.State.WORLD) return;
+
+        invalidateCache();
+        powderSpecialCharge = 0;
+        powderSpecialType = null;
+        currentHealth = -1;
+        maxHealth = -1;
+        currentMana = -1;
+        maxMana = -1;
+    }
+
     @SubscribeEvent
     public static void onActionBarUpdate(ChatPacketReceivedEvent e) {
         if (!WynnUtils.onWorld() || e.getType() != ChatType.GAME_INFO) return;
 
-        String actionBar = e.getMessage().getString();
+        String actionBar = getRawText(e.getMessage());
 
-        Matcher matcher = ACTIONBAR_PATTERN.matcher(actionBar);
-        if (!matcher.matches()) return;
+        // The action bar is resent several times a second, most of the time without any changes
+        if (previousMessage != null && actionBar.equals(previousActionBar)) {
+            e.setMessage(previousMessage);
+            return;
+        }
 
-        currentHealth = Integer.parseInt(matcher.group(1));
-        maxHealth = Integer.parseInt(matcher.group(2));
-        currentMana = Integer.parseInt(matcher.group(4));
-        maxMana = Integer.parseInt(matcher.group(5));
+        if (!scanActionBar(actionBar)) return;
 
-        if (previousMessage != null && actionBar.equals(previousMessage.getString())) return;
+        currentHealth = scannedCurrentHealth;
+        maxHealth = scannedMaxHealth;
+        currentMana = scannedCurrentMana;
+        maxMana = scannedMaxMana;
 
-        String centerActionString = matcher.group(3);
+        String centerActionString = actionBar.substring(centerStart, centerEnd);
 
         Matcher powderChargeMatcher = POWDER_CHARGE_PATTERN.matcher(centerActionString);
         if (powderChargeMatcher.matches()) {
@@ -83,11 +126,134 @@ public final class ActionBarModel extends Model {
                 .append("    ")
                 .append(manaText.getMessage());
 
+        previousActionBar = actionBar;
         previousMessage = modified;
 
         e.setMessage(modified);
     }
 
+    private static String getRawText(Component message) {
+        // Wynncraft sends the action bar as a single legacy formatted text component,
+        // so we can skip the string building of getString() in that case
+        if (message instanceof TextComponent textComponent && message.getSiblings().isEmpty()) {
+            return textComponent.getText();
+        }
+
+        return message.getString();
+    }
+
+    /**
+     * Scans an action bar of the form {@code §❤ 123/456§ +(center) +§✺ 12/34}, where § stands for
+     * any number of color codes. Health and mana are parsed from the edges inwards, everything in between
+     * (trimmed of the separating spaces) is the center segment.
+     *
+     * <p>This only fills the scratch state, the model is updated by the caller.
+     *
+     * @return whether the action bar was matched, in which case the scanned fields are valid
+     */
+    static boolean scanActionBar(String actionBar) {
+        int length = actionBar.length();
+
+        // Health, from the start
+        int pos = skipColorCodesForward(actionBar, 0);
+        if (pos + 1 >= length || actionBar.charAt(pos) != HEALTH_SYMBOL || actionBar.charAt(pos + 1) != ' ') {
+            return false;
+        }
+        if (!scanNumberForward(actionBar, pos + 2)) return false;
+        scannedCurrentHealth = scannedNumber;
+        pos = scanPosition;
+        if (pos >= length || actionBar.charAt(pos) != '/') return false;
+        if (!scanNumberForward(actionBar, pos + 1)) return false;
+        scannedMaxHealth = scannedNumber;
+        pos = skipColorCodesForward(actionBar, scanPosition);
+
+        int spacesStart = pos;
+        while (pos < length && actionBar.charAt(pos) == ' ') {
+            pos++;
+        }
+        if (pos == spacesStart) return false;
+        centerStart = pos;
+
+        // Mana, from the end
+        if (!scanNumberBackward(actionBar, length)) return false;
+        scannedMaxMana = scannedNumber;
+        pos = scanPosition;
+        if (pos < 1 || actionBar.charAt(pos - 1) != '/') return false;
+        if (!scanNumberBackward(actionBar, pos - 1)) return false;
+        scannedCurrentMana = scannedNumber;
+        pos = scanPosition;
+        if (pos < 2 || actionBar.charAt(pos - 1) != ' ' || actionBar.charAt(pos - 2) != MANA_SYMBOL) return false;
+        pos = skipColorCodesBackward(actionBar, pos - 2);
+
+        int spacesEnd = pos;
+        while (pos > centerStart && actionBar.charAt(pos - 1) == ' ') {
+            pos--;
+        }
+        if (pos == spacesEnd) return false;
+        centerEnd = pos;
+
+        return centerEnd > centerStart;
+    }
+
+    private static boolean scanNumberForward(String text, int start) {
+        int pos = start;
+        int number = 0;
+        while (pos < text.length() && isDigit(text.charAt(pos))) {
+            number = number * 10 + (text.charAt(pos) - '0');
+            pos++;
+        }
+
+        int digits = pos - start;
+        if (digits == 0 || digits > MAX_DIGITS) return false;
+
+        scannedNumber = number;
+        scanPosition = pos;
+        return true;
+    }
+
+    private static boolean scanNumberBackward(String text, int end) {
+        int pos = end;
+        while (pos > 0 && isDigit(text.charAt(pos - 1))) {
+            pos--;
+        }
+
+        int digits = end - pos;
+        if (digits == 0 || digits > MAX_DIGITS) return false;
+
+        int number = 0;
+        for (int i = pos; i < end; i++) {
+            number = number * 10 + (text.charAt(i) - '0');
+        }
+
+        scannedNumber = number;
+        scanPosition = pos;
+        return true;
+    }
+
+    private static int skipColorCodesForward(String text, int start) {
+        int pos = start;
+        while (pos + 1 < text.length() && text.charAt(pos) == '§' && isColorCode(text.charAt(pos + 1))) {
+            pos += 2;
+        }
+        return pos;
+    }
+
+    private static int skipColorCodesBackward(String text, int end) {
+        int pos = end;
+        while (pos >= 2 && text.charAt(pos - 2) == '§' && isColorCode(text.charAt(pos - 1))) {
+            pos -= 2;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isColorCode(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'k' && c <= 'o') || c == 'r';
+    }
+
     public static int getCurrentHealth() {
         return currentHealth;
     }
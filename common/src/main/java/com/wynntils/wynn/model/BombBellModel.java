@@ -6,11 +6,13 @@ package com.wynntils.wynn.model;
 
 import com.wynntils.core.managers.Model;
 import com.wynntils.mc.utils.ComponentUtils;
+import com.wynntils.utils.objects.ExpiringSet;
 import com.wynntils.wynn.event.ChatMessageReceivedEvent;
 import com.wynntils.wynn.objects.BombInfo;
 import com.wynntils.wynn.objects.BombType;
+import java.util.Collections;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraftforge.eventbus.api.EventPriority;
@@ -20,7 +22,9 @@ public class BombBellModel extends Model {
     private static final Pattern BOMB_BELL_PATTERN =
             Pattern.compile("^\\[Bomb Bell\\] (?<user>.+) has thrown an? (?<bomb>.+) Bomb on (?<server>.+)$");
 
-    private static final Set<BombInfo> BOMB_BELLS = ConcurrentHashMap.newKeySet();
+    // Every bomb is added with its own duration, so the default is never used
+    private static final ExpiringSet<BombInfo> BOMB_BELLS = new ExpiringSet<>(20, TimeUnit.MINUTES);
+    private static final Set<BombInfo> BOMB_BELLS_VIEW = Collections.unmodifiableSet(BOMB_BELLS);
 
     public static void init() {}
 
@@ -38,20 +42,24 @@ public class BombBellModel extends Model {
             String bomb = matcher.group("bomb");
             String server = matcher.group("server");
 
-            // Better to do a bit of processing and clean up the set than leaking memory
-            removeOldTimers();
+            BombType bombType = BombType.fromString(bomb);
+            if (bombType == null) return;
 
-            BOMB_BELLS.add(new BombInfo(user, BombType.fromString(bomb), server, System.currentTimeMillis()));
+            // The same bomb thrown again replaces the old one and restarts its time
+            BOMB_BELLS.add(
+                    new BombInfo(user, bombType, server, System.currentTimeMillis()),
+                    bombType.getActiveMinutes(),
+                    TimeUnit.MINUTES);
         }
     }
 
-    private static void removeOldTimers() {
-        BOMB_BELLS.removeIf(bombInfo ->
-                bombInfo.startTime() + (bombInfo.bomb().getActiveMinutes() * 60000L) < System.currentTimeMillis());
-    }
-
+    /**
+     * Reading the set removes expired bombs from it, so like the chat events that fill it, it must
+     * only be used from the render thread.
+     *
+     * @return a read-only view of the bombs that are still active
+     */
     public static Set<BombInfo> getBombBells() {
-        removeOldTimers();
-        return BOMB_BELLS;
+        return BOMB_BELLS_VIEW;
     }
 }
@@ -10,15 +10,15 @@ import com.wynntils.core.webapi.profiles.item.ItemProfile;
 import com.wynntils.mc.mixin.accessors.ItemStackInfoAccessor;
 import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.wynn.item.GearItemStack;
-import com.wynntils.wynn.item.IdentificationOrderer;
 import com.wynntils.wynn.objects.ItemIdentificationContainer;
 import com.wynntils.wynn.objects.Powder;
 import com.wynntils.wynn.utils.WynnItemUtils;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -38,11 +38,27 @@ public final class ChatItemModel {
     private static final String RANGE =
             "[" + new String(Character.toChars(0xF5000)) + "-" + new String(Character.toChars(0xF5F00)) + "]";
     private static final int OFFSET = 0xF5000;
+    private static final int MAX_ENCODED = 0xF5F00;
+    // every encoded value is a supplementary code point, i.e. a surrogate pair
+    private static final int ENCODED_CHAR_LENGTH = 2;
 
     private static final boolean ENCODE_NAME = false;
 
-    private static final Pattern ENCODED_PATTERN = Pattern.compile(START + "(?<Name>.+?)" + SEPARATOR + "(?<Ids>"
-            + RANGE + "*)(?:" + SEPARATOR + "(?<Powders>" + RANGE + "+))?(?<Rerolls>" + RANGE + ")" + END);
+    // the name can't contain any of the markers, so a broken item never swallows the item after it
+    private static final Pattern ENCODED_PATTERN = Pattern.compile(START + "(?<Name>[^" + START + SEPARATOR + END
+            + "]+)" + SEPARATOR + "(?<Ids>" + RANGE + "*)(?:" + SEPARATOR + "(?<Powders>" + RANGE + "+))?(?<Rerolls>"
+            + RANGE + ")" + END);
+
+    // Chat tabs re-render messages and trade chat repeats the same links, so keep recently decoded items around
+    private static final int DECODE_CACHE_SIZE = 64;
+    private static final Map<String, GearItemStack> decodeCache =
+            new LinkedHashMap<>(DECODE_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GearItemStack> eldest) {
+                    return size() > DECODE_CACHE_SIZE;
+                }
+            };
+    private static Map<String, ItemProfile> decodeCacheItemsMap = null;
 
     /**
      * Encodes the given item, as long as it is a standard gear item, into the following format
@@ -135,14 +151,48 @@ public final class ChatItemModel {
         return encoded.toString();
     }
 
-    private static GearItemStack decodeItem(String encoded) {
-        Matcher m = ENCODED_PATTERN.matcher(encoded);
-        if (!m.matches()) return null;
+    private static GearItemStack getDecodedItem(String encoded) {
+        Map<String, ItemProfile> itemsMap = WebManager.getItemsMap();
+        if (itemsMap != decodeCacheItemsMap) {
+            // item profiles were reloaded, cached stacks point to the old ones
+            decodeCache.clear();
+            decodeCacheItemsMap = itemsMap;
+        }
+
+        GearItemStack cached = decodeCache.get(encoded);
+        if (cached != null) return cached;
 
-        String name = ENCODE_NAME ? decodeString(m.group("Name")) : m.group("Name");
-        int[] ids = decodeNumbers(m.group("Ids"));
-        int[] powders = m.group("Powders") != null ? decodeNumbers(m.group("Powders")) : new int[0];
-        int rerolls = decodeNumbers(m.group("Rerolls"))[0];
+        GearItemStack item = decodeItem(encoded);
+        if (item != null) {
+            decodeCache.put(encoded, item);
+        }
+        return item;
+    }
+
+    /**
+     * Decodes a single encoded item, as created by {@link #encodeItem(GearItemStack)}
+     *
+     * @return the decoded chat item, or null if the string is not exactly one valid encoded item
+     */
+    public static GearItemStack decodeItem(String encoded) {
+        EncodedItem range = scanEncodedItem(encoded, 0);
+        if (range == null || range.end() != encoded.length()) return null;
+
+        String rawName = encoded.substring(START.length(), range.nameEnd());
+        String name = ENCODE_NAME ? decodeString(rawName) : rawName;
+
+        int idsStart = range.nameEnd() + SEPARATOR.length();
+        int rerollsStart = range.end() - END.length() - ENCODED_CHAR_LENGTH;
+        int[] ids;
+        int[] powders;
+        if (range.powdersStart() == -1) {
+            ids = decodeNumbers(encoded, idsStart, rerollsStart);
+            powders = new int[0];
+        } else {
+            ids = decodeNumbers(encoded, idsStart, range.powdersStart() - SEPARATOR.length());
+            powders = decodeNumbers(encoded, range.powdersStart(), rerollsStart);
+        }
+        int rerolls = encoded.codePointAt(rerollsStart) - OFFSET;
 
         ItemProfile item =
                 WebManager.getItemsMap() != null ? WebManager.getItemsMap().get(name) : null;
@@ -151,11 +201,8 @@ public final class ChatItemModel {
         // ids
         List<ItemIdentificationContainer> idContainers = new ArrayList<>();
 
-        List<String> sortedIds = new ArrayList<>(item.getStatuses().keySet());
-        sortedIds.sort(Comparator.comparingInt(IdentificationOrderer.INSTANCE::getOrder));
-
         int counter = 0; // for id value array
-        for (String shortIdName : sortedIds) {
+        for (String shortIdName : item.getOrderedStatuses()) {
             IdentificationProfile status = item.getStatuses().get(shortIdName);
 
             int value;
@@ -219,7 +266,7 @@ public final class ChatItemModel {
 
     public static Component insertItemComponents(Component message) {
         // no item tooltips to insert
-        if (!ENCODED_PATTERN.matcher(ComponentUtils.getCoded(message)).find()) return message;
+        if (findEncodedItem(ComponentUtils.getCoded(message), 0) == null) return message;
 
         List<MutableComponent> components =
                 message.getSiblings().stream().map(Component::copy).collect(Collectors.toList());
@@ -228,41 +275,106 @@ public final class ChatItemModel {
         MutableComponent temp = new TextComponent("");
 
         for (Component comp : components) {
-            Matcher m = ENCODED_PATTERN.matcher(ComponentUtils.getCoded(comp));
-            if (!m.find()) {
-                Component newComponent = comp.copy();
-                temp.append(newComponent);
-                continue;
+            String text = ComponentUtils.getCoded(comp);
+            Style style = comp.getStyle();
+
+            int remainderStart = 0; // start of the text that has not been appended yet
+            String remainderCodes = ""; // formatting carried over from the text before the last item
+
+            // search for multiple items in the same message
+            EncodedItem encoded = findEncodedItem(text, 0);
+            while (encoded != null) {
+                GearItemStack item = getDecodedItem(text.substring(encoded.start(), encoded.end()));
+                if (item != null) {
+                    MutableComponent preText =
+                            new TextComponent(remainderCodes + text.substring(remainderStart, encoded.start()));
+                    preText.withStyle(style);
+                    temp.append(preText);
+
+                    // create hover-able text component for the item
+                    temp.append(createItemComponent(item));
+
+                    remainderStart = encoded.end();
+                    remainderCodes = ComponentUtils.getLastPartCodes(ComponentUtils.getCoded(preText));
+                }
+                // otherwise couldn't decode, leave it as text
+
+                encoded = findEncodedItem(text, encoded.end());
             }
 
-            do {
-                String text = ComponentUtils.getCoded(comp);
-                Style style = comp.getStyle();
+            if (remainderStart == 0) {
+                temp.append(comp.copy());
+            } else {
+                // leftover text after item(s)
+                temp.append(new TextComponent(remainderCodes + text.substring(remainderStart)).withStyle(style));
+            }
+        }
 
-                GearItemStack item = decodeItem(m.group());
-                if (item == null) { // couldn't decode, skip
-                    comp = comp.copy();
-                    continue;
-                }
+        return temp;
+    }
 
-                MutableComponent preText = new TextComponent(text.substring(0, m.start()));
-                preText.withStyle(style);
-                temp.append(preText);
+    /**
+     * Finds the next well-formed encoded item in the text, starting the search at the given index.
+     * This mirrors {@link #ENCODED_PATTERN}, without the cost of running a regex over every message.
+     */
+    static EncodedItem findEncodedItem(String text, int fromIndex) {
+        int start = text.indexOf(START, fromIndex);
+        while (start != -1) {
+            EncodedItem encoded = scanEncodedItem(text, start);
+            if (encoded != null) return encoded;
 
-                // create hover-able text component for the item
-                Component itemComponent = createItemComponent(item);
-                temp.append(itemComponent);
+            start = text.indexOf(START, start + START.length());
+        }
 
-                comp = new TextComponent(ComponentUtils.getLastPartCodes(ComponentUtils.getCoded(preText))
-                                + text.substring(m.end()))
-                        .withStyle(style);
-                m = ENCODED_PATTERN.matcher(ComponentUtils.getCoded(comp)); // recreate matcher for new substring
-            } while (m.find()); // search for multiple items in the same message
+        return null;
+    }
 
-            temp.append(comp); // leftover text after item(s)
+    private static EncodedItem scanEncodedItem(String text, int start) {
+        if (!text.startsWith(START, start)) return null;
+
+        // the name must be at least one character long
+        int nameEnd = text.indexOf(SEPARATOR, start + START.length() + 1);
+        if (nameEnd == -1) return null;
+
+        // a marker inside the name means this item is broken, a later START may still begin a valid one
+        int nestedStart = text.indexOf(START, start + START.length());
+        if (nestedStart != -1 && nestedStart < nameEnd) return null;
+        int nestedEnd = text.indexOf(END, start + START.length());
+        if (nestedEnd != -1 && nestedEnd < nameEnd) return null;
+
+        int position = nameEnd + SEPARATOR.length();
+        int idCount = countEncodedChars(text, position);
+        position += idCount * ENCODED_CHAR_LENGTH;
+
+        int powdersStart = -1;
+        if (text.startsWith(SEPARATOR, position)) {
+            powdersStart = position + SEPARATOR.length();
+            int powderCount = countEncodedChars(text, powdersStart);
+
+            // at least one powder, followed by the rerolls
+            if (powderCount < 2) return null;
+            position = powdersStart + powderCount * ENCODED_CHAR_LENGTH;
+        } else if (idCount < 1) {
+            // the rerolls are missing
+            return null;
         }
 
-        return temp;
+        if (!text.startsWith(END, position)) return null;
+
+        return new EncodedItem(start, nameEnd, powdersStart, position + END.length());
+    }
+
+    private static int countEncodedChars(String text, int position) {
+        int count = 0;
+        while (position + 1 < text.length()) {
+            int codePoint = text.codePointAt(position);
+            if (codePoint < OFFSET || codePoint > MAX_ENCODED) break;
+
+            count++;
+            position += ENCODED_CHAR_LENGTH;
+        }
+
+        return count;
     }
 
     private static Component createItemComponent(GearItemStack item) {
@@ -299,11 +411,21 @@ public final class ChatItemModel {
         return decoded.toString();
     }
 
-    private static int[] decodeNumbers(String text) {
-        int[] decoded = new int[text.length() / 2];
-        for (int i = 0; i < text.length(); i += 2) {
-            decoded[i / 2] = text.codePointAt(i) - OFFSET;
+    private static int[] decodeNumbers(String text, int start, int end) {
+        int[] decoded = new int[(end - start) / ENCODED_CHAR_LENGTH];
+        for (int i = start; i < end; i += ENCODED_CHAR_LENGTH) {
+            decoded[(i - start) / ENCODED_CHAR_LENGTH] = text.codePointAt(i) - OFFSET;
         }
         return decoded;
     }
+
+    /**
+     * Positions of a well-formed encoded item inside a string
+     *
+     * @param start index of the START character
+     * @param nameEnd index of the SEPARATOR after the name
+     * @param powdersStart index of the first powder character, or -1 if there are no powders
+     * @param end index after the END character
+     */
+    record EncodedItem(int start, int nameEnd, int powdersStart, int end) {}
 }
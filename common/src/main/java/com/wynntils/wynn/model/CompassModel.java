@@ -19,6 +19,9 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 public final class CompassModel extends Model {
     private static Supplier<Location> locationSupplier = null;
     private static Location compassLocation = null; // this field acts as a cache for the supplier
+    // Created once per supplier, as the minimap asks for it every frame
+    private static WaypointPoi compassWaypoint = null;
+    private static MapLocation compassMapLocation = null;
 
     public static void init() {}
 
@@ -44,14 +47,8 @@ public final class CompassModel extends Model {
     }
 
     public static Optional<WaypointPoi> getCompassWaypoint() {
-        if (locationSupplier != null && locationSupplier.get() != null) {
-            WaypointPoi waypointPoi = new WaypointPoi(() -> {
-                Location location = locationSupplier.get();
-
-                return MapLocation.fromLocation(location);
-            });
-
-            return Optional.of(waypointPoi);
+        if (compassWaypoint != null && compassLocation != null) {
+            return Optional.of(compassWaypoint);
         }
 
         return Optional.empty();
@@ -62,18 +59,37 @@ public final class CompassModel extends Model {
             return;
         }
 
+        setLocationSupplier(compassSupplier);
+    }
+
+    public static void setCompassLocation(Location location) {
+        setLocationSupplier(() -> location);
+    }
+
+    private static void setLocationSupplier(Supplier<Location> compassSupplier) {
         locationSupplier = compassSupplier;
         compassLocation = compassSupplier.get();
+        // Follows the cached location, so the map does not call the supplier again
+        compassWaypoint = new WaypointPoi(CompassModel::getCompassMapLocation);
     }
 
-    public static void setCompassLocation(Location location) {
-        locationSupplier = () -> location;
-        compassLocation = location;
+    private static MapLocation getCompassMapLocation() {
+        if (compassLocation == null) return null;
+
+        if (compassMapLocation == null
+                || compassMapLocation.getX() != (int) compassLocation.x
+                || compassMapLocation.getY() != (int) compassLocation.y
+                || compassMapLocation.getZ() != (int) compassLocation.z) {
+            compassMapLocation = MapLocation.fromLocation(compassLocation);
+        }
+
+        return compassMapLocation;
     }
 
     public static void reset() {
         compassLocation = null;
         locationSupplier = null;
+        compassWaypoint = null;
 
         if (McUtils.mc().level != null) {
             // We can't remove the compass behavior, so arbitrarily set it to our
@@ -90,6 +106,7 @@ public final class CompassModel extends Model {
             // Reset compass
             compassLocation = null;
             locationSupplier = null;
+            compassWaypoint = null;
 
             if (McUtils.mc().level != null) {
                 McUtils.mc().level.setDefaultSpawnPos(spawnPos, 0);
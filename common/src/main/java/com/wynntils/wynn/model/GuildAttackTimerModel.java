@@ -4,30 +4,49 @@
  */
 package com.wynntils.wynn.model;
 
+import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.chat.RecipientType;
 import com.wynntils.core.managers.Model;
-import com.wynntils.utils.Pair;
-import com.wynntils.utils.objects.TimedSet;
+import com.wynntils.mc.MinecraftSchedulerManager;
+import com.wynntils.utils.objects.ExpiringMap;
 import com.wynntils.wynn.event.ChatMessageReceivedEvent;
+import com.wynntils.wynn.event.GuildAttackTimerEvent;
 import com.wynntils.wynn.model.scoreboard.Segment;
 import com.wynntils.wynn.model.scoreboard.guild.GuildAttackHandler;
 import com.wynntils.wynn.model.scoreboard.guild.TerritoryAttackTimer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
+/**
+ * The territory attack timers shown on the scoreboard, keyed by territory and ordered by time left.
+ *
+ * <p>The timers are reconciled on the scoreboard thread and defenses arrive on the main thread, so
+ * both hold the same lock while they change anything, and queue their events while holding it; the
+ * events are then posted on the main thread in the order the changes happened. The timers are
+ * published as a whole, so that readers on the render thread always see a consistent map and order.
+ */
 public class GuildAttackTimerModel extends Model {
     private static final Pattern GUILD_ATTACK_PATTERN = Pattern.compile("§b- (.+):(.+) §3(.+)");
     private static final Pattern GUILD_DEFENSE_CHAT_PATTERN = Pattern.compile("§r§3.+§b (.+) defense is (.+)");
 
     public static final GuildAttackHandler SCOREBOARD_HANDLER = new GuildAttackHandler();
-    private static final TimedSet<Pair<String, String>> territoryDefenseSet = new TimedSet<>(5, TimeUnit.SECONDS, true);
 
-    private static List<TerritoryAttackTimer> attackTimers = List.of();
+    private static final Object lock = new Object();
+    // Defenses announced in chat before the territory shows up on the scoreboard, by territory.
+    // Only used while holding the lock.
+    private static final ExpiringMap<String, String> territoryDefenses = new ExpiringMap<>(5, TimeUnit.SECONDS);
+
+    private static volatile Timers timers = Timers.EMPTY;
 
     public static void init() {}
 
@@ -38,73 +57,130 @@ public class GuildAttackTimerModel extends Model {
         Matcher matcher = GUILD_DEFENSE_CHAT_PATTERN.matcher(event.getOriginalCodedMessage());
         if (!matcher.matches()) return;
 
-        Optional<TerritoryAttackTimer> territory = attackTimers.stream()
-                .filter(territoryAttackTimer -> territoryAttackTimer.territory().equals(matcher.group(1))
-                        && !territoryAttackTimer.isDefenseKnown())
-                .findFirst();
-
-        if (territory.isPresent()) {
-            territory.get().setDefense(matcher.group(2));
-        } else {
-            for (Pair<String, String> defensePair : territoryDefenseSet) {
-                if (defensePair.a().equals(matcher.group(1))) {
-                    return; // do not put it in the set twice
-                }
+        String territory = matcher.group(1);
+        String defense = matcher.group(2);
+
+        synchronized (lock) {
+            // Keep the first announced defense, without restarting its time. It is also kept when the
+            // timer is known, as the timer is replaced whenever its time changes.
+            if (!territoryDefenses.containsKey(territory)) {
+                territoryDefenses.put(territory, defense);
             }
 
-            territoryDefenseSet.put(new Pair<>(matcher.group(1), matcher.group(2)));
+            TerritoryAttackTimer timer = timers.byTerritory().get(territory);
+            if (timer == null || timer.isDefenseKnown()) return;
+
+            timer.setDefense(defense);
+            queueEvents(List.of(new GuildAttackTimerEvent.DefenseUpdated(timer)));
         }
     }
 
     public static void processChanges(Segment segment) {
-        List<TerritoryAttackTimer> newList = new ArrayList<>();
-
+        // Only the timer with the least time left is kept for each territory
+        Map<String, ScoreboardTimer> scoreboardTimers = new LinkedHashMap<>();
         for (String line : segment.getContent()) {
             Matcher matcher = GUILD_ATTACK_PATTERN.matcher(line);
+            if (!matcher.matches()) continue;
 
-            if (matcher.matches()) {
-                TerritoryAttackTimer timer = new TerritoryAttackTimer(
-                        matcher.group(3), Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
-                newList.add(timer);
-
-                boolean foundDefense = false;
-                Optional<TerritoryAttackTimer> oldTimer = attackTimers.stream()
-                        .filter(territoryAttackTimer ->
-                                territoryAttackTimer.territory().equals(timer.territory()))
-                        .findFirst();
-
-                if (oldTimer.isPresent()) {
-                    if (oldTimer.get().isDefenseKnown()) {
-                        timer.setDefense(oldTimer.get().defense());
-                        foundDefense = true;
-                    }
+            ScoreboardTimer timer = new ScoreboardTimer(
+                    matcher.group(3), Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            scoreboardTimers.merge(timer.territory(), timer, (a, b) -> a.asSeconds() <= b.asSeconds() ? a : b);
+        }
+
+        synchronized (lock) {
+            Timers oldTimers = timers;
+            List<TerritoryAttackTimer> newTimers = new ArrayList<>();
+            List<GuildAttackTimerEvent> events = new ArrayList<>();
+
+            for (ScoreboardTimer scoreboardTimer : scoreboardTimers.values()) {
+                String territory = scoreboardTimer.territory();
+                TerritoryAttackTimer oldTimer = oldTimers.byTerritory().get(territory);
+                if (oldTimer != null && oldTimer.isSameTime(scoreboardTimer.minutes(), scoreboardTimer.seconds())) {
+                    newTimers.add(oldTimer);
+                    continue;
                 }
 
-                if (!foundDefense) {
-                    for (Pair<String, String> defensePair : territoryDefenseSet) {
-                        if (defensePair.a().equals(timer.territory())) {
-                            timer.setDefense(defensePair.b());
-                            break;
-                        }
+                TerritoryAttackTimer timer =
+                        new TerritoryAttackTimer(territory, scoreboardTimer.minutes(), scoreboardTimer.seconds());
+                newTimers.add(timer);
+
+                if (oldTimer != null && oldTimer.isDefenseKnown()) {
+                    timer.setDefense(oldTimer.defense());
+                } else {
+                    String defense = territoryDefenses.get(territory);
+                    if (defense != null) {
+                        timer.setDefense(defense);
                     }
                 }
+
+                if (oldTimer == null) {
+                    events.add(new GuildAttackTimerEvent.Added(timer));
+                } else if (!oldTimer.isDefenseKnown() && timer.isDefenseKnown()) {
+                    events.add(new GuildAttackTimerEvent.DefenseUpdated(timer));
+                }
             }
-        }
 
-        attackTimers = newList;
+            for (TerritoryAttackTimer oldTimer : oldTimers.sorted()) {
+                if (!scoreboardTimers.containsKey(oldTimer.territory())) {
+                    events.add(new GuildAttackTimerEvent.Expired(oldTimer));
+                }
+            }
+
+            timers = Timers.of(newTimers);
+            queueEvents(events);
+        }
     }
 
     public static void resetTimers() {
-        attackTimers = List.of();
+        synchronized (lock) {
+            List<GuildAttackTimerEvent> events = new ArrayList<>();
+            for (TerritoryAttackTimer oldTimer : timers.sorted()) {
+                events.add(new GuildAttackTimerEvent.Expired(oldTimer));
+            }
+
+            timers = Timers.EMPTY;
+            queueEvents(events);
+        }
     }
 
+    /**
+     * @return the timers, the one with the least time left first
+     */
     public static List<TerritoryAttackTimer> getAttackTimers() {
-        return attackTimers;
+        return timers.sorted();
     }
 
     public static Optional<TerritoryAttackTimer> getAttackTimerForTerritory(String territory) {
-        return attackTimers.stream()
-                .filter(t -> t.territory().equals(territory))
-                .findFirst();
+        return Optional.ofNullable(timers.byTerritory().get(territory));
+    }
+
+    private static void queueEvents(List<GuildAttackTimerEvent> events) {
+        if (events.isEmpty()) return;
+
+        MinecraftSchedulerManager.queueRunnable(() -> events.forEach(WynntilsMod::postEvent));
+    }
+
+    private record ScoreboardTimer(String territory, int minutes, int seconds) {
+        private int asSeconds() {
+            return minutes * 60 + seconds;
+        }
+    }
+
+    private record Timers(Map<String, TerritoryAttackTimer> byTerritory, List<TerritoryAttackTimer> sorted) {
+        private static final Timers EMPTY = new Timers(Map.of(), List.of());
+
+        private static Timers of(List<TerritoryAttackTimer> timers) {
+            List<TerritoryAttackTimer> sorted = timers.stream()
+                    .sorted(Comparator.comparing(TerritoryAttackTimer::asSeconds)
+                            .thenComparing(TerritoryAttackTimer::territory))
+                    .toList();
+
+            Map<String, TerritoryAttackTimer> byTerritory = new HashMap<>();
+            for (TerritoryAttackTimer timer : sorted) {
+                byTerritory.put(timer.territory(), timer);
+            }
+
+            return new Timers(Collections.unmodifiableMap(byTerritory), sorted);
+        }
     }
 }
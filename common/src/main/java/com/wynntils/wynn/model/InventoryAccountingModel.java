@@ -0,0 +1,214 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model;
+
+import com.wynntils.core.managers.Model;
+import com.wynntils.mc.event.ContainerSetContentEvent;
+import com.wynntils.mc.event.ContainerSetSlotEvent;
+import com.wynntils.mc.event.SetSlotEvent;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.wynn.item.parsers.WynnItemMatchers;
+import com.wynntils.wynn.utils.ContainerUtils;
+import java.util.Map;
+import java.util.WeakHashMap;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Keeps running emerald, ingredient and powder totals per container, updated slot by slot as items
+ * are set, so that reading a total never has to parse the whole container.
+ *
+ * <p>Clicks change stacks in place without setting their slot (a half pickup splits the stack, placing
+ * items grows it), so totals also remember which stack and count every slot was counted with, and
+ * recount the slots where either changed whenever a total is read.
+ */
+public final class InventoryAccountingModel extends Model {
+    // Containers don't override equals, so this is keyed by identity
+    private static final Map<Container, ContainerTotals> containerTotals = new WeakHashMap<>();
+
+    public static void init() {
+        if (McUtils.player() != null) {
+            recount(McUtils.inventory());
+        }
+    }
+
+    public static void disable() {
+        containerTotals.clear();
+    }
+
+    // Run after ItemStackTransformModel, so the item is the one actually put in the slot
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onSetSlot(SetSlotEvent event) {
+        getTotals(event.getContainer()).set(event.getSlot(), event.getItem());
+    }
+
+    @SubscribeEvent
+    public static void onContainerSetSlot(ContainerSetSlotEvent event) {
+        // The server sets player inventory slots directly with this container id, bypassing Slot.set
+        if (event.getContainerId() == -2) {
+            getTotals(McUtils.inventory()).set(event.getSlot(), event.getItemStack());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onContainerSetContent(ContainerSetContentEvent.Post event) {
+        // Every slot was just set, so this is a cheap place to make sure nothing has drifted
+        AbstractContainerMenu menu = event.getContainerId() == McUtils.inventoryMenu().containerId
+                ? McUtils.inventoryMenu()
+                : McUtils.containerMenu();
+        if (menu == null || menu.containerId != event.getContainerId()) return;
+
+        for (Slot slot : menu.slots) {
+            if (slot.getContainerSlot() == 0) {
+                recount(slot.container);
+            }
+        }
+    }
+
+    /**
+     * @return the totals of the player's inventory, including armor and offhand
+     */
+    public static ContainerTotals getInventoryTotals() {
+        return getTotals(McUtils.inventory());
+    }
+
+    /**
+     * @return the totals of the menu's own container, i.e. not counting the player inventory
+     */
+    public static ContainerTotals getContainerTotals(AbstractContainerMenu menu) {
+        if (menu == null || menu.slots.isEmpty()) return ContainerTotals.EMPTY;
+
+        Container container = menu.slots.get(0).container;
+        if (container instanceof Inventory) return ContainerTotals.EMPTY;
+
+        return getTotals(container);
+    }
+
+    private static ContainerTotals getTotals(Container container) {
+        return containerTotals.computeIfAbsent(container, ContainerTotals::new);
+    }
+
+    private static void recount(Container container) {
+        containerTotals.put(container, count(container));
+    }
+
+    /**
+     * @return fresh totals of every slot of the container
+     */
+    static ContainerTotals count(Container container) {
+        ContainerTotals totals = new ContainerTotals(container);
+        totals.recountChangedSlots();
+        return totals;
+    }
+
+    public static final class ContainerTotals {
+        private static final ContainerTotals EMPTY = new ContainerTotals(null);
+
+        private final Container container;
+        private final SlotValue[] slots;
+        // The stack and count each slot was last counted with
+        private final ItemStack[] countedStacks;
+        private final int[] countedCounts;
+
+        private int looseEmeralds;
+        private int pouchEmeralds;
+        private int ingredients;
+        private int powders;
+
+        private ContainerTotals(Container container) {
+            this.container = container;
+
+            int size = container == null ? 0 : container.getContainerSize();
+            slots = new SlotValue[size];
+            countedStacks = new ItemStack[size];
+            countedCounts = new int[size];
+        }
+
+        void set(int slot, ItemStack itemStack) {
+            if (slot < 0 || slot >= slots.length) return;
+
+            SlotValue oldValue = slots[slot];
+            if (oldValue != null) {
+                add(oldValue, -1);
+            }
+
+            SlotValue newValue = SlotValue.of(itemStack);
+            add(newValue, 1);
+            slots[slot] = newValue;
+            countedStacks[slot] = itemStack;
+            countedCounts[slot] = itemStack.getCount();
+        }
+
+        private void recountChangedSlots() {
+            for (int i = 0; i < slots.length; i++) {
+                ItemStack itemStack = container.getItem(i);
+                if (itemStack != countedStacks[i] || itemStack.getCount() != countedCounts[i]) {
+                    set(i, itemStack);
+                }
+            }
+        }
+
+        private void add(SlotValue value, int sign) {
+            looseEmeralds += sign * value.looseEmeralds();
+            pouchEmeralds += sign * value.pouchEmeralds();
+            ingredients += sign * value.ingredients();
+            powders += sign * value.powders();
+        }
+
+        /**
+         * @return all emeralds, loose and in pouches
+         */
+        public int getEmeralds() {
+            recountChangedSlots();
+            return looseEmeralds + pouchEmeralds;
+        }
+
+        public int getLooseEmeralds() {
+            recountChangedSlots();
+            return looseEmeralds;
+        }
+
+        public int getPouchEmeralds() {
+            recountChangedSlots();
+            return pouchEmeralds;
+        }
+
+        public int getIngredients() {
+            recountChangedSlots();
+            return ingredients;
+        }
+
+        public int getPowders() {
+            recountChangedSlots();
+            return powders;
+        }
+    }
+
+    private record SlotValue(int looseEmeralds, int pouchEmeralds, int ingredients, int powders) {
+        private static final SlotValue EMPTY = new SlotValue(0, 0, 0, 0);
+
+        private static SlotValue of(ItemStack itemStack) {
+            if (itemStack.isEmpty()) return EMPTY;
+
+            if (WynnItemMatchers.isEmeraldPouch(itemStack)) {
+                return new SlotValue(0, ContainerUtils.getEmeraldValue(itemStack), 0, 0);
+            }
+            if (WynnItemMatchers.isIngredient(itemStack)) {
+                return new SlotValue(0, 0, itemStack.getCount(), 0);
+            }
+            if (WynnItemMatchers.isPowder(itemStack)) {
+                return new SlotValue(0, 0, 0, itemStack.getCount());
+            }
+
+            int emeralds = ContainerUtils.getEmeraldValue(itemStack);
+            return emeralds == 0 ? EMPTY : new SlotValue(emeralds, 0, 0, 0);
+        }
+    }
+}
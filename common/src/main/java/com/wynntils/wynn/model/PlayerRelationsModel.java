@@ -14,41 +14,66 @@ import com.wynntils.sockets.model.HadesUserModel;
 import com.wynntils.wynn.event.ChatMessageReceivedEvent;
 import com.wynntils.wynn.event.RelationsUpdateEvent;
 import com.wynntils.wynn.event.WorldStateEvent;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 /**
  * This model handles the player's in-game relations, like friends, party info, guild info.
+ *
+ * <p>System messages are classified without trying every pattern: fixed messages are looked up
+ * exactly, messages with a player name are looked up by their color prefix and then matched on
+ * their fixed suffix, and the list replies are only parsed while a list request is pending.
+ * Relation changes are diffed against what we already know, so refreshing an unchanged list posts
+ * no {@link RelationsUpdateEvent} at all.
  */
 public class PlayerRelationsModel extends Model {
-    private static final Pattern FRIEND_LIST_MESSAGE_PATTERN = Pattern.compile(".+'s friends \\(.+\\): (.*)");
-    private static final Pattern FRIEND_NO_LIST_MESSAGE_PATTERN_1 = Pattern.compile("§eWe couldn't find any friends.");
-    private static final Pattern FRIEND_NO_LIST_MESSAGE_PATTERN_2 =
-            Pattern.compile("§eTry typing §r§6/friend add Username§r§e!");
-    private static final Pattern FRIEND_REMOVE_MESSAGE_PATTERN =
-            Pattern.compile("§e(.+) has been removed from your friends!");
-    private static final Pattern FRIEND_ADD_MESSAGE_PATTERN = Pattern.compile("§e(.+) has been added to your friends!");
-
-    private static final Pattern PARTY_LIST_MESSAGE_PATTERN = Pattern.compile("Party members: (.*)");
-    private static final Pattern PARTY_NO_LIST_MESSAGE_PATTERN = Pattern.compile("§eYou must be in a party to list.");
-    private static final Pattern PARTY_OTHER_LEAVE_MESSAGE_PATTERN = Pattern.compile("§e(.+) has left the party.");
-    private static final Pattern PARTY_OTHER_JOIN_MESSAGE_PATTERN = Pattern.compile("§e(.+) has joined the party.");
-    private static final Pattern PARTY_SELF_LEAVE_MESSAGE_PATTERN =
-            Pattern.compile("§eYou have been removed from the party.");
-    private static final Pattern PARTY_SELF_JOIN_MESSAGE_PATTERN =
-            Pattern.compile("§eYou have successfully joined the party.");
-    private static final Pattern PARTY_DISBAND = Pattern.compile("§eYour party has been disbanded.");
-
-    private static boolean expectingFriendMessage = false;
-    private static boolean expectingPartyMessage = false;
-
-    private static Set<String> friends;
-    private static Set<String> partyMembers;
+    private static final String FRIEND_NO_LIST_MESSAGE_1 = "§eWe couldn't find any friends.";
+    private static final String FRIEND_NO_LIST_MESSAGE_2 = "§eTry typing §r§6/friend add Username§r§e!";
+    private static final String PARTY_NO_LIST_MESSAGE = "§eYou must be in a party to list.";
+    private static final String PARTY_SELF_LEAVE_MESSAGE = "§eYou have been removed from the party.";
+    private static final String PARTY_SELF_JOIN_MESSAGE = "§eYou have successfully joined the party.";
+    private static final String PARTY_DISBAND_MESSAGE = "§eYour party has been disbanded.";
+
+    private static final String FRIEND_LIST_MARKER = "'s friends (";
+    private static final String FRIEND_LIST_SEPARATOR = "): ";
+    private static final String PARTY_LIST_PREFIX = "Party members: ";
+
+    private static final String FRIEND_JOIN_MARKER = " has logged into server ";
+    private static final Pattern FRIEND_JOIN_PATTERN =
+            Pattern.compile("§a(§o)?(?<name>.+)§r§2 has logged into server §r§a(?<server>.+)§r§2 as §r§a.+");
+
+    private static final Map<String, MessageHandler> EXACT_HANDLERS = Map.of(
+            FRIEND_NO_LIST_MESSAGE_1, PlayerRelationsModel::onNoFriendsFirstLine,
+            FRIEND_NO_LIST_MESSAGE_2, PlayerRelationsModel::onNoFriendsSecondLine,
+            PARTY_NO_LIST_MESSAGE, PlayerRelationsModel::onNoParty,
+            PARTY_SELF_LEAVE_MESSAGE, PlayerRelationsModel::onPartyLeft,
+            PARTY_DISBAND_MESSAGE, PlayerRelationsModel::onPartyLeft,
+            PARTY_SELF_JOIN_MESSAGE, PlayerRelationsModel::onPartyJoined);
+
+    // Messages of the form <prefix><player name><suffix>, keyed by prefix
+    private static final Map<String, List<AffixHandler>> AFFIX_HANDLERS = Map.of(
+            "§e",
+            List.of(
+                    new AffixHandler(" has been removed from your friends!", PlayerRelationsModel::onFriendRemoved),
+                    new AffixHandler(" has been added to your friends!", PlayerRelationsModel::onFriendAdded),
+                    new AffixHandler(" has left the party.", PlayerRelationsModel::onPartyMemberLeft),
+                    new AffixHandler(" has joined the party.", PlayerRelationsModel::onPartyMemberJoined)));
+
+    private static final RelationSet friends = new RelationSet("friend", RelationsUpdateEvent.FriendList::new);
+    private static final RelationSet partyMembers = new RelationSet("party", RelationsUpdateEvent.PartyList::new);
+    // The world each friend was last seen logging into
+    private static final Map<String, String> friendWorlds = new HashMap<>();
+
+    private static ListRequestState friendListState = ListRequestState.IDLE;
+    private static ListRequestState partyListState = ListRequestState.IDLE;
 
     public static void init() {
         resetRelations();
@@ -62,13 +87,17 @@ public class PlayerRelationsModel extends Model {
     public static void onAuth(SocketEvent.Authenticated event) {
         if (!WorldStateManager.onWorld()) return;
 
+        // A new connection knows nothing yet, so the next lists have to be sent in full
+        friends.requireFullSync();
+        partyMembers.requireFullSync();
+
         requestFriendListUpdate();
         requestPartyListUpdate();
     }
 
     @SubscribeEvent
     public static void onWorldStateChange(WorldStateEvent event) {
-        HadesUserModel.getHadesUserMap().clear();
+        HadesUserModel.clear();
 
         if (event.getNewState() == WorldStateManager.State.WORLD) {
             requestFriendListUpdate();
@@ -82,177 +111,216 @@ public class PlayerRelationsModel extends Model {
     public static void onChatReceived(ChatMessageReceivedEvent event) {
         if (event.getMessageType() != MessageType.SYSTEM) return;
 
-        String coded = event.getOriginalCodedMessage();
-        String unformatted = ComponentUtils.stripFormatting(coded);
-
-        if (tryParseFriendMessages(coded)) {
-            return;
-        }
-
-        if (tryParsePartyMessages(coded)) {
-            return;
+        if (handleMessage(event.getOriginalCodedMessage())) {
+            event.setCanceled(true);
         }
+    }
 
-        if (expectingFriendMessage) {
-            if (tryParseFriendList(unformatted) || tryParseNoFriendList(coded)) {
-                event.setCanceled(true);
-                expectingFriendMessage = false;
-                return;
+    /**
+     * @return whether the message was a reply to one of our own requests, and should be hidden
+     */
+    static boolean handleMessage(String coded) {
+        MessageHandler exactHandler = EXACT_HANDLERS.get(coded);
+        if (exactHandler != null) return exactHandler.handle(null);
+
+        if (coded.length() > 2) {
+            List<AffixHandler> affixHandlers = AFFIX_HANDLERS.get(coded.substring(0, 2));
+            if (affixHandlers != null) {
+                for (AffixHandler affixHandler : affixHandlers) {
+                    if (coded.length() > 2 + affixHandler.suffix().length() && coded.endsWith(affixHandler.suffix())) {
+                        String player = coded.substring(2, coded.length() - affixHandler.suffix().length());
+                        return affixHandler.handler().handle(player);
+                    }
+                }
             }
+        }
 
-            // Skip first message of two, but still expect more messages
-            if (FRIEND_NO_LIST_MESSAGE_PATTERN_1.matcher(coded).matches()) {
-                event.setCanceled(true);
-                return;
+        if (coded.contains(FRIEND_JOIN_MARKER)) {
+            Matcher matcher = FRIEND_JOIN_PATTERN.matcher(coded);
+            if (matcher.matches()) {
+                onFriendJoinedGame(matcher.group("name"), matcher.group("server"));
+                return false;
             }
         }
 
-        if (expectingPartyMessage) {
-            if (tryParseNoPartyMessage(coded) || tryParsePartyList(unformatted)) {
-                event.setCanceled(true);
-                expectingPartyMessage = false;
-                return;
+        if (friendListState == ListRequestState.REQUESTED) {
+            String unformatted = ComponentUtils.stripFormatting(coded);
+            if (tryParseFriendList(unformatted)) {
+                friendListState = ListRequestState.IDLE;
+                return true;
             }
         }
-    }
-
-    // region Party List Parsing
 
-    private static boolean tryParsePartyMessages(String coded) {
-        if (PARTY_DISBAND.matcher(coded).matches()
-                || PARTY_SELF_LEAVE_MESSAGE_PATTERN.matcher(coded).matches()) {
-            WynntilsMod.info("Player left the party.");
+        if (partyListState == ListRequestState.REQUESTED) {
+            String unformatted = ComponentUtils.stripFormatting(coded);
+            if (unformatted.startsWith(PARTY_LIST_PREFIX)) {
+                Set<String> newPartyMembers = parsePlayerList(unformatted.substring(PARTY_LIST_PREFIX.length()));
+                partyMembers.replaceAll(newPartyMembers);
+                partyListState = ListRequestState.IDLE;
 
-            partyMembers = Set.of();
-            WynntilsMod.postEvent(
-                    new RelationsUpdateEvent.PartyList(partyMembers, RelationsUpdateEvent.ChangeType.RELOAD));
-            return true;
+                WynntilsMod.info("Successfully updated party list, party has " + newPartyMembers.size() + " members.");
+                return true;
+            }
         }
 
-        if (PARTY_SELF_JOIN_MESSAGE_PATTERN.matcher(coded).matches()) {
-            WynntilsMod.info("Player joined a party.");
-
-            requestPartyListUpdate();
-            return true;
-        }
+        return false;
+    }
 
-        Matcher matcher = PARTY_OTHER_JOIN_MESSAGE_PATTERN.matcher(coded);
-        if (matcher.matches()) {
-            String player = matcher.group(1);
+    // region Party Messages
 
-            WynntilsMod.info("Player's party has a new member: " + player);
+    private static boolean onPartyLeft(String player) {
+        WynntilsMod.info("Player left the party.");
 
-            partyMembers.add(player);
-            WynntilsMod.postEvent(
-                    new RelationsUpdateEvent.PartyList(Set.of(player), RelationsUpdateEvent.ChangeType.ADD));
-            return true;
-        }
+        partyMembers.replaceAll(Set.of());
+        return false;
+    }
 
-        matcher = PARTY_OTHER_LEAVE_MESSAGE_PATTERN.matcher(coded);
-        if (matcher.matches()) {
-            String player = matcher.group(1);
+    private static boolean onPartyJoined(String player) {
+        WynntilsMod.info("Player joined a party.");
 
-            WynntilsMod.info("Player's party has been left by an other player: " + player);
+        requestPartyListUpdate();
+        return false;
+    }
 
-            partyMembers.remove(player);
-            WynntilsMod.postEvent(
-                    new RelationsUpdateEvent.PartyList(Set.of(player), RelationsUpdateEvent.ChangeType.REMOVE));
-            return true;
-        }
+    private static boolean onPartyMemberJoined(String player) {
+        WynntilsMod.info("Player's party has a new member: " + player);
 
+        partyMembers.add(player);
         return false;
     }
 
-    private static boolean tryParseNoPartyMessage(String coded) {
-        if (PARTY_NO_LIST_MESSAGE_PATTERN.matcher(coded).matches()) {
-            WynntilsMod.info("Player is not in a party.");
-            return true;
-        }
+    private static boolean onPartyMemberLeft(String player) {
+        WynntilsMod.info("Player's party has been left by an other player: " + player);
 
+        partyMembers.remove(player);
         return false;
     }
 
-    private static boolean tryParsePartyList(String unformatted) {
-        Matcher matcher = PARTY_LIST_MESSAGE_PATTERN.matcher(unformatted);
-        if (!matcher.matches()) return false;
-
-        String[] partyList = matcher.group(1).split(", ");
+    private static boolean onNoParty(String player) {
+        if (partyListState != ListRequestState.REQUESTED) return false;
 
-        partyMembers = Arrays.stream(partyList).collect(Collectors.toSet());
-        WynntilsMod.postEvent(new RelationsUpdateEvent.PartyList(partyMembers, RelationsUpdateEvent.ChangeType.RELOAD));
+        WynntilsMod.info("Player is not in a party.");
 
-        WynntilsMod.info("Successfully updated party list, user has " + partyList.length + " friends.");
+        partyMembers.replaceAll(Set.of());
+        partyListState = ListRequestState.IDLE;
         return true;
     }
 
     // endregion
 
-    // region Friend List Parsing
+    // region Friend Messages
 
-    private static boolean tryParseNoFriendList(String coded) {
-        if (FRIEND_NO_LIST_MESSAGE_PATTERN_2.matcher(coded).matches()) {
-            WynntilsMod.info("Player has no friends!");
-            return true;
-        }
+    private static boolean onFriendAdded(String player) {
+        WynntilsMod.info("Player has added friend: " + player);
 
+        friends.add(player);
         return false;
     }
 
-    private static boolean tryParseFriendMessages(String coded) {
-        Matcher matcher = FRIEND_REMOVE_MESSAGE_PATTERN.matcher(coded);
-        if (matcher.matches()) {
-            String player = matcher.group(1);
+    private static boolean onFriendRemoved(String player) {
+        WynntilsMod.info("Player has removed friend: " + player);
 
-            WynntilsMod.info("Player has removed friend: " + player);
+        friends.remove(player);
+        friendWorlds.remove(player);
+        return false;
+    }
 
-            friends.remove(player);
-            WynntilsMod.postEvent(
-                    new RelationsUpdateEvent.FriendList(Set.of(player), RelationsUpdateEvent.ChangeType.REMOVE));
-            return true;
-        }
+    private static void onFriendJoinedGame(String player, String server) {
+        if (!friends.contains(player)) return;
 
-        matcher = FRIEND_ADD_MESSAGE_PATTERN.matcher(coded);
-        if (matcher.matches()) {
-            String player = matcher.group(1);
+        friendWorlds.put(player, server);
+    }
 
-            WynntilsMod.info("Player has added friend: " + player);
+    private static boolean onNoFriendsFirstLine(String player) {
+        if (friendListState != ListRequestState.REQUESTED) return false;
 
-            friends.add(player);
-            WynntilsMod.postEvent(
-                    new RelationsUpdateEvent.FriendList(Set.of(player), RelationsUpdateEvent.ChangeType.ADD));
-            return true;
-        }
+        // Skip first message of two, but still expect the second one
+        friendListState = ListRequestState.AWAITING_EMPTY_LIST_END;
+        return true;
+    }
 
-        return false;
+    private static boolean onNoFriendsSecondLine(String player) {
+        if (friendListState == ListRequestState.IDLE) return false;
+
+        WynntilsMod.info("Player has no friends!");
+
+        friends.replaceAll(Set.of());
+        friendWorlds.clear();
+        friendListState = ListRequestState.IDLE;
+        return true;
     }
 
     private static boolean tryParseFriendList(String unformatted) {
-        Matcher matcher = FRIEND_LIST_MESSAGE_PATTERN.matcher(unformatted);
-        if (!matcher.matches()) return false;
+        int markerIndex = unformatted.indexOf(FRIEND_LIST_MARKER);
+        if (markerIndex <= 0) return false;
 
-        String[] friendList = matcher.group(1).split(", ");
+        int listIndex = unformatted.indexOf(FRIEND_LIST_SEPARATOR, markerIndex + FRIEND_LIST_MARKER.length());
+        if (listIndex < 0) return false;
 
-        friends = Arrays.stream(friendList).collect(Collectors.toSet());
-        WynntilsMod.postEvent(new RelationsUpdateEvent.FriendList(friends, RelationsUpdateEvent.ChangeType.RELOAD));
+        Set<String> newFriends = parsePlayerList(unformatted.substring(listIndex + FRIEND_LIST_SEPARATOR.length()));
+        friends.replaceAll(newFriends);
+        friendWorlds.keySet().retainAll(newFriends);
 
-        WynntilsMod.info("Successfully updated friend list, user has " + friendList.length + " friends.");
+        WynntilsMod.info("Successfully updated friend list, user has " + newFriends.size() + " friends.");
         return true;
     }
 
     // endregion
 
+    private static Set<String> parsePlayerList(String list) {
+        Set<String> players = new HashSet<>();
+        for (String player : list.split(", ")) {
+            if (!player.isEmpty()) {
+                players.add(player);
+            }
+        }
+
+        return players;
+    }
+
     private static void resetRelations() {
-        friends = new HashSet<>();
-        partyMembers = new HashSet<>();
+        friendListState = ListRequestState.IDLE;
+        partyListState = ListRequestState.IDLE;
+        friendWorlds.clear();
+
+        friends.reset();
+        partyMembers.reset();
+    }
+
+    public static boolean isFriend(String player) {
+        return friends.contains(player);
+    }
+
+    public static boolean isPartyMember(String player) {
+        return partyMembers.contains(player);
+    }
+
+    public static Set<String> getFriends() {
+        return friends.getPlayers();
+    }
 
-        WynntilsMod.postEvent(new RelationsUpdateEvent.FriendList(friends, RelationsUpdateEvent.ChangeType.RELOAD));
-        WynntilsMod.postEvent(new RelationsUpdateEvent.PartyList(partyMembers, RelationsUpdateEvent.ChangeType.RELOAD));
+    public static Set<String> getPartyMembers() {
+        return partyMembers.getPlayers();
+    }
+
+    /**
+     * Wynncraft announces friends logging in, but not logging out, so this is only where the player
+     * was last seen. It is compared with the current world when asked, so it stays right when the
+     * player changes worlds.
+     *
+     * @return where the player is, as far as we know from friend join messages
+     */
+    public static RelationStatus getStatus(String player) {
+        String world = friendWorlds.get(player);
+        if (world == null) return RelationStatus.UNKNOWN;
+
+        return world.equals(WorldStateManager.getCurrentWorldName()) ? RelationStatus.WORLD : RelationStatus.ONLINE;
     }
 
     public static void requestFriendListUpdate() {
         if (McUtils.player() == null) return;
 
-        expectingFriendMessage = true;
+        onFriendListRequested();
         McUtils.player().chat("/friend list");
         WynntilsMod.info("Requested friend list from Wynncraft.");
     }
@@ -260,8 +328,124 @@ public class PlayerRelationsModel extends Model {
     public static void requestPartyListUpdate() {
         if (McUtils.player() == null) return;
 
-        expectingPartyMessage = true;
+        onPartyListRequested();
         McUtils.player().chat("/party list");
         WynntilsMod.info("Requested party list from Wynncraft.");
     }
+
+    // Separate from sending the commands, so replies can be replayed without a player
+    static void onFriendListRequested() {
+        friendListState = ListRequestState.REQUESTED;
+    }
+
+    static void onPartyListRequested() {
+        partyListState = ListRequestState.REQUESTED;
+    }
+
+    public enum RelationStatus {
+        UNKNOWN,
+        // Online on another world
+        ONLINE,
+        // Online on the same world as the player
+        WORLD
+    }
+
+    private enum ListRequestState {
+        IDLE,
+        REQUESTED,
+        // "No friends" is sent as two messages, and the first one has been seen
+        AWAITING_EMPTY_LIST_END
+    }
+
+    @FunctionalInterface
+    private interface MessageHandler {
+        /**
+         * @param player the player named in the message, or null for fixed messages
+         * @return whether the message should be hidden
+         */
+        boolean handle(String player);
+    }
+
+    private record AffixHandler(String suffix, MessageHandler handler) {}
+
+    /** A set of related players that only posts the changes actually made to it */
+    private static final class RelationSet {
+        private final String name;
+        private final BiFunction<Set<String>, RelationsUpdateEvent.ChangeType, RelationsUpdateEvent> eventFactory;
+        private final Set<String> players = new HashSet<>();
+        private final Set<String> playersView = Collections.unmodifiableSet(players);
+
+        private boolean fullSyncRequired = true;
+
+        private RelationSet(
+                String name,
+                BiFunction<Set<String>, RelationsUpdateEvent.ChangeType, RelationsUpdateEvent> eventFactory) {
+            this.name = name;
+            this.eventFactory = eventFactory;
+        }
+
+        private boolean contains(String player) {
+            return players.contains(player);
+        }
+
+        private Set<String> getPlayers() {
+            return playersView;
+        }
+
+        private void requireFullSync() {
+            fullSyncRequired = true;
+        }
+
+        private void reset() {
+            players.clear();
+            fullSyncRequired = true;
+            post(Set.of(), RelationsUpdateEvent.ChangeType.RELOAD);
+        }
+
+        private void add(String player) {
+            if (players.add(player)) {
+                post(Set.of(player), RelationsUpdateEvent.ChangeType.ADD);
+            }
+        }
+
+        private void remove(String player) {
+            if (players.remove(player)) {
+                post(Set.of(player), RelationsUpdateEvent.ChangeType.REMOVE);
+            }
+        }
+
+        private void replaceAll(Set<String> newPlayers) {
+            if (fullSyncRequired) {
+                players.clear();
+                players.addAll(newPlayers);
+                fullSyncRequired = false;
+
+                post(Set.copyOf(players), RelationsUpdateEvent.ChangeType.RELOAD);
+                return;
+            }
+
+            Set<String> removed = new HashSet<>(players);
+            removed.removeAll(newPlayers);
+            Set<String> added = new HashSet<>(newPlayers);
+            added.removeAll(players);
+
+            if (!removed.isEmpty()) {
+                players.removeAll(removed);
+                post(removed, RelationsUpdateEvent.ChangeType.REMOVE);
+            }
+            if (!added.isEmpty()) {
+                players.addAll(added);
+                post(added, RelationsUpdateEvent.ChangeType.ADD);
+            }
+
+            if (!removed.isEmpty() || !added.isEmpty()) {
+                WynntilsMod.info("Updated " + name + " list: " + added.size() + " added, " + removed.size()
+                        + " removed.");
+            }
+        }
+
+        private void post(Set<String> changedPlayers, RelationsUpdateEvent.ChangeType changeType) {
+            WynntilsMod.postEvent(eventFactory.apply(changedPlayers, changeType));
+        }
+    }
 }
@@ -11,7 +11,11 @@ import com.wynntils.wynn.event.StatusEffectsChangedEvent;
 import com.wynntils.wynn.objects.timers.StaticStatusTimer;
 import com.wynntils.wynn.objects.timers.StatusTimer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -32,19 +36,40 @@ public class TabModel extends Model {
     private static final Pattern TAB_EFFECT_PATTERN =
             Pattern.compile("(.+?§7 ?(?:\\d+(?:\\.\\d+)?%)?) ?([%\\-+\\/\\da-zA-Z'\\s]+?) §[84a]\\((.+?)\\).*");
 
+    private static final Pattern EFFECT_SEPARATOR_PATTERN = Pattern.compile("\\s{2}");
+
     private static final String STATUS_EFFECTS_TITLE = "§d§lStatus Effects";
 
-    private static List<StatusTimer> timers = new ArrayList<>();
+    private static final ParsedEffect UNPARSEABLE_EFFECT = new ParsedEffect(null, null, null);
+
+    private static String previousFooter = "";
+    // Effect strings of the previous footer, so unchanged effects are not parsed again
+    private static Map<String, ParsedEffect> parsedEffects = new HashMap<>();
+    private static Map<String, StaticStatusTimer> timersByName = new LinkedHashMap<>();
+    private static List<StatusTimer> timers = List.of();
 
     public static void init() {}
 
+    public static void disable() {
+        previousFooter = "";
+        parsedEffects = new HashMap<>();
+        timersByName = new LinkedHashMap<>();
+        timers = List.of();
+    }
+
     @SubscribeEvent
     public static void onTabListCustomization(PlayerInfoFooterChangedEvent event) {
         String footer = event.getFooter();
 
+        if (footer.equals(previousFooter)) return;
+        previousFooter = footer;
+
         if (footer.isEmpty()) {
+            parsedEffects = new HashMap<>();
+            timersByName = new LinkedHashMap<>();
+
             if (!timers.isEmpty()) {
-                timers = new ArrayList<>(); // No timers, get rid of them
+                timers = List.of(); // No timers, get rid of them
                 WynntilsMod.postEvent(new StatusEffectsChangedEvent());
             }
 
@@ -53,25 +78,60 @@ public class TabModel extends Model {
 
         if (!footer.startsWith(STATUS_EFFECTS_TITLE)) return;
 
+        Map<String, ParsedEffect> newParsedEffects = new HashMap<>();
+        Map<String, StaticStatusTimer> newTimersByName = new LinkedHashMap<>();
         List<StatusTimer> newTimers = new ArrayList<>();
+        boolean changed = false;
 
-        String[] effects = footer.split("\\s{2}"); // Effects are split up by 2 spaces
+        String[] effects = EFFECT_SEPARATOR_PATTERN.split(footer); // Effects are split up by 2 spaces
         for (String effect : effects) {
             effect = effect.trim();
             if (effect.isEmpty()) continue;
 
-            Matcher m = TAB_EFFECT_PATTERN.matcher(effect);
-            if (!m.find()) continue;
+            ParsedEffect parsedEffect = parsedEffects.get(effect);
+            if (parsedEffect == null) {
+                parsedEffect = parseEffect(effect);
+            }
+            newParsedEffects.put(effect, parsedEffect);
+
+            if (parsedEffect == UNPARSEABLE_EFFECT) continue;
 
-            // See comment at TAB_EFFECT_PATTERN definition for what group numbers are
-            newTimers.add(new StaticStatusTimer(m.group(1), m.group(2), m.group(3)));
+            // Keep the timer instance of effects we already know about, so it stays stable for consumers
+            StaticStatusTimer timer = timersByName.get(parsedEffect.name());
+            if (timer == null || newTimersByName.containsKey(parsedEffect.name())) {
+                timer = new StaticStatusTimer(parsedEffect.prefix(), parsedEffect.name(), parsedEffect.displayedTime());
+                changed = true;
+            } else {
+                changed |= timer.update(parsedEffect.prefix(), parsedEffect.displayedTime());
+            }
+
+            newTimersByName.putIfAbsent(parsedEffect.name(), timer);
+            newTimers.add(timer);
         }
 
-        timers = newTimers;
+        // Catches removed and reordered effects
+        changed |= !newTimers.equals(timers);
+
+        parsedEffects = newParsedEffects;
+        timersByName = newTimersByName;
+
+        if (!changed) return;
+
+        timers = Collections.unmodifiableList(newTimers);
         WynntilsMod.postEvent(new StatusEffectsChangedEvent());
     }
 
+    private static ParsedEffect parseEffect(String effect) {
+        Matcher m = TAB_EFFECT_PATTERN.matcher(effect);
+        if (!m.find()) return UNPARSEABLE_EFFECT;
+
+        // See comment at TAB_EFFECT_PATTERN definition for what group numbers are
+        return new ParsedEffect(m.group(1), m.group(2), m.group(3));
+    }
+
     public static List<StatusTimer> getTimers() {
         return timers;
     }
+
+    private record ParsedEffect(String prefix, String name, String displayedTime) {}
 }
@@ -34,6 +34,7 @@ public class WorldStateManager extends CoreManager {
     private static final Position CHARACTER_SELECTION_POSITION = new Vec3(-1337.5, 16.2, -1120.5);
     private static final Pattern WYNNCRAFT_SERVER_PATTERN = Pattern.compile("^(.*)\\.wynncraft\\.(?:com|net|org)$");
     private static final String WYNNCRAFT_BETA_NAME = "beta";
+    private static final String REPLAY_WORLD_NAME = "Replay";
 
     private static String currentTabListFooter = "";
     private static String currentWorldName = "";
@@ -74,6 +75,20 @@ public class WorldStateManager extends CoreManager {
         WynntilsMod.postEvent(new WorldStateEvent(newState, oldState, newWorldName));
     }
 
+    /**
+     * Puts the models on a world for a packet replay. No {@link WorldStateEvent} is posted, as its
+     * listeners would talk to a server that is not there; replayed packets can still change the state.
+     */
+    public static void startReplay() {
+        currentState = State.WORLD;
+        currentWorldName = REPLAY_WORLD_NAME;
+    }
+
+    /** Leaves the replay like a disconnect, so every model resets the state the replay left behind */
+    public static void endReplay() {
+        setState(State.NOT_CONNECTED, "");
+    }
+
     @SubscribeEvent
     public static void screenOpened(ScreenOpenedEvent e) {
         if (e.getScreen() instanceof DisconnectedScreen) {
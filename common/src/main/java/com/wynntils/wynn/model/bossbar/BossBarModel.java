@@ -12,8 +12,9 @@ import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.mc.utils.McUtils;
 import com.wynntils.wynn.model.CharacterManager;
 import com.wynntils.wynn.objects.ClassType;
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -38,6 +39,10 @@ public class BossBarModel extends Model {
 
     public static final TrackedBar corruptedBar = new CorruptedBar();
 
+    // Only the bars of the current class are tracked, so titles are looked up per class
+    private static final Map<ClassType, Map<String, TrackedBar>> barsByClass =
+            createClassifier(manaBankBar, bloodPoolBar, awakenedBar, focusBar, corruptedBar);
+
     private static final HashMap<UUID, TrackedBar> trackedBarsMap = new HashMap<>();
 
     // FixPacketBugsFeature gets in the way if receiveCanceled is not set
@@ -50,6 +55,28 @@ public class BossBarModel extends Model {
 
     public record BarProgress(int current, int max, float progress) {}
 
+    /**
+     * @return the bar the given coded boss bar title belongs to for the given class, or null if it is not tracked
+     */
+    public static TrackedBar classify(ClassType classType, String codedName) {
+        Map<String, TrackedBar> classBars = barsByClass.get(classType);
+        if (classBars == null) return null;
+
+        int prefixEnd = codedName.indexOf('[');
+        if (prefixEnd == -1) return null;
+
+        return classBars.get(codedName.substring(0, prefixEnd + 1));
+    }
+
+    private static Map<ClassType, Map<String, TrackedBar>> createClassifier(TrackedBar... bars) {
+        Map<ClassType, Map<String, TrackedBar>> classifier = new EnumMap<>(ClassType.class);
+        for (TrackedBar bar : bars) {
+            classifier.computeIfAbsent(bar.classType, c -> new HashMap<>()).put(bar.prefix, bar);
+        }
+
+        return classifier;
+    }
+
     private record TrackedBarHandler(BossHealthUpdateEvent event) implements ClientboundBossEventPacket.Handler {
         @Override
         public void add(
@@ -61,23 +88,11 @@ public class BossBarModel extends Model {
                 boolean darkenScreen,
                 boolean playMusic,
                 boolean createWorldFog) {
-            TrackedBar trackedBar = null;
-            Matcher matcher = null;
-
-            ClassType userClass = CharacterManager.getCharacterInfo().getClassType();
-
-            for (TrackedBar potentialTrackedBar :
-                    Arrays.asList(manaBankBar, bloodPoolBar, awakenedBar, focusBar, corruptedBar)) {
-                if (potentialTrackedBar.classType != userClass) continue;
-
-                matcher = potentialTrackedBar.pattern.matcher(ComponentUtils.getCoded(name));
-                if (matcher.matches()) {
-                    trackedBar = potentialTrackedBar;
-                    break;
-                }
-            }
+            String codedName = ComponentUtils.getCoded(name);
 
-            if (trackedBar == null) return;
+            TrackedBar trackedBar =
+                    classify(CharacterManager.getCharacterInfo().getClassType(), codedName);
+            if (trackedBar == null || !trackedBar.updateName(codedName)) return;
 
             event.setCanceled(true);
 
@@ -96,8 +111,6 @@ public class BossBarModel extends Model {
                 McUtils.mc().gui.getBossOverlay().events.put(id, bossEvent);
             }
 
-            trackedBar.onUpdateName(matcher);
-
             trackedBarsMap.put(id, trackedBar);
         }
 
@@ -126,20 +139,16 @@ public class BossBarModel extends Model {
             handleBarUpdate(id, trackedBar -> {
                 event.setCanceled(true);
                 trackedBar.getEvent().setProgress(progress);
-                trackedBar.onUpdateProgress(progress);
+                trackedBar.updateProgress(progress);
             });
         }
 
         @Override
         public void updateName(UUID id, Component name) {
             handleBarUpdate(id, trackedBar -> {
-                Matcher matcher = trackedBar.pattern.matcher(ComponentUtils.getCoded(name));
-                if (!matcher.matches()) {
+                if (!trackedBar.updateName(ComponentUtils.getCoded(name))) {
                     WynntilsMod.error("Failed to match already matched boss bar");
-                    return;
                 }
-
-                trackedBar.onUpdateName(matcher);
             });
         }
 
@@ -157,7 +166,11 @@ public class BossBarModel extends Model {
 
     private static class ManaBankBar extends TrackedBar {
         public ManaBankBar() {
-            super(Pattern.compile("§bMana Bank §3\\[(\\d+)/(\\d+)§3\\]"), BarType.MANABANK, ClassType.Mage);
+            super(
+                    Pattern.compile("§bMana Bank §3\\[(\\d+)/(\\d+)§3\\]"),
+                    "§bMana Bank §3[",
+                    BarType.MANABANK,
+                    ClassType.Mage);
         }
 
         @Override
@@ -175,7 +188,11 @@ public class BossBarModel extends Model {
 
     private static class BloodPoolBar extends TrackedBar {
         public BloodPoolBar() {
-            super(Pattern.compile("§cBlood Pool §4\\[§c(\\d+)%§4\\]"), BarType.BLOODPOOL, ClassType.Shaman);
+            super(
+                    Pattern.compile("§cBlood Pool §4\\[§c(\\d+)%§4\\]"),
+                    "§cBlood Pool §4[",
+                    BarType.BLOODPOOL,
+                    ClassType.Shaman);
         }
 
         @Override
@@ -206,7 +223,11 @@ public class BossBarModel extends Model {
 
     private static class AwakenedBar extends TrackedBar {
         public AwakenedBar() {
-            super(Pattern.compile("§fAwakening §7\\[§f(\\d+)/(\\d+)§7]"), BarType.AWAKENED, ClassType.Shaman);
+            super(
+                    Pattern.compile("§fAwakening §7\\[§f(\\d+)/(\\d+)§7]"),
+                    "§fAwakening §7[",
+                    BarType.AWAKENED,
+                    ClassType.Shaman);
         }
 
         @Override
@@ -224,7 +245,7 @@ public class BossBarModel extends Model {
 
     private static class FocusBar extends TrackedBar {
         public FocusBar() {
-            super(Pattern.compile("§eFocus §6\\[§e(\\d+)/(\\d+)§6]"), BarType.FOCUS, ClassType.Archer);
+            super(Pattern.compile("§eFocus §6\\[§e(\\d+)/(\\d+)§6]"), "§eFocus §6[", BarType.FOCUS, ClassType.Archer);
         }
 
         @Override
@@ -242,7 +263,11 @@ public class BossBarModel extends Model {
 
     private static class CorruptedBar extends TrackedBar {
         public CorruptedBar() {
-            super(Pattern.compile("§cCorrupted §4\\[§c(\\d+)%§4]"), BarType.CORRUPTED, ClassType.Warrior);
+            super(
+                    Pattern.compile("§cCorrupted §4\\[§c(\\d+)%§4]"),
+                    "§cCorrupted §4[",
+                    BarType.CORRUPTED,
+                    ClassType.Warrior);
         }
 
         @Override
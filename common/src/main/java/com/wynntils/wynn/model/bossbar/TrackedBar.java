@@ -13,6 +13,8 @@ import net.minecraft.client.gui.components.LerpingBossEvent;
 
 public class TrackedBar {
     public final Pattern pattern;
+    // The coded title up to and including its first '[', used to classify bars without matching the pattern
+    public final String prefix;
     public final BarType type;
     public final ClassType classType;
 
@@ -25,12 +27,48 @@ public class TrackedBar {
 
     protected UUID uuid = null;
 
-    TrackedBar(Pattern pattern, BarType type, ClassType classType) {
+    private long lastUpdateTime = 0;
+    private float ratePerSecond = 0;
+
+    TrackedBar(Pattern pattern, String prefix, BarType type, ClassType classType) {
         this.pattern = pattern;
+        this.prefix = prefix;
         this.type = type;
         this.classType = classType;
     }
 
+    /**
+     * Parses the values out of a title that was classified as this bar
+     *
+     * @return whether the title had the expected format
+     */
+    boolean updateName(String codedName) {
+        Matcher matcher = pattern.matcher(codedName);
+        if (!matcher.matches()) return false;
+
+        int oldCurrent = current;
+        onUpdateName(matcher);
+        valueUpdated(oldCurrent);
+        return true;
+    }
+
+    void updateProgress(float progress) {
+        int oldCurrent = current;
+        onUpdateProgress(progress);
+        valueUpdated(oldCurrent);
+    }
+
+    private void valueUpdated(int oldCurrent) {
+        long now = System.currentTimeMillis();
+
+        if (current != oldCurrent && lastUpdateTime != 0) {
+            float seconds = Math.max(now - lastUpdateTime, 1) / 1000f;
+            ratePerSecond = (current - oldCurrent) / seconds;
+        }
+
+        lastUpdateTime = now;
+    }
+
     public void onUpdateName(Matcher match) {}
 
     public void onUpdateProgress(float progress) {}
@@ -64,6 +102,30 @@ public class TrackedBar {
         max = 0;
         event = null;
         rendered = true;
+        lastUpdateTime = 0;
+        ratePerSecond = 0;
+    }
+
+    public int getCurrent() {
+        return current;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return how fast the current value changed between its last two updates, in units per second
+     */
+    public float getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * @return milliseconds since the bar's name or progress was last updated, or -1 if it is not active
+     */
+    public long getMillisSinceUpdate() {
+        return isActive() ? System.currentTimeMillis() - lastUpdateTime : -1;
     }
 
     public boolean isActive() {
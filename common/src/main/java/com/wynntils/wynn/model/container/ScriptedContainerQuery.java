@@ -7,6 +7,7 @@ package com.wynntils.wynn.model.container;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.wynn.utils.ContainerUtils;
 import java.util.LinkedList;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.inventory.MenuType;
@@ -20,9 +21,11 @@ public class ScriptedContainerQuery {
 
     // No op
     private static final Runnable DEFAULT_ON_COMPLETE = () -> {};
+    private static final BooleanSupplier DEFAULT_STOP_CONDITION = () -> false;
     private final LinkedList<ScriptedQueryStep> steps = new LinkedList<>();
     private Consumer<String> errorHandler = DEFAULT_ERROR_HANDLER;
     private Runnable onComplete = DEFAULT_ON_COMPLETE;
+    private BooleanSupplier stopCondition = DEFAULT_STOP_CONDITION;
     private final String name;
 
     private ScriptedContainerQuery(String name) {
@@ -48,6 +51,10 @@ public class ScriptedContainerQuery {
         this.onComplete = onComplete;
     }
 
+    private void setStopCondition(BooleanSupplier stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
     @FunctionalInterface
     private interface StartAction {
         boolean execute(ContainerContent container);
@@ -99,6 +106,12 @@ public class ScriptedContainerQuery {
         public ContainerQueryStep getNextStep(ContainerContent container) {
             if (ScriptedContainerQuery.this.steps.isEmpty()) return null;
 
+            if (ScriptedContainerQuery.this.stopCondition.getAsBoolean()) {
+                // Finish early; the remaining steps are not needed
+                ScriptedContainerQuery.this.steps.clear();
+                return null;
+            }
+
             return ScriptedContainerQuery.this.steps.pop();
         }
 
@@ -157,6 +170,15 @@ public class ScriptedContainerQuery {
             return this;
         }
 
+        /**
+         * Checked after each step; once the condition holds, the query completes without running
+         * the remaining steps.
+         */
+        public QueryBuilder stopWhen(BooleanSupplier condition) {
+            query.setStopCondition(condition);
+            return this;
+        }
+
         public QueryBuilder expectTitle(String expectedTitle) {
             if (verification != null) {
                 throw new IllegalStateException("Set verification twice");
@@ -62,7 +62,7 @@ public final class MapModel extends Model {
     }
 
     private static void loadMaps() {
-        File mapDirectory = new File(WebManager.API_CACHE_ROOT, "maps");
+        File mapDirectory = new File(WebManager.getApiCacheRoot(), "maps");
         RequestHandler handler = WebManager.getHandler();
 
         MAPS.clear();
@@ -105,7 +105,7 @@ public final class MapModel extends Model {
     }
 
     private static void loadPlaces() {
-        File mapDirectory = new File(WebManager.API_CACHE_ROOT, "maps");
+        File mapDirectory = new File(WebManager.getApiCacheRoot(), "maps");
         RequestHandler handler = WebManager.getHandler();
         handler.addAndDispatch(new RequestBuilder(PLACES_JSON_URL, "maps-places")
                 .cacheTo(new File(mapDirectory, "places.json"))
@@ -121,7 +121,7 @@ public final class MapModel extends Model {
     }
 
     private static void loadServices() {
-        File mapDirectory = new File(WebManager.API_CACHE_ROOT, "maps");
+        File mapDirectory = new File(WebManager.getApiCacheRoot(), "maps");
         RequestHandler handler = WebManager.getHandler();
         handler.addAndDispatch(new RequestBuilder(SERVICES_JSON_URL, "maps-services")
                 .cacheTo(new File(mapDirectory, "services.json"))
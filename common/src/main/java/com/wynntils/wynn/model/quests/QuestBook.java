@@ -0,0 +1,343 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.quests;
+
+import com.wynntils.utils.Pair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The last known content of the quest book (or of its mini-quest part), page by page.
+ *
+ * <p>Every page keeps a fingerprint of what it looked like the last time it was read from the
+ * book. Pages we know have changed since, because chat or the scoreboard told us, are marked as
+ * dirty. A rescan then only needs to page as far as the last dirty page, unless a page turns out
+ * to have changed without us knowing, in which case nothing read so far can be trusted and the
+ * whole book is read.
+ */
+public class QuestBook {
+    private final int pageCount;
+    private final boolean miniQuests;
+
+    // null for pages that were never read
+    private final List<List<QuestInfo>> pages;
+    private final int[] fingerprints;
+    private final boolean[] dirty;
+
+    private List<QuestInfo> quests = List.of();
+    private QuestCatalogue catalogue = null;
+
+    // Combat level the book was last fully valid for, as levelling up can make any quest startable
+    private int level = -1;
+
+    private int scanTarget;
+    private int lastScannedPage;
+    private boolean unexpectedChange;
+
+    protected QuestBook(int pageCount, boolean miniQuests) {
+        this.pageCount = pageCount;
+        this.miniQuests = miniQuests;
+        this.pages = new ArrayList<>(pageCount);
+        this.fingerprints = new int[pageCount];
+        this.dirty = new boolean[pageCount];
+
+        for (int i = 0; i < pageCount; i++) {
+            pages.add(null);
+        }
+    }
+
+    public List<QuestInfo> getQuests() {
+        return quests;
+    }
+
+    /** The catalogue is rebuilt on first use after the book has changed */
+    public QuestCatalogue getCatalogue() {
+        if (catalogue == null) {
+            catalogue = new QuestCatalogue(quests);
+        }
+
+        return catalogue;
+    }
+
+    /**
+     * Marks the page of the quest as changed, so the next scan reads it. This is called whenever
+     * a quest is patched, so the catalogue is dropped as well.
+     */
+    protected void markDirty(QuestInfo questInfo) {
+        catalogue = null;
+
+        int index = questInfo.getPageNumber() - 1;
+        if (index < 0 || index >= pageCount) return;
+
+        dirty[index] = true;
+    }
+
+    protected void markAllDirty() {
+        Arrays.fill(dirty, true);
+    }
+
+    protected void beginScan(int currentLevel) {
+        if (currentLevel != level) {
+            markAllDirty();
+            level = currentLevel;
+        }
+
+        scanTarget = 1;
+        for (int i = 0; i < pageCount; i++) {
+            if (pages.get(i) == null || dirty[i]) {
+                scanTarget = i + 1;
+            }
+        }
+
+        lastScannedPage = 0;
+        unexpectedChange = false;
+    }
+
+    /**
+     * @return true when no page after the last scanned one can have changed
+     */
+    protected boolean isScanDone() {
+        if (lastScannedPage >= pageCount) return true;
+
+        return !unexpectedChange && lastScannedPage >= scanTarget;
+    }
+
+    /**
+     * Replaces a page with what was just read from the book. Quests that look the same as before
+     * keep their old {@link QuestInfo}, so references held elsewhere stay valid.
+     */
+    protected void mergePage(int page, List<QuestInfo> scannedQuests) {
+        int index = page - 1;
+        lastScannedPage = page;
+
+        int fingerprint = getFingerprint(scannedQuests);
+        List<QuestInfo> oldQuests = pages.get(index);
+        if (oldQuests != null && !dirty[index] && fingerprint != fingerprints[index]) {
+            unexpectedChange = true;
+        }
+
+        List<QuestInfo> mergedQuests = new ArrayList<>(scannedQuests.size());
+        for (QuestInfo scanned : scannedQuests) {
+            QuestInfo old = oldQuests == null ? null : findByName(oldQuests, scanned.getName());
+            mergedQuests.add(old != null && isSameContent(old, scanned) ? old : scanned);
+
+            // A quest that moved here from another page makes that page's fingerprint stale, and
+            // something else has taken its place there, so this scan has to read that page too
+            for (int i = 0; i < pageCount; i++) {
+                if (i == index || pages.get(i) == null) continue;
+
+                if (pages.get(i).removeIf(quest -> quest.getName().equals(scanned.getName()))) {
+                    dirty[i] = true;
+                    scanTarget = Math.max(scanTarget, i + 1);
+                }
+            }
+        }
+
+        pages.set(index, mergedQuests);
+        fingerprints[index] = fingerprint;
+        dirty[index] = false;
+
+        rebuildQuestList();
+    }
+
+    private void rebuildQuestList() {
+        List<QuestInfo> newQuests = new ArrayList<>();
+        for (List<QuestInfo> page : pages) {
+            if (page == null) continue;
+
+            newQuests.addAll(page);
+        }
+
+        quests = List.copyOf(newQuests);
+        catalogue = null;
+    }
+
+    private static QuestInfo findByName(List<QuestInfo> quests, String name) {
+        for (QuestInfo quest : quests) {
+            if (quest.getName().equals(name)) return quest;
+        }
+
+        return null;
+    }
+
+    private static boolean isSameContent(QuestInfo a, QuestInfo b) {
+        return a.getStatus() == b.getStatus()
+                && a.isTracked() == b.isTracked()
+                && a.getLevel() == b.getLevel()
+                && a.getLength() == b.getLength()
+                && Objects.equals(a.getNextTask(), b.getNextTask())
+                && a.getAdditionalRequirements().equals(b.getAdditionalRequirements());
+    }
+
+    // Fingerprints are stored between sessions, so only hash values with a stable hash code
+    private static int getFingerprint(List<QuestInfo> quests) {
+        int fingerprint = 1;
+        for (QuestInfo quest : quests) {
+            fingerprint = 31 * fingerprint
+                    + Objects.hash(
+                            quest.getName(),
+                            quest.getStatus().name(),
+                            quest.isTracked(),
+                            quest.getLevel(),
+                            quest.getLength().name(),
+                            quest.getNextTask(),
+                            quest.getAdditionalRequirements().toString());
+        }
+
+        return fingerprint;
+    }
+
+    protected Saved.Book save() {
+        List<Saved.Page> savedPages = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            List<QuestInfo> page = pages.get(i);
+            if (page == null) {
+                savedPages.add(null);
+                continue;
+            }
+
+            List<Saved.Quest> savedQuests = new ArrayList<>(page.size());
+            for (QuestInfo quest : page) {
+                Map<String, Integer> requirements = new LinkedHashMap<>();
+                for (Pair<String, Integer> requirement : quest.getAdditionalRequirements()) {
+                    requirements.put(requirement.a(), requirement.b());
+                }
+
+                savedQuests.add(new Saved.Quest(
+                        quest.getName(),
+                        quest.getStatus(),
+                        quest.getLength(),
+                        quest.getLevel(),
+                        quest.getNextTask(),
+                        requirements,
+                        quest.isTracked()));
+            }
+
+            // Changes we only know of from chat are not in the fingerprint yet, so keep the page dirty
+            savedPages.add(new Saved.Page(savedQuests, fingerprints[i], dirty[i]));
+        }
+
+        return new Saved.Book(level, savedPages);
+    }
+
+    protected void load(Saved.Book savedBook) {
+        if (savedBook == null) return;
+
+        List<Saved.Page> savedPages = savedBook.pages;
+        if (savedPages == null || savedPages.size() != pageCount) return;
+
+        for (int i = 0; i < pageCount; i++) {
+            Saved.Page savedPage = savedPages.get(i);
+            if (savedPage == null || savedPage.quests == null) continue;
+
+            List<QuestInfo> page = new ArrayList<>(savedPage.quests.size());
+            for (Saved.Quest saved : savedPage.quests) {
+                // Skip anything stored by a version that no longer parses
+                if (saved.name == null || saved.status == null || saved.length == null) continue;
+
+                List<Pair<String, Integer>> requirements = new ArrayList<>();
+                if (saved.requirements != null) {
+                    saved.requirements.forEach((name, minLevel) -> requirements.add(new Pair<>(name, minLevel)));
+                }
+
+                page.add(new QuestInfo(
+                        saved.name,
+                        saved.status,
+                        saved.length,
+                        saved.level,
+                        saved.nextTask,
+                        requirements,
+                        miniQuests,
+                        i + 1,
+                        saved.tracked));
+            }
+
+            pages.set(i, page);
+            fingerprints[i] = savedPage.fingerprint;
+            dirty[i] = savedPage.dirty;
+        }
+
+        level = savedBook.level;
+        rebuildQuestList();
+    }
+
+    /** The form quest books are stored in between sessions */
+    public static final class Saved {
+        private String classType;
+        private Book quests;
+        private Book miniQuests;
+
+        protected Saved(String classType, Book quests, Book miniQuests) {
+            this.classType = classType;
+            this.quests = quests;
+            this.miniQuests = miniQuests;
+        }
+
+        protected String getClassType() {
+            return classType;
+        }
+
+        protected Book getQuests() {
+            return quests;
+        }
+
+        protected Book getMiniQuests() {
+            return miniQuests;
+        }
+
+        protected static final class Book {
+            private int level;
+            private List<Page> pages;
+
+            private Book(int level, List<Page> pages) {
+                this.level = level;
+                this.pages = pages;
+            }
+        }
+
+        private static final class Page {
+            private List<Quest> quests;
+            private int fingerprint;
+            private boolean dirty;
+
+            private Page(List<Quest> quests, int fingerprint, boolean dirty) {
+                this.quests = quests;
+                this.fingerprint = fingerprint;
+                this.dirty = dirty;
+            }
+        }
+
+        private static final class Quest {
+            private String name;
+            private QuestStatus status;
+            private QuestLength length;
+            private int level;
+            private String nextTask;
+            private Map<String, Integer> requirements;
+            private boolean tracked;
+
+            private Quest(
+                    String name,
+                    QuestStatus status,
+                    QuestLength length,
+                    int level,
+                    String nextTask,
+                    Map<String, Integer> requirements,
+                    boolean tracked) {
+                this.name = name;
+                this.status = status;
+                this.length = length;
+                this.level = level;
+                this.nextTask = nextTask;
+                this.requirements = requirements;
+                this.tracked = tracked;
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.quests;
+
+import com.wynntils.core.webapi.profiles.TerritoryProfile;
+import com.wynntils.mc.objects.Location;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * An indexed, read-only view of the quests in a {@link QuestBook}, built once each time the book
+ * changes. The level and alphabetic orders are sorted up front, quests are indexed by name and
+ * status, and quest locations are bucketed in a grid, so that nearest-quest queries only look at
+ * the cells around the player.
+ *
+ * <p>Like the quest book has always done, every order puts quests that can be done before those
+ * that can not, see {@link QuestStatus}.
+ */
+public class QuestCatalogue {
+    // The distance order and nearest quest are only recomputed once the player has moved this far
+    private static final double REFRESH_DISTANCE_SQR = 16 * 16;
+    private static final int CELL_SIZE = 256;
+
+    private final List<QuestInfo> quests;
+    private final Map<String, QuestInfo> questsByName = new HashMap<>();
+    private final Map<QuestStatus, List<QuestInfo>> questsByStatus = new EnumMap<>(QuestStatus.class);
+    private final Map<QuestInfo, Location> locations = new IdentityHashMap<>();
+
+    private final List<QuestInfo> questsByLevel;
+    private final List<QuestInfo> questsAlphabetically;
+    // Only sorted by level, regardless of status, for level range queries
+    private final List<QuestInfo> levelIndex;
+
+    private final Map<Long, List<QuestInfo>> grid = new HashMap<>();
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int minCellZ = Integer.MAX_VALUE;
+    private int maxCellZ = Integer.MIN_VALUE;
+
+    private Vec3 distanceOrigin = null;
+    private List<QuestInfo> questsByDistance = List.of();
+
+    private Vec3 nearestOrigin = null;
+    private QuestInfo nearestAvailableQuest = null;
+
+    protected QuestCatalogue(List<QuestInfo> quests) {
+        this.quests = quests;
+
+        for (QuestStatus status : QuestStatus.values()) {
+            questsByStatus.put(status, new ArrayList<>());
+        }
+
+        for (QuestInfo quest : quests) {
+            questsByName.putIfAbsent(quest.getName(), quest);
+            questsByStatus.get(quest.getStatus()).add(quest);
+
+            Optional<Location> location = quest.getNextLocation();
+            if (location.isEmpty()) continue;
+
+            locations.put(quest, location.get());
+            addToGrid(quest, location.get());
+        }
+
+        questsByLevel = quests.stream()
+                .sorted(Comparator.comparing(QuestInfo::getStatus)
+                        .thenComparing(QuestInfo::getSortLevel)
+                        .thenComparing(QuestInfo::getName))
+                .toList();
+        questsAlphabetically = quests.stream()
+                .sorted(Comparator.comparing(QuestInfo::getStatus)
+                        .thenComparing(QuestInfo::getName)
+                        .thenComparing(QuestInfo::getSortLevel))
+                .toList();
+        levelIndex = quests.stream()
+                .sorted(Comparator.comparing(QuestInfo::getSortLevel))
+                .toList();
+    }
+
+    public List<QuestInfo> getQuests() {
+        return quests;
+    }
+
+    public Optional<QuestInfo> getQuest(String name) {
+        return Optional.ofNullable(questsByName.get(name));
+    }
+
+    public List<QuestInfo> getQuests(QuestStatus status) {
+        return questsByStatus.get(status);
+    }
+
+    public List<QuestInfo> getQuestsByLevel() {
+        return questsByLevel;
+    }
+
+    public List<QuestInfo> getQuestsAlphabetically() {
+        return questsAlphabetically;
+    }
+
+    /**
+     * Quests with no known location count as the closest ones. The order is only recomputed when
+     * the given position is far enough from the one it was last computed for.
+     */
+    public List<QuestInfo> getQuestsByDistance(Vec3 position) {
+        if (distanceOrigin != null && distanceOrigin.distanceToSqr(position) < REFRESH_DISTANCE_SQR) {
+            return questsByDistance;
+        }
+
+        distanceOrigin = position;
+
+        // Compute each distance once instead of twice per comparison
+        List<DistanceEntry> entries = new ArrayList<>(quests.size());
+        for (QuestInfo quest : quests) {
+            Location location = locations.get(quest);
+            entries.add(new DistanceEntry(quest, location == null ? 0 : position.distanceToSqr(location.toVec3())));
+        }
+
+        questsByDistance = entries.stream()
+                .sorted(Comparator.comparing((DistanceEntry entry) -> entry.quest().getStatus())
+                        .thenComparingDouble(DistanceEntry::distanceSqr)
+                        .thenComparing(entry -> entry.quest().getName()))
+                .map(DistanceEntry::quest)
+                .toList();
+        return questsByDistance;
+    }
+
+    /**
+     * @return the quests with a level requirement within the given range, both ends included
+     */
+    public List<QuestInfo> getQuestsInLevelRange(int minLevel, int maxLevel) {
+        int from = findFirstWithLevel(minLevel);
+        int to = findFirstWithLevel(maxLevel + 1);
+
+        return from >= to ? List.of() : levelIndex.subList(from, to);
+    }
+
+    /**
+     * @return the quests whose next location is inside the territory
+     */
+    public List<QuestInfo> getQuestsInRegion(TerritoryProfile territory) {
+        int startX = Math.min(territory.getStartX(), territory.getEndX());
+        int endX = Math.max(territory.getStartX(), territory.getEndX());
+        int startZ = Math.min(territory.getStartZ(), territory.getEndZ());
+        int endZ = Math.max(territory.getStartZ(), territory.getEndZ());
+
+        List<QuestInfo> regionQuests = new ArrayList<>();
+        for (int cellX = Math.floorDiv(startX, CELL_SIZE); cellX <= Math.floorDiv(endX, CELL_SIZE); cellX++) {
+            for (int cellZ = Math.floorDiv(startZ, CELL_SIZE); cellZ <= Math.floorDiv(endZ, CELL_SIZE); cellZ++) {
+                List<QuestInfo> cell = grid.get(getCellKey(cellX, cellZ));
+                if (cell == null) continue;
+
+                for (QuestInfo quest : cell) {
+                    Location location = locations.get(quest);
+                    if (territory.insideArea((int) location.x, (int) location.z)) {
+                        regionQuests.add(quest);
+                    }
+                }
+            }
+        }
+
+        return regionQuests;
+    }
+
+    public Optional<Location> getLocation(QuestInfo questInfo) {
+        return Optional.ofNullable(locations.get(questInfo));
+    }
+
+    /**
+     * @return the closest quest that can be started, only recomputed when the given position is
+     *     far enough from the one it was last computed for
+     */
+    public Optional<QuestInfo> getNearestAvailableQuest(Vec3 position) {
+        if (nearestOrigin == null || nearestOrigin.distanceToSqr(position) >= REFRESH_DISTANCE_SQR) {
+            nearestOrigin = position;
+            nearestAvailableQuest = getNearestQuest(position, quest -> quest.getStatus() == QuestStatus.CAN_START)
+                    .orElse(null);
+        }
+
+        return Optional.ofNullable(nearestAvailableQuest);
+    }
+
+    /**
+     * Finds the closest quest with a known location that matches the filter, by searching the grid
+     * in rings around the position until no cell further out can hold anything closer.
+     */
+    public Optional<QuestInfo> getNearestQuest(Vec3 position, Predicate<QuestInfo> filter) {
+        if (grid.isEmpty()) return Optional.empty();
+
+        int centerX = Math.floorDiv((int) Math.floor(position.x), CELL_SIZE);
+        int centerZ = Math.floorDiv((int) Math.floor(position.z), CELL_SIZE);
+        int maxRing = Math.max(
+                Math.max(Math.abs(centerX - minCellX), Math.abs(maxCellX - centerX)),
+                Math.max(Math.abs(centerZ - minCellZ), Math.abs(maxCellZ - centerZ)));
+
+        QuestInfo nearest = null;
+        double nearestDistanceSqr = Double.MAX_VALUE;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell in this ring is at least this far away horizontally
+            double ringDistance = (ring - 1) * (double) CELL_SIZE;
+            if (nearest != null && ring > 0 && ringDistance * ringDistance > nearestDistanceSqr) break;
+
+            for (int cellX = centerX - ring; cellX <= centerX + ring; cellX++) {
+                for (int cellZ = centerZ - ring; cellZ <= centerZ + ring; cellZ++) {
+                    // Only the edge of the square is new in this ring
+                    if (Math.abs(cellX - centerX) != ring && Math.abs(cellZ - centerZ) != ring) continue;
+
+                    List<QuestInfo> cell = grid.get(getCellKey(cellX, cellZ));
+                    if (cell == null) continue;
+
+                    for (QuestInfo quest : cell) {
+                        if (!filter.test(quest)) continue;
+
+                        double distanceSqr = position.distanceToSqr(locations.get(quest).toVec3());
+                        if (distanceSqr < nearestDistanceSqr) {
+                            nearest = quest;
+                            nearestDistanceSqr = distanceSqr;
+                        }
+                    }
+                }
+            }
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    private void addToGrid(QuestInfo quest, Location location) {
+        int cellX = Math.floorDiv((int) Math.floor(location.x), CELL_SIZE);
+        int cellZ = Math.floorDiv((int) Math.floor(location.z), CELL_SIZE);
+
+        grid.computeIfAbsent(getCellKey(cellX, cellZ), key -> new ArrayList<>()).add(quest);
+
+        minCellX = Math.min(minCellX, cellX);
+        maxCellX = Math.max(maxCellX, cellX);
+        minCellZ = Math.min(minCellZ, cellZ);
+        maxCellZ = Math.max(maxCellZ, cellZ);
+    }
+
+    private int findFirstWithLevel(int level) {
+        int low = 0;
+        int high = levelIndex.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (levelIndex.get(mid).getSortLevel() < level) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private static long getCellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private record DistanceEntry(QuestInfo quest, double distanceSqr) {}
+}
@@ -23,41 +23,41 @@ public class QuestContainerQueries {
     private static final int NEXT_PAGE_SLOT = 8;
     private static final int MINI_QUESTS_SLOT = 53;
 
-    private List<QuestInfo> newQuests;
-    private List<QuestInfo> newMiniQuests;
+    protected static final int QUEST_PAGES = 4;
+    protected static final int MINI_QUEST_PAGES = 3;
 
     /**
-     * Trigger a rescan of the quest book. When the rescan is done, a QuestBookReloadedEvent will
-     * be sent. The available quests are then available using getQuests.
+     * Trigger a rescan of the quest book. Pages are merged into the given book as they are read,
+     * and paging stops as soon as the book knows no later page can have changed. When the rescan
+     * is done, a QuestBookReloadedEvent will be sent.
      */
-    protected void queryQuestBook() {
+    protected void queryQuestBook(QuestBook questBook) {
         ScriptedContainerQuery.QueryBuilder queryBuilder = ScriptedContainerQuery.builder("Quest Book Query")
                 .onError(msg -> {
                     WynntilsMod.warn("Problem querying Quest Book: " + msg);
                     McUtils.sendMessageToClient(
                             new TextComponent("Error updating quest book.").withStyle(ChatFormatting.RED));
                 })
+                .stopWhen(questBook::isScanDone)
                 .useItemInHotbar(InventoryUtils.QUEST_BOOK_SLOT_NUM)
                 .matchTitle(QuestManager.getQuestBookTitle(1))
-                .processContainer(c -> processQuestBookPage(c, 1));
+                .processContainer(c -> processQuestBookPage(c, 1, questBook));
 
-        for (int i = 2; i < 5; i++) {
+        for (int i = 2; i <= QUEST_PAGES; i++) {
             final int page = i; // Lambdas need final variables
             queryBuilder
                     .clickOnSlotWithName(NEXT_PAGE_SLOT, Items.GOLDEN_SHOVEL, getNextPageButtonName(page))
                     .matchTitle(QuestManager.getQuestBookTitle(page))
-                    .processContainer(c -> processQuestBookPage(c, page));
+                    .processContainer(c -> processQuestBookPage(c, page, questBook));
         }
 
         queryBuilder.build().executeQuery();
     }
 
-    private void processQuestBookPage(ContainerContent container, int page) {
+    // Package-private, so tests can feed it pages without opening the book
+    void processQuestBookPage(ContainerContent container, int page, QuestBook questBook) {
         // Quests are in the top-left container area
-        if (page == 1) {
-            // Build new set of quests without disturbing current set
-            newQuests = new ArrayList<>();
-        }
+        List<QuestInfo> pageQuests = new ArrayList<>();
         for (int row = 0; row < 6; row++) {
             for (int col = 0; col < 7; col++) {
                 int slot = row * 9 + col;
@@ -69,13 +69,14 @@ public class QuestContainerQueries {
                 QuestInfo questInfo = QuestInfoParser.parseItem(item, page, false);
                 if (questInfo == null) continue;
 
-                newQuests.add(questInfo);
+                pageQuests.add(questInfo);
             }
         }
 
-        if (page == 4) {
-            // Last page finished
-            QuestManager.setQuests(newQuests);
+        questBook.mergePage(page, pageQuests);
+
+        if (questBook.isScanDone()) {
+            QuestManager.onQuestBookScanned(questBook);
         }
     }
 
@@ -83,37 +84,35 @@ public class QuestContainerQueries {
         return "[§f§lPage " + nextPageNum + "§a >§2>§a>§2>§a>]";
     }
 
-    protected void queryMiniQuests() {
+    protected void queryMiniQuests(QuestBook miniQuestBook) {
         ScriptedContainerQuery.QueryBuilder queryBuilder = ScriptedContainerQuery.builder("Quest Book Mini Quest Query")
                 .onError(msg -> {
                     WynntilsMod.warn("Problem querying Quest Book for mini quests: " + msg);
                     McUtils.sendMessageToClient(
                             new TextComponent("Error updating quest book.").withStyle(ChatFormatting.RED));
                 })
+                .stopWhen(miniQuestBook::isScanDone)
                 .useItemInHotbar(InventoryUtils.QUEST_BOOK_SLOT_NUM)
                 .matchTitle(QuestManager.getQuestBookTitle(1))
                 .processContainer(c -> {})
                 .clickOnSlot(MINI_QUESTS_SLOT)
                 .matchTitle(getMiniQuestBookTitle(1))
-                .processContainer(c -> processMiniQuestBookPage(c, 1));
+                .processContainer(c -> processMiniQuestBookPage(c, 1, miniQuestBook));
 
-        for (int i = 2; i < 4; i++) {
+        for (int i = 2; i <= MINI_QUEST_PAGES; i++) {
             final int page = i; // Lambdas need final variables
             queryBuilder
                     .clickOnSlotWithName(NEXT_PAGE_SLOT, Items.GOLDEN_SHOVEL, getNextPageButtonName(page))
                     .matchTitle(getMiniQuestBookTitle(page))
-                    .processContainer(c -> processMiniQuestBookPage(c, page));
+                    .processContainer(c -> processMiniQuestBookPage(c, page, miniQuestBook));
         }
 
         queryBuilder.build().executeQuery();
     }
 
-    private void processMiniQuestBookPage(ContainerContent container, int page) {
+    void processMiniQuestBookPage(ContainerContent container, int page, QuestBook miniQuestBook) {
         // Quests are in the top-left container area
-        if (page == 1) {
-            // Build new set of quests without disturbing current set
-            newMiniQuests = new ArrayList<>();
-        }
+        List<QuestInfo> pageQuests = new ArrayList<>();
         for (int row = 0; row < 6; row++) {
             for (int col = 0; col < 7; col++) {
                 int slot = row * 9 + col;
@@ -122,13 +121,14 @@ public class QuestContainerQueries {
                 QuestInfo questInfo = QuestInfoParser.parseItem(item, page, true);
                 if (questInfo == null) continue;
 
-                newMiniQuests.add(questInfo);
+                pageQuests.add(questInfo);
             }
         }
 
-        if (page == 3) {
-            // Last page finished
-            QuestManager.setMiniQuests(newMiniQuests);
+        miniQuestBook.mergePage(page, pageQuests);
+
+        if (miniQuestBook.isScanDone()) {
+            QuestManager.onQuestBookScanned(miniQuestBook);
         }
     }
 
@@ -174,6 +174,7 @@ public class QuestContainerQueries {
                 if (Objects.equals(questName, questInfo.getName())) {
                     ContainerUtils.clickOnSlot(
                             slot, container.containerId(), GLFW.GLFW_MOUSE_BUTTON_LEFT, container.items());
+                    QuestManager.onTrackingToggled(questInfo);
                     return;
                 }
             }
@@ -69,6 +69,10 @@ public class QuestInfo {
         return status;
     }
 
+    protected void setStatus(QuestStatus status) {
+        this.status = status;
+    }
+
     public boolean isTrackable() {
         return status == QuestStatus.CAN_START || status == QuestStatus.STARTED;
     }
@@ -117,6 +121,10 @@ public class QuestInfo {
         return tracked;
     }
 
+    protected void setTracked(boolean tracked) {
+        this.tracked = tracked;
+    }
+
     public boolean isMiniQuest() {
         return isMiniQuest;
     }
@@ -5,21 +5,28 @@
 package com.wynntils.wynn.model.quests;
 
 import com.wynntils.core.WynntilsMod;
+import com.wynntils.core.config.ConfigManager;
 import com.wynntils.core.managers.CoreManager;
 import com.wynntils.core.webapi.request.Request;
 import com.wynntils.core.webapi.request.RequestBuilder;
 import com.wynntils.core.webapi.request.RequestHandler;
+import com.wynntils.features.statemanaged.DataStorageFeature;
 import com.wynntils.mc.objects.Location;
+import com.wynntils.mc.utils.ComponentUtils;
 import com.wynntils.mc.utils.McUtils;
 import com.wynntils.utils.Utils;
 import com.wynntils.utils.WebUtils;
+import com.wynntils.wynn.event.CharacterUpdateEvent;
+import com.wynntils.wynn.event.NpcDialogEvent;
 import com.wynntils.wynn.event.QuestBookReloadedEvent;
 import com.wynntils.wynn.event.TrackedQuestUpdateEvent;
 import com.wynntils.wynn.event.WorldStateEvent;
-import java.util.Comparator;
+import com.wynntils.wynn.model.CharacterManager;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import net.minecraft.world.phys.Vec3;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
@@ -28,69 +35,140 @@ public class QuestManager extends CoreManager {
     private static final String WIKI_QUEST_PAGE_QUERY =
             "https://wynncraft.fandom.com/index.php?title=Special:CargoExport&format=json&tables=Quests&fields=Quests._pageTitle&where=Quests.name=";
 
+    private static final Pattern NEW_QUEST_STARTED = Pattern.compile("^§r§6§lNew Quest Started: §r§e§l(.*)§r$");
+
     public static final QuestScoreboardHandler SCOREBOARD_HANDLER = new QuestScoreboardHandler();
     private static final QuestContainerQueries CONTAINER_QUERIES = new QuestContainerQueries();
     private static final DialogueHistoryQueries DIALOGUE_HISTORY_QUERIES = new DialogueHistoryQueries();
 
-    private static List<QuestInfo> quests = List.of();
-    private static List<QuestInfo> miniQuests = List.of();
+    private static QuestBook questBook = createQuestBook();
+    private static QuestBook miniQuestBook = createMiniQuestBook();
     private static List<List<String>> dialogueHistory = List.of();
     private static QuestInfo currentQuest = null;
 
+    // The character the quest books are stored for, or null if they are not stored
+    private static String questBookKey = null;
+    private static String questBookClassType = null;
+
     public static void init() {}
 
     @SubscribeEvent(priority = EventPriority.HIGH)
     public static void onWorldStateChanged(WorldStateEvent e) {
-        quests = List.of();
+        questBook = createQuestBook();
+        miniQuestBook = createMiniQuestBook();
+        questBookKey = null;
         dialogueHistory = List.of();
     }
 
+    @SubscribeEvent
+    public static void onCharacterUpdate(CharacterUpdateEvent e) {
+        CharacterManager.CharacterInfo characterInfo = CharacterManager.getCharacterInfo();
+        // Without the slot id (when auto-joining), there is nothing to tell characters apart by
+        if (characterInfo.getId() < 0 || McUtils.player() == null) return;
+
+        String key = McUtils.player().getStringUUID() + "/" + characterInfo.getId();
+        if (key.equals(questBookKey)) return;
+
+        questBookKey = key;
+        questBookClassType = String.valueOf(characterInfo.getClassType());
+        questBook = createQuestBook();
+        miniQuestBook = createMiniQuestBook();
+
+        QuestBook.Saved saved = DataStorageFeature.INSTANCE.questBooks.get(key);
+        // If the class type differs, the character slot has been reused
+        if (saved == null || !questBookClassType.equals(saved.getClassType())) return;
+
+        questBook.load(saved.getQuests());
+        miniQuestBook.load(saved.getMiniQuests());
+        WynntilsMod.postEvent(new QuestBookReloadedEvent.QuestsReloaded());
+        WynntilsMod.postEvent(new QuestBookReloadedEvent.MiniQuestsReloaded());
+    }
+
+    // Only received while something has ChatModel loaded; the next rescan catches what we miss
+    @SubscribeEvent
+    public static void onNpcDialogue(NpcDialogEvent e) {
+        if (e.getChatMessage() == null) return;
+
+        Matcher matcher = NEW_QUEST_STARTED.matcher(ComponentUtils.getCoded(e.getChatMessage()));
+        if (!matcher.matches()) return;
+
+        Optional<QuestInfo> questInfo = getQuestFromName(matcher.group(1));
+        if (questInfo.isEmpty() || questInfo.get().getStatus() == QuestStatus.STARTED) return;
+
+        questInfo.get().setStatus(QuestStatus.STARTED);
+        questBook.markDirty(questInfo.get());
+        WynntilsMod.postEvent(new QuestBookReloadedEvent.QuestsReloaded());
+        storeQuestBooks();
+    }
+
+    /**
+     * Rescan the parts of the quest book that may have changed since it was last read. The quests
+     * known so far stay available while this happens.
+     */
     public static void rescanQuestBook(boolean includeQuests, boolean includeMiniQuests) {
         WynntilsMod.info("Requesting rescan of Quest Book");
+        int level = CharacterManager.getCharacterInfo().getXpLevel();
         if (includeQuests) {
-            CONTAINER_QUERIES.queryQuestBook();
+            questBook.beginScan(level);
+            CONTAINER_QUERIES.queryQuestBook(questBook);
         }
         if (includeMiniQuests) {
-            CONTAINER_QUERIES.queryMiniQuests();
+            // Profession level ups are not tracked, so mini-quests can still need a full reload
+            miniQuestBook.beginScan(level);
+            CONTAINER_QUERIES.queryMiniQuests(miniQuestBook);
         }
     }
 
+    /** Rescan every page of the quest book, regardless of what is known to have changed */
+    public static void reloadQuestBook(boolean includeQuests, boolean includeMiniQuests) {
+        if (includeQuests) {
+            questBook.markAllDirty();
+        }
+        if (includeMiniQuests) {
+            miniQuestBook.markAllDirty();
+        }
+
+        rescanQuestBook(includeQuests, includeMiniQuests);
+    }
+
     public static void rescanDialogueHistory() {
         DIALOGUE_HISTORY_QUERIES.scanDialogueHistory();
     }
 
     public static List<QuestInfo> getQuests(QuestSortOrder sortOrder) {
-        return sortQuestInfoList(sortOrder, quests);
+        return getSortedQuests(questBook.getCatalogue(), sortOrder);
     }
 
     public static List<QuestInfo> getMiniQuests(QuestSortOrder sortOrder) {
-        return sortQuestInfoList(sortOrder, miniQuests);
+        return getSortedQuests(miniQuestBook.getCatalogue(), sortOrder);
+    }
+
+    public static QuestCatalogue getQuestCatalogue() {
+        return questBook.getCatalogue();
+    }
+
+    public static QuestCatalogue getMiniQuestCatalogue() {
+        return miniQuestBook.getCatalogue();
     }
 
-    private static List<QuestInfo> sortQuestInfoList(QuestSortOrder sortOrder, List<QuestInfo> questList) {
+    private static List<QuestInfo> getSortedQuests(QuestCatalogue catalogue, QuestSortOrder sortOrder) {
         // All quests are always sorted by status (available then unavailable), and then
         // the given sort order, and finally a third way if the given sort order is equal.
         return switch (sortOrder) {
-            case LEVEL -> questList.stream()
-                    .sorted(Comparator.comparing(QuestInfo::getStatus)
-                            .thenComparing(QuestInfo::getSortLevel)
-                            .thenComparing(QuestInfo::getName))
-                    .toList();
-            case DISTANCE -> questList.stream()
-                    .sorted(Comparator.comparing(QuestInfo::getStatus)
-                            .thenComparing(new LocationComparator())
-                            .thenComparing(QuestInfo::getName))
-                    .toList();
-            case ALPHABETIC -> questList.stream()
-                    .sorted(Comparator.comparing(QuestInfo::getStatus)
-                            .thenComparing(QuestInfo::getName)
-                            .thenComparing(QuestInfo::getSortLevel))
-                    .toList();
+            case LEVEL -> catalogue.getQuestsByLevel();
+            case DISTANCE -> catalogue.getQuestsByDistance(McUtils.player().position());
+            case ALPHABETIC -> catalogue.getQuestsAlphabetically();
         };
     }
 
     public static Optional<QuestInfo> getQuestFromName(String name) {
-        return quests.stream().filter(quest -> quest.getName().equals(name)).findFirst();
+        return questBook.getCatalogue().getQuest(name);
+    }
+
+    public static Optional<QuestInfo> getNearestAvailableQuest() {
+        if (McUtils.player() == null) return Optional.empty();
+
+        return questBook.getCatalogue().getNearestAvailableQuest(McUtils.player().position());
     }
 
     public static List<List<String>> getDialogueHistory() {
@@ -150,16 +228,101 @@ public class QuestManager extends CoreManager {
         WynntilsMod.postEvent(new TrackedQuestUpdateEvent(currentQuest));
     }
 
-    protected static void setQuests(List<QuestInfo> newQuests) {
-        quests = newQuests;
-        WynntilsMod.postEvent(new QuestBookReloadedEvent.QuestsReloaded());
+    /**
+     * Patches a quest with progress shown on the scoreboard. The scoreboard is resent far more
+     * often than the task changes, so an unchanged task leaves the book alone.
+     */
+    protected static void updateQuestProgress(QuestInfo questInfo, String nextTask) {
+        boolean statusChanged = questInfo.getStatus() != QuestStatus.STARTED;
+        if (!statusChanged && Objects.equals(questInfo.getNextTask(), nextTask)) return;
+
+        questInfo.setNextTask(nextTask);
+        getQuestBook(questInfo).markDirty(questInfo);
+
+        if (statusChanged) {
+            questInfo.setStatus(QuestStatus.STARTED);
+            WynntilsMod.postEvent(
+                    questInfo.isMiniQuest()
+                            ? new QuestBookReloadedEvent.MiniQuestsReloaded()
+                            : new QuestBookReloadedEvent.QuestsReloaded());
+            storeQuestBooks();
+        }
     }
 
-    protected static void setMiniQuests(List<QuestInfo> newMiniQuests) {
-        miniQuests = newMiniQuests;
+    /** The tracked quest left the scoreboard, so it was either completed or untracked */
+    protected static void onTrackedQuestRemoved() {
+        if (currentQuest != null) {
+            getQuestBook(currentQuest).markDirty(currentQuest);
+        }
+
+        setCurrentQuest(null);
+    }
+
+    protected static void onTrackingToggled(QuestInfo questInfo) {
+        boolean tracked = !questInfo.isTracked();
+
+        // Only one quest can be tracked at a time
+        for (QuestBook book : List.of(questBook, miniQuestBook)) {
+            for (QuestInfo quest : book.getQuests()) {
+                boolean newTracked = tracked
+                        && quest.isMiniQuest() == questInfo.isMiniQuest()
+                        && quest.getName().equals(questInfo.getName());
+                if (quest.isTracked() == newTracked) continue;
+
+                quest.setTracked(newTracked);
+                book.markDirty(quest);
+            }
+        }
+
+        WynntilsMod.postEvent(new QuestBookReloadedEvent.QuestsReloaded());
         WynntilsMod.postEvent(new QuestBookReloadedEvent.MiniQuestsReloaded());
     }
 
+    protected static void onQuestBookScanned(QuestBook book) {
+        if (book == questBook) {
+            WynntilsMod.postEvent(new QuestBookReloadedEvent.QuestsReloaded());
+        } else if (book == miniQuestBook) {
+            WynntilsMod.postEvent(new QuestBookReloadedEvent.MiniQuestsReloaded());
+        } else {
+            // The character changed while scanning
+            return;
+        }
+
+        saveQuestBooks();
+    }
+
+    /**
+     * Keeps the stored quest books up to date without writing the config file, which is only
+     * written once per scan (or whenever something else saves the config). A patch that never
+     * makes it to the file is not lost: its page no longer matches the stored fingerprint, so the
+     * next scan after loading reads the book again.
+     */
+    private static void storeQuestBooks() {
+        if (questBookKey == null) return;
+
+        DataStorageFeature.INSTANCE.questBooks.put(
+                questBookKey, new QuestBook.Saved(questBookClassType, questBook.save(), miniQuestBook.save()));
+    }
+
+    private static void saveQuestBooks() {
+        if (questBookKey == null) return;
+
+        storeQuestBooks();
+        ConfigManager.saveConfig();
+    }
+
+    private static QuestBook getQuestBook(QuestInfo questInfo) {
+        return questInfo.isMiniQuest() ? miniQuestBook : questBook;
+    }
+
+    private static QuestBook createQuestBook() {
+        return new QuestBook(QuestContainerQueries.QUEST_PAGES, false);
+    }
+
+    private static QuestBook createMiniQuestBook() {
+        return new QuestBook(QuestContainerQueries.MINI_QUEST_PAGES, true);
+    }
+
     protected static void setDialogueHistory(List<List<String>> newDialogueHistory) {
         dialogueHistory = newDialogueHistory;
         WynntilsMod.postEvent(new QuestBookReloadedEvent.DialogueHistoryReloaded());
@@ -169,23 +332,4 @@ public class QuestManager extends CoreManager {
     public static String getQuestBookTitle(int pageNum) {
         return "^§0\\[Pg. " + pageNum + "\\] §8.*§0 Quests$";
     }
-
-    private static class LocationComparator implements Comparator<QuestInfo> {
-        private static final Vec3 PLAYER_LOCATION = McUtils.player().position();
-
-        private double getDistance(Optional<Location> loc) {
-            // Quests with no location always counts as closest
-            if (loc.isEmpty()) return 0f;
-
-            Location location = loc.get();
-            return PLAYER_LOCATION.distanceToSqr(location.toVec3());
-        }
-
-        @Override
-        public int compare(QuestInfo quest1, QuestInfo quest2) {
-            Optional<Location> loc1 = quest1.getNextLocation();
-            Optional<Location> loc2 = quest2.getNextLocation();
-            return (int) (getDistance(loc1) - getDistance(loc2));
-        }
-    }
 }
@@ -44,14 +44,14 @@ public class QuestScoreboardHandler implements ScoreboardHandler {
         }
 
         QuestInfo questInfo = questInfoOpt.get();
-        questInfo.setNextTask(nextTask.toString().trim());
+        QuestManager.updateQuestProgress(questInfo, nextTask.toString().trim());
 
         QuestManager.setCurrentQuest(questInfo);
     }
 
     @Override
     public void onSegmentRemove(Segment segment, ScoreboardModel.SegmentType segmentType) {
-        QuestManager.setCurrentQuest(null);
+        QuestManager.onTrackedQuestRemoved();
     }
 
     @Override
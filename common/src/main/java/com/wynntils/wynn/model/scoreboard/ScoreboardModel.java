@@ -18,6 +18,7 @@ import com.wynntils.wynn.model.quests.QuestManager;
 import com.wynntils.wynn.model.scoreboard.objectives.ObjectiveHandler;
 import com.wynntils.wynn.utils.WynnUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -52,7 +53,7 @@ public final class ScoreboardModel extends Model {
 
     // TimeUnit.MILLISECONDS
     // 250 -> 4 times a second
-    private static final int CHANGE_PROCESS_RATE = 250;
+    public static final int CHANGE_PROCESS_RATE = 250;
 
     private static List<ScoreboardLine> reconstructedScoreboard = new ArrayList<>();
 
@@ -69,10 +70,17 @@ public final class ScoreboardModel extends Model {
     private static final Runnable changeHandlerRunnable = () -> {
         if (!WynnUtils.onWorld() || McUtils.player() == null) return;
 
-        if (queuedChanges.isEmpty()) {
-            handleScoreboardReconstruction();
-            return;
-        }
+        processQueuedChanges();
+        handleScoreboardReconstruction();
+    };
+
+    /**
+     * Applies the queued score changes to the reconstructed scoreboard, and tells the handlers about
+     * the segments that changed or went away. Packet replays call this on recorded time, as they have
+     * no player whose scoreboard could be displayed.
+     */
+    public static void processQueuedChanges() {
+        if (queuedChanges.isEmpty()) return;
 
         List<ScoreboardLine> scoreboardCopy = new ArrayList<>(reconstructedScoreboard);
         LinkedList<ScoreboardLineChange> queueCopy = new LinkedList<>(queuedChanges);
@@ -177,9 +185,7 @@ public final class ScoreboardModel extends Model {
                 }
             }
         }
-
-        handleScoreboardReconstruction();
-    };
+    }
 
     private static void handleScoreboardReconstruction() {
         McUtils.mc().doRunTask(() -> {
@@ -246,7 +252,13 @@ public final class ScoreboardModel extends Model {
         });
     }
 
-    private static List<Segment> calculateSegments(List<ScoreboardLine> scoreboardCopy) {
+    /**
+     * Splits the scoreboard into its segments, each starting at a known header and ending at the
+     * next line of only À characters, or at the end of the scoreboard.
+     *
+     * @param scoreboardCopy the lines from top to bottom
+     */
+    static List<Segment> calculateSegments(List<ScoreboardLine> scoreboardCopy) {
         List<Segment> segments = new ArrayList<>();
 
         Segment currentSegment = null;
@@ -359,6 +371,10 @@ public final class ScoreboardModel extends Model {
         }
     }
 
+    public static List<Segment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
     public enum SegmentType {
         Quest(ScoreboardModel.QUEST_TRACK_PATTERN),
         Party(ScoreboardModel.PARTY_PATTERN),
@@ -11,7 +11,9 @@ public final class TerritoryAttackTimer {
     private final int minutes;
     private final int seconds;
 
-    private String defense;
+    private volatile String defense;
+    // Built on first use, and again after the defense changes
+    private volatile String formatted = null;
 
     public TerritoryAttackTimer(String territory, int minutes, int seconds) {
         this.territory = territory;
@@ -21,8 +23,14 @@ public final class TerritoryAttackTimer {
     }
 
     public String asString() {
-        return ChatFormatting.GRAY + territory + ChatFormatting.YELLOW + " (" + defense + ")" + ChatFormatting.AQUA
-                + " " + timerString();
+        String string = formatted;
+        if (string == null) {
+            string = ChatFormatting.GRAY + territory + ChatFormatting.YELLOW + " (" + defense + ")"
+                    + ChatFormatting.AQUA + " " + timerString();
+            formatted = string;
+        }
+
+        return string;
     }
 
     public int asSeconds() {
@@ -45,7 +53,12 @@ public final class TerritoryAttackTimer {
         return !defense.equals("Unknown");
     }
 
+    public boolean isSameTime(int minutes, int seconds) {
+        return this.minutes == minutes && this.seconds == seconds;
+    }
+
     public void setDefense(String defense) {
         this.defense = defense;
+        this.formatted = null;
     }
 }
@@ -4,76 +4,170 @@
  */
 package com.wynntils.wynn.model.territory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.managers.Model;
 import com.wynntils.core.webapi.TerritoryManager;
 import com.wynntils.core.webapi.profiles.TerritoryProfile;
 import com.wynntils.mc.event.AdvancementUpdateEvent;
 import com.wynntils.mc.utils.ComponentUtils;
+import com.wynntils.wynn.event.TerritoryOwnerChangedEvent;
 import com.wynntils.wynn.model.map.poi.TerritoryPoi;
 import com.wynntils.wynn.model.territory.objects.GuildTerritoryInfo;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import net.minecraft.advancements.Advancement;
+import net.minecraft.advancements.DisplayInfo;
 import net.minecraft.advancements.FrameType;
+import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
+/**
+ * Parses the guild territory advancements sent by Wynncraft. Parsing is done on a worker thread,
+ * skipping advancements whose display did not change, and the result is published as an immutable
+ * snapshot, so readers on the render thread never see a partially updated map.
+ */
 public class GuildTerritoryModel extends Model {
-    private static Map<String, TerritoryPoi> guildTerritoryHashMap = new ConcurrentHashMap<>();
+    private static volatile Map<String, TerritoryPoi> guildTerritoryHashMap = Map.of();
+
+    // Only accessed from the executor thread
+    private static final Map<ResourceLocation, ParsedAdvancement> parsedAdvancements = new HashMap<>();
+    private static ExecutorService executor = null;
 
     public static void init() {
-        guildTerritoryHashMap = new ConcurrentHashMap<>();
+        guildTerritoryHashMap = Map.of();
+        executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("wynntils-guild-territories-%d")
+                .setDaemon(true)
+                .build());
     }
 
     public static void disable() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+
         guildTerritoryHashMap = Map.of();
     }
 
     @SubscribeEvent
     public static void onAdvancementUpdate(AdvancementUpdateEvent event) {
-        Map<String, GuildTerritoryInfo> tempMap = new HashMap<>();
+        if (executor == null) return;
+
+        boolean reset = event.isReset();
+        Map<ResourceLocation, Advancement.Builder> added = Map.copyOf(event.getAdded());
+        Set<ResourceLocation> removed = Set.copyOf(event.getRemoved());
+
+        executor.execute(() -> {
+            try {
+                processAdvancements(reset, added, removed);
+            } catch (RuntimeException e) {
+                WynntilsMod.error("Failed to parse guild territory advancements.", e);
+            }
+        });
+    }
+
+    @SubscribeEvent
+    public static void onTerritoryOwnerChanged(TerritoryOwnerChangedEvent event) {
+        if (executor == null) return;
+
+        // The guild map shows the owner from the territory profile, so pair the pois with the new profiles
+        executor.execute(() -> {
+            try {
+                publishTerritories();
+            } catch (RuntimeException e) {
+                WynntilsMod.error("Failed to update guild territories.", e);
+            }
+        });
+    }
+
+    private static void processAdvancements(
+            boolean reset, Map<ResourceLocation, Advancement.Builder> added, Set<ResourceLocation> removed) {
+        if (reset) {
+            parsedAdvancements.keySet().retainAll(added.keySet());
+        }
+        parsedAdvancements.keySet().removeAll(removed);
+
+        for (Map.Entry<ResourceLocation, Advancement.Builder> entry : added.entrySet()) {
+            entry.getValue().parent((ResourceLocation) null);
+            Advancement built = entry.getValue().build(entry.getKey());
+
+            DisplayInfo display = built.getDisplay();
+            if (display == null) {
+                parsedAdvancements.remove(entry.getKey());
+                continue;
+            }
 
-        for (Map.Entry<ResourceLocation, Advancement.Builder> added :
-                event.getAdded().entrySet()) {
-            added.getValue().parent((ResourceLocation) null);
-            Advancement built = added.getValue().build(added.getKey());
+            ParsedAdvancement previous = parsedAdvancements.get(entry.getKey());
+            int displayHash = Objects.hash(display.getTitle(), display.getDescription(), display.getFrame());
 
-            if (built.getDisplay() == null) continue;
+            // Do not parse the same display twice
+            if (previous != null && previous.isSameDisplay(displayHash, display)) continue;
 
-            String territoryName = ComponentUtils.getUnformatted(
-                            built.getDisplay().getTitle())
-                    .replace("[", "")
-                    .replace("]", "")
-                    .trim();
+            parsedAdvancements.put(entry.getKey(), parseAdvancement(displayHash, display));
+        }
+
+        publishTerritories();
+    }
 
-            // Do not parse same thing twice
-            if (tempMap.containsKey(territoryName)) continue;
+    private static void publishTerritories() {
+        Map<String, TerritoryPoi> oldTerritories = guildTerritoryHashMap;
+        Map<String, TerritoryPoi> newTerritories = new HashMap<>();
+        Set<String> seenNames = new HashSet<>();
 
+        for (ParsedAdvancement parsed : parsedAdvancements.values()) {
             // ignore empty display texts they are used to generate the "lines"
-            if (territoryName.isEmpty()) continue;
+            if (parsed.territoryInfo() == null) continue;
 
-            // headquarters frame is challenge
-            boolean headquarters = built.getDisplay().getFrame() == FrameType.CHALLENGE;
+            // Only the first advancement of a territory counts
+            if (!seenNames.add(parsed.territoryName())) continue;
 
-            // description is a raw string with \n, so we have to split
-            String description = ComponentUtils.getCoded(built.getDisplay().getDescription());
-            String[] colored = description.split("\n");
-            String[] raw = ComponentUtils.stripFormatting(description).split("\n");
+            TerritoryProfile territoryProfile = TerritoryManager.getTerritories().get(parsed.territoryName());
+            if (territoryProfile == null) continue;
 
-            GuildTerritoryInfo container = new GuildTerritoryInfo(raw, colored, headquarters);
-            tempMap.put(territoryName, container);
+            // Reuse the poi, unless the territory or its owner changed
+            TerritoryPoi territoryPoi = oldTerritories.get(parsed.territoryName());
+            if (territoryPoi == null
+                    || territoryPoi.getTerritoryInfo() != parsed.territoryInfo()
+                    || territoryPoi.getTerritoryProfile() != territoryProfile) {
+                territoryPoi = new TerritoryPoi(territoryProfile, parsed.territoryInfo());
+            }
+
+            newTerritories.put(parsed.territoryName(), territoryPoi);
         }
 
-        for (Map.Entry<String, GuildTerritoryInfo> entry : tempMap.entrySet()) {
-            TerritoryProfile territoryProfile =
-                    TerritoryManager.getTerritories().get(entry.getKey());
+        guildTerritoryHashMap = Map.copyOf(newTerritories);
+    }
 
-            if (territoryProfile == null) continue;
+    private static ParsedAdvancement parseAdvancement(int displayHash, DisplayInfo display) {
+        String territoryName = ComponentUtils.getUnformatted(display.getTitle())
+                .replace("[", "")
+                .replace("]", "")
+                .trim();
 
-            guildTerritoryHashMap.put(entry.getKey(), new TerritoryPoi(territoryProfile, entry.getValue()));
+        if (territoryName.isEmpty()) {
+            return new ParsedAdvancement(displayHash, display.getTitle(), display.getDescription(), "", null);
         }
+
+        // headquarters frame is challenge
+        boolean headquarters = display.getFrame() == FrameType.CHALLENGE;
+
+        // description is a raw string with \n, so we have to split
+        String description = ComponentUtils.getCoded(display.getDescription());
+        String[] colored = description.split("\n");
+        String[] raw = ComponentUtils.stripFormatting(description).split("\n");
+
+        GuildTerritoryInfo territoryInfo = new GuildTerritoryInfo(raw, colored, headquarters);
+        return new ParsedAdvancement(
+                displayHash, display.getTitle(), display.getDescription(), territoryName, territoryInfo);
     }
 
     public static Collection<TerritoryPoi> getGuildTerritoryPois() {
@@ -83,4 +177,19 @@ public class GuildTerritoryModel extends Model {
     public static Map<String, TerritoryPoi> getGuildTerritoryMap() {
         return guildTerritoryHashMap;
     }
+
+    private record ParsedAdvancement(
+            int displayHash,
+            Component title,
+            Component description,
+            String territoryName,
+            GuildTerritoryInfo territoryInfo) {
+        private boolean isSameDisplay(int otherHash, DisplayInfo display) {
+            return displayHash == otherHash
+                    && title.equals(display.getTitle())
+                    && description.equals(display.getDescription())
+                    && (territoryInfo == null
+                            || territoryInfo.isHeadquarters() == (display.getFrame() == FrameType.CHALLENGE));
+        }
+    }
 }
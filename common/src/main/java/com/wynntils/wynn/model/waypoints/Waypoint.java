@@ -0,0 +1,113 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.waypoints;
+
+import com.wynntils.mc.objects.CustomColor;
+import com.wynntils.mc.objects.Location;
+import java.util.function.Supplier;
+
+/**
+ * A named, coloured point in the world that is pointed at with beams and distance labels. The
+ * location is asked for once per tick by {@link WaypointModel}, so suppliers may follow things that
+ * move, like a party member.
+ */
+public class Waypoint {
+    private final Kind kind;
+    private final Supplier<Location> locationSupplier;
+    private String name;
+    private CustomColor color;
+
+    // Resolved from the supplier once per tick, null while the waypoint has no location
+    private Location location = null;
+    private boolean occluded = false;
+
+    public Waypoint(Kind kind, String name, CustomColor color, Supplier<Location> locationSupplier) {
+        this.kind = kind;
+        this.name = name;
+        this.color = color;
+        this.locationSupplier = locationSupplier;
+    }
+
+    public Waypoint(Kind kind, String name, CustomColor color, Location location) {
+        this(kind, name, color, () -> location);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    protected void setName(String name) {
+        this.name = name;
+    }
+
+    public CustomColor getColor() {
+        return color;
+    }
+
+    protected void setColor(CustomColor color) {
+        this.color = color;
+    }
+
+    /**
+     * @return the location as of the last tick, or null if the waypoint has none
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    protected boolean updateLocation() {
+        location = locationSupplier.get();
+        return location != null;
+    }
+
+    /**
+     * @return true if blocks were between the eyes of the player and the waypoint as of the last
+     *     tick. Waypoints beyond the render distance are never occluded, as those blocks are not
+     *     loaded.
+     */
+    public boolean isOccluded() {
+        return occluded;
+    }
+
+    protected void setOccluded(boolean occluded) {
+        this.occluded = occluded;
+    }
+
+    public enum Kind {
+        COMPASS,
+        QUEST,
+        PARTY_MEMBER,
+        CUSTOM
+    }
+
+    /** The form custom waypoints are stored in between sessions */
+    public static final class Saved {
+        private String name;
+        private double x;
+        private double y;
+        private double z;
+        private CustomColor color;
+
+        protected Saved(Waypoint waypoint) {
+            Location location = waypoint.locationSupplier.get();
+
+            this.name = waypoint.name;
+            this.x = location.x;
+            this.y = location.y;
+            this.z = location.z;
+            this.color = waypoint.color;
+        }
+
+        protected Waypoint load() {
+            if (name == null || color == null) return null;
+
+            return new Waypoint(Kind.CUSTOM, name, color, new Location(x, y, z));
+        }
+    }
+}
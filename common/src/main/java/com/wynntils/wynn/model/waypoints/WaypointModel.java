@@ -0,0 +1,261 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.waypoints;
+
+import com.wynntils.core.config.ConfigManager;
+import com.wynntils.core.managers.Model;
+import com.wynntils.features.statemanaged.DataStorageFeature;
+import com.wynntils.mc.event.ClientTickEvent;
+import com.wynntils.mc.event.RenderLevelEvent;
+import com.wynntils.mc.objects.CommonColors;
+import com.wynntils.mc.objects.CustomColor;
+import com.wynntils.mc.objects.Location;
+import com.wynntils.mc.utils.McUtils;
+import com.wynntils.sockets.model.HadesUserModel;
+import com.wynntils.sockets.objects.HadesUser;
+import com.wynntils.wynn.event.CharacterUpdateEvent;
+import com.wynntils.wynn.event.WorldStateEvent;
+import com.wynntils.wynn.model.CharacterManager;
+import com.wynntils.wynn.model.CompassModel;
+import com.wynntils.wynn.model.quests.QuestInfo;
+import com.wynntils.wynn.model.quests.QuestManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.HitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * All waypoints that should be pointed at in the world: the compass target, the tracked quest,
+ * party members and any number of custom waypoints. Locations and whether blocks hide them are
+ * looked up once per tick, and all waypoints are projected to the screen once per frame, see
+ * {@link #getProjection()}.
+ *
+ * <p>Custom waypoints are stored per character.
+ */
+public final class WaypointModel extends Model {
+    // A block this close to the waypoint, like the one it stands on, does not hide it
+    private static final double OCCLUSION_TOLERANCE_SQR = 2 * 2;
+
+    private static final WaypointProjection projection = new WaypointProjection();
+
+    private static final Waypoint compassWaypoint = new Waypoint(
+            Waypoint.Kind.COMPASS,
+            "Compass",
+            CommonColors.RED,
+            () -> CompassModel.getCompassLocation().orElse(null));
+    private static final Waypoint questWaypoint = new Waypoint(
+            Waypoint.Kind.QUEST, "Quest", CommonColors.LIGHT_BLUE, QuestManager::getCurrentQuestLocation);
+    private static final Map<UUID, Waypoint> partyWaypoints = new HashMap<>();
+    private static final List<Waypoint> customWaypoints = new ArrayList<>();
+
+    // The waypoints that had a location as of the last tick
+    private static final List<Waypoint> activeWaypoints = new ArrayList<>();
+
+    private static String customWaypointsKey = null;
+
+    public static void init() {
+        loadCustomWaypoints();
+    }
+
+    public static void disable() {
+        activeWaypoints.clear();
+        partyWaypoints.clear();
+        projection.clear();
+    }
+
+    @SubscribeEvent
+    public static void onWorldStateChanged(WorldStateEvent e) {
+        customWaypointsKey = null;
+        customWaypoints.clear();
+        partyWaypoints.clear();
+        activeWaypoints.clear();
+        projection.clear();
+    }
+
+    @SubscribeEvent
+    public static void onCharacterUpdate(CharacterUpdateEvent e) {
+        loadCustomWaypoints();
+    }
+
+    @SubscribeEvent
+    public static void onTick(ClientTickEvent.Start e) {
+        activeWaypoints.clear();
+        if (McUtils.player() == null) return;
+
+        addIfPresent(compassWaypoint);
+
+        QuestInfo currentQuest = QuestManager.getCurrentQuest();
+        if (currentQuest != null) {
+            questWaypoint.setName(currentQuest.getName());
+
+            // The quest info overlay can point the compass at the quest already
+            if (questWaypoint.updateLocation() && !questWaypoint.getLocation().equals(compassWaypoint.getLocation())) {
+                activeWaypoints.add(questWaypoint);
+            }
+        }
+
+        updatePartyWaypoints();
+
+        for (Waypoint waypoint : customWaypoints) {
+            addIfPresent(waypoint);
+        }
+
+        updateOcclusion();
+    }
+
+    @SubscribeEvent
+    public static void onRenderLevelPost(RenderLevelEvent.Post event) {
+        projection.update(
+                event.getProjectionMatrix(),
+                event.getCamera(),
+                activeWaypoints,
+                McUtils.mc().options.renderDistance * 16);
+    }
+
+    public static WaypointProjection getProjection() {
+        return projection;
+    }
+
+    public static List<Waypoint> getActiveWaypoints() {
+        return Collections.unmodifiableList(activeWaypoints);
+    }
+
+    public static Optional<Waypoint> getNearestWaypoint(Vec3 position) {
+        Waypoint nearest = null;
+        double nearestDistanceSqr = Double.MAX_VALUE;
+
+        for (Waypoint waypoint : activeWaypoints) {
+            Location location = waypoint.getLocation();
+            double distanceSqr = position.distanceToSqr(location.x, location.y, location.z);
+            if (distanceSqr < nearestDistanceSqr) {
+                nearest = waypoint;
+                nearestDistanceSqr = distanceSqr;
+            }
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    public static List<Waypoint> getCustomWaypoints() {
+        return Collections.unmodifiableList(customWaypoints);
+    }
+
+    public static Optional<Waypoint> getCustomWaypoint(String name) {
+        return customWaypoints.stream()
+                .filter(waypoint -> waypoint.getName().equalsIgnoreCase(name))
+                .findFirst();
+    }
+
+    /** Adds a custom waypoint, replacing any other with the same name */
+    public static void addCustomWaypoint(String name, Location location, CustomColor color) {
+        customWaypoints.removeIf(waypoint -> waypoint.getName().equalsIgnoreCase(name));
+        customWaypoints.add(new Waypoint(Waypoint.Kind.CUSTOM, name, color, location));
+
+        saveCustomWaypoints();
+    }
+
+    public static boolean removeCustomWaypoint(String name) {
+        if (!customWaypoints.removeIf(waypoint -> waypoint.getName().equalsIgnoreCase(name))) return false;
+
+        saveCustomWaypoints();
+        return true;
+    }
+
+    public static void clearCustomWaypoints() {
+        customWaypoints.clear();
+
+        saveCustomWaypoints();
+    }
+
+    private static void addIfPresent(Waypoint waypoint) {
+        if (waypoint.updateLocation()) {
+            activeWaypoints.add(waypoint);
+        }
+    }
+
+    private static void updateOcclusion() {
+        LocalPlayer player = McUtils.player();
+        Vec3 eyes = player.getEyePosition();
+        double renderDistance = McUtils.mc().options.renderDistance * 16;
+
+        for (Waypoint waypoint : activeWaypoints) {
+            Location location = waypoint.getLocation();
+            Vec3 target = new Vec3(location.x + 0.5, location.y + 0.5, location.z + 0.5);
+            if (eyes.distanceToSqr(target) > renderDistance * renderDistance) {
+                waypoint.setOccluded(false);
+                continue;
+            }
+
+            BlockHitResult hit = player.level.clip(
+                    new ClipContext(eyes, target, ClipContext.Block.VISUAL, ClipContext.Fluid.NONE, player));
+            waypoint.setOccluded(hit.getType() != HitResult.Type.MISS
+                    && hit.getLocation().distanceToSqr(target) > OCCLUSION_TOLERANCE_SQR);
+        }
+    }
+
+    private static void updatePartyWaypoints() {
+        partyWaypoints
+                .entrySet()
+                .removeIf(entry -> HadesUserModel.getUser(entry.getKey())
+                        .map(user -> !user.isPartyMember())
+                        .orElse(true));
+
+        for (HadesUser user : HadesUserModel.getPartyMembers()) {
+            Waypoint waypoint = partyWaypoints.computeIfAbsent(
+                    user.getUuid(),
+                    uuid -> new Waypoint(
+                            Waypoint.Kind.PARTY_MEMBER,
+                            user.getName(),
+                            CommonColors.YELLOW,
+                            () -> new Location(user.getMapLocation())));
+
+            addIfPresent(waypoint);
+        }
+    }
+
+    private static void loadCustomWaypoints() {
+        CharacterManager.CharacterInfo characterInfo = CharacterManager.getCharacterInfo();
+        // Without the slot id (when auto-joining), waypoints are only kept for this session
+        if (characterInfo.getId() < 0 || McUtils.player() == null) return;
+
+        String key = McUtils.player().getStringUUID() + "/" + characterInfo.getId();
+        if (key.equals(customWaypointsKey)) return;
+
+        customWaypointsKey = key;
+        customWaypoints.clear();
+
+        List<Waypoint.Saved> saved = DataStorageFeature.INSTANCE.customWaypoints.get(key);
+        if (saved == null) return;
+
+        for (Waypoint.Saved savedWaypoint : saved) {
+            Waypoint waypoint = savedWaypoint.load();
+            if (waypoint == null) continue;
+
+            customWaypoints.add(waypoint);
+        }
+    }
+
+    private static void saveCustomWaypoints() {
+        if (customWaypointsKey == null) return;
+
+        if (customWaypoints.isEmpty()) {
+            DataStorageFeature.INSTANCE.customWaypoints.remove(customWaypointsKey);
+        } else {
+            DataStorageFeature.INSTANCE.customWaypoints.put(
+                    customWaypointsKey,
+                    customWaypoints.stream().map(Waypoint.Saved::new).toList());
+        }
+        ConfigManager.saveConfig();
+    }
+}
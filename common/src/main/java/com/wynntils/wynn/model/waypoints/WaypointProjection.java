@@ -0,0 +1,206 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.waypoints;
+
+import com.mojang.math.Matrix4f;
+import com.mojang.math.Vector3f;
+import com.mojang.math.Vector4f;
+import com.wynntils.mc.objects.Location;
+import java.util.Arrays;
+import java.util.List;
+import net.minecraft.client.Camera;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Where each waypoint ends up on screen this frame. All waypoints are projected in one go right
+ * after the level is rendered, into arrays that are reused from frame to frame, so that any number
+ * of features can read the result without projecting again or allocating anything per waypoint.
+ *
+ * <p>Indices are only valid until the next {@link #update}.
+ */
+public class WaypointProjection {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Vector4f clipCoords = new Vector4f();
+
+    private int count = 0;
+    private Waypoint[] waypoints = new Waypoint[INITIAL_CAPACITY];
+    // x, y and z of each waypoint, one after another
+    private float[] ndc = new float[INITIAL_CAPACITY * 3];
+    private double[] distances = new double[INITIAL_CAPACITY];
+    // Indices ordered by distance, nearest first
+    private int[] order = new int[INITIAL_CAPACITY];
+
+    // Labels are only rebuilt when the rounded distance or the name changes
+    private String[] labels = new String[INITIAL_CAPACITY];
+    private String[] labelNames = new String[INITIAL_CAPACITY];
+    private int[] labelDistances = new int[INITIAL_CAPACITY];
+
+    /**
+     * @param maxDistance waypoints further than this are pulled in horizontally before projecting,
+     *     so they do not end up past the far plane
+     */
+    protected void update(Matrix4f projectionMatrix, Camera camera, List<Waypoint> activeWaypoints, int maxDistance) {
+        Matrix4f viewProjection = getViewProjection(projectionMatrix, camera.getXRot(), camera.getYRot());
+        Vec3 cameraPos = camera.getPosition();
+
+        ensureCapacity(activeWaypoints.size());
+        int previousCount = count;
+        count = activeWaypoints.size();
+
+        for (int i = 0; i < count; i++) {
+            Waypoint waypoint = activeWaypoints.get(i);
+            Location location = waypoint.getLocation();
+
+            // offset to put text to the center of the block
+            float dx = (float) (location.x + 0.5 - cameraPos.x);
+            float dy = (float) (location.y + 0.5 - cameraPos.y);
+            float dz = (float) (location.z + 0.5 - cameraPos.z);
+
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            distances[i] = distance;
+            updateLabel(i, waypoint, Math.round((float) distance));
+            waypoints[i] = waypoint;
+
+            // move the position to avoid ndc z leak past 1
+            if (distance > maxDistance) {
+                float posScale = (float) (maxDistance / distance);
+                dx *= posScale;
+                dz *= posScale;
+            }
+
+            project(viewProjection, dx, dy, dz, clipCoords, ndc, i * 3);
+        }
+
+        sortByDistance(previousCount);
+    }
+
+    /**
+     * @param xRot the pitch of the camera in degrees, positive when looking down
+     * @param yRot the yaw of the camera in degrees, 0 when looking south
+     * @return a new matrix, the projection matrix with the camera rotation applied
+     */
+    public static Matrix4f getViewProjection(Matrix4f projectionMatrix, float xRot, float yRot) {
+        Matrix4f viewProjection = projectionMatrix.copy();
+        viewProjection.multiply(Vector3f.XP.rotationDegrees(xRot));
+        viewProjection.multiply(Vector3f.YP.rotationDegrees(yRot + 180.0F));
+        return viewProjection;
+    }
+
+    /**
+     * Projects a position relative to the camera into normalized device coordinates.
+     *
+     * @param viewProjection the projection matrix with the camera rotation applied
+     * @param scratch any vector, it is overwritten
+     * @param out receives x, y and z starting at the offset
+     */
+    public static void project(
+            Matrix4f viewProjection, float dx, float dy, float dz, Vector4f scratch, float[] out, int offset) {
+        scratch.set(dx, dy, dz, 1.0f);
+        scratch.transform(viewProjection);
+
+        out[offset] = scratch.x() / scratch.w();
+        out[offset + 1] = scratch.y() / scratch.w();
+        out[offset + 2] = scratch.z() / scratch.w();
+    }
+
+    protected void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param rank 0 for the nearest waypoint, 1 for the one after it, and so on
+     * @return the index of the waypoint with that rank
+     */
+    public int getIndexByDistance(int rank) {
+        return order[rank];
+    }
+
+    public Waypoint getWaypoint(int index) {
+        return waypoints[index];
+    }
+
+    public float getNdcX(int index) {
+        return ndc[index * 3];
+    }
+
+    public float getNdcY(int index) {
+        return ndc[index * 3 + 1];
+    }
+
+    public float getNdcZ(int index) {
+        return ndc[index * 3 + 2];
+    }
+
+    public double getDistance(int index) {
+        return distances[index];
+    }
+
+    /** The distance, preceded by the name for everything but the compass */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * @return false for waypoints behind the camera that would otherwise be mirrored onto the screen
+     */
+    public boolean isInFront(int index) {
+        float x = getNdcX(index);
+        float y = getNdcY(index);
+
+        return !(x <= 1 && x >= -1 && y <= 1 && y >= -1 && getNdcZ(index) > 1);
+    }
+
+    private void updateLabel(int index, Waypoint waypoint, int roundedDistance) {
+        if (labels[index] != null
+                && waypoints[index] == waypoint
+                && labelDistances[index] == roundedDistance
+                && labelNames[index] == waypoint.getName()) return;
+
+        labels[index] = waypoint.getKind() == Waypoint.Kind.COMPASS
+                ? roundedDistance + "m"
+                : waypoint.getName() + " " + roundedDistance + "m";
+        labelNames[index] = waypoint.getName();
+        labelDistances[index] = roundedDistance;
+    }
+
+    // Insertion sort, as the order barely changes from one frame to the next
+    private void sortByDistance(int previousCount) {
+        // The old order is only a permutation of the current indices if the count is unchanged
+        if (count != previousCount) {
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+        }
+
+        for (int i = 1; i < count; i++) {
+            int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && distances[order[j]] > distances[index]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= waypoints.length) return;
+
+        int capacity = Math.max(size, waypoints.length * 2);
+        waypoints = Arrays.copyOf(waypoints, capacity);
+        ndc = Arrays.copyOf(ndc, capacity * 3);
+        distances = Arrays.copyOf(distances, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        labelNames = Arrays.copyOf(labelNames, capacity);
+        labelDistances = Arrays.copyOf(labelDistances, capacity);
+
+        order = Arrays.copyOf(order, capacity);
+    }
+}
@@ -4,6 +4,7 @@
  */
 package com.wynntils.wynn.objects;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 public record BombInfo(String user, BombType bomb, String server, long startTime) {
@@ -24,4 +25,10 @@ public record BombInfo(String user, BombType bomb, String server, long startTime
         // match user, bomb type, and server, ignoring time
         return user.equals(bombInfo.user()) && bomb == bombInfo.bomb() && server.equals(bombInfo.server());
     }
+
+    @Override
+    public int hashCode() {
+        // Must agree with equals, so also ignores time
+        return Objects.hash(user, bomb, server);
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.objects;
+
+import com.wynntils.core.webapi.profiles.item.IdentificationProfile;
+import com.wynntils.core.webapi.profiles.item.ItemTier;
+import com.wynntils.mc.utils.ComponentUtils;
+import com.wynntils.mc.utils.ItemUtils;
+import com.wynntils.wynn.item.GearItemStack;
+import com.wynntils.wynn.item.WynnItemStack;
+import com.wynntils.wynn.item.properties.ItemProperty;
+import com.wynntils.wynn.item.properties.ItemTierProperty;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Search index over the container slots of an open menu (the player inventory is not indexed).
+ *
+ * <p>Each slot's searchable text is normalized once, when the slot is indexed, and matches are
+ * kept in a bitset keyed by menu slot index. Changed slots only need to be invalidated; they are
+ * re-indexed and re-filtered on the next {@link #refresh()}.
+ *
+ * <p>A search is made of whitespace separated terms. Terms prefixed with {@code lore:},
+ * {@code rarity:} (or {@code tier:}) and {@code id:} match against the item lore, tier and
+ * identification names; all other terms together form a phrase that must appear in the item name.
+ * Every term must match for a slot to match.
+ */
+public class ContainerSearchIndex {
+    private final AbstractContainerMenu menu;
+    private final IndexedSlot[] slots;
+
+    private final BitSet indexableSlots = new BitSet();
+    private final BitSet staleSlots = new BitSet();
+    private final BitSet matches = new BitSet();
+
+    private SearchQuery query = SearchQuery.EMPTY;
+
+    public ContainerSearchIndex(AbstractContainerMenu menu) {
+        this.menu = menu;
+        this.slots = new IndexedSlot[menu.slots.size()];
+
+        for (Slot slot : menu.slots) {
+            if (slot.container instanceof Inventory) continue;
+
+            indexableSlots.set(slot.index);
+        }
+
+        staleSlots.or(indexableSlots);
+    }
+
+    public boolean isFor(AbstractContainerMenu menu) {
+        return this.menu == menu;
+    }
+
+    public int getContainerId() {
+        return menu.containerId;
+    }
+
+    public void invalidateAll() {
+        staleSlots.or(indexableSlots);
+    }
+
+    public void invalidateSlot(int slot) {
+        if (slot >= 0 && indexableSlots.get(slot)) {
+            staleSlots.set(slot);
+        }
+    }
+
+    /**
+     * Changes the search and re-filters every slot
+     *
+     * @return whether any slot matches the new search
+     */
+    public boolean setQuery(String search) {
+        query = SearchQuery.parse(search);
+
+        reindexStaleSlots();
+
+        matches.clear();
+        if (query.isEmpty()) return false;
+
+        for (int slot = indexableSlots.nextSetBit(0); slot >= 0; slot = indexableSlots.nextSetBit(slot + 1)) {
+            if (query.matches(slots[slot])) {
+                matches.set(slot);
+            }
+        }
+
+        return !matches.isEmpty();
+    }
+
+    /**
+     * Re-indexes and re-filters the slots invalidated since the last refresh
+     *
+     * @return whether any of those slots now match the search
+     */
+    public boolean refresh() {
+        if (staleSlots.isEmpty()) return false;
+
+        BitSet refreshed = (BitSet) staleSlots.clone();
+        reindexStaleSlots();
+
+        boolean foundMatch = false;
+        for (int slot = refreshed.nextSetBit(0); slot >= 0; slot = refreshed.nextSetBit(slot + 1)) {
+            boolean match = query.matches(slots[slot]);
+            matches.set(slot, match);
+            foundMatch |= match;
+        }
+
+        return foundMatch;
+    }
+
+    public boolean isMatch(int slot) {
+        return matches.get(slot);
+    }
+
+    private void reindexStaleSlots() {
+        for (int slot = staleSlots.nextSetBit(0); slot >= 0; slot = staleSlots.nextSetBit(slot + 1)) {
+            slots[slot] = IndexedSlot.of(menu.getSlot(slot).getItem());
+        }
+
+        staleSlots.clear();
+    }
+
+    private record IndexedSlot(String name, String lore, String tier, String identifications) {
+        private static IndexedSlot of(ItemStack item) {
+            if (item.isEmpty()) return null;
+
+            String name = normalize(ComponentUtils.getUnformatted(item.getHoverName()));
+            String lore = normalize(ComponentUtils.stripFormatting(String.join("\n", ItemUtils.getLore(item))));
+
+            ItemTier tier = null;
+            if (item instanceof WynnItemStack wynnItemStack) {
+                ItemTierProperty tierProperty = wynnItemStack.getProperty(ItemProperty.ITEM_TIER);
+                if (tierProperty != null) {
+                    tier = tierProperty.getTier();
+                }
+            }
+
+            StringBuilder identifications = new StringBuilder();
+            if (item instanceof GearItemStack gearItem) {
+                for (ItemIdentificationContainer id : gearItem.getIdentifications()) {
+                    identifications
+                            .append(id.shortIdName())
+                            .append('\n')
+                            .append(IdentificationProfile.getAsLongName(id.shortIdName()))
+                            .append('\n');
+                }
+            }
+
+            return new IndexedSlot(
+                    name,
+                    lore,
+                    tier == null ? "" : normalize(tier.name()),
+                    normalize(identifications.toString()));
+        }
+    }
+
+    private record SearchQuery(String name, List<String> lore, List<String> tiers, List<String> identifications) {
+        private static final SearchQuery EMPTY = new SearchQuery("", List.of(), List.of(), List.of());
+
+        private static SearchQuery parse(String search) {
+            String normalized = normalize(search).trim();
+            if (normalized.isEmpty()) return EMPTY;
+
+            List<String> nameWords = new ArrayList<>();
+            List<String> lore = new ArrayList<>();
+            List<String> tiers = new ArrayList<>();
+            List<String> identifications = new ArrayList<>();
+
+            for (String term : normalized.split("\\s+")) {
+                if (term.startsWith("lore:")) {
+                    addTerm(lore, term.substring(5));
+                } else if (term.startsWith("rarity:")) {
+                    addTerm(tiers, term.substring(7));
+                } else if (term.startsWith("tier:")) {
+                    addTerm(tiers, term.substring(5));
+                } else if (term.startsWith("id:")) {
+                    addTerm(identifications, term.substring(3));
+                } else {
+                    nameWords.add(term);
+                }
+            }
+
+            return new SearchQuery(String.join(" ", nameWords), lore, tiers, identifications);
+        }
+
+        private static void addTerm(List<String> terms, String term) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+
+        private boolean isEmpty() {
+            return name.isEmpty() && lore.isEmpty() && tiers.isEmpty() && identifications.isEmpty();
+        }
+
+        private boolean matches(IndexedSlot slot) {
+            if (slot == null || isEmpty()) return false;
+            if (!slot.name().contains(name)) return false;
+
+            for (String term : lore) {
+                if (!slot.lore().contains(term)) return false;
+            }
+            for (String term : tiers) {
+                if (!slot.tier().startsWith(term)) return false;
+            }
+            for (String term : identifications) {
+                if (!slot.identifications().contains(term)) return false;
+            }
+
+            return true;
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
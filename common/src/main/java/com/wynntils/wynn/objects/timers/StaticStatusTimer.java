@@ -9,13 +9,27 @@ public class StaticStatusTimer extends StatusTimer {
     private String displayedTime; // The displayed time remaining. Allows for xx:xx for infinite time effects.
     private String prefix; // The prefix to display before the name. Not included in identifying name.
 
-    private final String fullName;
+    private String fullName;
 
     public StaticStatusTimer(String prefix, String name, String displayedTime) {
         super(name);
         this.prefix = prefix;
         this.displayedTime = displayedTime;
-        this.fullName = getPrefix() + " " + getName() + " " + getDisplayedTime();
+        updateFullName();
+    }
+
+    /**
+     * Updates the prefix and time remaining in place, keeping this timer instance stable.
+     *
+     * @return Whether anything changed
+     */
+    public boolean update(String prefix, String displayedTime) {
+        if (this.prefix.equals(prefix) && this.displayedTime.equals(displayedTime)) return false;
+
+        this.prefix = prefix;
+        this.displayedTime = displayedTime;
+        updateFullName();
+        return true;
     }
 
     /**
@@ -30,6 +44,7 @@ public class StaticStatusTimer extends StatusTimer {
      */
     public void setDisplayedTime(String displayedTime) {
         this.displayedTime = displayedTime;
+        updateFullName();
     }
 
     /**
@@ -44,10 +59,15 @@ public class StaticStatusTimer extends StatusTimer {
      */
     public void setPrefix(String prefix) {
         this.prefix = prefix;
+        updateFullName();
     }
 
     @Override
     public String asString() {
         return fullName;
     }
+
+    private void updateFullName() {
+        fullName = prefix + " " + getName() + " " + displayedTime;
+    }
 }
@@ -94,31 +94,39 @@ public final class ContainerUtils {
         int emeralds = 0;
 
         for (ItemStack itemStack : containerMenu.getItems()) {
-            if (itemStack.isEmpty()) continue;
-
-            if (WynnItemMatchers.isEmeraldPouch(itemStack)) {
-                emeralds += EmeraldPouchParser.getPouchUsage(itemStack);
-                continue;
-            }
-
-            Item item = itemStack.getItem();
-            if (item != Items.EMERALD && item != Items.EMERALD_BLOCK && item != Items.EXPERIENCE_BOTTLE) {
-                continue;
-            }
-
-            String displayName = ComponentUtils.getCoded(itemStack.getHoverName());
-            if (item == Items.EMERALD && displayName.equals(ChatFormatting.GREEN + "Emerald")) {
-                emeralds += itemStack.getCount();
-            } else if (item == Items.EMERALD_BLOCK && displayName.equals(ChatFormatting.GREEN + "Emerald Block")) {
-                emeralds += itemStack.getCount() * 64;
-            } else if (item == Items.EXPERIENCE_BOTTLE && displayName.equals(ChatFormatting.GREEN + "Liquid Emerald")) {
-                emeralds += itemStack.getCount() * (64 * 64);
-            }
+            emeralds += getEmeraldValue(itemStack);
         }
 
         return emeralds;
     }
 
+    /**
+     * @return the number of emeralds the item stack is worth, counting emerald pouch contents
+     */
+    public static int getEmeraldValue(ItemStack itemStack) {
+        if (itemStack.isEmpty()) return 0;
+
+        if (WynnItemMatchers.isEmeraldPouch(itemStack)) {
+            return EmeraldPouchParser.getPouchUsage(itemStack);
+        }
+
+        Item item = itemStack.getItem();
+        if (item != Items.EMERALD && item != Items.EMERALD_BLOCK && item != Items.EXPERIENCE_BOTTLE) {
+            return 0;
+        }
+
+        String displayName = ComponentUtils.getCoded(itemStack.getHoverName());
+        if (item == Items.EMERALD && displayName.equals(ChatFormatting.GREEN + "Emerald")) {
+            return itemStack.getCount();
+        } else if (item == Items.EMERALD_BLOCK && displayName.equals(ChatFormatting.GREEN + "Emerald Block")) {
+            return itemStack.getCount() * 64;
+        } else if (item == Items.EXPERIENCE_BOTTLE && displayName.equals(ChatFormatting.GREEN + "Liquid Emerald")) {
+            return itemStack.getCount() * (64 * 64);
+        }
+
+        return 0;
+    }
+
     public static void closeContainer(int containerId) {
         McUtils.sendPacket(new ServerboundContainerClosePacket(containerId));
     }
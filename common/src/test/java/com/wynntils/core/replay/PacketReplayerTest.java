@@ -0,0 +1,232 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.testing.EventBusFixture;
+import com.wynntils.testing.MinecraftFixture;
+import com.wynntils.wynn.model.ActionBarModel;
+import com.wynntils.wynn.model.WorldStateManager;
+import com.wynntils.wynn.model.scoreboard.ScoreboardModel;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.ChatType;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.network.protocol.game.ClientboundChatPacket;
+import net.minecraft.network.protocol.game.ClientboundSetScorePacket;
+import net.minecraft.server.ServerScoreboard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PacketReplayerTest {
+    private static final int UNKNOWN_PACKET_ID = 0x3FFF;
+
+    @BeforeAll
+    public static void setUpAll() {
+        MinecraftFixture.bootstrap();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        EventBusFixture.install(WorldStateManager.class, ActionBarModel.class, ScoreboardModel.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        EventBusFixture.uninstall();
+    }
+
+    @Test
+    public void replaysPacketsInOrder() throws IOException {
+        RecordingBuilder recording = new RecordingBuilder()
+                .add(0, chat("§7[1] First", ChatType.CHAT))
+                .add(150, chat("§c❤ 100/100    §b✺ 20/20", ChatType.GAME_INFO))
+                .add(2000, chat("Second", ChatType.SYSTEM));
+
+        List<Packet<?>> replayed = new ArrayList<>();
+        PacketReplayer.ReplayReport report = PacketReplayer.replay(recording.build(), replayed::add);
+
+        assertEquals(3, report.packetCount());
+        assertEquals(0, report.failedCount());
+        assertEquals(2150, report.recordedMillis());
+        assertEquals(List.of(), report.modelState());
+        assertEquals(List.of(), report.timings());
+
+        assertEquals(3, replayed.size());
+        assertChat(replayed.get(0), "§7[1] First", ChatType.CHAT);
+        assertChat(replayed.get(1), "§c❤ 100/100    §b✺ 20/20", ChatType.GAME_INFO);
+        assertChat(replayed.get(2), "Second", ChatType.SYSTEM);
+    }
+
+    @Test
+    public void replayUpdatesModelsOnAWorldAndResetsThemAfterwards() throws IOException {
+        RecordingBuilder recording = new RecordingBuilder()
+                .add(0, chat("§c❤ 1834/2310§0    §7-1532§f N §7-5467    §b✺ 87/120", ChatType.GAME_INFO))
+                .add(0, score("§b§lTracked Quest:", 7))
+                .add(0, score("§7Speak with the guard", 6))
+                .add(0, score("À", 5))
+                .add(0, score("§e§lParty:§7 [Lv. 50]", 4))
+                .add(0, score("§fCaptain", 3))
+                .add(0, score("ÀÀ", 2))
+                // Resent as is, so only the first one is parsed
+                .add(100, chat("§c❤ 1834/2310§0    §7-1532§f N §7-5467    §b✺ 87/120", ChatType.GAME_INFO))
+                .add(150, chat("§c❤ 1790/2310§0    §7-1530§f N §7-5467    §b✺ 80/120", ChatType.GAME_INFO));
+
+        PacketReplayer.ReplayReport report = PacketReplayer.replayIntoModels(recording.build());
+
+        assertEquals(9, report.packetCount());
+        assertEquals(0, report.failedCount());
+        assertTrue(report.modelState().contains("World state: WORLD"), report.modelState()::toString);
+        assertTrue(report.modelState().contains("Health: 1790/2310, mana: 80/120"), report.modelState()::toString);
+        assertTrue(report.modelState().contains("Scoreboard segments: Quest, Party"), report.modelState()::toString);
+
+        assertEquals(3, getTiming(report, "ActionBarModel.onActionBarUpdate").getCount());
+        assertEquals(6, getTiming(report, "ScoreboardModel.onSetScore").getCount());
+
+        // Leaving the replay world resets the models
+        assertEquals(WorldStateManager.State.NOT_CONNECTED, WorldStateManager.getCurrentState());
+        assertEquals(-1, ActionBarModel.getCurrentHealth());
+        assertEquals(-1, ActionBarModel.getMaxMana());
+        assertEquals(List.of(), ScoreboardModel.getSegments());
+    }
+
+    @Test
+    public void unknownPacketsAreCountedAndSkipped() throws IOException {
+        RecordingBuilder recording = new RecordingBuilder()
+                .addRaw(10, UNKNOWN_PACKET_ID, new byte[] {1, 2, 3})
+                .add(10, chat("After", ChatType.CHAT));
+
+        List<Packet<?>> replayed = new ArrayList<>();
+        PacketReplayer.ReplayReport report = PacketReplayer.replay(recording.build(), replayed::add);
+
+        assertEquals(2, report.packetCount());
+        assertEquals(1, report.failedCount());
+        assertEquals(1, replayed.size());
+        assertChat(replayed.get(0), "After", ChatType.CHAT);
+    }
+
+    @Test
+    public void failingSinkDoesNotStopTheReplay() throws IOException {
+        RecordingBuilder recording = new RecordingBuilder()
+                .add(0, chat("Fails", ChatType.CHAT))
+                .add(0, chat("Works", ChatType.CHAT));
+
+        List<Packet<?>> replayed = new ArrayList<>();
+        PacketReplayer.ReplayReport report = PacketReplayer.replay(recording.build(), packet -> {
+            if (((ClientboundChatPacket) packet).getMessage().getString().equals("Fails")) {
+                throw new IllegalStateException("Handler failure");
+            }
+            replayed.add(packet);
+        });
+
+        assertEquals(2, report.packetCount());
+        assertEquals(1, report.failedCount());
+        assertEquals(1, replayed.size());
+    }
+
+    @Test
+    public void rejectsOtherFiles() {
+        assertThrows(
+                IOException.class,
+                () -> PacketReplayer.replay(
+                        new RecordingBuilder(0x12345678, PacketRecorder.FORMAT_VERSION).build(), packet -> {}));
+        assertThrows(
+                IOException.class,
+                () -> PacketReplayer.replay(
+                        new RecordingBuilder(PacketRecorder.MAGIC, PacketRecorder.FORMAT_VERSION + 1).build(),
+                        packet -> {}));
+    }
+
+    private static ClientboundChatPacket chat(String message, ChatType type) {
+        return new ClientboundChatPacket(new TextComponent(message), type, new UUID(0, 0));
+    }
+
+    private static ClientboundSetScorePacket score(String line, int index) {
+        return new ClientboundSetScorePacket(ServerScoreboard.Method.CHANGE, "sidebar", line, index);
+    }
+
+    private static PacketReplayer.ListenerTiming getTiming(PacketReplayer.ReplayReport report, String listenerName) {
+        return report.timings().stream()
+                .filter(timing -> timing.getListenerName().equals(listenerName))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No timing for " + listenerName + " in " + report.timings()));
+    }
+
+    private static void assertChat(Packet<?> packet, String message, ChatType type) {
+        ClientboundChatPacket chatPacket = assertInstanceOf(ClientboundChatPacket.class, packet);
+        Component expected = new TextComponent(message);
+
+        assertEquals(expected, chatPacket.getMessage());
+        assertEquals(type, chatPacket.getType());
+    }
+
+    /** Writes recordings in the format of {@link PacketRecorder}, independently of it */
+    private static final class RecordingBuilder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream output;
+
+        private RecordingBuilder() {
+            this(PacketRecorder.MAGIC, PacketRecorder.FORMAT_VERSION);
+        }
+
+        private RecordingBuilder(int magic, int version) {
+            try {
+                output = new DataOutputStream(new GZIPOutputStream(bytes));
+                output.writeInt(magic);
+                output.writeInt(version);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private RecordingBuilder add(int delay, Packet<?> packet) throws IOException {
+            FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            packet.write(buffer);
+            byte[] payload = new byte[buffer.readableBytes()];
+            buffer.readBytes(payload);
+
+            return addRaw(delay, ConnectionProtocol.PLAY.getPacketId(PacketFlow.CLIENTBOUND, packet), payload);
+        }
+
+        private RecordingBuilder addRaw(int delay, int packetId, byte[] payload) throws IOException {
+            writeVarInt(delay);
+            writeVarInt(packetId);
+            writeVarInt(payload.length);
+            output.write(payload);
+            return this;
+        }
+
+        private ByteArrayInputStream build() throws IOException {
+            output.close();
+            return new ByteArrayInputStream(bytes.toByteArray());
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+    }
+}
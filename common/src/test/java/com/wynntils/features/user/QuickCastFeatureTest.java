@@ -0,0 +1,207 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.features.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.features.user.QuickCastFeature.SpellDirection;
+import com.wynntils.testing.MinecraftFixture;
+import com.wynntils.wynn.objects.ClassType;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ServerboundSetCarriedItemPacket;
+import net.minecraft.network.protocol.game.ServerboundSwingPacket;
+import net.minecraft.network.protocol.game.ServerboundUseItemPacket;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class QuickCastFeatureTest {
+    // the four spells as the game documents them, R for right clicks and L for left clicks
+    private static final List<String> SPELLS = List.of("RLR", "RRR", "RLL", "RRL");
+    private static final List<ClassType> CLASSES =
+            List.of(ClassType.Mage, ClassType.Archer, ClassType.Warrior, ClassType.Assassin, ClassType.Shaman);
+
+    private static final int[] CLICK_DELAYS = {0, 1, 3, 5};
+    private static final int DEFAULT_DELAY = 3;
+
+    @BeforeAll
+    public static void setup() {
+        MinecraftFixture.bootstrap();
+    }
+
+    @Test
+    public void everySpellOfEveryClassIsClickedInOrder() {
+        for (ClassType classType : CLASSES) {
+            for (int spell = 0; spell < SPELLS.size(); spell++) {
+                for (int delay : CLICK_DELAYS) {
+                    String name = classType + " spell " + (spell + 1) + " delay " + delay;
+                    Harness harness = new Harness();
+
+                    assertNull(harness.queue(classType, spell), name);
+                    harness.runTicks(20, delay);
+
+                    int step = Math.max(delay, 1);
+                    String clicks = getClicks(classType, spell);
+                    List<String> expected = List.of(
+                            "1:" + clicks.charAt(0),
+                            (1 + step) + ":" + clicks.charAt(1),
+                            (1 + 2 * step) + ":" + clicks.charAt(2));
+                    assertEquals(expected, harness.packets, name);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bufferedSpellsFollowTheCurrentOne() {
+        for (ClassType classType : CLASSES) {
+            for (int first = 0; first < SPELLS.size(); first++) {
+                for (int second = 0; second < SPELLS.size(); second++) {
+                    String name = classType + " spells " + (first + 1) + " and " + (second + 1);
+                    Harness harness = new Harness();
+
+                    assertNull(harness.queue(classType, first), name);
+                    harness.runTicks(2, DEFAULT_DELAY);
+                    assertTrue(harness.scheduler.canQueue(0, true), name);
+                    assertFalse(harness.scheduler.canQueue(0, false), name);
+                    assertNull(harness.queue(classType, second), name);
+                    harness.runTicks(30, DEFAULT_DELAY);
+
+                    String clicks = getClicks(classType, first) + getClicks(classType, second);
+                    List<String> expected = new ArrayList<>();
+                    for (int i = 0; i < clicks.length(); i++) {
+                        expected.add((1 + i * DEFAULT_DELAY) + ":" + clicks.charAt(i));
+                    }
+                    assertEquals(expected, harness.packets, name);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void onlyOneSpellIsBuffered() {
+        Harness harness = new Harness();
+
+        assertNull(harness.queue(ClassType.Mage, 0));
+        harness.runTicks(1, DEFAULT_DELAY);
+        assertNull(harness.queue(ClassType.Mage, 1));
+        assertEquals("feature.wynntils.quickCast.anotherInProgress", harness.queue(ClassType.Mage, 2));
+
+        harness.runTicks(30, DEFAULT_DELAY);
+        assertEquals(List.of("1:R", "4:L", "7:R", "10:R", "13:R", "16:R"), harness.packets);
+    }
+
+    @Test
+    public void clicksComeFromTheSlotTheSpellWasCastWith() {
+        Harness harness = new Harness();
+
+        assertNull(harness.queue(ClassType.Warrior, 0));
+        harness.runTicks(1, DEFAULT_DELAY);
+
+        // the player scrolls to another slot while the spell is being cast
+        harness.slot = 4;
+        assertFalse(harness.scheduler.canQueue(4, true));
+        harness.runTicks(10, DEFAULT_DELAY);
+
+        assertEquals(
+                List.of("1:R", "4:slot 0", "4:L", "4:slot 4", "7:slot 0", "7:R", "7:slot 4"), harness.packets);
+
+        // once the spell is done, a new one is cast with the new slot
+        assertTrue(harness.scheduler.canQueue(4, true));
+        harness.packets.clear();
+        assertNull(harness.queue(ClassType.Warrior, 1));
+        harness.runTicks(10, DEFAULT_DELAY);
+        assertEquals(List.of("12:R", "15:R", "18:R"), harness.packets);
+    }
+
+    @Test
+    public void spellsInProgressAreContinued() {
+        Harness harness = new Harness();
+        harness.scheduler.updateSpellInProgress(new SpellDirection[] {SpellDirection.RIGHT});
+
+        assertNull(harness.queue(ClassType.Mage, 0));
+        harness.runTicks(10, DEFAULT_DELAY);
+        assertEquals(List.of("1:L", "4:R"), harness.packets);
+
+        // Wynncraft showing a full spell means it was cast
+        harness.scheduler.updateSpellInProgress(
+                new SpellDirection[] {SpellDirection.RIGHT, SpellDirection.LEFT, SpellDirection.RIGHT});
+        harness.packets.clear();
+        assertNull(harness.queue(ClassType.Mage, 1));
+        harness.runTicks(10, DEFAULT_DELAY);
+        assertEquals(List.of("11:R", "14:R", "17:R"), harness.packets);
+    }
+
+    @Test
+    public void incompatibleSpellsInProgressAreNotContinued() {
+        Harness harness = new Harness();
+        harness.scheduler.updateSpellInProgress(new SpellDirection[] {SpellDirection.LEFT});
+
+        assertEquals("feature.wynntils.quickCast.incompatibleInProgress", harness.queue(ClassType.Mage, 0));
+        // archer spells start with a left click
+        assertNull(harness.queue(ClassType.Archer, 0));
+        harness.runTicks(10, DEFAULT_DELAY);
+        assertEquals(List.of("1:R", "4:L"), harness.packets);
+    }
+
+    @Test
+    public void spellsInProgressTimeOut() {
+        Harness harness = new Harness();
+        harness.scheduler.updateSpellInProgress(new SpellDirection[] {SpellDirection.LEFT});
+
+        harness.runTicks(39, DEFAULT_DELAY);
+        assertEquals("feature.wynntils.quickCast.incompatibleInProgress", harness.queue(ClassType.Mage, 0));
+
+        harness.runTicks(1, DEFAULT_DELAY);
+        assertNull(harness.queue(ClassType.Mage, 0));
+        harness.runTicks(10, DEFAULT_DELAY);
+        assertEquals(List.of("41:R", "44:L", "47:R"), harness.packets);
+    }
+
+    private static String getClicks(ClassType classType, int spell) {
+        String clicks = SPELLS.get(spell);
+        if (classType != ClassType.Archer) return clicks;
+
+        // archers have their clicks inverted
+        return clicks.replace('R', 'x').replace('L', 'R').replace('x', 'L');
+    }
+
+    private static final class Harness {
+        private final QuickCastFeature.ClickScheduler scheduler = new QuickCastFeature.ClickScheduler(this::send);
+        private final List<String> packets = new ArrayList<>();
+        private int tick = 0;
+        private int slot = 0;
+
+        private String queue(ClassType classType, int spell) {
+            return scheduler.queue(QuickCastFeature.getSpell(classType == ClassType.Archer, spell), slot);
+        }
+
+        private void runTicks(int ticks, int clickDelayTicks) {
+            for (int i = 0; i < ticks; i++) {
+                tick++;
+                scheduler.tick(slot, clickDelayTicks);
+            }
+        }
+
+        private void send(Packet<?> packet) {
+            String description;
+            if (packet instanceof ServerboundUseItemPacket) {
+                description = "R";
+            } else if (packet instanceof ServerboundSwingPacket) {
+                description = "L";
+            } else if (packet instanceof ServerboundSetCarriedItemPacket setCarriedItem) {
+                description = "slot " + setCarriedItem.getSlot();
+            } else {
+                description = packet.getClass().getSimpleName();
+            }
+
+            packets.add(tick + ":" + description);
+        }
+    }
+}
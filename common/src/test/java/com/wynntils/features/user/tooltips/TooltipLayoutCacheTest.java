@@ -0,0 +1,117 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.features.user.tooltips;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.wynntils.testing.GearItemStackBuilder;
+import com.wynntils.testing.ItemFixture;
+import com.wynntils.wynn.item.GearItemStack;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.TextComponent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TooltipLayoutCacheTest {
+    // a fixed width font, as the real one needs a running client
+    private static final int CHAR_WIDTH = 6;
+
+    private static final int FRAMES = 2000;
+    private static final int[] SCREEN_WIDTHS = {320, 427, 480, 854, 1920};
+
+    @BeforeEach
+    public void setUp() {
+        ItemFixture.load();
+        GearItemStack.invalidateTooltips();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ItemFixture.restore();
+        GearItemStack.invalidateTooltips();
+    }
+
+    @Test
+    public void cachedLayoutMatchesFreshLayout() {
+        Random random = new Random(20221019L);
+        List<GearItemStack> items = List.of(
+                GearItemStackBuilder.of("Warp").build(),
+                GearItemStackBuilder.of("Epoch").build(),
+                GearItemStackBuilder.of("Moontower's Masterpiece").build());
+        TooltipFittingFeature.TooltipLayoutCache cache = createCache();
+
+        GearItemStack item = items.get(0);
+        int screenWidth = SCREEN_WIDTHS[0];
+        int mouseX = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            switch (random.nextInt(6)) {
+                case 0 -> item = items.get(random.nextInt(items.size()));
+                case 1 -> screenWidth = SCREEN_WIDTHS[random.nextInt(SCREEN_WIDTHS.length)];
+                case 2 -> mouseX = random.nextInt(screenWidth);
+                case 3 -> {
+                    // a new config generation changes the identification lines
+                    ItemStatInfoFeature.INSTANCE.decimalPlaces = random.nextInt(4);
+                    ItemStatInfoFeature.INSTANCE.showStars = random.nextBoolean();
+                    GearItemStack.invalidateTooltips();
+                }
+                default -> {
+                    // nothing changes between these frames, so the layout is reused as is
+                    List<Component> wrapped = cache.wrap(item, getTooltip(item), screenWidth, mouseX);
+                    assertSame(wrapped, cache.wrap(item, getTooltip(item), screenWidth, mouseX));
+                }
+            }
+
+            List<Component> tooltip = getTooltip(item);
+            String message = "frame " + frame + ", width " + screenWidth + ", mouse " + mouseX;
+            assertEquals(
+                    createCache().wrap(item, tooltip, screenWidth, mouseX),
+                    cache.wrap(item, tooltip, screenWidth, mouseX),
+                    message);
+        }
+    }
+
+    @Test
+    public void changedLinesAreRewrapped() {
+        GearItemStack item = GearItemStackBuilder.of("Warp").build();
+        TooltipFittingFeature.TooltipLayoutCache cache = createCache();
+
+        List<Component> tooltip = new ArrayList<>(getTooltip(item));
+        cache.wrap(item, tooltip, 320, 200);
+
+        // an animated name only changes the first line
+        tooltip.set(0, new TextComponent("A much longer name than the one the item had before"));
+        assertEquals(createCache().wrap(item, tooltip, 320, 200), cache.wrap(item, tooltip, 320, 200));
+    }
+
+    private static List<Component> getTooltip(GearItemStack item) {
+        List<Component> tooltip = new ArrayList<>();
+        tooltip.add(item.getHoverName());
+        tooltip.addAll(item.getPercentTooltip());
+        return tooltip;
+    }
+
+    private static TooltipFittingFeature.TooltipLayoutCache createCache() {
+        return new TooltipFittingFeature.TooltipLayoutCache(
+                line -> line.getString().length() * CHAR_WIDTH, TooltipLayoutCacheTest::split);
+    }
+
+    private static List<Component> split(Component line, int maxWidth) {
+        String text = line.getString();
+        int lineLength = Math.max(1, maxWidth / CHAR_WIDTH);
+
+        List<Component> split = new ArrayList<>();
+        for (int start = 0; start < text.length(); start += lineLength) {
+            split.add(new TextComponent(text.substring(start, Math.min(text.length(), start + lineLength)))
+                    .withStyle(line.getStyle()));
+        }
+        if (split.isEmpty()) split.add(new TextComponent(""));
+        return split;
+    }
+}
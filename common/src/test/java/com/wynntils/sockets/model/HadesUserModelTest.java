@@ -0,0 +1,174 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.sockets.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.sockets.objects.HadesUser;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HadesUserModelTest {
+    private static final int USER_COUNT = 64;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int UPDATES_PER_WRITER = 20000;
+
+    private final List<UUID> uuids = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        HadesUserModel.clear();
+
+        for (int i = 0; i < USER_COUNT; i++) {
+            uuids.add(new UUID(0, i));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        HadesUserModel.clear();
+    }
+
+    @Test
+    public void relationChangesRebuildSnapshots() {
+        UUID uuid = uuids.get(0);
+
+        update(uuid, true, false, false);
+        assertEquals(1, HadesUserModel.getUsers().size());
+        assertEquals(1, HadesUserModel.getPartyMembers().size());
+        assertTrue(HadesUserModel.getMutualFriends().isEmpty());
+
+        update(uuid, false, true, false);
+        assertTrue(HadesUserModel.getPartyMembers().isEmpty());
+        assertEquals(1, HadesUserModel.getMutualFriends().size());
+
+        assertSame(HadesUserModel.getUser(uuid).orElseThrow(), HadesUserModel.getUserByName(nameOf(uuid)).orElseThrow());
+
+        HadesUserModel.removeUser(uuid);
+        assertTrue(HadesUserModel.getUsers().isEmpty());
+        assertTrue(HadesUserModel.getMutualFriends().isEmpty());
+        assertTrue(HadesUserModel.getUserByName(nameOf(uuid)).isEmpty());
+    }
+
+    @Test
+    public void concurrentUpdatesKeepSnapshotsConsistent() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int i = 0; i < WRITERS; i++) {
+            Random random = new Random(i);
+            writers.add(new Thread(() -> {
+                await(start);
+                for (int j = 0; j < UPDATES_PER_WRITER; j++) {
+                    UUID uuid = uuids.get(random.nextInt(USER_COUNT));
+                    if (random.nextInt(10) == 0) {
+                        HadesUserModel.removeUser(uuid);
+                    } else {
+                        update(uuid, random.nextBoolean(), random.nextBoolean(), random.nextBoolean());
+                    }
+                }
+            }));
+        }
+
+        for (int i = 0; i < READERS; i++) {
+            readers.add(new Thread(() -> {
+                await(start);
+                while (writing.get()) {
+                    try {
+                        checkSnapshot();
+                    } catch (Throwable t) {
+                        failures.add(t);
+                        return;
+                    }
+                }
+            }));
+        }
+
+        writers.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.MINUTES.toMillis(1));
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join(TimeUnit.MINUTES.toMillis(1));
+        }
+
+        assertTrue(failures.isEmpty(), () -> "Reader failed: " + failures.peek());
+
+        // Once writes have settled, the snapshot must match the lookup maps exactly
+        List<HadesUser> users = HadesUserModel.getUsers();
+        Set<UUID> present = new HashSet<>();
+        for (UUID uuid : uuids) {
+            HadesUserModel.getUser(uuid).ifPresent(user -> {
+                present.add(uuid);
+                assertTrue(users.contains(user));
+                assertSame(user, HadesUserModel.getUserByName(nameOf(uuid)).orElseThrow());
+            });
+        }
+        assertEquals(present.size(), users.size());
+
+        assertEquals(
+                users.stream().filter(HadesUser::isPartyMember).toList(),
+                HadesUserModel.getPartyMembers());
+        assertEquals(
+                users.stream().filter(HadesUser::isMutualFriend).toList(),
+                HadesUserModel.getMutualFriends());
+        assertEquals(
+                users.stream().filter(HadesUser::isGuildMember).toList(),
+                HadesUserModel.getGuildMembers());
+    }
+
+    private static void checkSnapshot() {
+        // Iterating must never fail, and a user is listed at most once
+        checkNoDuplicates(HadesUserModel.getUsers());
+        checkNoDuplicates(HadesUserModel.getPartyMembers());
+        checkNoDuplicates(HadesUserModel.getMutualFriends());
+        checkNoDuplicates(HadesUserModel.getGuildMembers());
+    }
+
+    private static void checkNoDuplicates(List<HadesUser> users) {
+        Set<UUID> seen = new HashSet<>();
+        for (HadesUser user : users) {
+            assertTrue(seen.add(user.getUuid()), "Duplicate user in snapshot");
+        }
+    }
+
+    private static void update(UUID uuid, boolean party, boolean friend, boolean guild) {
+        HadesUserModel.updateUser(
+                uuid, nameOf(uuid), user -> user.update(0, 64, 0, 100, 100, 20, 20, party, friend, guild, 0));
+    }
+
+    private static String nameOf(UUID uuid) {
+        return "Player" + uuid.getLeastSignificantBits();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
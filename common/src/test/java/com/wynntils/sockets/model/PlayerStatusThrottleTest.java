@@ -0,0 +1,78 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.sockets.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.wynntils.sockets.objects.PlayerStatus;
+import org.junit.jupiter.api.Test;
+
+public class PlayerStatusThrottleTest {
+    private static final int TICKS = 200;
+
+    @Test
+    public void walkingSendsEveryMovingInterval() {
+        PlayerStatusThrottle throttle = new PlayerStatusThrottle();
+
+        int sent = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            // A little faster than walking speed
+            if (throttle.tick(tick * 0.3f, 64, 0, 100, 100, 20, 20) != null) sent++;
+        }
+
+        // The first tick always sends, after that every TICKS_PER_MOVING_UPDATE ticks
+        assertEquals(1 + (TICKS - 1) / PlayerStatusThrottle.TICKS_PER_MOVING_UPDATE, sent);
+    }
+
+    @Test
+    public void changingVitalsWhileStandingSendsEveryIdleInterval() {
+        PlayerStatusThrottle throttle = new PlayerStatusThrottle();
+
+        int sent = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (throttle.tick(0, 64, 0, 100 - tick % 50, 100, tick % 20, 20) != null) sent++;
+        }
+
+        assertEquals(1 + (TICKS - 1) / PlayerStatusThrottle.TICKS_PER_IDLE_UPDATE, sent);
+    }
+
+    @Test
+    public void unchangedStatusIsOnlySentOnce() {
+        PlayerStatusThrottle throttle = new PlayerStatusThrottle();
+
+        int sent = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            // Jitter well below the movement threshold
+            float jitter = tick % 2 == 0 ? 0.05f : -0.05f;
+            if (throttle.tick(jitter, 64, jitter, 100, 100, 20, 20) != null) sent++;
+        }
+
+        assertEquals(1, sent);
+    }
+
+    @Test
+    public void sentStatusMatchesInput() {
+        PlayerStatusThrottle throttle = new PlayerStatusThrottle();
+
+        PlayerStatus status = throttle.tick(1, 2, 3, 4, 5, 6, 7);
+
+        assertNotNull(status);
+        assertEquals(new PlayerStatus(1, 2, 3, 4, 5, 6, 7), status);
+    }
+
+    @Test
+    public void resetSendsImmediately() {
+        PlayerStatusThrottle throttle = new PlayerStatusThrottle();
+
+        assertNotNull(throttle.tick(0, 64, 0, 100, 100, 20, 20));
+        assertNull(throttle.tick(0, 64, 0, 100, 100, 20, 20));
+
+        throttle.reset();
+
+        assertNotNull(throttle.tick(0, 64, 0, 100, 100, 20, 20));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.sockets.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class HadesUserTest {
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void firstPositionIsNotInterpolated() {
+        HadesUser user = createUser();
+
+        move(user, 10, 64, 20, 1000);
+
+        assertEquals(10, user.getX(1000), DELTA);
+        assertEquals(64, user.getY(1000), DELTA);
+        assertEquals(20, user.getZ(1000), DELTA);
+    }
+
+    @Test
+    public void interpolatesOverTheTimeBetweenUpdates() {
+        HadesUser user = createUser();
+
+        move(user, 0, 64, 0, 1000);
+        move(user, 10, 64, -10, 1500);
+
+        assertEquals(0, user.getX(1500), DELTA);
+        assertEquals(5, user.getX(1750), DELTA);
+        assertEquals(-5, user.getZ(1750), DELTA);
+        assertEquals(10, user.getX(2000), DELTA);
+        // Stays put once the target is reached
+        assertEquals(10, user.getX(5000), DELTA);
+    }
+
+    @Test
+    public void interpolationTimeIsClamped() {
+        HadesUser user = createUser();
+
+        move(user, 0, 64, 0, 1000);
+        // Long after the last update, interpolate over at most a second
+        move(user, 10, 64, 0, 10000);
+
+        assertEquals(5, user.getX(10500), DELTA);
+        assertEquals(10, user.getX(11000), DELTA);
+    }
+
+    @Test
+    public void burstsAreInterpolatedOverAMinimumTime() {
+        HadesUser user = createUser();
+
+        move(user, 0, 64, 0, 1000);
+        move(user, 10, 64, 0, 1010);
+
+        assertEquals(0, user.getX(1010), DELTA);
+        assertEquals(5, user.getX(1035), DELTA);
+        assertEquals(10, user.getX(1060), DELTA);
+    }
+
+    @Test
+    public void continuesFromTheDisplayedPosition() {
+        HadesUser user = createUser();
+
+        move(user, 0, 64, 0, 1000);
+        move(user, 10, 64, 0, 2000);
+        // Halfway there, a new position comes in
+        move(user, 20, 64, 0, 2500);
+
+        assertEquals(5, user.getX(2500), DELTA);
+        assertEquals(20, user.getX(3000), DELTA);
+    }
+
+    @Test
+    public void teleportsAreNotInterpolated() {
+        HadesUser user = createUser();
+
+        move(user, 0, 64, 0, 1000);
+        move(user, 500, 64, 500, 1500);
+
+        assertEquals(500, user.getX(1500), DELTA);
+        assertEquals(500, user.getZ(1500), DELTA);
+    }
+
+    @Test
+    public void reportsRelationChanges() {
+        HadesUser user = createUser();
+
+        assertTrue(user.update(0, 0, 0, 1, 1, 1, 1, true, false, false, 0));
+        assertFalse(user.update(0, 0, 0, 1, 1, 1, 1, true, false, false, 0));
+        assertTrue(user.update(0, 0, 0, 1, 1, 1, 1, true, false, true, 0));
+    }
+
+    private static HadesUser createUser() {
+        return new HadesUser(UUID.randomUUID(), "Player");
+    }
+
+    private static void move(HadesUser user, float x, float y, float z, long now) {
+        user.update(x, y, z, 100, 100, 20, 20, false, false, false, now);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.testing;
+
+import com.wynntils.core.WynntilsMod;
+import java.lang.reflect.Field;
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.IEventBus;
+
+/**
+ * Gives {@link WynntilsMod} an event bus of its own, which is otherwise only created when the mod is
+ * loaded, so tests can go through the same event path as the game. Install it in a {@code @BeforeEach}
+ * with the models and managers under test, and uninstall it in an {@code @AfterEach}.
+ */
+public final class EventBusFixture {
+    private static final Field EVENT_BUS_FIELD;
+
+    static {
+        try {
+            EVENT_BUS_FIELD = WynntilsMod.class.getDeclaredField("eventBus");
+            EVENT_BUS_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param listeners classes with static listeners, like models, or objects with instance listeners
+     */
+    public static IEventBus install(Object... listeners) {
+        IEventBus eventBus = BusBuilder.builder().build();
+        for (Object listener : listeners) {
+            eventBus.register(listener);
+        }
+
+        setEventBus(eventBus);
+        return eventBus;
+    }
+
+    public static void uninstall() {
+        setEventBus(null);
+    }
+
+    private static void setEventBus(IEventBus eventBus) {
+        try {
+            EVENT_BUS_FIELD.set(null, eventBus);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
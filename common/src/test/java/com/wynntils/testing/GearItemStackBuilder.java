@@ -0,0 +1,280 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.testing;
+
+import com.wynntils.core.webapi.WebManager;
+import com.wynntils.core.webapi.profiles.item.DamageType;
+import com.wynntils.core.webapi.profiles.item.IdentificationProfile;
+import com.wynntils.core.webapi.profiles.item.ItemProfile;
+import com.wynntils.core.webapi.profiles.item.MajorIdentification;
+import com.wynntils.core.webapi.profiles.item.RequirementType;
+import com.wynntils.mc.utils.ItemUtils;
+import com.wynntils.utils.StringUtils;
+import com.wynntils.wynn.item.GearItemStack;
+import com.wynntils.wynn.objects.Powder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import net.minecraft.ChatFormatting;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Builds gear item stacks the way Wynncraft sends them: a coloured name and lore lines with the
+ * rolled identifications, powders and rerolls, all generated from an {@link ItemProfile}. Wrapping
+ * the result in {@link GearItemStack} runs the same lore parsing as for a real item.
+ *
+ * <p>Rolls are deterministic, so every run builds exactly the same stacks.
+ */
+public final class GearItemStackBuilder {
+    private final ItemProfile itemProfile;
+    private final Map<String, Roll> explicitRolls = new HashMap<>();
+
+    private Rolls rolls = Rolls.ROLLED;
+    private List<Powder> powders = List.of();
+    private int rerolls = 0;
+
+    public GearItemStackBuilder(ItemProfile itemProfile) {
+        this.itemProfile = itemProfile;
+    }
+
+    /** Starts a builder for an item of the loaded item list */
+    public static GearItemStackBuilder of(String itemName) {
+        ItemProfile itemProfile = WebManager.getItemsMap().get(itemName);
+        if (itemProfile == null) {
+            throw new IllegalArgumentException("No item named " + itemName + " in the item list");
+        }
+
+        return new GearItemStackBuilder(itemProfile);
+    }
+
+    /** @return whether the item has identifications that can roll different values */
+    public static boolean hasRolledIdentifications(ItemProfile itemProfile) {
+        return itemProfile.getStatuses().values().stream().anyMatch(status -> !status.hasConstantValue());
+    }
+
+    public GearItemStackBuilder rolls(Rolls rolls) {
+        this.rolls = rolls;
+        return this;
+    }
+
+    /** Overrides the roll of a single identification */
+    public GearItemStackBuilder roll(String shortIdName, int value, int stars) {
+        explicitRolls.put(shortIdName, new Roll(value, stars));
+        return this;
+    }
+
+    public GearItemStackBuilder powders(List<Powder> powders) {
+        this.powders = powders;
+        return this;
+    }
+
+    public GearItemStackBuilder rerolls(int rerolls) {
+        this.rerolls = rerolls;
+        return this;
+    }
+
+    public GearItemStack build() {
+        return new GearItemStack(buildStack());
+    }
+
+    /** The stack as it arrives from the server, before any transformation */
+    public ItemStack buildStack() {
+        ItemStack stack = itemProfile.getItemInfo().asItemStack();
+        stack.setHoverName(
+                new TextComponent(itemProfile.getDisplayName()).withStyle(itemProfile.getTier().getChatFormatting()));
+
+        stack.getOrCreateTag().putBoolean("Unbreakable", true);
+        // Wynncraft hides everything but the name and lore
+        stack.getOrCreateTag().putInt("HideFlags", 255);
+        if (itemProfile.getItemInfo().isArmorColorValid()) {
+            stack.getOrCreateTagElement("display")
+                    .putInt("color", itemProfile.getItemInfo().getArmorColorAsInt());
+        }
+
+        ListTag lore = new ListTag();
+        for (Component line : buildLore()) {
+            lore.add(ItemUtils.toLoreStringTag(line));
+        }
+        stack.getOrCreateTagElement("display").put("Lore", lore);
+
+        return stack;
+    }
+
+    /** @return the value and stars the identification is given on the built stack */
+    public Roll getRoll(String shortIdName) {
+        Roll explicitRoll = explicitRolls.get(shortIdName);
+        if (explicitRoll != null) return explicitRoll;
+
+        IdentificationProfile status = itemProfile.getStatuses().get(shortIdName);
+        if (status.hasConstantValue()) return new Roll(status.getBaseValue(), 0);
+
+        return switch (rolls) {
+            case WORST -> new Roll(status.getMin(), 0);
+            case BEST -> new Roll(status.getMax(), hasStars(status) ? 3 : 0);
+            case ROLLED -> rolled(shortIdName, status);
+            case OUTDATED -> shortIdName.equals(getFirstRolledIdentification())
+                    // one past the best roll, as if the item list was older than the item
+                    ? new Roll(status.getMax() + (status.getMax() > status.getMin() ? 1 : -1), 0)
+                    : rolled(shortIdName, status);
+        };
+    }
+
+    private List<Component> buildLore() {
+        List<Component> lore = new ArrayList<>();
+
+        if (itemProfile.getAttackSpeed() != null) {
+            lore.add(new TextComponent(itemProfile.getAttackSpeed().getName()).withStyle(ChatFormatting.GRAY));
+        }
+        lore.add(new TextComponent(""));
+
+        if (!itemProfile.getDamageTypes().isEmpty()) {
+            for (Map.Entry<DamageType, String> entry : itemProfile.getDamages().entrySet()) {
+                DamageType type = entry.getKey();
+                lore.add(new TextComponent(type.getSymbol() + " " + type)
+                        .withStyle(type.getColor())
+                        .append(new TextComponent(" Damage: " + entry.getValue())
+                                .withStyle(type == DamageType.NEUTRAL ? type.getColor() : ChatFormatting.GRAY)));
+            }
+            lore.add(new TextComponent(""));
+        }
+
+        if (!itemProfile.getDefenseTypes().isEmpty()) {
+            if (itemProfile.getHealth() != 0) {
+                lore.add(new TextComponent("❤ Health: " + itemProfile.getHealth()).withStyle(ChatFormatting.DARK_RED));
+            }
+            for (Map.Entry<DamageType, Integer> entry :
+                    itemProfile.getElementalDefenses().entrySet()) {
+                DamageType type = entry.getKey();
+                lore.add(new TextComponent(type.getSymbol() + " " + type)
+                        .withStyle(type.getColor())
+                        .append(new TextComponent(" Defence: " + entry.getValue()).withStyle(ChatFormatting.GRAY)));
+            }
+            lore.add(new TextComponent(""));
+        }
+
+        if (itemProfile.hasRequirements()) {
+            for (Map.Entry<RequirementType, String> entry :
+                    itemProfile.getRequirements().entrySet()) {
+                lore.add(new TextComponent("✔ ")
+                        .withStyle(ChatFormatting.GREEN)
+                        .append(new TextComponent(entry.getKey().asLore() + entry.getValue())
+                                .withStyle(ChatFormatting.GRAY)));
+            }
+            lore.add(new TextComponent(""));
+        }
+
+        if (!itemProfile.getStatuses().isEmpty()) {
+            for (String shortIdName : itemProfile.getOrderedStatuses()) {
+                lore.add(identificationLine(shortIdName));
+            }
+            lore.add(new TextComponent(""));
+        }
+
+        if (!itemProfile.getMajorIds().isEmpty()) {
+            for (MajorIdentification majorId : itemProfile.getMajorIds()) {
+                lore.add(new TextComponent("+" + majorId.getName() + ": ")
+                        .withStyle(ChatFormatting.AQUA)
+                        .append(new TextComponent(majorId.getDescription()).withStyle(ChatFormatting.DARK_AQUA)));
+            }
+            lore.add(new TextComponent(""));
+        }
+
+        if (itemProfile.getItemInfo().getSet() != null) {
+            // these look like identifications, but must be left alone
+            lore.add(new TextComponent("Set Bonus:").withStyle(ChatFormatting.GREEN));
+            lore.add(new TextComponent("+10% Walk Speed").withStyle(ChatFormatting.GRAY));
+            lore.add(new TextComponent("+5 Strength").withStyle(ChatFormatting.GRAY));
+            lore.add(new TextComponent(""));
+        }
+
+        if (itemProfile.getPowderAmount() > 0) {
+            String powderSlots = "[" + powders.size() + "/" + itemProfile.getPowderAmount() + "] Powder Slots";
+            if (!powders.isEmpty()) {
+                powderSlots += powders.stream()
+                        .map(powder -> String.valueOf(powder.getSymbol()))
+                        .collect(Collectors.joining(" ", " [", "]"));
+            }
+            lore.add(new TextComponent(powderSlots).withStyle(ChatFormatting.GRAY));
+        }
+
+        lore.add(new TextComponent(itemProfile.getTier() + " Item" + (rerolls > 0 ? " [" + rerolls + "]" : ""))
+                .withStyle(itemProfile.getTier().getChatFormatting()));
+
+        if (itemProfile.getRestriction() != null) {
+            lore.add(new TextComponent(StringUtils.capitalizeFirst(itemProfile.getRestriction()) + " Item")
+                    .withStyle(ChatFormatting.RED));
+        }
+
+        if (itemProfile.getLore() != null) {
+            lore.add(new TextComponent(itemProfile.getLore()).withStyle(ChatFormatting.DARK_GRAY));
+        }
+
+        return lore;
+    }
+
+    private Component identificationLine(String shortIdName) {
+        IdentificationProfile status = itemProfile.getStatuses().get(shortIdName);
+        Roll roll = getRoll(shortIdName);
+
+        boolean good = status.isInverted() ^ (roll.value() > 0);
+        MutableComponent line = new TextComponent(
+                        (roll.value() > 0 ? "+" : "") + roll.value() + status.getType().getInGame(shortIdName))
+                .withStyle(good ? ChatFormatting.GREEN : ChatFormatting.RED);
+        if (roll.stars() > 0) {
+            line.append(new TextComponent("*".repeat(roll.stars())).withStyle(ChatFormatting.DARK_GREEN));
+        }
+        line.append(new TextComponent(" " + IdentificationProfile.getAsLongName(shortIdName))
+                .withStyle(ChatFormatting.GRAY));
+
+        return line;
+    }
+
+    private String getFirstRolledIdentification() {
+        return itemProfile.getOrderedStatuses().stream()
+                .filter(shortIdName -> !itemProfile.getStatuses().get(shortIdName).hasConstantValue())
+                .findFirst()
+                .orElse(null);
+    }
+
+    // A roll between 30% and 130% of the base value (70% to 130% for negative stats), picked by id name
+    private static Roll rolled(String shortIdName, IdentificationProfile status) {
+        boolean positive = (status.getBaseValue() > 0) ^ status.isInverted();
+        int lowestRoll = positive ? 30 : 70;
+        int roll = lowestRoll + Math.floorMod(shortIdName.hashCode(), 131 - lowestRoll);
+
+        int value = (int) Math.round(status.getBaseValue() * roll / 100.0);
+        return new Roll(value, hasStars(status) ? getStars(roll) : 0);
+    }
+
+    private static boolean hasStars(IdentificationProfile status) {
+        return status.getBaseValue() > 0 && !status.isInverted();
+    }
+
+    private static int getStars(int roll) {
+        if (roll <= 100) return 0;
+        if (roll <= 124) return 1;
+        if (roll <= 129) return 2;
+        return 3;
+    }
+
+    public enum Rolls {
+        // every identification at its lowest possible value
+        WORST,
+        // every identification at its highest possible value, with three stars where possible
+        BEST,
+        // every identification somewhere in its range
+        ROLLED,
+        // like ROLLED, but the first identification is out of range
+        OUTDATED
+    }
+
+    public record Roll(int value, int stars) {}
+}
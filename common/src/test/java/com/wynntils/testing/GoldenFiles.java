@@ -0,0 +1,95 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.testing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.wynntils.mc.utils.ComponentUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.Style;
+
+/**
+ * Compares test output against files checked in under {@code src/test/resources/golden}.
+ *
+ * <p>To accept new output after an intended change, regenerate the files with
+ * {@code ./gradlew :common:test -PregenerateGolden} and review the diff.
+ */
+public final class GoldenFiles {
+    private static final Path GOLDEN_DIR =
+            Path.of(System.getProperty("wynntils.golden.dir", "src/test/resources/golden"));
+    private static final boolean REGENERATE = Boolean.getBoolean("wynntils.golden.regenerate");
+
+    public static void assertMatches(String fileName, String actual) {
+        Path file = GOLDEN_DIR.resolve(fileName);
+
+        try {
+            if (REGENERATE) {
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, actual, StandardCharsets.UTF_8);
+                return;
+            }
+
+            if (!Files.exists(file)) {
+                throw new AssertionError(
+                        "Missing golden file " + file + ", create it with ./gradlew :common:test -PregenerateGolden");
+            }
+
+            assertEquals(
+                    Files.readString(file, StandardCharsets.UTF_8),
+                    actual,
+                    "Output differs from " + file + ", if this is intended regenerate it with"
+                            + " ./gradlew :common:test -PregenerateGolden");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a component as its text, with the full style in front of every part: a formatting
+     * code for colours that have one, {@code <#rrggbb>} for any other colour, {@code §r} for no
+     * colour, followed by the codes of the enabled decorations.
+     */
+    public static String describe(Component component) {
+        StringBuilder result = new StringBuilder();
+
+        component.visit(
+                (style, text) -> {
+                    if (!text.isEmpty()) {
+                        appendStyle(result, style);
+                        result.append(text);
+                    }
+                    return Optional.empty();
+                },
+                Style.EMPTY);
+
+        return result.toString();
+    }
+
+    private static void appendStyle(StringBuilder result, Style style) {
+        if (style.getColor() == null) {
+            result.append(ChatFormatting.RESET);
+        } else {
+            Optional<ChatFormatting> formatting = ComponentUtils.getChatFormatting(style.getColor());
+            if (formatting.isPresent()) {
+                result.append(formatting.get());
+            } else {
+                result.append(String.format("<#%06x>", style.getColor().getValue()));
+            }
+        }
+
+        if (style.isBold()) result.append(ChatFormatting.BOLD);
+        if (style.isItalic()) result.append(ChatFormatting.ITALIC);
+        if (style.isUnderlined()) result.append(ChatFormatting.UNDERLINE);
+        if (style.isStrikethrough()) result.append(ChatFormatting.STRIKETHROUGH);
+        if (style.isObfuscated()) result.append(ChatFormatting.OBFUSCATED);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.testing;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.wynntils.core.webapi.WebManager;
+import com.wynntils.features.user.tooltips.ItemStatInfoFeature;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads an item list into {@link WebManager}, as if it had been downloaded from Athena, and sets up
+ * {@link ItemStatInfoFeature} with its default config. Call {@link #restore()} when done, to put back
+ * the feature that was set up before.
+ *
+ * <p>{@link #load()} loads the small item list checked in as {@code item_list.json}, which has an item
+ * of every kind the tests need. {@link #loadCached()} loads the {@code apicache/item_list.json} of a
+ * Wynntils folder instead, given with {@code ./gradlew :common:test -PitemList=<path>}; golden files
+ * are generated from that list.
+ */
+public final class ItemFixture {
+    private static final String ITEM_LIST = "/item_list.json";
+    private static final String CACHED_ITEM_LIST = System.getProperty("wynntils.items.cache");
+
+    // The list in WebManager, so it is only parsed again when another one is asked for
+    private static String loadedList = null;
+
+    private static boolean featureReplaced = false;
+    private static ItemStatInfoFeature previousFeature = null;
+
+    public static synchronized void load() {
+        setUpFeature();
+        if (ITEM_LIST.equals(loadedList)) return;
+
+        try (InputStream input = ItemFixture.class.getResourceAsStream(ITEM_LIST)) {
+            if (input == null) throw new IllegalStateException("Missing " + ITEM_LIST);
+
+            loadItemList(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        loadedList = ITEM_LIST;
+    }
+
+    /**
+     * @return false, without setting anything up, when no cached item list was given
+     */
+    public static synchronized boolean loadCached() {
+        if (CACHED_ITEM_LIST == null) return false;
+
+        setUpFeature();
+        if (CACHED_ITEM_LIST.equals(loadedList)) return true;
+
+        try (InputStream input = Files.newInputStream(Path.of(CACHED_ITEM_LIST))) {
+            loadItemList(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        loadedList = CACHED_ITEM_LIST;
+        return true;
+    }
+
+    /** Puts back the {@link ItemStatInfoFeature} from before the first load since the last restore */
+    public static synchronized void restore() {
+        if (!featureReplaced) return;
+
+        ItemStatInfoFeature.INSTANCE = previousFeature;
+        previousFeature = null;
+        featureReplaced = false;
+    }
+
+    private static void setUpFeature() {
+        // major identifications are wrapped by width
+        MinecraftFixture.installFont();
+
+        if (!featureReplaced) {
+            previousFeature = ItemStatInfoFeature.INSTANCE;
+            featureReplaced = true;
+        }
+
+        // the defaults, except for the animated perfect and defective names, which depend on the time
+        ItemStatInfoFeature feature = new ItemStatInfoFeature();
+        feature.perfect = false;
+        feature.defective = false;
+        ItemStatInfoFeature.INSTANCE = feature;
+    }
+
+    private static void loadItemList(InputStream input) {
+        JsonObject json = JsonParser.parseReader(new InputStreamReader(input, StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        WebManager.loadItemList(json);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.testing;
+
+import java.lang.reflect.Field;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.font.FontSet;
+import net.minecraft.server.Bootstrap;
+import sun.misc.Unsafe;
+
+/**
+ * Sets up the parts of Minecraft that work without a client: the registries (items, blocks, ...)
+ * and the data they depend on. Call {@link #bootstrap()} from a {@code @BeforeAll} in any test that
+ * creates item stacks or touches the registries.
+ */
+public final class MinecraftFixture {
+    private static boolean bootstrapped = false;
+    private static boolean fontInstalled = false;
+
+    public static synchronized void bootstrap() {
+        if (bootstrapped) return;
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+    /**
+     * Makes {@code McUtils.mc().font} measure text, for code that wraps text by width. No font is
+     * loaded, so every glyph is as wide as the missing glyph and every space as wide as a space;
+     * wrapped lines are stable between runs, but not the same as in game.
+     *
+     * <p>This creates a client without running its constructor. Apart from the font, all of its
+     * fields are null, so {@code McUtils.player()} is null, as it is on the title screen.
+     */
+    public static synchronized void installFont() {
+        bootstrap();
+        if (fontInstalled) return;
+
+        try {
+            Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            Unsafe unsafe = (Unsafe) unsafeField.get(null);
+
+            Minecraft minecraft = (Minecraft) unsafe.allocateInstance(Minecraft.class);
+
+            Field fontField = Minecraft.class.getDeclaredField("font");
+            fontField.setAccessible(true);
+            FontSet fontSet = new FontSet(null, Minecraft.DEFAULT_FONT);
+            fontField.set(minecraft, new Font(location -> fontSet));
+
+            Field instanceField = Minecraft.class.getDeclaredField("instance");
+            instanceField.setAccessible(true);
+            instanceField.set(null, minecraft);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not install a headless font", e);
+        }
+
+        fontInstalled = true;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExpiringMapTest {
+    private static final long START = 1_666_180_000_000L;
+    private static final long DURATION = 10_000;
+
+    private long time;
+    private List<String> expired;
+    private ExpiringMap<String, Integer> map;
+
+    @BeforeEach
+    public void setUp() {
+        time = START;
+        expired = new ArrayList<>();
+        map = new ExpiringMap<String, Integer>(DURATION, TimeUnit.MILLISECONDS, () -> time)
+                .onExpiry((key, value) -> expired.add(key + "=" + value));
+    }
+
+    @Test
+    public void entriesExpireAfterTheirDuration() {
+        List<String> alsoExpired = new ArrayList<>();
+        map.onExpiry((key, value) -> alsoExpired.add(key));
+
+        assertNull(map.put("a", 1));
+        assertEquals(START + DURATION, map.getExpiration("a"));
+
+        time = START + DURATION - 1;
+        assertEquals(1, map.get("a"));
+        assertEquals(List.of(), expired);
+
+        time = START + DURATION;
+        assertNull(map.get("a"));
+        assertFalse(map.containsKey("a"));
+        assertEquals(-1, map.getExpiration("a"));
+        assertTrue(map.isEmpty());
+
+        // every listener hears of it, once
+        map.releaseExpired();
+        assertEquals(List.of("a=1"), expired);
+        assertEquals(List.of("a"), alsoExpired);
+    }
+
+    @Test
+    public void puttingAgainRestartsTime() {
+        map.put("a", 1);
+
+        time = START + 6000;
+        assertEquals(1, map.put("a", 2));
+        assertEquals(START + 6000 + DURATION, map.getExpiration("a"));
+
+        // the first deadline has passed, but it is stale and skipped
+        time = START + DURATION;
+        assertEquals(2, map.get("a"));
+        assertEquals(List.of(), expired);
+
+        time = START + 6000 + DURATION;
+        assertNull(map.get("a"));
+        assertEquals(List.of("a=2"), expired);
+    }
+
+    @Test
+    public void entriesKeepTheirOwnDuration() {
+        map.put("default", 1);
+        map.put("short", 2, 2, TimeUnit.SECONDS);
+        map.put("long", 3, 1, TimeUnit.MINUTES);
+        map.putUntil("until", 4, START + 30_000);
+
+        time = START + 2000;
+        assertEquals(Set.of("default", "long", "until"), map.keySet());
+        assertEquals(List.of("short=2"), expired);
+
+        time = START + DURATION;
+        assertEquals(Set.of("long", "until"), map.keySet());
+
+        time = START + 30_000;
+        assertEquals(List.of(3), map.values());
+
+        time = START + 60_000;
+        assertEquals(0, map.size());
+        assertEquals(List.of("short=2", "default=1", "until=4", "long=3"), expired);
+    }
+
+    @Test
+    public void removedAndReplacedEntriesDoNotExpireTwice() {
+        map.put("removed", 1);
+        map.put("replaced", 2);
+        assertEquals(1, map.remove("removed"));
+
+        // a new entry with the very same deadline as the removed one
+        map.remove("replaced");
+        map.putUntil("replaced", 3, START + DURATION);
+
+        time = START + DURATION;
+        assertEquals(0, map.size());
+        assertEquals(List.of("replaced=3"), expired);
+
+        time = START + 2 * DURATION;
+        map.releaseExpired();
+        assertEquals(List.of("replaced=3"), expired);
+    }
+
+    @Test
+    public void staleDeadlinesAreCompacted() {
+        map.put("other", 0, 1, TimeUnit.MINUTES);
+
+        for (int i = 1; i <= 1000; i++) {
+            time = START + i;
+            map.put("refreshed", i);
+
+            // at most two deadlines per entry, plus some slack
+            assertTrue(map.getDeadlineCount() <= 2 * 2 + 16, "after " + i + " refreshes");
+        }
+
+        // compacting keeps the deadlines that are still live
+        time = START + 1000 + DURATION - 1;
+        assertEquals(Set.of("other", "refreshed"), map.keySet());
+        assertEquals(List.of(), expired);
+
+        time = START + 1000 + DURATION;
+        assertEquals(Set.of("other"), map.keySet());
+        assertEquals(List.of("refreshed=1000"), expired);
+
+        time = START + 60_000;
+        assertTrue(map.isEmpty());
+        assertEquals(List.of("refreshed=1000", "other=0"), expired);
+    }
+
+    @Test
+    public void iteratingSkipsExpiredEntries() {
+        map.put("a", 1);
+        map.put("b", 2, 1, TimeUnit.SECONDS);
+
+        time = START + 1000;
+        List<Integer> values = new ArrayList<>();
+        map.valueIterator().forEachRemaining(values::add);
+
+        assertEquals(List.of(1), values);
+        assertEquals(List.of("b=2"), expired);
+    }
+
+    @Test
+    public void clearedEntriesDoNotExpire() {
+        map.put("a", 1);
+        map.clear();
+
+        time = START + DURATION;
+        map.releaseExpired();
+        assertEquals(0, map.getDeadlineCount());
+        assertEquals(List.of(), expired);
+    }
+}
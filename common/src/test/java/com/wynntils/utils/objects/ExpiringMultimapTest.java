@@ -0,0 +1,105 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExpiringMultimapTest {
+    private static final long START = 1_666_180_000_000L;
+    private static final long DURATION = 10_000;
+
+    private long time;
+    private List<String> expired;
+    private ExpiringMultimap<String, Integer> multimap;
+
+    @BeforeEach
+    public void setUp() {
+        time = START;
+        expired = new ArrayList<>();
+        multimap = new ExpiringMultimap<String, Integer>(DURATION, TimeUnit.MILLISECONDS, () -> time)
+                .onExpiry((key, value) -> expired.add(key + "=" + value));
+    }
+
+    @Test
+    public void pairsExpireOnTheirOwn() {
+        assertTrue(multimap.put("a", 1));
+
+        time = START + 5000;
+        assertTrue(multimap.put("a", 2));
+        assertEquals(Set.of(1, 2), multimap.get("a"));
+        assertEquals(2, multimap.size());
+
+        time = START + DURATION;
+        assertEquals(Set.of(2), multimap.get("a"));
+        assertEquals(List.of("a=1"), expired);
+
+        // the key goes away with its last value
+        time = START + 5000 + DURATION;
+        assertFalse(multimap.containsKey("a"));
+        assertEquals(Set.of(), multimap.get("a"));
+        assertEquals(Set.of(), multimap.keySet());
+        assertEquals(List.of("a=1", "a=2"), expired);
+    }
+
+    @Test
+    public void puttingAgainRestartsTime() {
+        multimap.put("a", 1);
+
+        time = START + 5000;
+        assertFalse(multimap.put("a", 1));
+
+        time = START + DURATION;
+        assertEquals(Set.of(1), multimap.get("a"));
+        assertEquals(List.of(), expired);
+
+        time = START + 5000 + DURATION;
+        assertTrue(multimap.isEmpty());
+        assertEquals(List.of("a=1"), expired);
+    }
+
+    @Test
+    public void pairsKeepTheirOwnDuration() {
+        multimap.put("a", 1, 1, TimeUnit.MINUTES);
+        multimap.put("a", 2);
+        multimap.put("b", 3, 1, TimeUnit.SECONDS);
+
+        time = START + 1000;
+        assertEquals(Set.of("a"), multimap.keySet());
+
+        time = START + DURATION;
+        assertEquals(Set.of(1), multimap.get("a"));
+
+        time = START + 60_000;
+        assertTrue(multimap.isEmpty());
+        assertEquals(List.of("b=3", "a=2", "a=1"), expired);
+    }
+
+    @Test
+    public void removedPairsDoNotExpire() {
+        multimap.put("a", 1);
+        multimap.put("a", 2);
+        multimap.put("b", 3);
+
+        assertTrue(multimap.remove("a", 1));
+        assertFalse(multimap.remove("a", 1));
+        assertEquals(Set.of(2), multimap.get("a"));
+
+        multimap.removeAll("b");
+        assertFalse(multimap.containsKey("b"));
+
+        time = START + DURATION;
+        assertTrue(multimap.isEmpty());
+        assertEquals(List.of("a=2"), expired);
+    }
+}
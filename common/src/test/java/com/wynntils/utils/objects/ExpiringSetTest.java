@@ -0,0 +1,114 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.wynn.objects.BombInfo;
+import com.wynntils.wynn.objects.BombType;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExpiringSetTest {
+    private static final long START = 1_666_180_000_000L;
+
+    private long time;
+    private List<BombInfo> expired;
+    private ExpiringSet<BombInfo> set;
+
+    @BeforeEach
+    public void setUp() {
+        time = START;
+        expired = new ArrayList<>();
+        set = new ExpiringSet<BombInfo>(20, TimeUnit.MINUTES, () -> time).onExpiry(expired::add);
+    }
+
+    @Test
+    public void addingAgainRestartsTimeAndKeepsTheNewElement() {
+        BombInfo first = bomb(BombType.CombatXp, "WC1");
+        assertTrue(add(first));
+
+        time = START + minutes(15);
+        BombInfo second = bomb(BombType.CombatXp, "WC1");
+        assertFalse(add(second));
+        assertSame(second, set.iterator().next());
+
+        // the first deadline is stale now
+        time = START + minutes(20);
+        assertTrue(set.contains(first));
+        assertEquals(List.of(), expired);
+
+        time = START + minutes(35);
+        assertTrue(set.isEmpty());
+        assertEquals(1, expired.size());
+        assertSame(second, expired.get(0));
+    }
+
+    @Test
+    public void elementsKeepTheirOwnDuration() {
+        BombInfo loot = bomb(BombType.Loot, "WC1");
+        BombInfo profession = bomb(BombType.ProfessionSpeed, "WC2");
+        add(loot);
+        add(profession);
+        set.addUntil(bomb(BombType.Dungeon, "WC3"), START + minutes(5));
+
+        time = START + minutes(5);
+        assertEquals(Set.of(loot, profession), Set.copyOf(set));
+
+        time = START + minutes(10);
+        assertEquals(Set.of(loot), Set.copyOf(set));
+        assertEquals(1, set.size());
+
+        time = START + minutes(20);
+        assertEquals(0, set.size());
+        assertEquals(
+                List.of(BombType.Dungeon, BombType.ProfessionSpeed, BombType.Loot),
+                expired.stream().map(BombInfo::bomb).toList());
+    }
+
+    @Test
+    public void removedElementsDoNotExpire() {
+        BombInfo bomb = bomb(BombType.Loot, "WC1");
+        add(bomb);
+
+        assertTrue(set.remove(bomb));
+        assertFalse(set.remove(bomb));
+
+        time = START + minutes(20);
+        assertTrue(set.isEmpty());
+        assertEquals(List.of(), expired);
+    }
+
+    @Test
+    public void iteratingIsReadOnly() {
+        add(bomb(BombType.Loot, "WC1"));
+
+        Iterator<BombInfo> iterator = set.iterator();
+        iterator.next();
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+    }
+
+    // the way BombBellModel adds bombs
+    private boolean add(BombInfo bomb) {
+        return set.add(bomb, bomb.bomb().getActiveMinutes(), TimeUnit.MINUTES);
+    }
+
+    private BombInfo bomb(BombType type, String server) {
+        return new BombInfo("Player", type, server, time);
+    }
+
+    private static long minutes(int minutes) {
+        return TimeUnit.MINUTES.toMillis(minutes);
+    }
+}
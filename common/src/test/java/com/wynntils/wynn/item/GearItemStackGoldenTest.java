@@ -0,0 +1,265 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.wynntils.core.webapi.WebManager;
+import com.wynntils.core.webapi.profiles.item.ItemProfile;
+import com.wynntils.features.user.tooltips.ItemStatInfoFeature;
+import com.wynntils.testing.GearItemStackBuilder;
+import com.wynntils.testing.GoldenFiles;
+import com.wynntils.testing.ItemFixture;
+import com.wynntils.wynn.objects.ItemIdentificationContainer;
+import com.wynntils.wynn.objects.Powder;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import net.minecraft.network.chat.Component;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Builds every item of the item list from synthetic lore, with its worst, best and an in-between
+ * roll, and checks that every identification is parsed back.
+ *
+ * <p>Given a real item list, the parsed result is also compared against the golden files in
+ * {@code src/test/resources/golden/items}, which are generated from that list with
+ * {@code ./gradlew :common:test -PitemList=<wynntils folder>/apicache/item_list.json -PregenerateGolden}.
+ */
+public class GearItemStackGoldenTest {
+    // The animated names at these times of the clock, in milliseconds
+    private static final List<Long> ANIMATION_TIMES = List.of(0L, 1L, 1234L, 4999L, 123456789L);
+
+    private static boolean cachedItemList;
+
+    @BeforeAll
+    public static void setup() {
+        cachedItemList = ItemFixture.loadCached();
+        if (!cachedItemList) {
+            ItemFixture.load();
+        }
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        ItemFixture.restore();
+    }
+
+    @Test
+    public void everyIdentificationIsParsed() {
+        for (Variant variant : getVariants()) {
+            GearItemStackBuilder builder = variant.builder();
+            GearItemStack item = builder.build();
+
+            assertEquals(
+                    variant.itemProfile().getStatuses().size(),
+                    item.getIdentifications().size(),
+                    variant.name());
+
+            for (String shortIdName : variant.itemProfile().getStatuses().keySet()) {
+                ItemIdentificationContainer id = item.getIdentifications().stream()
+                        .filter(identification -> identification.shortIdName().equals(shortIdName))
+                        .findFirst()
+                        .orElse(null);
+
+                assertNotNull(id, variant.name() + " " + shortIdName);
+                assertEquals(builder.getRoll(shortIdName).value(), id.value(), variant.name() + " " + shortIdName);
+                assertEquals(builder.getRoll(shortIdName).stars(), id.stars(), variant.name() + " " + shortIdName);
+            }
+        }
+    }
+
+    @Test
+    public void perfectAndDefectiveNamesAreAnimated() {
+        int perfect = 0;
+        int defective = 0;
+
+        setAnimatedNames(true);
+        try {
+            for (Variant variant : getVariants()) {
+                GearItemStack item = variant.builder().build();
+                String itemName = variant.itemProfile().getDisplayName();
+                Component name = item.getHoverName();
+
+                if (item.getOverallPercentage() >= 100f) {
+                    assertSame(ItemNameAnimator.getPerfectName(itemName), name, variant.name());
+                    assertEquals("Perfect " + itemName, name.getString(), variant.name());
+                    perfect++;
+                } else if (item.getOverallPercentage() == 0f) {
+                    assertSame(ItemNameAnimator.getDefectiveName(itemName), name, variant.name());
+                    assertEquals("Defective " + itemName, name.getString(), variant.name());
+                    defective++;
+                }
+            }
+        } finally {
+            setAnimatedNames(false);
+        }
+
+        // the best and worst rolls of the item list are perfect and defective
+        assertTrue(perfect > 0, "no perfect item");
+        assertTrue(defective > 0, "no defective item");
+    }
+
+    @Test
+    public void animatedNamesMatchGolden() {
+        assumeTrue(cachedItemList, "golden files are generated from a real item list, given with -PitemList");
+
+        StringBuilder names = new StringBuilder();
+        setAnimatedNames(true);
+        try {
+            for (Variant variant : getVariants()) {
+                GearItemStack item = variant.builder().build();
+                if (item.getOverallPercentage() != 0f && item.getOverallPercentage() < 100f) continue;
+
+                for (long time : ANIMATION_TIMES) {
+                    ItemNameAnimator.setClock(() -> time);
+
+                    names.append(variant.name())
+                            .append(" at ")
+                            .append(time)
+                            .append('\t')
+                            .append(GoldenFiles.describe(item.getHoverName()))
+                            .append('\n');
+                }
+            }
+        } finally {
+            setAnimatedNames(false);
+        }
+
+        GoldenFiles.assertMatches("items/animated_names.txt", names.toString());
+    }
+
+    @Test
+    public void namesMatchGolden() {
+        assumeTrue(cachedItemList, "golden files are generated from a real item list, given with -PitemList");
+
+        StringBuilder names = new StringBuilder();
+        for (Variant variant : getVariants()) {
+            GearItemStack item = variant.builder().build();
+
+            names.append(variant.name())
+                    .append('\t')
+                    .append(GoldenFiles.describe(item.getHoverName()))
+                    .append('\n');
+        }
+
+        GoldenFiles.assertMatches("items/names.txt", names.toString());
+    }
+
+    @Test
+    public void percentagesMatchGolden() {
+        assumeTrue(cachedItemList, "golden files are generated from a real item list, given with -PitemList");
+
+        StringBuilder percentages = new StringBuilder();
+        for (Variant variant : getVariants()) {
+            GearItemStack item = variant.builder().build();
+
+            percentages.append(variant.name()).append("\toverall ").append(describe(item.getOverallPercentage()));
+            for (ItemIdentificationContainer id : item.getOrderedIdentifications()) {
+                percentages
+                        .append('\t')
+                        .append(id.shortIdName())
+                        .append(' ')
+                        .append(id.value())
+                        .append("*".repeat(id.stars()))
+                        .append(' ')
+                        .append(describe(id.percent()));
+            }
+            percentages.append('\n');
+        }
+
+        GoldenFiles.assertMatches("items/percentages.txt", percentages.toString());
+    }
+
+    @Test
+    public void tooltipsMatchGolden() {
+        assumeTrue(cachedItemList, "golden files are generated from a real item list, given with -PitemList");
+
+        StringBuilder tooltips = new StringBuilder();
+        for (Variant variant : getVariants()) {
+            GearItemStack item = variant.builder().build();
+
+            tooltips.append("== ").append(variant.name()).append('\n');
+            appendTooltip(tooltips, "percent", item.getPercentTooltip());
+            appendTooltip(tooltips, "range", item.getRangeTooltip());
+            appendTooltip(tooltips, "reroll", item.getRerollTooltip());
+        }
+
+        GoldenFiles.assertMatches("items/tooltips.txt", tooltips.toString());
+    }
+
+    // Animated names depend on the time, so they are shown at a fixed time until turned off again
+    private static void setAnimatedNames(boolean enabled) {
+        ItemStatInfoFeature.INSTANCE.perfect = enabled;
+        ItemStatInfoFeature.INSTANCE.defective = enabled;
+        ItemNameAnimator.setClock(enabled ? () -> ANIMATION_TIMES.get(2) : System::currentTimeMillis);
+        ItemNameAnimator.clear();
+    }
+
+    private static void appendTooltip(StringBuilder tooltips, String kind, List<Component> tooltip) {
+        tooltips.append("-- ").append(kind).append('\n');
+        for (Component line : tooltip) {
+            tooltips.append(GoldenFiles.describe(line)).append('\n');
+        }
+    }
+
+    private static String describe(float percentage) {
+        return new BigDecimal(percentage).setScale(4, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static List<Variant> getVariants() {
+        List<ItemProfile> itemProfiles = new ArrayList<>(WebManager.getItemsCollection());
+        itemProfiles.sort(Comparator.comparing(ItemProfile::getDisplayName));
+
+        List<Variant> variants = new ArrayList<>();
+        for (ItemProfile itemProfile : itemProfiles) {
+            if (!GearItemStackBuilder.hasRolledIdentifications(itemProfile)) {
+                variants.add(new Variant(itemProfile, GearItemStackBuilder.Rolls.ROLLED));
+                continue;
+            }
+
+            for (GearItemStackBuilder.Rolls rolls : GearItemStackBuilder.Rolls.values()) {
+                variants.add(new Variant(itemProfile, rolls));
+            }
+        }
+
+        return variants;
+    }
+
+    private record Variant(ItemProfile itemProfile, GearItemStackBuilder.Rolls rolls) {
+        private String name() {
+            return itemProfile.getDisplayName() + "/" + rolls;
+        }
+
+        private GearItemStackBuilder builder() {
+            GearItemStackBuilder builder = new GearItemStackBuilder(itemProfile).rolls(rolls);
+            if (!GearItemStackBuilder.hasRolledIdentifications(itemProfile)) return builder;
+
+            int powderAmount = itemProfile.getPowderAmount();
+            return switch (rolls) {
+                case WORST -> builder.rerolls(0);
+                case BEST -> builder.rerolls(8).powders(getPowders(powderAmount));
+                case ROLLED -> builder.rerolls(2).powders(getPowders(Math.min(powderAmount, 1)));
+                case OUTDATED -> builder.rerolls(1);
+            };
+        }
+
+        private static List<Powder> getPowders(int count) {
+            List<Powder> powders = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                powders.add(Powder.values()[(i + 3) % Powder.values().length]);
+            }
+            return powders;
+        }
+    }
+}
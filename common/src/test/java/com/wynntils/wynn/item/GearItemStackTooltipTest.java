@@ -0,0 +1,123 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.wynntils.core.webapi.WebManager;
+import com.wynntils.core.webapi.profiles.item.ItemProfile;
+import com.wynntils.features.user.tooltips.ItemStatInfoFeature;
+import com.wynntils.testing.GearItemStackBuilder;
+import com.wynntils.testing.ItemFixture;
+import com.wynntils.wynn.model.ChatItemModel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import net.minecraft.network.chat.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GearItemStackTooltipTest {
+    // every config that changes how identification lines or names look, and a few combinations
+    private static final List<Consumer<ItemStatInfoFeature>> CONFIGS = List.of(
+            feature -> {},
+            feature -> feature.showStars = false,
+            feature -> feature.colorLerp = false,
+            feature -> feature.decimalPlaces = 0,
+            feature -> feature.decimalPlaces = 3,
+            feature -> feature.reorderIdentifications = false,
+            feature -> feature.groupIdentifications = false,
+            feature -> {
+                feature.showStars = false;
+                feature.colorLerp = false;
+                feature.decimalPlaces = 2;
+                feature.groupIdentifications = false;
+            },
+            feature -> {});
+
+    @BeforeEach
+    public void setUp() {
+        ItemFixture.load();
+        GearItemStack.invalidateTooltips();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ItemFixture.restore();
+        GearItemStack.invalidateTooltips();
+    }
+
+    @Test
+    public void cachedTooltipsMatchFreshOnesAfterConfigChanges() {
+        List<Variant> variants = getVariants();
+        List<GearItemStack> cached = new ArrayList<>();
+
+        // a config none of the generations below uses
+        ItemStatInfoFeature.INSTANCE.showStars = false;
+        ItemStatInfoFeature.INSTANCE.decimalPlaces = 4;
+        for (Variant variant : variants) {
+            GearItemStack item = variant.factory().get();
+            // build every variant once, so they are cached with the previous config
+            item.getPercentTooltip();
+            item.getRangeTooltip();
+            item.getRerollTooltip();
+            cached.add(item);
+        }
+
+        for (int generation = 0; generation < CONFIGS.size(); generation++) {
+            ItemFixture.load();
+            CONFIGS.get(generation).accept(ItemStatInfoFeature.INSTANCE);
+            GearItemStack.invalidateTooltips();
+
+            for (int i = 0; i < variants.size(); i++) {
+                String name = variants.get(i).name() + " in generation " + generation;
+                GearItemStack cachedItem = cached.get(i);
+                GearItemStack freshItem = variants.get(i).factory().get();
+
+                assertEquals(freshItem.getHoverName(), cachedItem.getHoverName(), name);
+                assertEquals(freshItem.getPercentTooltip(), cachedItem.getPercentTooltip(), name);
+                assertEquals(freshItem.getRangeTooltip(), cachedItem.getRangeTooltip(), name);
+                assertEquals(freshItem.getRerollTooltip(), cachedItem.getRerollTooltip(), name);
+            }
+        }
+    }
+
+    @Test
+    public void tooltipsAreOnlyRebuiltForNewGenerations() {
+        GearItemStack item = GearItemStackBuilder.of("Warp").build();
+
+        List<Component> percentTooltip = item.getPercentTooltip();
+        assertSame(percentTooltip, item.getPercentTooltip());
+
+        GearItemStack.invalidateTooltips();
+        assertNotSame(percentTooltip, item.getPercentTooltip());
+        // nothing changed in the config, so the rebuilt tooltip looks the same
+        assertEquals(percentTooltip, item.getPercentTooltip());
+    }
+
+    private static List<Variant> getVariants() {
+        List<ItemProfile> itemProfiles = new ArrayList<>(WebManager.getItemsCollection());
+        itemProfiles.sort(Comparator.comparing(ItemProfile::getDisplayName));
+
+        List<Variant> variants = new ArrayList<>();
+        for (ItemProfile itemProfile : itemProfiles) {
+            GearItemStackBuilder builder =
+                    new GearItemStackBuilder(itemProfile).rolls(GearItemStackBuilder.Rolls.ROLLED);
+            variants.add(new Variant(itemProfile.getDisplayName() + "/lore", builder::build));
+
+            String encoded = ChatItemModel.encodeItem(builder.build());
+            variants.add(new Variant(itemProfile.getDisplayName() + "/chat", () -> ChatItemModel.decodeItem(encoded)));
+        }
+
+        return variants;
+    }
+
+    private record Variant(String name, Supplier<GearItemStack> factory) {}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.wynntils.features.user.tooltips.ItemStatInfoFeature;
+import com.wynntils.testing.MinecraftFixture;
+import java.awt.Color;
+import net.minecraft.network.chat.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ItemNameAnimatorTest {
+    // a realistic wall clock time, far beyond what a float holds to the millisecond
+    private static final long NOW = 1_666_180_000_000L;
+
+    private ItemStatInfoFeature previousFeature;
+    private long time;
+
+    @BeforeAll
+    public static void setup() {
+        MinecraftFixture.bootstrap();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        previousFeature = ItemStatInfoFeature.INSTANCE;
+        ItemStatInfoFeature.INSTANCE = new ItemStatInfoFeature();
+        ItemNameAnimator.clear();
+
+        time = NOW;
+        ItemNameAnimator.setClock(() -> time);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ItemNameAnimator.setClock(System::currentTimeMillis);
+        ItemStatInfoFeature.INSTANCE = previousFeature;
+        ItemNameAnimator.clear();
+    }
+
+    @Test
+    public void everyFrameIsShownForItsDuration() {
+        int start = ItemNameAnimator.getFrame(50, 32);
+        assertEquals((int) ((NOW / 50) % 32), start);
+
+        for (int step = 0; step < 32 * 50; step++) {
+            time = NOW + step;
+            assertEquals((start + step / 50) % 32, ItemNameAnimator.getFrame(50, 32), "after " + step + " ms");
+        }
+    }
+
+    @Test
+    public void speedScalesFrameDuration() {
+        ItemStatInfoFeature.INSTANCE.animationSpeed = 2f;
+        int start = ItemNameAnimator.getFrame(50, 32);
+
+        time = NOW + 25;
+        assertEquals((start + 1) % 32, ItemNameAnimator.getFrame(50, 32));
+
+        ItemStatInfoFeature.INSTANCE.animationSpeed = 0.5f;
+        time = NOW;
+        start = ItemNameAnimator.getFrame(50, 32);
+        time = NOW + 99;
+        assertEquals(start, ItemNameAnimator.getFrame(50, 32));
+        time = NOW + 100;
+        assertEquals((start + 1) % 32, ItemNameAnimator.getFrame(50, 32));
+    }
+
+    @Test
+    public void perfectNamesMoveEveryMillisecond() {
+        Component name = ItemNameAnimator.getPerfectName("Warp");
+        assertSame(name, ItemNameAnimator.getPerfectName("Warp"));
+        assertEquals("Perfect Warp", name.getString());
+        assertEquals(getPerfectColor(NOW, 1f), getFirstColor(name));
+
+        // a millisecond later the colors have moved on
+        time = NOW + 1;
+        Component nextName = ItemNameAnimator.getPerfectName("Warp");
+        assertNotSame(name, nextName);
+        assertNotEquals(name, nextName);
+        assertEquals(getPerfectColor(NOW + 1, 1f), getFirstColor(nextName));
+
+        // and a full cycle later they are back
+        time = NOW + 5000;
+        assertEquals(name, ItemNameAnimator.getPerfectName("Warp"));
+    }
+
+    @Test
+    public void speedScalesPerfectNames() {
+        ItemStatInfoFeature.INSTANCE.animationSpeed = 0.5f;
+
+        for (int step = 0; step < 20; step++) {
+            time = NOW + step;
+            Component name = ItemNameAnimator.getPerfectName("Warp");
+            assertEquals(getPerfectColor(time, 0.5f), getFirstColor(name), "after " + step + " ms");
+        }
+    }
+
+    @Test
+    public void defectiveNamesRepeatWithTheirFrame() {
+        Component name = ItemNameAnimator.getDefectiveName("Warp");
+        assertEquals("Defective Warp", name.getString());
+
+        time = NOW + 32 * 50;
+        assertSame(name, ItemNameAnimator.getDefectiveName("Warp"));
+
+        // rebuilt frames are garbled the same way
+        ItemNameAnimator.clear();
+        assertEquals(name, ItemNameAnimator.getDefectiveName("Warp"));
+    }
+
+    // the color of the first letter, as the original animation computed it
+    private static int getPerfectColor(long millis, float speed) {
+        long hue = (long) (millis * (double) speed) % 5000;
+        return Color.HSBtoRGB(hue / 5000f, 0.8f, 0.8f) & 0xFFFFFF;
+    }
+
+    private static int getFirstColor(Component name) {
+        return name.getSiblings().get(0).getStyle().getColor().getValue();
+    }
+}
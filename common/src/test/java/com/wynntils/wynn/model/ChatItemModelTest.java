@@ -0,0 +1,223 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.core.webapi.WebManager;
+import com.wynntils.core.webapi.profiles.item.ItemProfile;
+import com.wynntils.testing.GearItemStackBuilder;
+import com.wynntils.testing.GearItemStackBuilder.Rolls;
+import com.wynntils.testing.ItemFixture;
+import com.wynntils.wynn.item.GearItemStack;
+import com.wynntils.wynn.objects.ItemIdentificationContainer;
+import com.wynntils.wynn.objects.Powder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ChatItemModelTest {
+    private static final String START = new String(Character.toChars(0xF5FF0));
+    private static final String END = new String(Character.toChars(0xF5FF1));
+    private static final String SEPARATOR = new String(Character.toChars(0xF5FF2));
+
+    @BeforeAll
+    public static void setup() {
+        ItemFixture.load();
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        ItemFixture.restore();
+    }
+
+    @Test
+    public void encodedItemsDecodeToTheSameRolls() {
+        List<ItemProfile> itemProfiles = new ArrayList<>(WebManager.getItemsCollection());
+        itemProfiles.sort(Comparator.comparing(ItemProfile::getDisplayName));
+        // their tooltips wrap the major ids by width, which needs the headless font
+        assertTrue(itemProfiles.stream().anyMatch(itemProfile -> !itemProfile.getMajorIds().isEmpty()));
+
+        for (ItemProfile itemProfile : itemProfiles) {
+            for (Rolls rolls : List.of(Rolls.WORST, Rolls.BEST, Rolls.ROLLED)) {
+                String name = itemProfile.getDisplayName() + "/" + rolls;
+                GearItemStack original = new GearItemStackBuilder(itemProfile)
+                        .rolls(rolls)
+                        .powders(getPowders(itemProfile.getPowderAmount()))
+                        .rerolls(rolls.ordinal() * 3)
+                        .build();
+
+                String encoded = ChatItemModel.encodeItem(original);
+                GearItemStack decoded = ChatItemModel.decodeItem(encoded);
+
+                assertNotNull(decoded, name);
+                assertEquals(itemProfile, decoded.getItemProfile(), name);
+                assertEquals(describeIds(original), describeIds(decoded), name);
+                // items without powder slots have no powder line to parse
+                List<Powder> powders = Objects.requireNonNullElse(original.getPowders(), List.of());
+                assertEquals(powders, decoded.getPowders(), name);
+                assertEquals(original.getRerolls(), decoded.getRerolls(), name);
+                assertEquals(original.getOverallPercentage(), decoded.getOverallPercentage(), name);
+            }
+        }
+    }
+
+    @Test
+    public void powdersSpanSeveralCharacters() {
+        List<Powder> powders = List.of(Powder.FIRE, Powder.AIR, Powder.EARTH, Powder.WATER, Powder.THUNDER);
+        GearItemStack original = GearItemStackBuilder.of("Warp").powders(powders).build();
+
+        GearItemStack decoded = ChatItemModel.decodeItem(ChatItemModel.encodeItem(original));
+
+        assertNotNull(decoded);
+        assertEquals(powders, decoded.getPowders());
+    }
+
+    @Test
+    public void itemAtStartAndEnd() {
+        String encoded = encode("Warp");
+
+        assertFound(encoded, 0, encoded.length(), encoded);
+        assertFound(encoded + " is mine", 0, encoded.length(), encoded);
+        assertFound("check out " + encoded, 10, 10 + encoded.length(), encoded);
+    }
+
+    @Test
+    public void severalItemsInOneMessage() {
+        String warp = encode("Warp");
+        String cataclysm = encode("Cataclysm");
+        String kickback = encode("Kickback");
+        String message = warp + " or " + cataclysm + kickback + "?";
+
+        List<String> found = new ArrayList<>();
+        ChatItemModel.EncodedItem encoded = ChatItemModel.findEncodedItem(message, 0);
+        while (encoded != null) {
+            found.add(message.substring(encoded.start(), encoded.end()));
+            encoded = ChatItemModel.findEncodedItem(message, encoded.end());
+        }
+
+        assertEquals(List.of(warp, cataclysm, kickback), found);
+        assertEquals(found, findWithPattern(message));
+    }
+
+    @Test
+    public void malformedItemsAreSkipped() {
+        String warp = encode("Warp");
+        String withoutEnd = warp.substring(0, warp.length() - END.length());
+
+        // no END
+        assertNotFound(withoutEnd);
+        assertNotFound(withoutEnd + " and more text");
+        // no name
+        assertNotFound(START + SEPARATOR + encodeNumber(0) + END);
+        // no rerolls
+        assertNotFound(START + "Warp" + SEPARATOR + END);
+        // a powder separator without powders or rerolls
+        assertNotFound(START + "Warp" + SEPARATOR + encodeNumber(4) + SEPARATOR + END);
+        // powders without rerolls
+        assertNotFound(START + "Warp" + SEPARATOR + encodeNumber(4) + SEPARATOR + encodeNumber(1) + END);
+        // a value outside of the encoded range
+        assertNotFound(START + "Warp" + SEPARATOR + encodeNumber(0xF01) + encodeNumber(0) + END);
+        assertNotFound(START + "Warp" + SEPARATOR + "x" + encodeNumber(0) + END);
+    }
+
+    @Test
+    public void brokenItemsDoNotHideTheNextOne() {
+        String warp = encode("Warp");
+        String withoutEnd = warp.substring(0, warp.length() - END.length());
+
+        String message = withoutEnd + " " + warp;
+        assertFound(message, withoutEnd.length() + 1, message.length(), warp);
+
+        message = START + "not an item " + warp;
+        assertFound(message, message.length() - warp.length(), message.length(), warp);
+
+        message = START + "Warp" + END + warp;
+        assertFound(message, message.length() - warp.length(), message.length(), warp);
+    }
+
+    @Test
+    public void malformedItemsDoNotDecode() {
+        String warp = encode("Warp");
+
+        assertNull(ChatItemModel.decodeItem(warp + " "));
+        assertNull(ChatItemModel.decodeItem(" " + warp));
+        assertNull(ChatItemModel.decodeItem(warp.replace("Warp", "Not An Item")));
+
+        // one identification less than the item has
+        int idsStart = warp.indexOf(SEPARATOR) + SEPARATOR.length();
+        String missingId = warp.substring(0, idsStart) + warp.substring(idsStart + 2);
+        assertNull(ChatItemModel.decodeItem(missingId));
+    }
+
+    private static void assertFound(String text, int start, int end, String item) {
+        ChatItemModel.EncodedItem encoded = ChatItemModel.findEncodedItem(text, 0);
+
+        assertNotNull(encoded, text);
+        assertEquals(start, encoded.start(), text);
+        assertEquals(end, encoded.end(), text);
+        assertEquals(item, text.substring(encoded.start(), encoded.end()));
+        assertEquals(List.of(item), findWithPattern(text));
+        assertNotNull(ChatItemModel.decodeItem(item));
+    }
+
+    private static void assertNotFound(String text) {
+        assertNull(ChatItemModel.findEncodedItem(text, 0), text);
+        assertFalse(ChatItemModel.chatItemMatcher(text).find(), text);
+        assertNull(ChatItemModel.decodeItem(text), text);
+    }
+
+    // the regex is what other chat code matches items with, so the scanner must agree with it
+    private static List<String> findWithPattern(String text) {
+        List<String> found = new ArrayList<>();
+        Matcher matcher = ChatItemModel.chatItemMatcher(text);
+        while (matcher.find()) {
+            found.add(matcher.group());
+        }
+        return found;
+    }
+
+    private static String encode(String itemName) {
+        GearItemStack item = GearItemStackBuilder.of(itemName)
+                .powders(List.of(Powder.FIRE))
+                .rerolls(1)
+                .build();
+        String encoded = ChatItemModel.encodeItem(item);
+
+        assertTrue(encoded.startsWith(START + itemName + SEPARATOR), encoded);
+        return encoded;
+    }
+
+    private static String encodeNumber(int value) {
+        return new String(Character.toChars(0xF5000 + value));
+    }
+
+    private static Map<String, String> describeIds(GearItemStack item) {
+        Map<String, String> ids = new TreeMap<>();
+        for (ItemIdentificationContainer id : item.getIdentifications()) {
+            ids.put(id.shortIdName(), id.value() + "*".repeat(id.stars()) + " " + id.percent());
+        }
+        return ids;
+    }
+
+    private static List<Powder> getPowders(int count) {
+        List<Powder> powders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            powders.add(Powder.values()[(i + 3) % Powder.values().length]);
+        }
+        return powders;
+    }
+}
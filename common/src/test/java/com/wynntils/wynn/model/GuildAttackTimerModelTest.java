@@ -0,0 +1,219 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.core.chat.MessageType;
+import com.wynntils.core.chat.RecipientType;
+import com.wynntils.mc.MinecraftSchedulerManager;
+import com.wynntils.testing.EventBusFixture;
+import com.wynntils.wynn.event.ChatMessageReceivedEvent;
+import com.wynntils.wynn.event.GuildAttackTimerEvent;
+import com.wynntils.wynn.model.scoreboard.ScoreboardModel;
+import com.wynntils.wynn.model.scoreboard.Segment;
+import com.wynntils.wynn.model.scoreboard.guild.TerritoryAttackTimer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GuildAttackTimerModelTest {
+    private final List<GuildAttackTimerEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        EventBusFixture.install(GuildAttackTimerModel.class, this);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        GuildAttackTimerModel.resetTimers();
+        MinecraftSchedulerManager.onTick();
+        EventBusFixture.uninstall();
+    }
+
+    @SubscribeEvent
+    public void onAdded(GuildAttackTimerEvent.Added event) {
+        events.add(event);
+    }
+
+    @SubscribeEvent
+    public void onExpired(GuildAttackTimerEvent.Expired event) {
+        events.add(event);
+    }
+
+    @SubscribeEvent
+    public void onDefenseUpdated(GuildAttackTimerEvent.DefenseUpdated event) {
+        events.add(event);
+    }
+
+    @Test
+    public void timersAreAddedSortedAndExpired() {
+        processSegment("§b- 4:32 §3Detlas", "§b- 2:05 §3Ragni");
+
+        assertEvents("Added Detlas (Unknown) 04:32", "Added Ragni (Unknown) 02:05");
+        assertTimers("Ragni 02:05", "Detlas 04:32");
+
+        // a second later Ragni has been taken
+        processSegment("§b- 4:31 §3Detlas");
+
+        assertEvents("Expired Ragni (Unknown) 02:05");
+        assertTimers("Detlas 04:31");
+        assertEquals("04:31", GuildAttackTimerModel.getAttackTimerForTerritory("Detlas").orElseThrow().timerString());
+        assertTrue(GuildAttackTimerModel.getAttackTimerForTerritory("Ragni").isEmpty());
+
+        // unchanged timers do not post anything
+        processSegment("§b- 4:31 §3Detlas");
+        assertEvents();
+
+        GuildAttackTimerModel.resetTimers();
+        MinecraftSchedulerManager.onTick();
+        assertEvents("Expired Detlas (Unknown) 04:31");
+        assertTimers();
+    }
+
+    @Test
+    public void onlyTheShortestTimerOfATerritoryIsKept() {
+        processSegment("§b- 9:59 §3Almuj", "§b- 1:10 §3Almuj", "§b- 5:00 §3Almuj", "§b- 3:00 §3Nivla Woods");
+
+        assertEvents("Added Almuj (Unknown) 01:10", "Added Nivla Woods (Unknown) 03:00");
+        assertTimers("Almuj 01:10", "Nivla Woods 03:00");
+
+        // the longer attack is all that is left
+        processSegment("§b- 9:58 §3Almuj", "§b- 2:59 §3Nivla Woods");
+
+        assertEvents();
+        assertTimers("Nivla Woods 02:59", "Almuj 09:58");
+    }
+
+    @Test
+    public void defensesAnnouncedBeforeTheTimerAreJoined() {
+        announceDefense("Llevigar", "High");
+        assertEvents();
+
+        processSegment("§b- 3:30 §3Llevigar");
+
+        assertEvents("Added Llevigar (High) 03:30");
+    }
+
+    @Test
+    public void defensesAnnouncedAfterTheTimerUpdateIt() {
+        processSegment("§b- 3:30 §3Troms");
+        assertEvents("Added Troms (Unknown) 03:30");
+
+        announceDefense("Troms", "Low");
+        assertEvents("DefenseUpdated Troms (Low) 03:30");
+
+        // only the first announced defense counts
+        announceDefense("Troms", "Very High");
+        assertEvents();
+
+        // and it is kept when the time changes
+        processSegment("§b- 3:29 §3Troms");
+        assertEvents();
+        assertEquals("Low", GuildAttackTimerModel.getAttackTimerForTerritory("Troms").orElseThrow().defense());
+    }
+
+    @Test
+    public void otherMessagesAreIgnored() {
+        processSegment("§b- 3:30 §3Selchar");
+
+        postChat("§r§3[WAR§3]§b Selchar defense is Medium", RecipientType.LOCAL);
+        postChat("§r§3[WAR§3]§b Selchar is under attack", RecipientType.GUILD);
+        MinecraftSchedulerManager.onTick();
+
+        assertEvents("Added Selchar (Unknown) 03:30");
+    }
+
+    @Test
+    public void defensesAreAnnouncedOnceWhileTheScoreboardChanges() throws InterruptedException {
+        for (int attack = 0; attack < 200; attack++) {
+            String territory = "Territory " + attack;
+            CountDownLatch started = new CountDownLatch(1);
+
+            // the scoreboard thread counts the timer down while the defense arrives in chat
+            Thread scoreboardThread = new Thread(() -> {
+                for (int seconds = 59; seconds >= 0; seconds--) {
+                    GuildAttackTimerModel.processChanges(segment("§b- 1:" + seconds + " §3" + territory));
+                    started.countDown();
+                }
+            });
+            scoreboardThread.start();
+
+            // sometimes before the timer exists, mostly while it is replaced
+            if (attack % 10 != 0) {
+                started.await();
+            }
+            announceDefense(territory, "Medium");
+            scoreboardThread.join();
+            MinecraftSchedulerManager.onTick();
+
+            // the defense is either known when the timer is added, or updated exactly once
+            long announcements = events.stream()
+                    .filter(event -> event.getTimer().territory().equals(territory))
+                    .filter(event -> event instanceof GuildAttackTimerEvent.DefenseUpdated
+                            || (event instanceof GuildAttackTimerEvent.Added && event.getTimer().isDefenseKnown()))
+                    .count();
+            assertEquals(1, announcements, territory + ": " + describe(events));
+            assertEquals("Medium", GuildAttackTimerModel.getAttackTimerForTerritory(territory).orElseThrow().defense());
+
+            GuildAttackTimerModel.resetTimers();
+            MinecraftSchedulerManager.onTick();
+            events.clear();
+        }
+    }
+
+    private void processSegment(String... lines) {
+        GuildAttackTimerModel.processChanges(segment(lines));
+        // events are posted on the next tick
+        MinecraftSchedulerManager.onTick();
+    }
+
+    private static Segment segment(String... lines) {
+        Segment segment = new Segment(ScoreboardModel.SegmentType.GuildAttackTimer, "§b§lUpcoming Attacks:", 0);
+        segment.setContent(List.of(lines));
+        return segment;
+    }
+
+    private static void announceDefense(String territory, String defense) {
+        postChat("§r§3[WAR§3]§b " + territory + " defense is " + defense, RecipientType.GUILD);
+        MinecraftSchedulerManager.onTick();
+    }
+
+    private static void postChat(String message, RecipientType recipientType) {
+        WynntilsMod.postEvent(
+                new ChatMessageReceivedEvent(new TextComponent(message), message, MessageType.NORMAL, recipientType));
+    }
+
+    private void assertEvents(String... expected) {
+        assertEquals(List.of(expected), describe(events));
+        events.clear();
+    }
+
+    private static void assertTimers(String... expected) {
+        assertEquals(
+                List.of(expected),
+                GuildAttackTimerModel.getAttackTimers().stream()
+                        .map(timer -> timer.territory() + " " + timer.timerString())
+                        .toList());
+    }
+
+    private static List<String> describe(List<GuildAttackTimerEvent> events) {
+        return events.stream()
+                .map(event -> {
+                    TerritoryAttackTimer timer = event.getTimer();
+                    return event.getClass().getSimpleName() + " " + timer.territory() + " (" + timer.defense()
+                            + ") " + timer.timerString();
+                })
+                .toList();
+    }
+}
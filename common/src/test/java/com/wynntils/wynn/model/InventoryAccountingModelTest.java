@@ -0,0 +1,227 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.mc.event.SetSlotEvent;
+import com.wynntils.mc.utils.ItemUtils;
+import com.wynntils.testing.EventBusFixture;
+import com.wynntils.testing.MinecraftFixture;
+import com.wynntils.wynn.item.IngredientItemStack;
+import com.wynntils.wynn.objects.EmeraldSymbols;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.ChestMenu;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class InventoryAccountingModelTest {
+    private static final int CONTAINER_SIZE = 54;
+    private static final int UPDATES = 5000;
+
+    // every kind of slot content, with what a single item of it is worth
+    private static final List<Kind> KINDS = List.of(
+            new Kind(count -> ItemStack.EMPTY, 0, 0, 0, 0),
+            new Kind(count -> named(Items.EMERALD, "§aEmerald", count), 1, 0, 0, 0),
+            new Kind(count -> named(Items.EMERALD_BLOCK, "§aEmerald Block", count), 64, 0, 0, 0),
+            new Kind(count -> named(Items.EXPERIENCE_BOTTLE, "§aLiquid Emerald", count), 4096, 0, 0, 0),
+            // wrong name, so not money
+            new Kind(count -> named(Items.EMERALD, "§fEmerald", count), 0, 0, 0, 0),
+            // a single pouch, holding count * 1000 emeralds
+            new Kind(count -> pouch(count * 1000), 0, 1000, 0, 0),
+            new Kind(
+                    count -> new IngredientItemStack(named(Items.PLAYER_HEAD, "Glow Bulb Seeds [✫✫✫]", count)),
+                    0,
+                    0,
+                    1,
+                    0),
+            new Kind(count -> named(Items.PINK_DYE, "§cFire Powder III", count), 0, 0, 0, 1),
+            new Kind(count -> named(Items.DIAMOND_SWORD, "§bSome Weapon", count), 0, 0, 0, 0));
+
+    @BeforeAll
+    public static void setupAll() {
+        MinecraftFixture.bootstrap();
+    }
+
+    @BeforeEach
+    public void setup() {
+        EventBusFixture.install(InventoryAccountingModel.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        EventBusFixture.uninstall();
+        InventoryAccountingModel.disable();
+    }
+
+    @Test
+    public void cachedTotalsMatchFullRecount() {
+        Random random = new Random(20221019L);
+        ChestMenu menu = createMenu();
+        Kind[] slotKinds = new Kind[CONTAINER_SIZE];
+        int[] createdCounts = new int[CONTAINER_SIZE];
+        Arrays.fill(slotKinds, KINDS.get(0));
+
+        for (int update = 0; update < UPDATES; update++) {
+            int slotIndex = random.nextInt(CONTAINER_SIZE);
+            Slot slot = menu.getSlot(slotIndex);
+            ItemStack current = slot.getItem();
+            int operation = random.nextInt(4);
+
+            if (operation == 0 || current.isEmpty()) {
+                Kind kind = KINDS.get(random.nextInt(KINDS.size()));
+                int count = 1 + random.nextInt(64);
+                setSlot(slot, kind.factory().apply(count));
+                slotKinds[slotIndex] = kind;
+                createdCounts[slotIndex] = count;
+            } else if (operation == 1) {
+                // right click pickup of half the stack
+                slot.safeTake((current.getCount() + 1) / 2, Integer.MAX_VALUE, null);
+            } else if (operation == 2) {
+                current.grow(1 + random.nextInt(8));
+            } else {
+                current.shrink(1);
+            }
+
+            int[] expected = new int[4];
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                int[] worth = slotKinds[i].worth(menu.getSlot(i).getItem(), createdCounts[i]);
+                for (int j = 0; j < expected.length; j++) {
+                    expected[j] += worth[j];
+                }
+            }
+
+            String message = "after update " + update + " (operation " + operation + ")";
+            InventoryAccountingModel.ContainerTotals totals = InventoryAccountingModel.getContainerTotals(menu);
+            assertTotals(expected, totals, message);
+            assertTotals(getValues(InventoryAccountingModel.count(menu.getContainer())), totals, message);
+        }
+    }
+
+    @Test
+    public void halfPickupIsCountedWithoutSettingTheSlot() {
+        ChestMenu menu = createMenu();
+        Slot slot = menu.getSlot(3);
+        ItemStack emeralds = named(Items.EMERALD_BLOCK, "§aEmerald Block", 10);
+
+        setSlot(slot, emeralds);
+        assertEquals(640, InventoryAccountingModel.getContainerTotals(menu).getEmeralds());
+
+        ItemStack taken = slot.safeTake(5, Integer.MAX_VALUE, null);
+        assertEquals(5, taken.getCount());
+        // the stack was split in place, the slot was never set
+        assertSame(emeralds, menu.getContainer().getItem(3));
+        assertEquals(320, InventoryAccountingModel.getContainerTotals(menu).getEmeralds());
+
+        // placing the taken stack back onto it grows it in place as well
+        emeralds.grow(taken.getCount());
+        assertEquals(640, InventoryAccountingModel.getContainerTotals(menu).getEmeralds());
+    }
+
+    @Test
+    public void settingTheSameSlotTwiceDoesNotCountTwice() {
+        ChestMenu menu = createMenu();
+        Slot slot = menu.getSlot(3);
+
+        ItemStack emeralds = named(Items.EMERALD_BLOCK, "§aEmerald Block", 10);
+        setSlot(slot, emeralds);
+        setSlot(slot, emeralds);
+        InventoryAccountingModel.ContainerTotals totals = InventoryAccountingModel.getContainerTotals(menu);
+        assertEquals(640, totals.getEmeralds());
+
+        setSlot(slot, pouch(500));
+        assertEquals(0, totals.getLooseEmeralds());
+        assertEquals(500, totals.getPouchEmeralds());
+        assertEquals(500, totals.getEmeralds());
+
+        setSlot(slot, ItemStack.EMPTY);
+        assertEquals(0, totals.getEmeralds());
+    }
+
+    @Test
+    public void playerInventoryIsNotCountedAsContainer() {
+        ChestMenu menu = createMenu();
+
+        // the first player inventory slot, right after the chest
+        setSlot(menu.getSlot(CONTAINER_SIZE), named(Items.EMERALD_BLOCK, "§aEmerald Block", 10));
+
+        assertEquals(0, InventoryAccountingModel.getContainerTotals(menu).getEmeralds());
+    }
+
+    private static ChestMenu createMenu() {
+        return new ChestMenu(
+                MenuType.GENERIC_9x6, 1, new Inventory(null), new SimpleContainer(CONTAINER_SIZE), CONTAINER_SIZE / 9);
+    }
+
+    // what Slot.set does with SlotMixin applied
+    private static void setSlot(Slot slot, ItemStack itemStack) {
+        SetSlotEvent event = new SetSlotEvent(slot.container, slot.getContainerSlot(), itemStack);
+        WynntilsMod.postEvent(event);
+        if (event.isCanceled()) return;
+
+        slot.container.setItem(slot.getContainerSlot(), event.getItem());
+        slot.setChanged();
+    }
+
+    private static void assertTotals(int[] expected, InventoryAccountingModel.ContainerTotals actual, String message) {
+        assertEquals(expected[0], actual.getLooseEmeralds(), message);
+        assertEquals(expected[1], actual.getPouchEmeralds(), message);
+        assertEquals(expected[0] + expected[1], actual.getEmeralds(), message);
+        assertEquals(expected[2], actual.getIngredients(), message);
+        assertEquals(expected[3], actual.getPowders(), message);
+    }
+
+    private static int[] getValues(InventoryAccountingModel.ContainerTotals totals) {
+        return new int[] {
+            totals.getLooseEmeralds(), totals.getPouchEmeralds(), totals.getIngredients(), totals.getPowders()
+        };
+    }
+
+    private static ItemStack named(Item item, String name, int count) {
+        ItemStack itemStack = new ItemStack(item, count);
+        itemStack.setHoverName(new TextComponent(name));
+        return itemStack;
+    }
+
+    // pouches don't stack, their worth is the usage in the first lore line
+    private static ItemStack pouch(int emeralds) {
+        ItemStack itemStack = named(Items.DIAMOND_AXE, "§aEmerald Pouch§2 [Tier IX]", 1);
+
+        ListTag lore = new ListTag();
+        lore.add(ItemUtils.toLoreStringTag("§6§l" + emeralds + EmeraldSymbols.E_STRING));
+        itemStack.getOrCreateTagElement("display").put("Lore", lore);
+
+        return itemStack;
+    }
+
+    private record Kind(
+            IntFunction<ItemStack> factory, int looseEmeralds, int pouchEmeralds, int ingredients, int powders) {
+        private int[] worth(ItemStack itemStack, int createdCount) {
+            if (itemStack.isEmpty()) return new int[4];
+
+            // a pouch is worth what it was created with, however many of it are stacked
+            int count = itemStack.getCount();
+            return new int[] {
+                looseEmeralds * count, pouchEmeralds * createdCount, ingredients * count, powders * count
+            };
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.mc.event.ConnectionEvent;
+import com.wynntils.mc.event.PlayerInfoEvent;
+import com.wynntils.testing.EventBusFixture;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import net.minecraft.network.chat.TextComponent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PlayerRelationsModelTest {
+    private static final String CHAT_LOG = "/chat/relations.log";
+    // The tab list entry Wynncraft shows the world name in
+    private static final UUID WORLD_NAME_UUID = UUID.fromString("16ff7452-714f-3752-b3cd-c3cb2068f6af");
+
+    @BeforeEach
+    public void setUp() {
+        EventBusFixture.install(WorldStateManager.class);
+        PlayerRelationsModel.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PlayerRelationsModel.disable();
+        WynntilsMod.postEvent(new ConnectionEvent.DisconnectedEvent());
+        EventBusFixture.uninstall();
+    }
+
+    @Test
+    public void replayedChatLogUpdatesRelations() throws IOException {
+        replay(CHAT_LOG);
+
+        assertEquals(Set.of("Alice", "Carol", "Dave"), PlayerRelationsModel.getFriends());
+        assertEquals(Set.of("Author", "Dave", "Erin"), PlayerRelationsModel.getPartyMembers());
+
+        assertEquals(PlayerRelationsModel.RelationStatus.ONLINE, PlayerRelationsModel.getStatus("Alice"));
+        assertEquals(PlayerRelationsModel.RelationStatus.ONLINE, PlayerRelationsModel.getStatus("Carol"));
+        // added after logging in, and removed friends are forgotten
+        assertEquals(PlayerRelationsModel.RelationStatus.UNKNOWN, PlayerRelationsModel.getStatus("Dave"));
+        assertEquals(PlayerRelationsModel.RelationStatus.UNKNOWN, PlayerRelationsModel.getStatus("Bob"));
+        assertEquals(PlayerRelationsModel.RelationStatus.UNKNOWN, PlayerRelationsModel.getStatus("Mallory"));
+    }
+
+    @Test
+    public void friendsOnTheCurrentWorldAreOnTheSameWorld() throws IOException {
+        joinWorld("WC1");
+        replay(CHAT_LOG);
+
+        assertEquals(PlayerRelationsModel.RelationStatus.WORLD, PlayerRelationsModel.getStatus("Alice"));
+        assertEquals(PlayerRelationsModel.RelationStatus.ONLINE, PlayerRelationsModel.getStatus("Carol"));
+
+        // the status follows the player to another world
+        joinWorld("WC7");
+        assertEquals(PlayerRelationsModel.RelationStatus.ONLINE, PlayerRelationsModel.getStatus("Alice"));
+        assertEquals(PlayerRelationsModel.RelationStatus.WORLD, PlayerRelationsModel.getStatus("Carol"));
+        // not a friend, so never tracked, whatever the world
+        assertEquals(PlayerRelationsModel.RelationStatus.UNKNOWN, PlayerRelationsModel.getStatus("Mallory"));
+    }
+
+    @Test
+    public void emptyFriendListIsTwoMessages() {
+        PlayerRelationsModel.onFriendListRequested();
+        assertTrue(PlayerRelationsModel.handleMessage("§eWe couldn't find any friends."));
+        assertTrue(PlayerRelationsModel.handleMessage("§eTry typing §r§6/friend add Username§r§e!"));
+        assertEquals(Set.of(), PlayerRelationsModel.getFriends());
+
+        // the hint on its own is shown, since we did not ask for it
+        assertFalse(PlayerRelationsModel.handleMessage("§eTry typing §r§6/friend add Username§r§e!"));
+    }
+
+    @Test
+    public void disbandingClearsTheParty() {
+        PlayerRelationsModel.onPartyListRequested();
+        PlayerRelationsModel.handleMessage("§eParty members: §r§fAuthor, Alice");
+        assertEquals(Set.of("Author", "Alice"), PlayerRelationsModel.getPartyMembers());
+
+        assertFalse(PlayerRelationsModel.handleMessage("§eYour party has been disbanded."));
+        assertEquals(Set.of(), PlayerRelationsModel.getPartyMembers());
+    }
+
+    private static void joinWorld(String world) {
+        WynntilsMod.postEvent(new PlayerInfoEvent.PlayerDisplayNameChangeEvent(
+                WORLD_NAME_UUID, new TextComponent("§f  §lGlobal [" + world + "]")));
+        assertEquals(world, WorldStateManager.getCurrentWorldName());
+    }
+
+    private static void replay(String resource) throws IOException {
+        InputStream stream = PlayerRelationsModelTest.class.getResourceAsStream(resource);
+        assertNotNull(stream, resource);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                int separator = line.indexOf('|');
+                String action = line.substring(0, separator);
+                String message = line.substring(separator + 1);
+
+                switch (action) {
+                    case "request" -> {
+                        if (message.equals("friends")) {
+                            PlayerRelationsModel.onFriendListRequested();
+                        } else {
+                            PlayerRelationsModel.onPartyListRequested();
+                        }
+                    }
+                    case "hide", "show" -> assertEquals(
+                            action.equals("hide"),
+                            PlayerRelationsModel.handleMessage(message),
+                            resource + ":" + lineNumber + " " + message);
+                    default -> throw new IllegalStateException(resource + ":" + lineNumber + " unknown action");
+                }
+            }
+        }
+    }
+}
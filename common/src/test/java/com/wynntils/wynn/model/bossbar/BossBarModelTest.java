@@ -0,0 +1,201 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.bossbar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.core.functions.DependantFunction;
+import com.wynntils.functions.BossBarFunctions;
+import com.wynntils.wynn.objects.ClassType;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import net.minecraft.client.gui.components.LerpingBossEvent;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.world.BossEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class BossBarModelTest {
+    // coded boss bar titles as Wynncraft sends them, at both ends of their range and in between
+    private static final Map<String, TrackedBar> RECORDED_TITLES = Map.ofEntries(
+            Map.entry("§bMana Bank §3[45/120§3]", BossBarModel.manaBankBar),
+            Map.entry("§bMana Bank §3[0/120§3]", BossBarModel.manaBankBar),
+            Map.entry("§cBlood Pool §4[§c37%§4]", BossBarModel.bloodPoolBar),
+            Map.entry("§cBlood Pool §4[§c100%§4]", BossBarModel.bloodPoolBar),
+            Map.entry("§fAwakening §7[§f120/200§7]", BossBarModel.awakenedBar),
+            Map.entry("§fAwakening §7[§f200/200§7]", BossBarModel.awakenedBar),
+            Map.entry("§eFocus §6[§e3/6§6]", BossBarModel.focusBar),
+            Map.entry("§eFocus §6[§e0/6§6]", BossBarModel.focusBar),
+            Map.entry("§cCorrupted §4[§c64%§4]", BossBarModel.corruptedBar),
+            Map.entry("§cCorrupted §4[§c0%§4]", BossBarModel.corruptedBar));
+
+    // titles no class tracks
+    private static final List<String> OTHER_TITLES = List.of(
+            "§4§lQueen of the Void §7[§c100%§7]",
+            "§7Sprint",
+            "§bMana Bank",
+            "§cBlood Pool §4(§c37%§4)",
+            "",
+            "[");
+
+    // titles one character away from a tracked one, which must neither classify nor parse
+    private static final Map<String, ClassType> NEAR_MISSES = Map.ofEntries(
+            Map.entry("§bMana bank §3[45/120§3]", ClassType.Mage),
+            Map.entry("§3Mana Bank §3[45/120§3]", ClassType.Mage),
+            Map.entry("§bMana Bank §3[45/120]", ClassType.Mage),
+            Map.entry("§bMana Bank §3[45/120§3] ", ClassType.Mage),
+            Map.entry("§cBlood Pool §4[§c37.5%§4]", ClassType.Shaman),
+            Map.entry("§cBlood Pool§4[§c37%§4]", ClassType.Shaman),
+            Map.entry("§fAwakening §7[§f-5/200§7]", ClassType.Shaman),
+            Map.entry("§fAwakened §7[§f120/200§7]", ClassType.Shaman),
+            Map.entry("§eFocus §6[§e3/6§6]§r", ClassType.Archer),
+            Map.entry("§eFocus §6[§e3§6]", ClassType.Archer),
+            Map.entry("§cCorrupted §4[§c64§4]", ClassType.Warrior),
+            Map.entry("§cCorruption §4[§c64%§4]", ClassType.Warrior));
+
+    private static final List<TrackedBar> BARS = List.of(
+            BossBarModel.manaBankBar,
+            BossBarModel.bloodPoolBar,
+            BossBarModel.awakenedBar,
+            BossBarModel.focusBar,
+            BossBarModel.corruptedBar);
+
+    @AfterEach
+    public void tearDown() {
+        for (TrackedBar bar : BARS) {
+            bar.reset();
+        }
+    }
+
+    @Test
+    public void recordedTitlesAreClassifiedForTheirClassOnly() {
+        for (ClassType classType : ClassType.values()) {
+            for (Map.Entry<String, TrackedBar> entry : RECORDED_TITLES.entrySet()) {
+                String title = entry.getKey();
+                TrackedBar expected = entry.getValue().classType == classType ? entry.getValue() : null;
+                assertSame(expected, BossBarModel.classify(classType, title), classType + " " + title);
+            }
+
+            for (String title : OTHER_TITLES) {
+                assertNull(BossBarModel.classify(classType, title), classType + " " + title);
+            }
+        }
+    }
+
+    @Test
+    public void nearMissesAreNotParsed() {
+        for (Map.Entry<String, ClassType> entry : NEAR_MISSES.entrySet()) {
+            String title = entry.getKey();
+            TrackedBar bar = BossBarModel.classify(entry.getValue(), title);
+
+            // a title may share the prefix of a bar, but then it must not parse as one
+            if (bar != null) {
+                assertFalse(bar.updateName(title), title);
+            }
+        }
+    }
+
+    @Test
+    public void everyRecordedTitleParsesAsItsBar() {
+        for (Map.Entry<String, TrackedBar> entry : RECORDED_TITLES.entrySet()) {
+            assertTrue(entry.getValue().updateName(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    public void recordedTitlesAreParsed() {
+        assertBar(BossBarModel.manaBankBar, "§bMana Bank §3[45/120§3]", 45, 120);
+        assertBar(BossBarModel.awakenedBar, "§fAwakening §7[§f120/200§7]", 120, 200);
+        assertBar(BossBarModel.focusBar, "§eFocus §6[§e3/6§6]", 3, 6);
+        assertBar(BossBarModel.corruptedBar, "§cCorrupted §4[§c64%§4]", 64, 100);
+
+        // the blood pool maximum comes from the progress, rounded to 30
+        assertBar(BossBarModel.bloodPoolBar, "§cBlood Pool §4[§c37%§4]", 37, 0);
+        BossBarModel.bloodPoolBar.updateProgress(37 / 301f);
+        assertEquals(300, BossBarModel.bloodPoolBar.getMax());
+    }
+
+    @Test
+    public void classifiedTitlesWithAnotherFormatAreRejected() {
+        String title = "§eFocus §6[§eno focus§6]";
+        TrackedBar bar = BossBarModel.classify(ClassType.Archer, title);
+
+        assertSame(BossBarModel.focusBar, bar);
+        assertFalse(bar.updateName(title));
+    }
+
+    @Test
+    public void everyBarHasAFunctionForEveryValue() {
+        List<DependantFunction<?>> functions = BossBarFunctions.createFunctions();
+
+        assertEquals(
+                List.of(
+                        "blood_pool",
+                        "blood_pool_max",
+                        "blood_pool_rate",
+                        "blood_pool_idle",
+                        "mana_bank",
+                        "mana_bank_max",
+                        "mana_bank_rate",
+                        "mana_bank_idle",
+                        "awakened",
+                        "awakened_max",
+                        "awakened_rate",
+                        "awakened_idle",
+                        "focus",
+                        "focus_max",
+                        "focus_rate",
+                        "focus_idle",
+                        "corrupted",
+                        "corrupted_max",
+                        "corrupted_rate",
+                        "corrupted_idle"),
+                functions.stream().map(DependantFunction::getName).collect(Collectors.toList()));
+
+        // nothing is shown, so every function is empty
+        for (DependantFunction<?> function : functions) {
+            assertNull(function.getValue(""), function.getName());
+        }
+    }
+
+    @Test
+    public void functionsReadTheirShownBar() {
+        Map<String, DependantFunction<?>> functions = BossBarFunctions.createFunctions().stream()
+                .collect(Collectors.toMap(DependantFunction::getName, function -> function));
+
+        BossBarModel.focusBar.updateName("§eFocus §6[§e3/6§6]");
+        BossBarModel.focusBar.setEvent(new LerpingBossEvent(
+                UUID.randomUUID(),
+                new TextComponent("§eFocus §6[§e3/6§6]"),
+                0.5f,
+                BossEvent.BossBarColor.YELLOW,
+                BossEvent.BossBarOverlay.PROGRESS,
+                false,
+                false,
+                false));
+
+        assertEquals(3, functions.get("focus").getValue(""));
+        assertEquals(6, functions.get("focus_max").getValue(""));
+        assertEquals(0f, functions.get("focus_rate").getValue(""));
+        assertNotNull(functions.get("focus_idle").getValue(""));
+
+        // other bars are still not shown
+        assertNull(functions.get("mana_bank").getValue(""));
+        assertNull(functions.get("corrupted_idle").getValue(""));
+    }
+
+    private static void assertBar(TrackedBar bar, String title, int current, int max) {
+        assertTrue(bar.updateName(title), title);
+        assertEquals(current, bar.getCurrent(), title);
+        assertEquals(max, bar.getMax(), title);
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.quests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.wynntils.mc.utils.ItemUtils;
+import com.wynntils.testing.MinecraftFixture;
+import com.wynntils.utils.Pair;
+import com.wynntils.wynn.model.container.ContainerContent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QuestBookTest {
+    private static final int PAGES = 3;
+    private static final int LEVEL = 40;
+
+    private QuestBook book;
+
+    @BeforeAll
+    public static void setup() {
+        MinecraftFixture.bootstrap();
+    }
+
+    @BeforeEach
+    public void createBook() {
+        book = new QuestBook(PAGES, false);
+        scan(
+                LEVEL,
+                List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)),
+                List.of(quest("C", QuestStatus.CAN_START, 2), quest("D", QuestStatus.CANNOT_START, 2)),
+                List.of(quest("E", QuestStatus.COMPLETED, 3)));
+    }
+
+    @Test
+    public void firstScanReadsEveryPage() {
+        assertEquals(List.of("A", "B", "C", "D", "E"), getNames());
+    }
+
+    @Test
+    public void cleanBookOnlyNeedsTheFirstPage() {
+        QuestInfo a = book.getQuests().get(0);
+
+        book.beginScan(LEVEL);
+        assertFalse(book.isScanDone());
+
+        book.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertTrue(book.isScanDone());
+        // unchanged quests are kept, so references to them stay valid
+        assertSame(a, book.getQuests().get(0));
+    }
+
+    @Test
+    public void dirtyPagesAreRead() {
+        book.markDirty(book.getQuests().get(2));
+
+        book.beginScan(LEVEL);
+        book.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertFalse(book.isScanDone());
+
+        book.mergePage(2, List.of(quest("C", QuestStatus.STARTED, 2), quest("D", QuestStatus.CANNOT_START, 2)));
+        assertTrue(book.isScanDone());
+        assertEquals(QuestStatus.STARTED, book.getQuests().get(2).getStatus());
+    }
+
+    @Test
+    public void movedQuestsMakeTheirOldPageDirty() {
+        // B was completed, and the book now sorts it after C
+        book.markDirty(book.getQuests().get(1));
+
+        book.beginScan(LEVEL);
+        book.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("C", QuestStatus.CAN_START, 1)));
+        assertEquals(List.of("A", "C", "D", "E"), getNames());
+        // C left page 2, so something else took its place there
+        assertFalse(book.isScanDone());
+
+        book.mergePage(2, List.of(quest("B", QuestStatus.COMPLETED, 2), quest("D", QuestStatus.CANNOT_START, 2)));
+        assertTrue(book.isScanDone());
+        assertEquals(List.of("A", "C", "B", "D", "E"), getNames());
+    }
+
+    @Test
+    public void unexpectedPageChangeReadsTheWholeBook() {
+        book.beginScan(LEVEL);
+
+        // nothing told us about this change, so any later page may have changed as well
+        book.mergePage(1, List.of(quest("A", QuestStatus.COMPLETED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertFalse(book.isScanDone());
+
+        book.mergePage(2, List.of(quest("C", QuestStatus.CAN_START, 2), quest("D", QuestStatus.CANNOT_START, 2)));
+        assertFalse(book.isScanDone());
+
+        book.mergePage(3, List.of(quest("E", QuestStatus.COMPLETED, 3)));
+        assertTrue(book.isScanDone());
+
+        // and the next scan trusts the book again
+        book.beginScan(LEVEL);
+        book.mergePage(1, List.of(quest("A", QuestStatus.COMPLETED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertTrue(book.isScanDone());
+    }
+
+    @Test
+    public void levelChangeReadsTheWholeBook() {
+        book.beginScan(LEVEL + 1);
+
+        book.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertFalse(book.isScanDone());
+
+        book.mergePage(2, List.of(quest("C", QuestStatus.CAN_START, 2), quest("D", QuestStatus.CAN_START, 2)));
+        assertFalse(book.isScanDone());
+
+        book.mergePage(3, List.of(quest("E", QuestStatus.COMPLETED, 3)));
+        assertTrue(book.isScanDone());
+        assertEquals(QuestStatus.CAN_START, book.getQuests().get(3).getStatus());
+
+        book.beginScan(LEVEL + 1);
+        book.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertTrue(book.isScanDone());
+    }
+
+    @Test
+    public void savedBookLoadsTheSame() {
+        // a change we only know of from chat, not from the book
+        book.getQuests().get(2).setStatus(QuestStatus.STARTED);
+        book.markDirty(book.getQuests().get(2));
+
+        QuestBook loaded = new QuestBook(PAGES, false);
+        loaded.load(roundTrip(book.save()));
+
+        assertEquals(describe(book.getQuests()), describe(loaded.getQuests()));
+
+        // fingerprints and dirty pages survive, so only the page changed from chat is read again
+        loaded.beginScan(LEVEL);
+        loaded.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        assertFalse(loaded.isScanDone());
+
+        loaded.mergePage(2, List.of(quest("C", QuestStatus.STARTED, 2), quest("D", QuestStatus.CANNOT_START, 2)));
+        assertTrue(loaded.isScanDone());
+    }
+
+    @Test
+    public void unreadPagesAreReadAfterLoading() {
+        QuestBook partial = new QuestBook(PAGES, false);
+        partial.beginScan(LEVEL);
+        partial.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+
+        QuestBook loaded = new QuestBook(PAGES, false);
+        loaded.load(roundTrip(partial.save()));
+        assertEquals(List.of("A", "B"), loaded.getQuests().stream().map(QuestInfo::getName).toList());
+
+        loaded.beginScan(LEVEL);
+        loaded.mergePage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)));
+        loaded.mergePage(2, List.of(quest("C", QuestStatus.CAN_START, 2), quest("D", QuestStatus.CANNOT_START, 2)));
+        assertFalse(loaded.isScanDone());
+        loaded.mergePage(3, List.of(quest("E", QuestStatus.COMPLETED, 3)));
+        assertTrue(loaded.isScanDone());
+    }
+
+    @Test
+    public void bookPagesAreParsedIntoTheBook() {
+        List<QuestInfo> page1 = List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1));
+        List<QuestInfo> page2 = List.of(quest("C", QuestStatus.CAN_START, 2), quest("D", QuestStatus.CANNOT_START, 2));
+        List<QuestInfo> page3 = List.of(quest("E", QuestStatus.COMPLETED, 3));
+        QuestContainerQueries queries = new QuestContainerQueries();
+
+        QuestBook scanned = new QuestBook(PAGES, false);
+        scanned.beginScan(LEVEL);
+        queries.processQuestBookPage(bookPage(1, page1, false), 1, scanned);
+        queries.processQuestBookPage(bookPage(2, page2, false), 2, scanned);
+        assertFalse(scanned.isScanDone());
+        queries.processQuestBookPage(bookPage(3, page3, false), 3, scanned);
+        assertTrue(scanned.isScanDone());
+
+        assertEquals(describe(book.getQuests()), describe(scanned.getQuests()));
+    }
+
+    @Test
+    public void bookPagesStopTheScanAtTheLastDirtyPage() {
+        QuestContainerQueries queries = new QuestContainerQueries();
+        QuestInfo a = book.getQuests().get(0);
+        book.markDirty(book.getQuests().get(2));
+
+        book.beginScan(LEVEL);
+        queries.processQuestBookPage(
+                bookPage(1, List.of(quest("A", QuestStatus.STARTED, 1), quest("B", QuestStatus.CAN_START, 1)), false),
+                1,
+                book);
+        assertFalse(book.isScanDone());
+        assertSame(a, book.getQuests().get(0));
+
+        // C was started, and its task shows up in the book
+        QuestInfo startedC = new QuestInfo(
+                "C",
+                QuestStatus.STARTED,
+                QuestLength.MEDIUM,
+                LEVEL - 5,
+                "Go back to the city",
+                List.of(new Pair<>("Fishing", 10)),
+                false,
+                2,
+                false);
+        queries.processQuestBookPage(
+                bookPage(2, List.of(startedC, quest("D", QuestStatus.CANNOT_START, 2)), false), 2, book);
+        assertTrue(book.isScanDone());
+
+        QuestInfo c = book.getQuests().get(2);
+        assertEquals(QuestStatus.STARTED, c.getStatus());
+        assertEquals("Go back to the city", c.getNextTask());
+    }
+
+    @Test
+    public void miniQuestPagesAreParsedIntoTheBook() {
+        List<QuestInfo> page1 = List.of(
+                new QuestInfo(
+                        "Gather Oak I",
+                        QuestStatus.CAN_START,
+                        QuestLength.SHORT,
+                        1,
+                        "Bring oak logs to the gathering post",
+                        List.of(new Pair<>("Woodcutting", 1)),
+                        true,
+                        1,
+                        false),
+                new QuestInfo(
+                        "Slay Skeletons",
+                        QuestStatus.STARTED,
+                        QuestLength.SHORT,
+                        12,
+                        "Slay 10 skeletons",
+                        List.of(),
+                        true,
+                        1,
+                        true));
+
+        QuestBook miniQuests = new QuestBook(1, true);
+        miniQuests.beginScan(LEVEL);
+        new QuestContainerQueries().processMiniQuestBookPage(bookPage(1, page1, true), 1, miniQuests);
+
+        assertTrue(miniQuests.isScanDone());
+        assertEquals(describe(page1), describe(miniQuests.getQuests()));
+    }
+
+    private void scan(int level, List<QuestInfo> page1, List<QuestInfo> page2, List<QuestInfo> page3) {
+        book.beginScan(level);
+        book.mergePage(1, page1);
+        book.mergePage(2, page2);
+        book.mergePage(3, page3);
+        assertTrue(book.isScanDone());
+    }
+
+    private List<String> getNames() {
+        return book.getQuests().stream().map(QuestInfo::getName).toList();
+    }
+
+    // the same settings the config file is written with
+    private static QuestBook.Saved.Book roundTrip(QuestBook.Saved.Book saved) {
+        Gson gson = new GsonBuilder().serializeNulls().create();
+        return gson.fromJson(gson.toJson(saved), QuestBook.Saved.Book.class);
+    }
+
+    private static List<String> describe(List<QuestInfo> quests) {
+        return quests.stream()
+                .map(quest -> String.join(
+                        " ",
+                        quest.getName(),
+                        quest.getStatus().name(),
+                        quest.getLength().name(),
+                        String.valueOf(quest.getLevel()),
+                        quest.getNextTask(),
+                        quest.getAdditionalRequirements().toString(),
+                        String.valueOf(quest.getPageNumber()),
+                        String.valueOf(quest.isTracked())))
+                .toList();
+    }
+
+    // a page of the book as Wynncraft sends it, with quests in the top-left seven columns
+    private static ContainerContent bookPage(int page, List<QuestInfo> quests, boolean miniQuests) {
+        List<ItemStack> items = new ArrayList<>(Collections.nCopies(54, ItemStack.EMPTY));
+
+        // the dialogue history, where only the quest book has it
+        int slot = 0;
+        if (!miniQuests) {
+            items.set(slot++, item(Items.WRITABLE_BOOK, "§8§lDialogue History", List.of()));
+        }
+
+        for (QuestInfo quest : quests) {
+            if (slot % 9 == 7) {
+                slot += 2;
+            }
+
+            items.set(slot++, questItem(quest));
+        }
+
+        items.set(8, item(Items.GOLDEN_SHOVEL, "§a[§f§lPage " + (page + 1) + "§a >§2>§a>§2>§a>]", List.of()));
+
+        String title = "§0[Pg. " + page + "] §8Player's§0 " + (miniQuests ? "Mini-Quests" : "Quests");
+        return new ContainerContent(items, new TextComponent(title), MenuType.GENERIC_9x6, 1);
+    }
+
+    private static ItemStack questItem(QuestInfo quest) {
+        String name = (quest.getStatus() == QuestStatus.COMPLETED ? "§a§l" : "§e§l")
+                + (quest.isMiniQuest() ? "Mini-Quest - " : "")
+                + quest.getName()
+                + "ÀÀÀ "
+                + (quest.isTracked() ? "§e[Tracked]" : "");
+
+        List<String> lore = new ArrayList<>();
+        lore.add(
+                switch (quest.getStatus()) {
+                    case STARTED -> "§eStarted...";
+                    case CAN_START -> "§eCan start...";
+                    case CANNOT_START -> "§cCannot start...";
+                    case COMPLETED -> "§aCompleted!";
+                });
+        lore.add("");
+        // the very first quests have no combat level requirement
+        if (quest.getLevel() > 1) {
+            lore.add("§a✔§r§7 Combat Lv. Min: §r§f" + quest.getLevel());
+        }
+        for (Pair<String, Integer> requirement : quest.getAdditionalRequirements()) {
+            lore.add("§a✔§r§7 " + requirement.a() + " Lv. Min: §r§f" + requirement.b());
+        }
+        String length = quest.getLength().name();
+        lore.add("§a-§r§7 Length: §r§f" + length.charAt(0) + length.substring(1).toLowerCase(Locale.ROOT));
+        lore.add("");
+
+        // descriptions are wrapped over several lines
+        String task = quest.getNextTask();
+        int wrap = task.lastIndexOf(' ');
+        lore.add("§7" + task.substring(0, wrap));
+        lore.add("§7" + task.substring(wrap + 1));
+
+        lore.add("");
+        lore.add(quest.isTracked() ? "§c§lRIGHT-CLICK TO UNTRACK" : "§a§lRIGHT-CLICK TO TRACK");
+
+        return item(Items.WRITTEN_BOOK, name, lore);
+    }
+
+    private static ItemStack item(Item item, String name, List<String> lore) {
+        ItemStack itemStack = new ItemStack(item);
+        itemStack.setHoverName(new TextComponent(name));
+
+        ListTag loreTag = new ListTag();
+        for (String line : lore) {
+            loreTag.add(ItemUtils.toLoreStringTag(line));
+        }
+        itemStack.getOrCreateTagElement("display").put("Lore", loreTag);
+
+        return itemStack;
+    }
+
+    private static QuestInfo quest(String name, QuestStatus status, int page) {
+        return new QuestInfo(
+                name,
+                status,
+                QuestLength.MEDIUM,
+                LEVEL - 5,
+                "Talk to someone in [100, 64, -200]",
+                List.of(new Pair<>("Fishing", 10)),
+                false,
+                page,
+                name.equals("A"));
+    }
+}
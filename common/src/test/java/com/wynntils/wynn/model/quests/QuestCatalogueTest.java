@@ -0,0 +1,193 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.quests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.wynntils.core.webapi.profiles.TerritoryProfile;
+import com.wynntils.mc.objects.Location;
+import com.wynntils.utils.Pair;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Predicate;
+import net.minecraft.world.phys.Vec3;
+import org.junit.jupiter.api.Test;
+
+public class QuestCatalogueTest {
+    private static final int CATALOGUES = 40;
+    private static final int QUERIES = 50;
+    // Spans many grid cells on both sides of zero, like the Wynncraft map does
+    private static final int MAP_SIZE = 4000;
+
+    private static final List<Predicate<QuestInfo>> FILTERS = List.of(
+            quest -> true,
+            quest -> quest.getStatus() == QuestStatus.CAN_START,
+            quest -> quest.getLevel() < 20,
+            // matches nothing
+            quest -> false);
+
+    @Test
+    public void nearestQuestMatchesBruteForce() {
+        Random random = new Random(20221019L);
+
+        for (int i = 0; i < CATALOGUES; i++) {
+            List<QuestInfo> quests = createQuests(random);
+            QuestCatalogue catalogue = new QuestCatalogue(quests);
+
+            for (int query = 0; query < QUERIES; query++) {
+                // mostly on the map, sometimes far outside of it
+                int range = random.nextInt(5) == 0 ? MAP_SIZE * 4 : MAP_SIZE;
+                Vec3 position = new Vec3(
+                        random.nextDouble() * range * 2 - range,
+                        random.nextDouble() * 256,
+                        random.nextDouble() * range * 2 - range);
+
+                for (int filter = 0; filter < FILTERS.size(); filter++) {
+                    String message = "catalogue " + i + ", query " + query + ", filter " + filter + " at " + position;
+                    Optional<QuestInfo> expected = findNearest(quests, position, FILTERS.get(filter));
+                    Optional<QuestInfo> actual = catalogue.getNearestQuest(position, FILTERS.get(filter));
+
+                    assertEquals(expected.isPresent(), actual.isPresent(), message);
+                    if (expected.isEmpty()) continue;
+
+                    // quests at the same distance are equally near, so compare distances
+                    assertEquals(
+                            getDistanceSqr(expected.get(), position), getDistanceSqr(actual.get(), position), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void levelRangesMatchBruteForce() {
+        Random random = new Random(20221020L);
+
+        for (int i = 0; i < CATALOGUES; i++) {
+            List<QuestInfo> quests = createQuests(random);
+            QuestCatalogue catalogue = new QuestCatalogue(quests);
+
+            for (int query = 0; query < QUERIES; query++) {
+                // including empty and reversed ranges, and ranges beyond every level
+                int minLevel = random.nextInt(130) - 10;
+                int maxLevel = minLevel + random.nextInt(40) - 5;
+
+                List<QuestInfo> expected = quests.stream()
+                        .filter(quest -> quest.getSortLevel() >= minLevel && quest.getSortLevel() <= maxLevel)
+                        .sorted(Comparator.comparing(QuestInfo::getSortLevel))
+                        .toList();
+
+                assertEquals(
+                        getNames(expected),
+                        getNames(catalogue.getQuestsInLevelRange(minLevel, maxLevel)),
+                        "catalogue " + i + ", levels " + minLevel + " to " + maxLevel);
+            }
+        }
+    }
+
+    @Test
+    public void regionsMatchBruteForce() {
+        Random random = new Random(20221021L);
+
+        for (int i = 0; i < CATALOGUES; i++) {
+            List<QuestInfo> quests = createQuests(random);
+            QuestCatalogue catalogue = new QuestCatalogue(quests);
+
+            for (int query = 0; query < QUERIES; query++) {
+                // corners in any order, as territories are given
+                int startX = random.nextInt(MAP_SIZE * 2) - MAP_SIZE;
+                int startZ = random.nextInt(MAP_SIZE * 2) - MAP_SIZE;
+                int endX = startX + random.nextInt(1200) - 600;
+                int endZ = startZ + random.nextInt(1200) - 600;
+                TerritoryProfile territory = new TerritoryProfile(
+                        "Territory", "Territory", "TST", null, 1, startX, startZ, endX, endZ, null, null, null);
+
+                List<QuestInfo> expected = quests.stream()
+                        .filter(quest -> quest.getNextLocation()
+                                .map(location -> territory.insideArea((int) location.x, (int) location.z))
+                                .orElse(false))
+                        .toList();
+
+                // the grid has no particular order
+                assertEquals(
+                        getSortedNames(expected),
+                        getSortedNames(catalogue.getQuestsInRegion(territory)),
+                        "catalogue " + i + ", " + startX + "," + startZ + " to " + endX + "," + endZ);
+            }
+        }
+    }
+
+    private static Optional<QuestInfo> findNearest(List<QuestInfo> quests, Vec3 position, Predicate<QuestInfo> filter) {
+        QuestInfo nearest = null;
+        double nearestDistanceSqr = Double.MAX_VALUE;
+
+        for (QuestInfo quest : quests) {
+            if (!filter.test(quest) || quest.getNextLocation().isEmpty()) continue;
+
+            double distanceSqr = getDistanceSqr(quest, position);
+            if (distanceSqr < nearestDistanceSqr) {
+                nearest = quest;
+                nearestDistanceSqr = distanceSqr;
+            }
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    private static double getDistanceSqr(QuestInfo quest, Vec3 position) {
+        Location location = quest.getNextLocation().orElseThrow();
+        return position.distanceToSqr(location.toVec3());
+    }
+
+    private static List<String> getNames(List<QuestInfo> quests) {
+        return quests.stream().map(QuestInfo::getName).toList();
+    }
+
+    private static List<String> getSortedNames(List<QuestInfo> quests) {
+        return quests.stream().map(QuestInfo::getName).sorted().toList();
+    }
+
+    private static List<QuestInfo> createQuests(Random random) {
+        int count = random.nextInt(300);
+        // a few quests share a town, so cells hold several of them
+        int townX = random.nextInt(MAP_SIZE * 2) - MAP_SIZE;
+        int townZ = random.nextInt(MAP_SIZE * 2) - MAP_SIZE;
+
+        List<QuestInfo> quests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String nextTask;
+            int kind = random.nextInt(10);
+            if (kind < 2) {
+                nextTask = "Talk to the villager in the town hall";
+            } else if (kind < 4) {
+                nextTask = "Go to [" + (townX + random.nextInt(64)) + ", " + random.nextInt(128) + ", "
+                        + (townZ + random.nextInt(64)) + "]";
+            } else {
+                nextTask = "Go to [" + (random.nextInt(MAP_SIZE * 2) - MAP_SIZE) + ", " + random.nextInt(128) + ", "
+                        + (random.nextInt(MAP_SIZE * 2) - MAP_SIZE) + "]";
+            }
+
+            boolean miniQuest = random.nextInt(4) == 0;
+            List<Pair<String, Integer>> requirements = miniQuest && random.nextBoolean()
+                    ? List.of(new Pair<>("Mining", 1 + random.nextInt(110)))
+                    : List.of();
+
+            quests.add(new QuestInfo(
+                    "Quest " + i,
+                    QuestStatus.values()[random.nextInt(QuestStatus.values().length)],
+                    QuestLength.values()[random.nextInt(QuestLength.values().length)],
+                    1 + random.nextInt(110),
+                    nextTask,
+                    requirements,
+                    miniQuest,
+                    1,
+                    false));
+        }
+
+        return quests;
+    }
+}
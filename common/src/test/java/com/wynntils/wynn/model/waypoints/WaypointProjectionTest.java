@@ -0,0 +1,122 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.model.waypoints;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mojang.math.Matrix4f;
+import com.mojang.math.Vector4f;
+import org.junit.jupiter.api.Test;
+
+public class WaypointProjectionTest {
+    private static final float DELTA = 1e-4f;
+    private static final float NEAR = 0.05f;
+    private static final float FAR = 1000f;
+
+    // a square window with a 90 degree field of view, so x and y in ndc are x / depth and y / depth
+    private static final Matrix4f PROJECTION = Matrix4f.perspective(90, 1f, NEAR, FAR);
+
+    private final Vector4f scratch = new Vector4f();
+    private final float[] out = new float[6];
+
+    @Test
+    public void identityKeepsThePosition() {
+        Matrix4f identity = new Matrix4f();
+        identity.setIdentity();
+
+        // written after whatever is before the offset
+        out[0] = 42f;
+        WaypointProjection.project(identity, 1.5f, -2f, 0.25f, scratch, out, 3);
+
+        assertNdc(1.5f, -2f, 0.25f, 3);
+        assertEquals(42f, out[0]);
+    }
+
+    @Test
+    public void translationIsApplied() {
+        Matrix4f translation = Matrix4f.createTranslateMatrix(1f, 2f, 3f);
+
+        WaypointProjection.project(translation, 1f, 1f, 1f, scratch, out, 0);
+
+        assertNdc(2f, 3f, 4f, 0);
+    }
+
+    @Test
+    public void perspectiveDividesByDepth() {
+        WaypointProjection.project(PROJECTION, 5f, 2.5f, -10f, scratch, out, 0);
+        assertEquals(0.5f, out[0], DELTA);
+        assertEquals(0.25f, out[1], DELTA);
+
+        // the near and far planes end up at -1 and 1
+        WaypointProjection.project(PROJECTION, 0f, 0f, -NEAR, scratch, out, 0);
+        assertNdc(0f, 0f, -1f, 0);
+
+        WaypointProjection.project(PROJECTION, 0f, 0f, -FAR, scratch, out, 0);
+        assertNdc(0f, 0f, 1f, 0);
+
+        // a point on the right edge of the view
+        WaypointProjection.project(PROJECTION, 100f, 0f, -100f, scratch, out, 0);
+        assertEquals(1f, out[0], DELTA);
+    }
+
+    @Test
+    public void pointsBehindTheCameraArePastTheFarPlane() {
+        WaypointProjection.project(PROJECTION, 0f, 0f, 10f, scratch, out, 0);
+
+        assertTrue(out[2] > 1f, "ndc z " + out[2]);
+    }
+
+    @Test
+    public void cameraLookingSouth() {
+        Matrix4f viewProjection = WaypointProjection.getViewProjection(PROJECTION, 0f, 0f);
+
+        // straight ahead is south, towards positive z
+        WaypointProjection.project(viewProjection, 0f, 0f, 10f, scratch, out, 0);
+        assertNdc(0f, 0f, getNdcZ(10f), 0);
+
+        // east is on the left, up is up
+        WaypointProjection.project(viewProjection, 5f, 5f, 10f, scratch, out, 0);
+        assertEquals(-0.5f, out[0], DELTA);
+        assertEquals(0.5f, out[1], DELTA);
+    }
+
+    @Test
+    public void cameraLookingEast() {
+        Matrix4f viewProjection = WaypointProjection.getViewProjection(PROJECTION, 0f, -90f);
+
+        WaypointProjection.project(viewProjection, 20f, 0f, 0f, scratch, out, 0);
+        assertNdc(0f, 0f, getNdcZ(20f), 0);
+
+        // south is on the right
+        WaypointProjection.project(viewProjection, 20f, 0f, 10f, scratch, out, 0);
+        assertEquals(0.5f, out[0], DELTA);
+        assertEquals(0f, out[1], DELTA);
+    }
+
+    @Test
+    public void cameraLookingDown() {
+        Matrix4f viewProjection = WaypointProjection.getViewProjection(PROJECTION, 90f, 0f);
+
+        WaypointProjection.project(viewProjection, 0f, -10f, 0f, scratch, out, 0);
+        assertNdc(0f, 0f, getNdcZ(10f), 0);
+
+        // looking down while facing south, south is at the top of the screen
+        WaypointProjection.project(viewProjection, 0f, -10f, 5f, scratch, out, 0);
+        assertEquals(0f, out[0], DELTA);
+        assertEquals(0.5f, out[1], DELTA);
+    }
+
+    private void assertNdc(float x, float y, float z, int offset) {
+        assertEquals(x, out[offset], DELTA, "ndc x");
+        assertEquals(y, out[offset + 1], DELTA, "ndc y");
+        assertEquals(z, out[offset + 2], DELTA, "ndc z");
+    }
+
+    // where a point straight ahead at this depth ends up, from the standard perspective matrix
+    private static float getNdcZ(float depth) {
+        return ((FAR + NEAR) / (NEAR - FAR) * -depth + 2 * FAR * NEAR / (NEAR - FAR)) / depth;
+    }
+}
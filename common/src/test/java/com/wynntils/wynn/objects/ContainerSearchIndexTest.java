@@ -0,0 +1,180 @@
+/*
+ * Copyright © Wynntils 2022.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.wynn.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wynntils.testing.GearItemStackBuilder;
+import com.wynntils.testing.ItemFixture;
+import com.wynntils.wynn.item.GearItemStack;
+import com.wynntils.wynn.item.properties.ItemTierProperty;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.ChestMenu;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ContainerSearchIndexTest {
+    private static final int WARP_SLOT = 0;
+    private static final int MOONTOWER_SLOT = 1;
+    private static final int RING_SLOT = 2;
+    private static final int EMERALD_SLOT = 3;
+
+    // first hotbar slot of a three row chest menu
+    private static final int HOTBAR_SLOT = 27 + 27;
+
+    private SimpleContainer container;
+    private ChestMenu menu;
+    private ContainerSearchIndex index;
+
+    @BeforeAll
+    public static void setup() {
+        ItemFixture.load();
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        ItemFixture.restore();
+    }
+
+    @BeforeEach
+    public void createMenu() {
+        container = new SimpleContainer(27);
+        container.setItem(WARP_SLOT, gear("Warp"));
+        container.setItem(MOONTOWER_SLOT, gear("Moontower's Masterpiece"));
+        container.setItem(RING_SLOT, gear("Ring of Generosity"));
+        container.setItem(EMERALD_SLOT, new ItemStack(Items.EMERALD).setHoverName(new TextComponent("Emerald Pouch")));
+
+        Inventory inventory = new Inventory(null);
+        inventory.setItem(0, gear("Warp"));
+
+        menu = new ChestMenu(MenuType.GENERIC_9x3, 1, inventory, container, 3);
+        index = new ContainerSearchIndex(menu);
+    }
+
+    @Test
+    public void nameSearchSkipsPlayerInventory() {
+        assertTrue(index.setQuery("warp"));
+
+        assertEquals(List.of(WARP_SLOT), getMatches());
+        assertFalse(index.isMatch(HOTBAR_SLOT));
+    }
+
+    @Test
+    public void itemsWithoutPropertiesAreIndexed() {
+        assertTrue(index.setQuery("emerald pouch"));
+
+        assertEquals(List.of(EMERALD_SLOT), getMatches());
+    }
+
+    @Test
+    public void loreSearch() {
+        assertTrue(index.setQuery("lore:relic"));
+        assertEquals(List.of(MOONTOWER_SLOT), getMatches());
+
+        assertTrue(index.setQuery("lore:untradable"));
+        assertEquals(List.of(RING_SLOT), getMatches());
+
+        assertFalse(index.setQuery("lore:relic lore:untradable"));
+        assertEquals(List.of(), getMatches());
+    }
+
+    @Test
+    public void tierSearch() {
+        assertTrue(index.setQuery("rarity:mythic"));
+        assertEquals(List.of(WARP_SLOT), getMatches());
+
+        assertTrue(index.setQuery("tier:leg"));
+        assertEquals(List.of(MOONTOWER_SLOT), getMatches());
+
+        assertTrue(index.setQuery("ring tier:unique"));
+        assertEquals(List.of(RING_SLOT), getMatches());
+
+        assertFalse(index.setQuery("ring tier:mythic"));
+        assertEquals(List.of(), getMatches());
+    }
+
+    @Test
+    public void identificationSearch() {
+        assertTrue(index.setQuery("id:walkspeed"));
+        assertEquals(List.of(WARP_SLOT, MOONTOWER_SLOT), getMatches());
+
+        assertTrue(index.setQuery("id:walkspeed lore:relic"));
+        assertEquals(List.of(MOONTOWER_SLOT), getMatches());
+    }
+
+    @Test
+    public void changedSlotsAreReindexedOnRefresh() {
+        assertTrue(index.setQuery("rarity:mythic"));
+        assertEquals(List.of(WARP_SLOT), getMatches());
+
+        container.setItem(MOONTOWER_SLOT, gear("Epoch"));
+        // not invalidated yet, so the old item is still indexed
+        assertFalse(index.refresh());
+        assertEquals(List.of(WARP_SLOT), getMatches());
+
+        index.invalidateSlot(MOONTOWER_SLOT);
+        assertTrue(index.refresh());
+        assertEquals(List.of(WARP_SLOT, MOONTOWER_SLOT), getMatches());
+
+        container.setItem(WARP_SLOT, ItemStack.EMPTY);
+        index.invalidateSlot(WARP_SLOT);
+        assertFalse(index.refresh());
+        assertEquals(List.of(MOONTOWER_SLOT), getMatches());
+
+        // changes to the player inventory are never indexed
+        menu.getSlot(HOTBAR_SLOT).set(gear("Epoch"));
+        index.invalidateSlot(HOTBAR_SLOT);
+        assertFalse(index.refresh());
+        assertEquals(List.of(MOONTOWER_SLOT), getMatches());
+    }
+
+    @Test
+    public void newQueryUsesReindexedSlots() {
+        container.setItem(RING_SLOT, gear("Kickback"));
+        index.invalidateSlot(RING_SLOT);
+
+        assertTrue(index.setQuery("tier:rare"));
+        assertEquals(List.of(RING_SLOT), getMatches());
+
+        assertFalse(index.setQuery("lore:untradable"));
+    }
+
+    @Test
+    public void emptyQueryMatchesNothing() {
+        assertFalse(index.setQuery("   "));
+        assertEquals(List.of(), getMatches());
+
+        assertFalse(index.setQuery("lore: tier:"));
+        assertEquals(List.of(), getMatches());
+    }
+
+    private List<Integer> getMatches() {
+        List<Integer> matches = new ArrayList<>();
+        for (int slot = 0; slot < menu.slots.size(); slot++) {
+            if (index.isMatch(slot)) {
+                matches.add(slot);
+            }
+        }
+        return matches;
+    }
+
+    private static GearItemStack gear(String itemName) {
+        GearItemStack item = GearItemStackBuilder.of(itemName).build();
+        // attached by ItemStackTransformModel in game
+        new ItemTierProperty(item);
+        return item;
+    }
+}